@@ -31,6 +31,12 @@ public class ExecuteMetahframe{
       }
 
       metahframe= new Metahframe();
+      if(args.length > 5){
+         metahframe.setExactSolverTimeLimit(Long.parseLong(args[5]) * 1000); //sixth parameter is the time limit in seconds of the exact solver
+      }
+      if(args.length > 6){
+         metahframe.setPheromoneDirectory(new File(args[6])); //seventh parameter is the directory of the ant algorithms pheromone
+      }
 
       File[] instances = instancesHandler.getInstances();
       InstancesHandler ih = null;
@@ -43,10 +49,13 @@ public class ExecuteMetahframe{
             //metahframe.solve(instancesHandler.getInstances(), problem, algorithm, numberOfRuns, numberOfFitnessEvaluations);
             System.out.println("Executing " + algorithm + " for instance " + instances[i].getName() + " and gamma = " + gammaPercentages[j] + "%");
             metahframe.solve(ih.getInstances(), problem, algorithm, numberOfRuns, numberOfFitnessEvaluations, gammaPercentages[j]);
-            statisticalAnalyzer = new StatisticalAnalyzer(metahframe.solutions, metahframe.runTimes);
+            statisticalAnalyzer = new StatisticalAnalyzer(metahframe.solutions, metahframe.runTimes, metahframe.optimalSolutions,
+                                                            metahframe.optimalSolutionsProved);
+            statisticalAnalyzer.setFitnessCacheHitRates(metahframe.fitnessCacheHitRates);
             //resultsWriter = new ResultsWriter(statisticalAnalyzer, instancesHandler);
             //resultsWriter = new ResultsWriter(statisticalAnalyzer, instancesHandler, algorithm, gammaPercentages[i]);
             resultsWriter = new ResultsWriter(statisticalAnalyzer, ih, algorithm, gammaPercentages[j]);
+            resultsWriter.setProfileSummaries(metahframe.profileSummaries);
             //resultsWriter.printResults();
             resultsWriter.writeResults();
          }
@@ -1,9 +1,14 @@
 import algorithms.Algorithm;
+import algorithms.acs.ACS;
+import algorithms.antq.AntQ;
+import algorithms.ga.GeneticAlgorithm;
+import algorithms.profiling.ProfiledAlgorithm;
 
 import statistics.StatisticalAnalyzer;
 
 import io.ResultsWriter;
 import io.InstancesHandler;
+import io.PheromoneStore;
 
 import problems.tsp.TSPProblem;
 import problems.tsp.TSPAntQ;
@@ -22,6 +27,7 @@ import problems.rnrp.RobustNextReleaseProblem;
 import problems.rnrp.RobustNRPSimulatedAnnealing;
 import problems.rnrp.RobustNRPGeneticAlgorithm;
 import problems.rnrp.RobustNRPRandomAlgorithm;
+import problems.rnrp.RobustNRPExactSolver;
 import problems.rrnrp.RecoverableRobustNextReleaseProblem;
 import problems.rrnrp.RecoverableRobustNRPGeneticAlgorithm;
 
@@ -31,38 +37,66 @@ public class Metahframe{
 
    double[][] solutions;
    double[][] runTimes;
+   String[][] profileSummaries; //null for the runs without profiling
+   double[][] fitnessCacheHitRates; //null when the algorithm has no fitness cache
+   double[] optimalSolutions; //null when the exact solver is not run
+   boolean[] optimalSolutionsProved; //false when the optimal solution is only an upper bound
+   long exactSolverTimeLimit; //milliseconds, 0 does not run the exact solver
+   File pheromoneDirectory; //null does not save or load the pheromone of the ant algorithms
 
    //public void solve(File[] instances, String problem, String algorithm, int numberOfRuns, int numberOfFitnessEvaluations){
    public void solve(File[] instances, String problem, String algorithm, int numberOfRuns, int numberOfFitnessEvaluations, int gammaPercentage){
       Algorithm adaptedAlgorithm = null;
       solutions = new double[instances.length][numberOfRuns];
       runTimes = new double[instances.length][numberOfRuns];
+      profileSummaries = new String[instances.length][numberOfRuns];
+      fitnessCacheHitRates = null;
+      optimalSolutions = null;
+      optimalSolutionsProved = null;
+      if(problem.equals("rnrp") && exactSolverTimeLimit > 0){
+         optimalSolutions = new double[instances.length];
+         optimalSolutionsProved = new boolean[instances.length];
+      }
 
       for(int i = 0; i <= instances.length - 1; i++){
+         if(optimalSolutions != null){
+            solveExactly(new RobustNextReleaseProblem(instances[i], gammaPercentage), i);
+         }
+
          for(int j = 0; j <= numberOfRuns - 1; j++){
             if(algorithm.equals("antq")){
-               //if(problem.equals("tsp")){
-                  //TSPProblem tspProblem = new TSPProblem(instances[i]);
-                  //adaptedAlgorithm = new TSPAntQ(tspProblem, iterationsPerRun);
-               //}
-               //else if(problem.equals("jssp")){
-                  //JSSPProblem jsspProblem = new JSSPProblem(instances[i]);
-                  //adaptedAlgorithm = new JSSPAntQ(jsspProblem, iterationsPerRun);
-               //}
-               //else if(problem.equals("srpp")){
-                  //SRPPProblem srppProblem = new SRPPProblem(instances[i]);
-                  //adaptedAlgorithm = new SRPPAntQ(srppProblem, iterationsPerRun);
-               //}
-            //}
-            //else if(algorithm.equals("acs")){
-               //if(problem.equals("tsp")){
-                  //TSPProblem tspProblem = new TSPProblem(instances[i]);
-                  //adaptedAlgorithm = new TSPACS(tspProblem, iterationsPerRun);
-               //}
-               //else if(problem.equals("jssp")){
-                  //JSSPProblem jsspProblem = new JSSPProblem(instances[i]);
-                  //adaptedAlgorithm = new JSSPACS(jsspProblem, iterationsPerRun);
-               //}
+               AntQ antQ = null;
+               if(problem.equals("tsp")){
+                  TSPProblem tspProblem = new TSPProblem(instances[i]);
+                  antQ = new TSPAntQ(tspProblem, numberOfFitnessEvaluations);
+               }
+               else if(problem.equals("jssp")){
+                  JSSPProblem jsspProblem = new JSSPProblem(instances[i]);
+                  antQ = new JSSPAntQ(jsspProblem, numberOfFitnessEvaluations);
+               }
+               else if(problem.equals("srpp")){
+                  SRPPProblem srppProblem = new SRPPProblem(instances[i]);
+                  antQ = new SRPPAntQ(srppProblem, numberOfFitnessEvaluations);
+               }
+               if(pheromoneDirectory != null && antQ != null){
+                  antQ.setPheromoneStore(new PheromoneStore(pheromoneDirectory, instances[i], algorithm));
+               }
+               adaptedAlgorithm = antQ;
+            }
+            else if(algorithm.equals("acs")){
+               ACS acs = null;
+               if(problem.equals("tsp")){
+                  TSPProblem tspProblem = new TSPProblem(instances[i]);
+                  acs = new TSPACS(tspProblem, numberOfFitnessEvaluations);
+               }
+               else if(problem.equals("jssp")){
+                  JSSPProblem jsspProblem = new JSSPProblem(instances[i]);
+                  acs = new JSSPACS(jsspProblem, numberOfFitnessEvaluations);
+               }
+               if(pheromoneDirectory != null && acs != null){
+                  acs.setPheromoneStore(new PheromoneStore(pheromoneDirectory, instances[i], algorithm));
+               }
+               adaptedAlgorithm = acs;
             }
             else if(algorithm.equals("random")){
                //if(problem.equals("tsp")){
@@ -113,8 +147,55 @@ public class Metahframe{
 
             solutions[i][j] = adaptedAlgorithm.getSolution();
             runTimes[i][j] = adaptedAlgorithm.getTotalTime();
+            if(adaptedAlgorithm instanceof ProfiledAlgorithm){
+               profileSummaries[i][j] = ((ProfiledAlgorithm) adaptedAlgorithm).getProfileSummary();
+            }
+            if(adaptedAlgorithm instanceof GeneticAlgorithm && ((GeneticAlgorithm) adaptedAlgorithm).hasFitnessCache() == true){
+               if(fitnessCacheHitRates == null){
+                  fitnessCacheHitRates = new double[instances.length][numberOfRuns];
+               }
+               fitnessCacheHitRates[i][j] = ((GeneticAlgorithm) adaptedAlgorithm).getFitnessCacheHitRate();
+            }
 
          }
       }
    }
+
+   /**
+    * Method to set the directory where the ant algorithms save their pheromone, so each run is warm started by the previous one.
+    *
+    * @author Matheus Paixao
+    * @param pheromoneDirectory the directory of the pheromone states, null to not use them
+    * @see PheromoneStore
+    */
+   public void setPheromoneDirectory(File pheromoneDirectory){
+      this.pheromoneDirectory = pheromoneDirectory;
+   }
+
+   /**
+    * Method to set the time limit of the exact solver, run before the metaheuristics to get the gaps of their results.
+    *
+    * @author Matheus Paixao
+    * @param exactSolverTimeLimit the time limit in milliseconds, 0 does not run the exact solver
+    */
+   public void setExactSolverTimeLimit(long exactSolverTimeLimit){
+      this.exactSolverTimeLimit = exactSolverTimeLimit;
+   }
+
+   /**
+    * Method to solve the instance with the RobustNRPExactSolver, so the metaheuristics results are compared with its optimal value.
+    *
+    * If the time limit ends before the optimality is proved, the value is the upper bound of the solver.
+    * @author Matheus Paixao
+    * @param robustNRP the RobustNextReleaseProblem object
+    * @param instanceIndex the index of the instance
+    */
+   private void solveExactly(RobustNextReleaseProblem robustNRP, int instanceIndex){
+      RobustNRPExactSolver exactSolver = new RobustNRPExactSolver(robustNRP);
+
+      exactSolver.setTimeLimit(exactSolverTimeLimit);
+      exactSolver.getSolution();
+      optimalSolutions[instanceIndex] = exactSolver.getUpperBound();
+      optimalSolutionsProved[instanceIndex] = exactSolver.isOptimal();
+   }
 }
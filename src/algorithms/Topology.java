@@ -0,0 +1,46 @@
+package algorithms;
+
+/**
+ * Enum to describe how parallel populations (colonies, islands, chains) are connected
+ * when they exchange information.
+ *
+ * In the RING topology each population only receives from the previous one.
+ * In the ALL_TO_ALL topology each population receives from all the others.
+ *
+ * @author Matheus Paixao
+ */
+public enum Topology{
+   RING,
+   ALL_TO_ALL;
+
+   /**
+    * Method to get the populations that send information to a population.
+    *
+    * @author Matheus Paixao
+    * @param index the index of the population that receives
+    * @param numberOfPopulations the total number of populations
+    * @return array with the indexes of the populations that send to the passed one
+    */
+   public int[] getSources(int index, int numberOfPopulations){
+      int[] sources = null;
+
+      if(numberOfPopulations <= 1){
+         sources = new int[0];
+      }
+      else if(this == RING){
+         sources = new int[1];
+         sources[0] = (index + numberOfPopulations - 1) % numberOfPopulations;
+      }
+      else{
+         sources = new int[numberOfPopulations - 1];
+         for(int i = 0, j = 0; i <= numberOfPopulations - 1; i++){
+            if(i != index){
+               sources[j] = i;
+               j++;
+            }
+         }
+      }
+
+      return sources;
+   }
+}
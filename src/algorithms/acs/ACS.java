@@ -2,6 +2,11 @@ package algorithms.acs;
 
 import algorithms.Algorithm;
 import algorithms.acs.ACSAnt;
+import algorithms.multicolony.Colony;
+import algorithms.profiling.AntProfiler;
+import algorithms.profiling.ProfiledAlgorithm;
+import io.PheromoneState;
+import io.PheromoneStore;
 
 import java.util.ArrayList;
 import java.util.Random;
@@ -20,9 +25,15 @@ import java.util.Random;
  *
  * The ants array stores the ants that are acting in the algorithm.  
  *
+ * When a PheromoneStore is set, the pheromone matrix is loaded from it before the first
+ * iteration, and the pheromone matrix and the best so far solution are saved in it after the last one.
+ *
+ * The best so far solution is kept between iterations, so the algorithm can also
+ * be runned iteration by iteration as a colony of a MultiColonySystem.
+ *
  * @author Matheus Paixao
  */
-public abstract class ACS implements Algorithm{
+public abstract class ACS implements Algorithm, Colony, ProfiledAlgorithm{
    //Initialization Constants
    private double q0;
    private double beta;
@@ -35,6 +46,12 @@ public abstract class ACS implements Algorithm{
    protected ACSAnt[] ants;
    protected ACSAnt currentAnt;
 
+   private Integer[] bestSolution;
+   private double bestSolutionValue;
+
+   private PheromoneStore pheromoneStore;
+   private AntProfiler profiler;
+
    private int numberOfIterations;
    private double totalTime;
 
@@ -96,43 +113,24 @@ public abstract class ACS implements Algorithm{
     *
     * @author Matheus Paixao
     * @return solution founded by the algorithm
-    * @see initACS
+    * @see initColony
     * @see getNumberOfIterations
-    * @see getIterationSolution
-    * @see calculateSolutionValue
-    * @see isSolutionBest
+    * @see runColonyIteration
+    * @see save in PheromoneStore class
     */
    public double getSolution(){
       double initialTime = 0;
       double finalTime = 0;
 
-      Integer[] iterationSolution = null;
-      double iterationSolutionValue = 0;
-      Integer[] bestSolution = null;
-      double bestSolutionValue = 0;
-
       int iterationsCounter = 0;
 
-      initACS();
+      initColony();
 
       initialTime = System.currentTimeMillis();
       while(iterationsCounter < getNumberOfIterations()){
-         iterationSolution = getIterationSolution();
-         iterationSolutionValue = calculateSolutionValue(iterationSolution);
+         runColonyIteration();
 
-         //System.out.println("iteration "+ iterationsCounter + " -> " + iterationSolutionValue);
-
-         if(bestSolution == null){
-            bestSolution = iterationSolution;
-            bestSolutionValue = iterationSolutionValue;
-         }
-         else{
-            if(isSolutionBest(iterationSolutionValue, bestSolutionValue) == true){
-               //System.out.println("found best solution");
-               bestSolution = iterationSolution;
-               bestSolutionValue = iterationSolutionValue;
-            }
-         }
+         //System.out.println("iteration "+ iterationsCounter + " -> " + bestSolutionValue);
 
          iterationsCounter++;
       }
@@ -140,9 +138,193 @@ public abstract class ACS implements Algorithm{
       finalTime = System.currentTimeMillis();
       setTotalTime(finalTime - initialTime);
 
+      if(pheromoneStore != null && bestSolution != null){ //without iterations there is no tour to save
+         pheromoneStore.save(new PheromoneState(getColonyPheromone(), getBestColonyTour(), bestSolutionValue));
+      }
+
+      endColony();
+
       return bestSolutionValue;
    }
 
+   public void endColony(){
+      if(AntProfiler.ENABLED){
+         profiler.endRun();
+      }
+   }
+
+   public String getProfileSummary(){
+      if(profiler == null){
+         return null;
+      }
+
+      return profiler.getSummary();
+   }
+
+   /**
+    * Method to prepare the algorithm to run its first iteration.
+    *
+    * @author Matheus Paixao
+    * @see initACS
+    * @see loadPheromoneState
+    */
+   public void initColony(){
+      if(AntProfiler.ENABLED){
+         profiler = new AntProfiler(getClass().getSimpleName());
+      }
+
+      initACS();
+
+      bestSolution = null;
+      bestSolutionValue = 0;
+
+      if(pheromoneStore != null){
+         loadPheromoneState();
+      }
+   }
+
+   public void setPheromoneStore(PheromoneStore pheromoneStore){
+      this.pheromoneStore = pheromoneStore;
+   }
+
+   public AntProfiler getProfiler(){
+      return this.profiler;
+   }
+
+   /**
+    * Method to warm start the algorithm with the state saved by a previous run.
+    *
+    * The uniform pheromone matrix is replaced by the saved one. The saved best tour is not
+    * loaded, so the best so far solution is only the one found by this run.
+    * Nothing is done if there isn't a saved state for the instance.
+    * @author Matheus Paixao
+    * @see load in PheromoneStore class
+    */
+   private void loadPheromoneState(){
+      PheromoneState state = pheromoneStore.load(pheromone.length);
+      double[][] savedPheromone = null;
+
+      if(state != null){
+         savedPheromone = state.getPheromone();
+         for(int i = 0; i <= pheromone.length - 1; i++){
+            System.arraycopy(savedPheromone[i], 0, pheromone[i], 0, pheromone[i].length);
+         }
+      }
+   }
+
+   /**
+    * Method to run one iteration of the algorithm and update the best so far solution.
+    *
+    * @author Matheus Paixao
+    * @see getIterationSolution
+    * @see calculateSolutionValue
+    * @see isSolutionBest
+    */
+   public void runColonyIteration(){
+      Integer[] iterationSolution = getIterationSolution();
+      double iterationSolutionValue = calculateSolutionValue(iterationSolution);
+
+      if(bestSolution == null){
+         bestSolution = iterationSolution;
+         bestSolutionValue = iterationSolutionValue;
+      }
+      else{
+         if(isSolutionBest(iterationSolutionValue, bestSolutionValue) == true){
+            //System.out.println("found best solution");
+            bestSolution = iterationSolution;
+            bestSolutionValue = iterationSolutionValue;
+         }
+      }
+
+      if(AntProfiler.ENABLED){
+         profiler.endIteration();
+      }
+   }
+
+   public int getNumberOfColonyIterations(){
+      return getNumberOfIterations();
+   }
+
+   public double getBestColonySolutionValue(){
+      return this.bestSolutionValue;
+   }
+
+   public boolean isColonySolutionBest(double solutionValue1, double solutionValue2){
+      return isSolutionBest(solutionValue1, solutionValue2);
+   }
+
+   /**
+    * Method to get a copy of the best so far solution as an int array.
+    *
+    * @author Matheus Paixao
+    * @return the best so far solution
+    */
+   public int[] getBestColonyTour(){
+      int[] tour = new int[bestSolution.length];
+
+      for(int i = 0; i <= tour.length - 1; i++){
+         tour[i] = bestSolution[i];
+      }
+
+      return tour;
+   }
+
+   /**
+    * Method to receive a tour founded by another colony.
+    *
+    * The edges of the tour receive a global update, as if it were found by this colony,
+    * and the tour becomes the best so far solution if it's better.
+    * @author Matheus Paixao
+    * @param tour the received tour
+    * @param tourValue the fitness value of the received tour
+    * @see globalUpdate
+    */
+   public void reinforceColonyTour(int[] tour, double tourValue){
+      Integer[] solution = new Integer[tour.length];
+
+      for(int i = 0; i <= solution.length - 1; i++){
+         solution[i] = tour[i];
+      }
+
+      globalUpdate(solution, Math.pow(tourValue, -1));
+
+      if((bestSolution == null) || (isSolutionBest(tourValue, bestSolutionValue) == true)){
+         bestSolution = solution;
+         bestSolutionValue = tourValue;
+      }
+   }
+
+   /**
+    * Method to get a copy of the pheromone matrix.
+    *
+    * @author Matheus Paixao
+    * @return a copy of the pheromone matrix
+    */
+   public double[][] getColonyPheromone(){
+      double[][] pheromoneCopy = new double[pheromone.length][];
+
+      for(int i = 0; i <= pheromoneCopy.length - 1; i++){
+         pheromoneCopy[i] = pheromone[i].clone();
+      }
+
+      return pheromoneCopy;
+   }
+
+   /**
+    * Method to blend a pheromone matrix received from another colony into this one.
+    *
+    * @author Matheus Paixao
+    * @param receivedPheromone the pheromone matrix of the other colony
+    * @param weight the weight of the received pheromone in the blend
+    */
+   public void blendColonyPheromone(double[][] receivedPheromone, double weight){
+      for(int i = 0; i <= pheromone.length - 1; i++){
+         for(int j = 0; j <= pheromone[0].length - 1; j++){
+            pheromone[i][j] = ((1 - weight) * pheromone[i][j]) + (weight * receivedPheromone[i][j]);
+         }
+      }
+   }
+
    /**
     * Method to initialize the ACS algorithm.
     *
@@ -247,8 +429,12 @@ public abstract class ACS implements Algorithm{
       ACSAnt ant = null;
       int nextNode = 0;
       double reinforcementLearningValue = 0;
+      long phaseStartTime = 0;
 
       for(int i = 1; i <= nodes.length - 1; i++){
+         if(AntProfiler.ENABLED){
+            phaseStartTime = profiler.start();
+         }
          for(int j = 0; j <= ants.length - 1; j++){
             setCurrentAnt(ants[j]);
             ant = getCurrentAnt();
@@ -259,6 +445,10 @@ public abstract class ACS implements Algorithm{
                ant.addNodeToTour(ant.getNextNode());
             }
          }
+         if(AntProfiler.ENABLED){
+            profiler.stop(AntProfiler.TOUR_CONSTRUCTION, phaseStartTime);
+            phaseStartTime = profiler.start();
+         }
 
          for(int j = 0; j <= ants.length - 1; j++){
             setCurrentAnt(ants[j]);
@@ -276,6 +466,9 @@ public abstract class ACS implements Algorithm{
                ant.loadNodesToVisit();
             }
          }
+         if(AntProfiler.ENABLED){
+            profiler.stop(AntProfiler.LOCAL_UPDATE, phaseStartTime);
+         }
       }
 
       iterationSolution = getIterationBestSolution();
@@ -285,8 +478,14 @@ public abstract class ACS implements Algorithm{
          ants[i].clearTour();
       }
 
+      if(AntProfiler.ENABLED){
+         phaseStartTime = profiler.start();
+      }
       reinforcementLearningValue = Math.pow(iterationSolutionValue, -1);
       globalUpdate(iterationSolution, reinforcementLearningValue);
+      if(AntProfiler.ENABLED){
+         profiler.stop(AntProfiler.GLOBAL_UPDATE, phaseStartTime);
+      }
 
       return iterationSolution;
    }
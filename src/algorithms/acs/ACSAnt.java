@@ -1,5 +1,7 @@
 package algorithms.acs;
 
+import algorithms.profiling.AntProfiler;
+
 import java.util.Arrays;
 import java.util.Random;
 
@@ -181,9 +183,15 @@ public class ACSAnt{
 
       if(q <= q0){
          nextNode = getMaxActionChoiceNode(); //exploitation
+         if(AntProfiler.ENABLED){
+            acs.getProfiler().countExploitation();
+         }
       }
       else{
          nextNode = getPseudoRandomProportionalNode(); //exploration
+         if(AntProfiler.ENABLED){
+            acs.getProfiler().countExploration();
+         }
       }
 
       return nextNode;
@@ -213,6 +221,10 @@ public class ACSAnt{
       int maxActionChoiceNode = getFirstNodeToVisit();
       int node = 0;
 
+      if(AntProfiler.ENABLED){
+         acs.getProfiler().countCandidates(getNumberOfNodesToVisit());
+      }
+
       for(int i = 0; i <= nodesToVisit.length - 1; i++){
          if(nodesToVisit[i] != null){
             node = nodesToVisit[i];
@@ -244,6 +256,24 @@ public class ACSAnt{
       return firstNodeToVisit;
    }
 
+   /**
+    * Method to get the number of nodes still to be visited by the ant.
+    *
+    * @author Matheus Paixao
+    * @return the number of not null nodes in the nodes to visit array
+    */
+   private int getNumberOfNodesToVisit(){
+      int numberOfNodesToVisit = 0;
+
+      for(int i = 0; i <= nodesToVisit.length - 1; i++){
+         if(nodesToVisit[i] != null){
+            numberOfNodesToVisit++;
+         }
+      }
+
+      return numberOfNodesToVisit;
+   }
+
    /**
     * Method to get the next node using the pseudo-random-proportional method.
     *
@@ -261,6 +291,10 @@ public class ACSAnt{
       double rouletteValue = 0;
       double probabilities[] = getPseudoRandomProportionalProbabilities();
 
+      if(AntProfiler.ENABLED){
+         acs.getProfiler().countCandidates(getNumberOfNodesToVisit());
+      }
+
       rouletteValue = getRouletteValue(probabilities);
 
       for(int i = 0; i <= probabilities.length - 1; i++){
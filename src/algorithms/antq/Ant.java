@@ -1,5 +1,6 @@
 package algorithms.antq;
 
+import algorithms.profiling.AntProfiler;
 import util.Node;
 import util.Edge;
 
@@ -21,6 +22,9 @@ import java.util.Arrays;
  *
  * The tour array is the path, the sequency of nodes, done by the ant.
  *
+ * The actionChoices and probabilities arrays are scratch buffers reused in each step of the ant,
+ * so each action choice is computed exactly once per step.
+ *
  * @author Matheus Paixao
  */
 public class Ant {
@@ -30,6 +34,9 @@ public class Ant {
    protected Node nodesToVisit[];
    public Edge tour[];
 
+   private double[] actionChoices;
+   private double[] probabilities;
+
    protected AntQ antQ; //used to call some antQ methods
    private double q0; //used in chooseNextNode method
 
@@ -57,6 +64,8 @@ public class Ant {
 
       this.nodesToVisit = new Node[antQ.getNodes().length];
       tour = new Edge[getNodesToVisit().length];
+      this.actionChoices = new double[nodesToVisit.length];
+      this.probabilities = new double[nodesToVisit.length];
 
       loadNodesToVisit();
 
@@ -226,11 +235,17 @@ public class Ant {
       if(q <= getQ0()){
          //exploitation
          nextNode = getMaxActionChoiceNode();
+         if(AntProfiler.ENABLED){
+            antQ.getProfiler().countExploitation();
+         }
       }
       else{
          //exploration
          //nextNode = getPseudoRandomNode(); //method 1
          nextNode = getPseudoRandomProportionalNode(); //method 2
+         if(AntProfiler.ENABLED){
+            antQ.getProfiler().countExploration();
+         }
       }
 
       return nextNode;
@@ -251,6 +266,7 @@ public class Ant {
     * Method to get the best possible node to go.
     *
     * How 'good' is an action is measured by it's action choice.
+    * The action choice of each node to visit is computed only once.
     * @author Matheus Paixao
     * @return the best possible node to go.
     * @see getFirstNodeToVisit
@@ -258,17 +274,25 @@ public class Ant {
     */
    public Node getMaxActionChoiceNode(){
       Node maxActionChoiceNode = getFirstNodeToVisit();
-      Node node = null;
+      double maxActionChoice = antQ.getActionChoice(getCurrentNode(), maxActionChoiceNode);
+      double actionChoice = 0;
+      int numberOfCandidates = 0;
 
       for(int i = 0; i <= nodesToVisit.length - 1; i++){
          if(nodesToVisit[i] != null){
-            node = nodesToVisit[i];
-            if(antQ.getActionChoice(getCurrentNode(), node) > antQ.getActionChoice(getCurrentNode(), maxActionChoiceNode)){
-               maxActionChoiceNode = node;
+            actionChoice = antQ.getActionChoice(getCurrentNode(), nodesToVisit[i]);
+            numberOfCandidates++;
+            if(actionChoice > maxActionChoice){
+               maxActionChoice = actionChoice;
+               maxActionChoiceNode = nodesToVisit[i];
             }
          }
       }
 
+      if(AntProfiler.ENABLED){
+         antQ.getProfiler().countCandidates(numberOfCandidates);
+      }
+
       return maxActionChoiceNode;
    }
 
@@ -332,17 +356,18 @@ public class Ant {
     * Method to calculate the pseudo random proportional probability of all the
     * nodes to be visited by the ant.
     *
+    * The action choices are computed once in the actionChoices buffer and the
+    * probabilities are written in the probabilities buffer, which is returned.
     * @author Matheus Paixao
     * @return an array containing the pseudo random proportional probability of the nodes to visit.
-    * @see getPseudoRandomProportionalProbability
+    * @see loadActionChoices in AntQ class
     */
    protected double[] getPseudoRandomProportionalProbabilities(){
-      double probabilities[] = new double[nodesToVisit.length];
-      double actionChoiceSum = antQ.getActionChoiceSum(getCurrentNode(), nodesToVisit);
+      double actionChoiceSum = antQ.loadActionChoices(getCurrentNode(), nodesToVisit, actionChoices);
 
       for(int i = 0; i <= probabilities.length - 1; i++){
          if(nodesToVisit[i] != null){
-            probabilities[i] = antQ.getActionChoice(getCurrentNode(), nodesToVisit[i]) / actionChoiceSum;
+            probabilities[i] = actionChoices[i] / actionChoiceSum;
          }
          else{
             probabilities[i] = 0;
@@ -2,6 +2,11 @@ package algorithms.antq;
 
 import algorithms.Algorithm;
 import algorithms.antq.Ant;
+import algorithms.multicolony.Colony;
+import algorithms.profiling.AntProfiler;
+import algorithms.profiling.ProfiledAlgorithm;
+import io.PheromoneState;
+import io.PheromoneStore;
 import util.Node;
 import util.Edge;
 
@@ -19,9 +24,15 @@ import util.Edge;
  * 
  * The ants array stores the ants that are acting in the algorithm.  
  *
+ * When a PheromoneStore is set, the pheromone matrix is loaded from it before the first
+ * iteration, and the pheromone matrix and the best so far solution are saved in it after the last one.
+ *
+ * The best so far solution is kept between iterations, so the algorithm can also
+ * be runned iteration by iteration as a colony of a MultiColonySystem.
+ *
  * @author Matheus Paixao
  */
-public abstract class AntQ implements Algorithm{
+public abstract class AntQ implements Algorithm, Colony, ProfiledAlgorithm{
    //constant initialization parameters
    private static final double delta = 1;
    private static final double beta = 2;
@@ -35,8 +46,15 @@ public abstract class AntQ implements Algorithm{
    private int numberOfIterations;
    private double totalTime;
 
+   private Edge[] bestSolution;
+   private double bestSolutionValue;
+
+   private PheromoneStore pheromoneStore;
+   private AntProfiler profiler;
+
    private Node[] nodes;
    private double[][] pheromone;
+   private double[][] heuristicValues; //heuristic values raised to beta, only used when the heuristic is static
 
    private Edge[][] edges;
 
@@ -50,6 +68,9 @@ public abstract class AntQ implements Algorithm{
    public abstract double calculateSolutionValue(Edge[] solution); //fitness function value
    public abstract boolean isSolutionBest(double iterationSolutionValue, double bestSolutionValue); //depends on a max or min problem
 
+   //problems whose heuristic value depends only on the edge (not on the ant state) can have it precomputed
+   protected boolean isHeuristicValueStatic(){return false;}
+
    /**
     * Method to create an AntQ object passing the number of iterations
     * that it will run.
@@ -105,51 +126,216 @@ public abstract class AntQ implements Algorithm{
     *
     * @author Matheus Paixao
     * @return solution founded by the algorithm
-    * @see initAntQ
+    * @see initColony
     * @see getNumberOfIterations
-    * @see getIterationSolution
-    * @see calculateSolutionValue
-    * @see isSolutionBest
+    * @see runColonyIteration
+    * @see save in PheromoneStore class
     */
    public double getSolution(){
       double initialTime = 0;
       double finalTime = 0;
 
-      Edge[] iterationSolution = null;
-      double iterationSolutionValue = 0;
-      Edge[] bestSolution = null;
-      double bestSolutionValue = 0;
-
       int iterationsCounter = 0;
 
-      initAntQ();
+      initColony();
 
       initialTime = System.currentTimeMillis();
       while(iterationsCounter <= getNumberOfIterations() - 1){
-         iterationSolution = getIterationSolution();
+         runColonyIteration();
+         //System.out.println("iteration "+ iterationsCounter+ " solution value: "+bestSolutionValue);
+
+         iterationsCounter++;
+      }
+      finalTime = System.currentTimeMillis();
 
-         iterationSolutionValue = calculateSolutionValue(iterationSolution);
-         //System.out.println("iteration "+ iterationsCounter+ " solution value: "+iterationSolutionValue);
+      setTotalTime(finalTime - initialTime);
 
-         if(bestSolution != null){
-            if(isSolutionBest(iterationSolutionValue, bestSolutionValue) == true){
-               //System.out.println("found best solution");
-               bestSolution = iterationSolution;
-               bestSolutionValue = iterationSolutionValue;
-            }
+      if(pheromoneStore != null && bestSolution != null){ //without iterations there is no tour to save
+         pheromoneStore.save(new PheromoneState(getColonyPheromone(), getBestColonyTour(), bestSolutionValue));
+      }
+
+      endColony();
+
+      return bestSolutionValue;
+   }
+
+   public void endColony(){
+      if(AntProfiler.ENABLED){
+         profiler.endRun();
+      }
+   }
+
+   public String getProfileSummary(){
+      if(profiler == null){
+         return null;
+      }
+
+      return profiler.getSummary();
+   }
+
+   /**
+    * Method to prepare the algorithm to run its first iteration.
+    *
+    * @author Matheus Paixao
+    * @see initAntQ
+    * @see loadPheromoneState
+    */
+   public void initColony(){
+      if(AntProfiler.ENABLED){
+         profiler = new AntProfiler(getClass().getSimpleName());
+      }
+
+      initAntQ();
+
+      bestSolution = null;
+      bestSolutionValue = 0;
+
+      if(pheromoneStore != null){
+         loadPheromoneState();
+      }
+   }
+
+   public void setPheromoneStore(PheromoneStore pheromoneStore){
+      this.pheromoneStore = pheromoneStore;
+   }
+
+   public AntProfiler getProfiler(){
+      return this.profiler;
+   }
+
+   /**
+    * Method to warm start the algorithm with the state saved by a previous run.
+    *
+    * The uniform pheromone matrix is replaced by the saved one. The saved best tour is not
+    * loaded, so the best so far solution is only the one found by this run.
+    * Nothing is done if there isn't a saved state for the instance.
+    * @author Matheus Paixao
+    * @see load in PheromoneStore class
+    */
+   private void loadPheromoneState(){
+      PheromoneState state = pheromoneStore.load(pheromone.length);
+      double[][] savedPheromone = null;
+
+      if(state != null){
+         savedPheromone = state.getPheromone();
+         for(int i = 0; i <= pheromone.length - 1; i++){
+            System.arraycopy(savedPheromone[i], 0, pheromone[i], 0, pheromone[i].length);
          }
-         else{
+      }
+   }
+
+   /**
+    * Method to run one iteration of the algorithm and update the best so far solution.
+    *
+    * @author Matheus Paixao
+    * @see getIterationSolution
+    * @see calculateSolutionValue
+    * @see isSolutionBest
+    */
+   public void runColonyIteration(){
+      Edge[] iterationSolution = getIterationSolution();
+      double iterationSolutionValue = calculateSolutionValue(iterationSolution);
+
+      if(bestSolution != null){
+         if(isSolutionBest(iterationSolutionValue, bestSolutionValue) == true){
+            //System.out.println("found best solution");
             bestSolution = iterationSolution;
             bestSolutionValue = iterationSolutionValue;
          }
+      }
+      else{
+         bestSolution = iterationSolution;
+         bestSolutionValue = iterationSolutionValue;
+      }
 
-         iterationsCounter++;
+      if(AntProfiler.ENABLED){
+         profiler.endIteration();
       }
-      finalTime = System.currentTimeMillis();
+   }
 
-      setTotalTime(finalTime - initialTime);
+   public int getNumberOfColonyIterations(){
+      return getNumberOfIterations();
+   }
 
-      return bestSolutionValue;
+   public double getBestColonySolutionValue(){
+      return this.bestSolutionValue;
+   }
+
+   public boolean isColonySolutionBest(double solutionValue1, double solutionValue2){
+      return isSolutionBest(solutionValue1, solutionValue2);
+   }
+
+   /**
+    * Method to get a copy of the best so far solution as an int array.
+    *
+    * The tour is the sequence of the first nodes of the solution edges.
+    * @author Matheus Paixao
+    * @return the best so far solution
+    */
+   public int[] getBestColonyTour(){
+      int[] tour = new int[bestSolution.length];
+
+      for(int i = 0; i <= tour.length - 1; i++){
+         tour[i] = bestSolution[i].getNode1().getIndex();
+      }
+
+      return tour;
+   }
+
+   /**
+    * Method to receive a tour founded by another colony.
+    *
+    * The edges of the tour are reinforced, as in the end of an iteration,
+    * and the tour becomes the best so far solution if it's better.
+    * @author Matheus Paixao
+    * @param tour the received tour
+    * @param tourValue the fitness value of the received tour
+    * @see updatePheromoneValue
+    */
+   public void reinforceColonyTour(int[] tour, double tourValue){
+      Edge[] solution = new Edge[tour.length];
+      double reinforcementLearningValue = w / tourValue;
+
+      for(int i = 0; i <= solution.length - 1; i++){
+         solution[i] = edges[tour[i]][tour[(i + 1) % tour.length]];
+         updatePheromoneValue(solution[i], reinforcementLearningValue);
+      }
+
+      if((bestSolution == null) || (isSolutionBest(tourValue, bestSolutionValue) == true)){
+         bestSolution = solution;
+         bestSolutionValue = tourValue;
+      }
+   }
+
+   /**
+    * Method to get a copy of the pheromone matrix.
+    *
+    * @author Matheus Paixao
+    * @return a copy of the pheromone matrix
+    */
+   public double[][] getColonyPheromone(){
+      double[][] pheromoneCopy = new double[pheromone.length][];
+
+      for(int i = 0; i <= pheromoneCopy.length - 1; i++){
+         pheromoneCopy[i] = pheromone[i].clone();
+      }
+
+      return pheromoneCopy;
+   }
+
+   /**
+    * Method to blend a pheromone matrix received from another colony into this one.
+    *
+    * @author Matheus Paixao
+    * @param receivedPheromone the pheromone matrix of the other colony
+    * @param weight the weight of the received pheromone in the blend
+    */
+   public void blendColonyPheromone(double[][] receivedPheromone, double weight){
+      for(int i = 0; i <= pheromone.length - 1; i++){
+         for(int j = 0; j <= pheromone[0].length - 1; j++){
+            pheromone[i][j] = ((1 - weight) * pheromone[i][j]) + (weight * receivedPheromone[i][j]);
+         }
+      }
    }
 
    /**
@@ -160,12 +346,28 @@ public abstract class AntQ implements Algorithm{
     * @see createEdges
     * @see getNumberOfNodes
     * @see getInitialPheromone
+    * @see isHeuristicValueStatic
+    * @see initHeuristicValues
     * @see initAnts
     */
    private void initAntQ(){
       createNodes();
       createEdges();
 
+      heuristicValues = null;
+      if(isHeuristicValueStatic() == true){
+         long phaseStartTime = 0;
+         if(AntProfiler.ENABLED){
+            phaseStartTime = profiler.start();
+         }
+
+         initHeuristicValues();
+
+         if(AntProfiler.ENABLED){
+            profiler.stop(AntProfiler.HEURISTIC, phaseStartTime);
+         }
+      }
+
       pheromone = new double[getNumberOfNodes()][getNumberOfNodes()];
       initPheromoneValues(getInitialPheromone());
 
@@ -220,6 +422,24 @@ public abstract class AntQ implements Algorithm{
       }
    }
 
+   /**
+    * Method to precompute the heuristic value, raised to beta, of each edge.
+    *
+    * It's only used when the heuristic value of an edge doesn't depend on the ant state,
+    * so the Math.pow calls are done once instead of once per candidate node in each ant step.
+    * @author Matheus Paixao
+    * @see getHeuristicValue
+    */
+   private void initHeuristicValues(){
+      heuristicValues = new double[nodes.length][nodes.length];
+
+      for(int i = 0; i <= heuristicValues.length - 1; i++){
+         for(int j = 0; j <= heuristicValues[0].length - 1; j++){
+            heuristicValues[i][j] = Math.pow(getHeuristicValue(nodes[i], nodes[j]), beta);
+         }
+      }
+   }
+
    /**
     * Method to init the ants.
     *
@@ -267,10 +487,14 @@ public abstract class AntQ implements Algorithm{
       Ant ant = null;
       Node nextNode = null;
       double reinforcementLearningValue = 0;
+      long phaseStartTime = 0;
 
       //in this step all the ants chooses the next node to move to
       //when all the ants have choosen the next node, they update the pheromone value of the correspondent edge 
       for(int i = 0; i <= nodes.length - 1; i++){
+         if(AntProfiler.ENABLED){
+            phaseStartTime = profiler.start();
+         }
          //if the ant didn't visit all the nodes yet
          if(i != nodes.length - 1){
             for(int j = 0; j <= ants.length - 1; j++){
@@ -300,6 +524,10 @@ public abstract class AntQ implements Algorithm{
                ant.addNodeToTour(ant.getNextNode());
             }
          }
+         if(AntProfiler.ENABLED){
+            profiler.stop(AntProfiler.TOUR_CONSTRUCTION, phaseStartTime);
+            phaseStartTime = profiler.start();
+         }
 
          //all the ants update the pheromone value of the last edge added to their tour
          for(int j = 0; j <= ants.length - 1; j++){
@@ -316,6 +544,9 @@ public abstract class AntQ implements Algorithm{
                ant.removeNodeFromNodesToVisit(ant.getCurrentNode()); // remove the current node from the nodes to visit
             }
          }
+         if(AntProfiler.ENABLED){
+            profiler.stop(AntProfiler.LOCAL_UPDATE, phaseStartTime);
+         }
       }
 
       iterationSolution = getIterationBestSolution();
@@ -328,10 +559,16 @@ public abstract class AntQ implements Algorithm{
 
       //in this step is calculated the reinforcement learning value and is updated the pheromone value only 
       //of the edges belonging to the iterationSolution
+      if(AntProfiler.ENABLED){
+         phaseStartTime = profiler.start();
+      }
       reinforcementLearningValue = w / iterationSolutionValue;
       for(int i = 0; i <= iterationSolution.length - 1; i++){
          updatePheromoneValue(iterationSolution[i], reinforcementLearningValue);
       }
+      if(AntProfiler.ENABLED){
+         profiler.stop(AntProfiler.GLOBAL_UPDATE, phaseStartTime);
+      }
 
       return iterationSolution;
    }
@@ -339,13 +576,26 @@ public abstract class AntQ implements Algorithm{
    /**
     * Method to get the action choice of an edge.
     *
+    * When the heuristic value is static it's read from the precomputed matrix.
     * @author Matheus Paixao
     * @param node1 the first node of the edge 
     * @param node2 the second node of the edge 
     * @return the action choice of the edge
     */
    public double getActionChoice(Node n1, Node n2){
-      double actionChoice =  Math.pow(pheromone[n1.getIndex()][n2.getIndex()], delta) * Math.pow(getHeuristicValue(n1, n2), beta);
+      int n1Ix = n1.getIndex();
+      int n2Ix = n2.getIndex();
+      double pheromoneValue = (delta == 1) ? pheromone[n1Ix][n2Ix] : Math.pow(pheromone[n1Ix][n2Ix], delta);
+      double heuristicValue = 0;
+      double actionChoice = 0;
+
+      if(heuristicValues != null){
+         heuristicValue = heuristicValues[n1Ix][n2Ix];
+      }
+      else{
+         heuristicValue = Math.pow(getHeuristicValue(n1, n2), beta);
+      }
+      actionChoice = pheromoneValue * heuristicValue;
 
       if((Double.isNaN(actionChoice)) || (Double.POSITIVE_INFINITY == actionChoice) || (Double.NEGATIVE_INFINITY == actionChoice)){
          actionChoice = 0;
@@ -375,6 +625,40 @@ public abstract class AntQ implements Algorithm{
       return actionChoiceSum;
    }
 
+   /**
+    * Method to compute, only once, the action choice of all remaining nodes to visit of an ant.
+    *
+    * The action choices are written in the passed buffer (0 for the visited nodes),
+    * so the ant can reuse it in each step without allocating.
+    * @author Matheus Paixao
+    * @param currentNode the current node of the ant
+    * @param nodesToVisit array of the nodes still to be visited by the ant
+    * @param actionChoices buffer, with the same size of nodesToVisit, to store the action choices
+    * @return the sum of action choices of all remaining nodes to visit of an ant.
+    * @see getActionChoice
+    */
+   public double loadActionChoices(Node currentNode, Node nodesToVisit[], double[] actionChoices){
+      double actionChoiceSum = 0;
+      int numberOfCandidates = 0;
+
+      for(int i = 0; i <= nodesToVisit.length - 1; i++){
+         if(nodesToVisit[i] != null){
+            actionChoices[i] = getActionChoice(currentNode, nodesToVisit[i]);
+            actionChoiceSum += actionChoices[i];
+            numberOfCandidates++;
+         }
+         else{
+            actionChoices[i] = 0;
+         }
+      }
+
+      if(AntProfiler.ENABLED){
+         profiler.countCandidates(numberOfCandidates);
+      }
+
+      return actionChoiceSum;
+   }
+
    /**
     * Method to update the pheromone value of the passed edge.
     *
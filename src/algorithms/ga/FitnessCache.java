@@ -0,0 +1,65 @@
+package algorithms.ga;
+
+import java.nio.IntBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class to keep the solution values of already evaluated genomes.
+ *
+ * The cache is bounded and evicts the least recently used genome.
+ * The genomes are copied and wrapped in an IntBuffer, which compares by content.
+ *
+ * @author Matheus Paixao
+ */
+public class FitnessCache{
+   private LinkedHashMap<IntBuffer, Double> solutionValues;
+   private long numberOfLookups;
+   private long numberOfHits;
+
+   public FitnessCache(final int capacity){
+      this.solutionValues = new LinkedHashMap<IntBuffer, Double>(16, 0.75f, true){
+         protected boolean removeEldestEntry(Map.Entry<IntBuffer, Double> eldest){
+            return size() > capacity;
+         }
+      };
+   }
+
+   /**
+    * Method to get the cached solution value of a genome.
+    *
+    * @author Matheus Paixao
+    * @param genome the genome to look for
+    * @return the solution value, or null if the genome is not in the cache
+    */
+   public Double get(int[] genome){
+      Double solutionValue = solutionValues.get(IntBuffer.wrap(genome));
+
+      numberOfLookups++;
+      if(solutionValue != null){
+         numberOfHits++;
+      }
+
+      return solutionValue;
+   }
+
+   public void put(int[] genome, double solutionValue){
+      solutionValues.put(IntBuffer.wrap(genome.clone()), solutionValue);
+   }
+
+   public long getNumberOfLookups(){
+      return this.numberOfLookups;
+   }
+
+   public long getNumberOfHits(){
+      return this.numberOfHits;
+   }
+
+   public double getHitRate(){
+      if(numberOfLookups == 0){
+         return 0;
+      }
+
+      return (double) numberOfHits / numberOfLookups;
+   }
+}
@@ -4,32 +4,82 @@ import algorithms.Algorithm;
 
 import java.util.Random;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public abstract class GeneticAlgorithm implements Algorithm{
 
    private int numberOfIterations;
    private int[][] population;
+   private int[][] nextPopulation;
    private double crossoverProbability;
    private double mutationProbability;
+   private double logMutationComplement;
    private int numberOfEliteIndividuals;
+   private ReplacementModel replacementModel;
+   private int numberOfOffspring;
+   private long maximumNumberOfEvaluations;
 
    private double totalTime;
 
    private Random random;
+   private SelectionOperator selectionOperator;
+   private ExecutorService executor;
+   private int chunkSize;
+   private int numberOfThreads;
+
+   private double[] solutionValues;
+   private double[] nextSolutionValues;
+   private boolean[] dirtyIndividuals;
+   private boolean[] nextDirtyIndividuals;
+   private int[] spareChild;
+   private int[][] parents;
+   private int[][] childs;
+   private int[] parentsIndexes;
+   private int[] eliteHeap;
+   private IndexedHeap worstIndividualsHeap;
+   private int[][] candidates;
+   private double[] candidatesSolutionValues;
+   private boolean[] survivorsFlags;
+   private int[] survivorsIndexes;
+
+   private ArrayList<Callable<Object>> evaluationTasks;
+   private int[] indexesToEvaluate;
+   private int numberOfIndexesToEvaluate;
+   private ArrayList<Callable<Object>> mutationTasks;
+   private long generationSeed;
+   private int[][] workIndividuals; //the individuals the chunks of work are running on
+   private double[] workSolutionValues;
+   private boolean[] workDirtyIndividuals;
+   private int workFirstIndex;
+   private int workLastIndex;
+   private FitnessCache fitnessCache;
+   private long numberOfEvaluations;
+   private long numberOfReusedSolutionValues;
 
    protected abstract int[][] getInitialPopulation();
    protected abstract double getCrossoverProbability();
    protected abstract double getMutationProbability();
-   protected abstract int[][] getParents(int[][] population, double[] individualsSolutionValues);
-   protected abstract int[][] getChildsByCrossover(int[][] parents);
-   protected abstract void mutate(int[] individual, int indexToMutate);
+   protected abstract boolean crossover(int[][] parents, int[][] childs); //writes in the childs arrays, false if they are copies of the parents
+   protected abstract void mutate(int[] individual, int indexToMutate, Random random);
    protected abstract double calculateSolutionValue(int[] individual);
    protected abstract boolean isSolutionBetter(double solutionValue1, double solutionValue2);
    protected abstract int getNumberOfEliteIndividuals();
    protected abstract boolean isMinimizationProblem();
 
    public boolean isSolutionValid(int[] individual){return false;}
-   public void repairIndividual(int[] individual){}
+   public void repairIndividual(int[] individual, Random random){}
+   protected SelectionOperator getSelectionOperator(){return new RouletteSelection();}
+   protected int getNumberOfThreads(){return Runtime.getRuntime().availableProcessors();}
+   protected int getChunkSize(){return 8;} //fixed, so the random streams do not depend on the number of threads
+   protected int getFitnessCacheSize(){return 0;} //number of genomes kept, 0 disables the cache
+   protected int getNumberOfGenes(int[] individual){return individual.length;} //differs from the length for packed genomes
+   protected ReplacementModel getReplacementModel(){return ReplacementModel.GENERATIONAL;}
+   protected int getNumberOfOffspring(){return 0;} //lambda of the (mu+lambda) and (mu,lambda) models, 0 is the population size
+   protected long getMaximumNumberOfEvaluations(){return 0;} //0 is no limit, the run stops at the end of the generation that reaches it
 
    public GeneticAlgorithm(int numberOfIterations){
       this.numberOfIterations = numberOfIterations;
@@ -44,120 +94,816 @@ public abstract class GeneticAlgorithm implements Algorithm{
       this.totalTime = totalTime;
    }
 
+   public long getNumberOfEvaluations(){
+      return this.numberOfEvaluations;
+   }
+
+   public long getNumberOfReusedSolutionValues(){
+      return this.numberOfReusedSolutionValues;
+   }
+
+   public boolean hasFitnessCache(){
+      return this.fitnessCache != null;
+   }
+
+   public double getFitnessCacheHitRate(){
+      if(fitnessCache == null){
+         return 0;
+      }
+
+      return fitnessCache.getHitRate();
+   }
+
+   public int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   public void setSeed(long seed){
+      this.random.setSeed(seed);
+   }
+
+   public void setNumberOfThreads(int numberOfThreads){ //0 uses the getNumberOfThreads hook
+      this.numberOfThreads = numberOfThreads;
+   }
+
    public double getSolution(){
       double initialTime;
       double finalTime;
+      double bestIndividualSolutionValue = 0;
+
+      initEvolution();
 
+      initialTime = System.currentTimeMillis();
+
+      try{
+         for(int i = 0; i <= numberOfIterations - 1 && isEvaluationBudgetExhausted() == false; i++){
+            runGeneration();
+         }
+
+         bestIndividualSolutionValue = getBestIndividualSolutionValue();
+      }
+      finally{
+         finishEvolution();
+      }
+
+      finalTime = System.currentTimeMillis();
+      setTotalTime(finalTime - initialTime);
+
+      return bestIndividualSolutionValue;
+   }
+
+   /**
+    * Method to create the initial population and the structures used by the generations.
+    *
+    * Together with runGeneration and finishEvolution it allows the algorithm to be run
+    * one generation at a time, e.g. by the IslandModel class.
+    * @author Matheus Paixao
+    * @see initGA
+    */
+   public void initEvolution(){
       initGA();
+   }
 
-      double[] individualsSolutionValues = null;
-      int[][] iterationPopulation = new int[population.length][population[0].length];
-      int[][] eliteIndividuals = null;
-      int[][] parents = null;
-      int[][] childs = null;
-      double randomNumber = 0;
+   /**
+    * Method to release the threads used by the generations.
+    *
+    * @author Matheus Paixao
+    */
+   public void finishEvolution(){
+      if(executor != null){
+         executor.shutdown();
+         executor = null;
+      }
+   }
 
-      initialTime = System.currentTimeMillis();
+   public boolean isEvaluationBudgetExhausted(){
+      return (maximumNumberOfEvaluations > 0) && (numberOfEvaluations >= maximumNumberOfEvaluations);
+   }
 
-      for(int i = 0; i <= numberOfIterations - 1; i++){
-         individualsSolutionValues = getIndividualsSolutionValues();
+   /**
+    * Method to run one generation of the replacement model of the algorithm.
+    *
+    * In the steady state model a generation is made of population size / 2 steps,
+    * so it creates as many childs as a generation of the generational model.
+    * @author Matheus Paixao
+    * @see runGenerationalGeneration
+    * @see runSteadyStateGeneration
+    * @see runMuLambdaGeneration
+    */
+   public void runGeneration(){
+      if(replacementModel == ReplacementModel.STEADY_STATE){
+         runSteadyStateGeneration();
+      }
+      else if(replacementModel == ReplacementModel.MU_PLUS_LAMBDA){
+         runMuLambdaGeneration(true);
+      }
+      else if(replacementModel == ReplacementModel.MU_COMMA_LAMBDA){
+         runMuLambdaGeneration(false);
+      }
+      else{
+         runGenerationalGeneration();
+      }
+   }
 
-         for(int j = 0; j <= iterationPopulation.length - 1; j++){
-            for(int k = 0; k <= iterationPopulation[0].length - 1; k++){
-               iterationPopulation[j][k] = population[j][k];
-            }
+   /**
+    * Method to run one generation of the generational model: the elites are kept
+    * and the rest of the population is replaced by the childs.
+    *
+    * @author Matheus Paixao
+    * @see breedChilds
+    * @see mutateIndividuals
+    */
+   private void runGenerationalGeneration(){
+      int[] eliteIndividualsIndexes = null;
+      int[] eliteIndividual = null;
+
+      evaluateDirtyIndividuals();
+      selectionOperator.prepare(solutionValues, isMinimizationProblem());
+
+      breedChilds(numberOfEliteIndividuals, population.length - 1);
+
+      //the elites move to the next generation by swapping arrays, their genes are never copied
+      eliteIndividualsIndexes = getEliteIndividualsIndexes(solutionValues, numberOfEliteIndividuals);
+      for(int j = 0; j <= eliteIndividualsIndexes.length - 1; j++){
+         eliteIndividual = population[eliteIndividualsIndexes[j]];
+         population[eliteIndividualsIndexes[j]] = nextPopulation[j];
+         nextPopulation[j] = eliteIndividual;
+         nextSolutionValues[j] = solutionValues[eliteIndividualsIndexes[j]];
+         nextDirtyIndividuals[j] = false;
+      }
+
+      mutateIndividuals(nextPopulation, nextDirtyIndividuals, numberOfEliteIndividuals, population.length - 1, random.nextLong());
+      swapPopulations();
+   }
+
+   /**
+    * Method to run one generation of the (mu+lambda) or (mu,lambda) models.
+    *
+    * Lambda childs are created and evaluated, then the best mu individuals among the
+    * parents and the childs (mu+lambda) or among the childs only (mu,lambda) survive.
+    * The arrays of the individuals that do not survive are reused by the next childs.
+    * @author Matheus Paixao
+    * @param plusModel true for (mu+lambda), false for (mu,lambda)
+    * @see loadBestIndividualsIndexes
+    */
+   private void runMuLambdaGeneration(boolean plusModel){
+      int numberOfCandidates = numberOfOffspring + population.length;
+      int numberOfRankedCandidates = numberOfOffspring;
+      int numberOfRecycledIndividuals = 0;
+
+      evaluateDirtyIndividuals();
+      selectionOperator.prepare(solutionValues, isMinimizationProblem());
+
+      breedChilds(0, numberOfOffspring - 1);
+      mutateIndividuals(nextPopulation, nextDirtyIndividuals, 0, numberOfOffspring - 1, random.nextLong());
+      evaluateDirtyIndividuals(nextPopulation, nextSolutionValues, nextDirtyIndividuals, numberOfOffspring);
+
+      //childs first, so they win the ties against their parents
+      for(int i = 0; i <= numberOfOffspring - 1; i++){
+         candidates[i] = nextPopulation[i];
+         candidatesSolutionValues[i] = nextSolutionValues[i];
+      }
+      for(int i = 0; i <= population.length - 1; i++){
+         candidates[numberOfOffspring + i] = population[i];
+         candidatesSolutionValues[numberOfOffspring + i] = solutionValues[i];
+      }
+      if(plusModel == true){
+         numberOfRankedCandidates = numberOfCandidates;
+      }
+
+      loadBestIndividualsIndexes(candidatesSolutionValues, numberOfRankedCandidates, survivorsIndexes, false);
+
+      Arrays.fill(survivorsFlags, false);
+      for(int i = 0; i <= survivorsIndexes.length - 1; i++){
+         survivorsFlags[survivorsIndexes[i]] = true;
+         population[i] = candidates[survivorsIndexes[i]];
+         solutionValues[i] = candidatesSolutionValues[survivorsIndexes[i]];
+         dirtyIndividuals[i] = false;
+      }
+      for(int i = 0; i <= numberOfCandidates - 1; i++){
+         if(survivorsFlags[i] == false){
+            nextPopulation[numberOfRecycledIndividuals] = candidates[i];
+            numberOfRecycledIndividuals++;
          }
+      }
+   }
 
-         eliteIndividuals = getEliteIndividuals(individualsSolutionValues, numberOfEliteIndividuals);
-         for(int j = 0; j <= eliteIndividuals.length - 1; j++){
-            population[j] = eliteIndividuals[j];
+   /**
+    * Method to run one generation of the steady state model.
+    *
+    * In each step two childs are created, and each one replaces the worst individual
+    * of the population if it is better. The worst individual is kept in an indexed heap,
+    * so each step costs O(log P). The selection is prepared once per generation, and
+    * keeps selecting by index the individuals placed during the generation.
+    * @author Matheus Paixao
+    * @see getTop in IndexedHeap class
+    */
+   private void runSteadyStateGeneration(){
+      double[] parentsSolutionValues = new double[2];
+      int worstIndex = 0;
+      double childSolutionValue = 0;
+      boolean crossoverFlag = false;
+      boolean dirtyFlag = false;
+
+      evaluateDirtyIndividuals();
+      selectionOperator.prepare(solutionValues, isMinimizationProblem());
+      worstIndividualsHeap.load(solutionValues, population.length, isMinimizationProblem());
+
+      for(int i = 0; i <= (population.length / 2) - 1 && isEvaluationBudgetExhausted() == false; i++){
+         selectParents();
+         parents[0] = population[parentsIndexes[0]];
+         parents[1] = population[parentsIndexes[1]];
+         childs[0] = nextPopulation[0];
+         childs[1] = spareChild;
+         //the first child may replace the second parent before the second child is placed
+         parentsSolutionValues[0] = solutionValues[parentsIndexes[0]];
+         parentsSolutionValues[1] = solutionValues[parentsIndexes[1]];
+
+         crossoverFlag = false;
+         if(getRandomNumber() < crossoverProbability){
+            crossoverFlag = crossover(parents, childs);
+         }
+         else{
+            System.arraycopy(parents[0], 0, childs[0], 0, parents[0].length);
+            System.arraycopy(parents[1], 0, childs[1], 0, parents[1].length);
          }
 
-         for(int j = numberOfEliteIndividuals; j <= population.length - 1; j = j + 2){
-            parents = getParents(iterationPopulation, individualsSolutionValues);
+         for(int k = 0; k <= 1; k++){
+            dirtyFlag = crossoverFlag;
+            if(mutateIndividual(childs[k], random) == true){
+               dirtyFlag = true;
+            }
 
-            randomNumber = getRandomNumber();
-            if(randomNumber < crossoverProbability){
-               childs = getChildsByCrossover(parents);
+            if(dirtyFlag == true){
+               if(isSolutionValid(childs[k]) == false){
+                  repairIndividual(childs[k], random);
+               }
+               childSolutionValue = evaluateIndividual(childs[k]);
             }
             else{
-               childs = parents;
+               childSolutionValue = parentsSolutionValues[k];
             }
 
-            for(int k = 0; k <= childs.length - 1; k++){
-               for(int w = 0; w <= childs[0].length - 1; w++){
-                  randomNumber = getRandomNumber();
-                  if(randomNumber < mutationProbability){
-                     mutate(childs[k], w);
-                  }
-               }
-
-               if(isSolutionValid(childs[k]) == false){
-                  repairIndividual(childs[k]);
-               }
+            worstIndex = worstIndividualsHeap.getTop();
+            if(isSolutionBetter(childSolutionValue, solutionValues[worstIndex]) == true){
+               System.arraycopy(childs[k], 0, population[worstIndex], 0, childs[k].length);
+               solutionValues[worstIndex] = childSolutionValue;
+               dirtyIndividuals[worstIndex] = false;
+               worstIndividualsHeap.update(worstIndex);
             }
+         }
+      }
+   }
+
+   /**
+    * Method to create the childs of the generation in the next population.
+    *
+    * The childs are written in place by the crossover, or copied from the parents.
+    * Childs that are copies of their parents keep the parents solution values.
+    * @author Matheus Paixao
+    * @param firstIndex the first position of the next population to fill
+    * @param lastIndex the last position of the next population to fill
+    * @see crossover
+    */
+   private void breedChilds(int firstIndex, int lastIndex){
+      boolean crossoverFlag = false;
+      double randomNumber = 0;
+
+      for(int j = firstIndex; j <= lastIndex; j = j + 2){
+         selectParents();
+         parents[0] = population[parentsIndexes[0]];
+         parents[1] = population[parentsIndexes[1]];
+         childs[0] = nextPopulation[j];
+         childs[1] = spareChild;
+         if(j + 1 <= lastIndex){
+            childs[1] = nextPopulation[j + 1];
+         }
+
+         crossoverFlag = false;
+         randomNumber = getRandomNumber();
+         if(randomNumber < crossoverProbability){
+            crossoverFlag = crossover(parents, childs);
+         }
+         else{
+            System.arraycopy(parents[0], 0, childs[0], 0, parents[0].length);
+            System.arraycopy(parents[1], 0, childs[1], 0, parents[1].length);
+         }
 
-            population[j] = childs[0];
-            population[j + 1] = childs[1];
+         for(int k = 0; k <= 1 && j + k <= lastIndex; k++){
+            nextSolutionValues[j + k] = solutionValues[parentsIndexes[k]];
+            nextDirtyIndividuals[j + k] = crossoverFlag || dirtyIndividuals[parentsIndexes[k]];
          }
       }
+   }
 
-      finalTime = System.currentTimeMillis();
-      setTotalTime(finalTime - initialTime);
+   /**
+    * Method to get copies of the best individuals of the current population.
+    *
+    * @author Matheus Paixao
+    * @param numberOfIndividuals the number of individuals to return
+    * @param bestSolutionValues array to receive the solution value of each returned individual
+    * @return the copies of the individuals, best first
+    */
+   public int[][] getBestIndividuals(int numberOfIndividuals, double[] bestSolutionValues){
+      int[] bestIndexes = null;
+      int[][] bestIndividuals = null;
+
+      evaluateDirtyIndividuals();
+      bestIndexes = getBestIndividualsIndexes(solutionValues, Math.min(numberOfIndividuals, population.length), false);
+      bestIndividuals = new int[bestIndexes.length][];
+      for(int i = 0; i <= bestIndexes.length - 1; i++){
+         bestIndividuals[i] = Arrays.copyOf(population[bestIndexes[i]], population[bestIndexes[i]].length);
+         bestSolutionValues[i] = solutionValues[bestIndexes[i]];
+      }
 
-      return getBestIndividualSolutionValue();
+      return bestIndividuals;
+   }
+
+   /**
+    * Method to place individuals that come from outside, e.g. migrants, in the population.
+    *
+    * Each individual replaces one of the worst individuals of the current population.
+    * The genes are copied, so the arrays passed are not kept.
+    * @author Matheus Paixao
+    * @param individuals the individuals to place
+    * @param individualsSolutionValues the solution value of each individual
+    */
+   public void replaceWorstIndividuals(int[][] individuals, double[] individualsSolutionValues){
+      int[] worstIndexes = null;
+
+      evaluateDirtyIndividuals();
+      worstIndexes = getBestIndividualsIndexes(solutionValues, Math.min(individuals.length, population.length), true);
+      for(int i = 0; i <= worstIndexes.length - 1; i++){
+         System.arraycopy(individuals[i], 0, population[worstIndexes[i]], 0, individuals[i].length);
+         solutionValues[worstIndexes[i]] = individualsSolutionValues[i];
+         dirtyIndividuals[worstIndexes[i]] = false;
+      }
    }
 
    private void initGA(){
       this.population = getInitialPopulation();
       this.crossoverProbability = getCrossoverProbability();
       this.mutationProbability = getMutationProbability();
+      this.logMutationComplement = Math.log1p(-mutationProbability);
       this.numberOfEliteIndividuals = getNumberOfEliteIndividuals();
+      this.replacementModel = getReplacementModel();
+      this.maximumNumberOfEvaluations = getMaximumNumberOfEvaluations();
+      this.numberOfOffspring = getNumberOfOffspring();
+      if(numberOfOffspring == 0){
+         numberOfOffspring = population.length;
+      }
+      if(replacementModel == ReplacementModel.MU_COMMA_LAMBDA && numberOfOffspring < population.length){
+         throw new IllegalArgumentException("The (mu,lambda) model needs at least as many offspring as individuals");
+      }
+      if(replacementModel != ReplacementModel.GENERATIONAL){
+         numberOfEliteIndividuals = 0;
+      }
+      this.selectionOperator = getSelectionOperator();
+      this.chunkSize = getChunkSize();
+      this.nextPopulation = new int[getNextPopulationSize()][population[0].length];
+      this.solutionValues = new double[population.length];
+      this.nextSolutionValues = new double[nextPopulation.length];
+      this.dirtyIndividuals = new boolean[population.length];
+      this.nextDirtyIndividuals = new boolean[nextPopulation.length];
+      Arrays.fill(dirtyIndividuals, true);
+      this.spareChild = new int[population[0].length];
+      this.parents = new int[2][];
+      this.childs = new int[2][];
+      this.parentsIndexes = new int[2];
+      this.eliteHeap = new int[numberOfEliteIndividuals];
+      if(replacementModel == ReplacementModel.STEADY_STATE){
+         this.worstIndividualsHeap = new IndexedHeap(population.length);
+      }
+      if(replacementModel == ReplacementModel.MU_PLUS_LAMBDA || replacementModel == ReplacementModel.MU_COMMA_LAMBDA){
+         this.candidates = new int[population.length + numberOfOffspring][];
+         this.candidatesSolutionValues = new double[candidates.length];
+         this.survivorsFlags = new boolean[candidates.length];
+         this.survivorsIndexes = new int[population.length];
+      }
+      this.numberOfEvaluations = 0;
+      this.numberOfReusedSolutionValues = 0;
+      this.fitnessCache = null;
+      if(getFitnessCacheSize() > 0){
+         this.fitnessCache = new FitnessCache(getFitnessCacheSize());
+      }
+      this.executor = null;
+      if(numberOfThreads == 0){
+         numberOfThreads = getNumberOfThreads();
+      }
+      if(numberOfThreads > 1){
+         this.executor = Executors.newFixedThreadPool(numberOfThreads);
+      }
+      initEvaluationTasks();
+      initMutationTasks();
    }
 
-   private double[] getIndividualsSolutionValues(){
-      double[] individualsSolutionValues = new double[population.length];
+   private int getNextPopulationSize(){
+      if(replacementModel == ReplacementModel.MU_PLUS_LAMBDA || replacementModel == ReplacementModel.MU_COMMA_LAMBDA){
+         return numberOfOffspring;
+      }
+      if(replacementModel == ReplacementModel.STEADY_STATE){
+         return 1; //only the buffer of a child
+      }
 
-      for(int i = 0; i <= individualsSolutionValues.length - 1; i++){
-         individualsSolutionValues[i] = calculateSolutionValue(population[i]);
+      return population.length;
+   }
+
+   /**
+    * Method to swap the current population with the one built in the generation.
+    *
+    * The two populations are preallocated, so no genome is allocated while the algorithm runs.
+    * @author Matheus Paixao
+    */
+   private void swapPopulations(){
+      int[][] populationAux = population;
+      double[] solutionValuesAux = solutionValues;
+      boolean[] dirtyIndividualsAux = dirtyIndividuals;
+
+      population = nextPopulation;
+      nextPopulation = populationAux;
+      solutionValues = nextSolutionValues;
+      nextSolutionValues = solutionValuesAux;
+      dirtyIndividuals = nextDirtyIndividuals;
+      nextDirtyIndividuals = dirtyIndividualsAux;
+   }
+
+   /**
+    * Method to create the chunks of work that mutate and repair the childs.
+    *
+    * A mutated child is marked as dirty, so it is evaluated again.
+    * The childs are split in chunks of fixed size, and each chunk uses its own random
+    * number generator seeded by the generation seed and the chunk index.
+    * This way the result does not depend on the number of threads or on their scheduling.
+    * @author Matheus Paixao
+    * @see mutateIndividuals
+    */
+   private void initMutationTasks(){
+      int maximumNumberOfIndividuals = Math.max(population.length, nextPopulation.length);
+      int chunkIndex = 0;
+
+      mutationTasks = new ArrayList<Callable<Object>>();
+      for(int i = 0; i <= maximumNumberOfIndividuals - 1; i = i + chunkSize){
+         final int chunkFirstIndex = i;
+         final int chunkLastIndex = Math.min(i + chunkSize, maximumNumberOfIndividuals) - 1;
+         final long chunkSeedIncrement = 0x9E3779B97F4A7C15L * (chunkIndex + 1);
+         final Random chunkRandom = new Random();
+
+         mutationTasks.add(new Callable<Object>(){
+            public Object call(){
+               int firstIndex = Math.max(chunkFirstIndex, workFirstIndex);
+               int lastIndex = Math.min(chunkLastIndex, workLastIndex);
+
+               chunkRandom.setSeed(generationSeed + chunkSeedIncrement);
+
+               for(int j = firstIndex; j <= lastIndex; j++){
+                  if(mutateIndividual(workIndividuals[j], chunkRandom) == true){
+                     workDirtyIndividuals[j] = true;
+                  }
+
+                  //clean individuals are copies of individuals already repaired
+                  if(workDirtyIndividuals[j] == true && isSolutionValid(workIndividuals[j]) == false){
+                     repairIndividual(workIndividuals[j], chunkRandom);
+                  }
+               }
+
+               return null;
+            }
+         });
+         chunkIndex++;
+      }
+   }
+
+   /**
+    * Method to mutate the genes of an individual with the mutation probability.
+    *
+    * Instead of drawing a random number per gene, the distance to the next mutated gene
+    * is drawn from the geometric distribution, so only the mutated genes cost random numbers.
+    * @author Matheus Paixao
+    * @param individual the individual to mutate
+    * @param random the random number generator of the chunk
+    * @return true if at least one gene was mutated
+    * @see getNumberOfGenesToSkip
+    */
+   private boolean mutateIndividual(int[] individual, Random random){
+      int numberOfGenes = getNumberOfGenes(individual);
+      long gene = getNumberOfGenesToSkip(random);
+      boolean result = false;
+
+      while(gene <= numberOfGenes - 1){
+         mutate(individual, (int) gene, random);
+         result = true;
+         gene += 1 + getNumberOfGenesToSkip(random);
       }
 
-      return individualsSolutionValues;
+      return result;
    }
 
-   private double getRandomNumber(){
-      return random.nextDouble();
+   private int getNumberOfGenesToSkip(Random random){
+      double numberOfGenesToSkip = 0;
+
+      if(mutationProbability >= 1){
+         return 0;
+      }
+      if(mutationProbability <= 0){
+         return Integer.MAX_VALUE - 1;
+      }
+
+      numberOfGenesToSkip = Math.floor(Math.log(1 - random.nextDouble()) / logMutationComplement);
+      if(numberOfGenesToSkip > Integer.MAX_VALUE - 1){
+         numberOfGenesToSkip = Integer.MAX_VALUE - 1;
+      }
+
+      return (int) numberOfGenesToSkip;
    }
 
-   private int[][] getEliteIndividuals(double[] individualsSolutionValues, int numberOfEliteIndividuals){
-      int[][] eliteIndividuals = new int[numberOfEliteIndividuals][population[0].length];
-      double[] sortedIndividualsSolutionValues = null;
+   /**
+    * Method to mutate and repair the childs of the generation.
+    *
+    * Each chunk covers a fixed range of positions, so its random number generator
+    * always mutates the same positions for the same generation seed.
+    * @author Matheus Paixao
+    * @param individuals the individuals to mutate
+    * @param individualsDirtyFlags the dirty flag of each individual
+    * @param firstIndex the first position to mutate
+    * @param lastIndex the last position to mutate
+    * @param generationSeed the seed drawn from the algorithm random number generator
+    * @see runChunks
+    */
+   private void mutateIndividuals(int[][] individuals, boolean[] individualsDirtyFlags, int firstIndex, int lastIndex, long generationSeed){
+      this.generationSeed = generationSeed;
+      this.workIndividuals = individuals;
+      this.workDirtyIndividuals = individualsDirtyFlags;
+      this.workFirstIndex = firstIndex;
+      this.workLastIndex = lastIndex;
+      runChunks(mutationTasks, (lastIndex + chunkSize) / chunkSize);
+   }
 
-      sortedIndividualsSolutionValues = Arrays.copyOf(individualsSolutionValues, individualsSolutionValues.length);
-      Arrays.sort(sortedIndividualsSolutionValues);
+   /**
+    * Method to run the chunks of work of a generation.
+    *
+    * The chunks run in the thread pool when there is more than one thread, otherwise in order.
+    * @author Matheus Paixao
+    * @param tasks the chunks of work
+    * @param numberOfTasks the number of chunks, from the first one, to run
+    */
+   private void runChunks(ArrayList<Callable<Object>> tasks, int numberOfTasks){
+      try{
+         if(executor == null){
+            for(int i = 0; i <= numberOfTasks - 1; i++){
+               tasks.get(i).call();
+            }
+         }
+         else{
+            for(Future<Object> future : executor.invokeAll(tasks.subList(0, numberOfTasks))){
+               future.get();
+            }
+         }
+      }
+      catch(Exception e){
+         throw new RuntimeException("Error in genetic algorithm chunk execution", e);
+      }
+   }
 
-      for(int i = 0; i <= eliteIndividuals.length - 1; i++){
-         for(int j = 0; j <= individualsSolutionValues.length - 1; j++){
-            if(isMinimizationProblem() == true){
-               if(sortedIndividualsSolutionValues[i] == individualsSolutionValues[j]){
-                  eliteIndividuals[i] = Arrays.copyOf(population[j], population[j].length);
-                  break;
+   /**
+    * Method to select the indexes of two parents using the selection operator of the algorithm.
+    *
+    * The selection operator must be prepared with the solution values of the generation.
+    * @author Matheus Paixao
+    * @see select in SelectionOperator class
+    */
+   private void selectParents(){
+      for(int i = 0; i <= parentsIndexes.length - 1; i++){
+         parentsIndexes[i] = selectionOperator.select(random);
+      }
+   }
+
+   /**
+    * Method to calculate the solution value of the individuals changed since their last evaluation.
+    *
+    * The fitness cache, when enabled, is checked first in order. Only the misses are evaluated,
+    * in parallel chunks, and then stored in the cache.
+    * @author Matheus Paixao
+    * @see runChunks
+    */
+   private void evaluateDirtyIndividuals(){
+      evaluateDirtyIndividuals(population, solutionValues, dirtyIndividuals, population.length);
+   }
+
+   private void evaluateDirtyIndividuals(int[][] individuals, double[] individualsSolutionValues, boolean[] individualsDirtyFlags, int numberOfIndividuals){
+      Double cachedSolutionValue = null;
+
+      numberOfIndexesToEvaluate = 0;
+      for(int i = 0; i <= numberOfIndividuals - 1; i++){
+         if(individualsDirtyFlags[i] == false){
+            numberOfReusedSolutionValues++;
+            continue;
+         }
+
+         if(fitnessCache != null){
+            cachedSolutionValue = fitnessCache.get(individuals[i]);
+            if(cachedSolutionValue != null){
+               individualsSolutionValues[i] = cachedSolutionValue;
+               individualsDirtyFlags[i] = false;
+               numberOfReusedSolutionValues++;
+               continue;
+            }
+         }
+
+         indexesToEvaluate[numberOfIndexesToEvaluate] = i;
+         numberOfIndexesToEvaluate++;
+      }
+
+      workIndividuals = individuals;
+      workSolutionValues = individualsSolutionValues;
+      runChunks(evaluationTasks, (numberOfIndexesToEvaluate + chunkSize - 1) / chunkSize);
+
+      for(int i = 0; i <= numberOfIndexesToEvaluate - 1; i++){
+         if(fitnessCache != null){
+            fitnessCache.put(individuals[indexesToEvaluate[i]], individualsSolutionValues[indexesToEvaluate[i]]);
+         }
+         individualsDirtyFlags[indexesToEvaluate[i]] = false;
+      }
+      numberOfEvaluations += numberOfIndexesToEvaluate;
+   }
+
+   /**
+    * Method to calculate the solution value of a single individual, used by the steady state model.
+    *
+    * @author Matheus Paixao
+    * @param individual the individual to evaluate
+    * @return the solution value of the individual
+    */
+   private double evaluateIndividual(int[] individual){
+      Double cachedSolutionValue = null;
+      double solutionValue = 0;
+
+      if(fitnessCache != null){
+         cachedSolutionValue = fitnessCache.get(individual);
+         if(cachedSolutionValue != null){
+            numberOfReusedSolutionValues++;
+            return cachedSolutionValue;
+         }
+      }
+
+      solutionValue = calculateSolutionValue(individual);
+      numberOfEvaluations++;
+      if(fitnessCache != null){
+         fitnessCache.put(individual, solutionValue);
+      }
+
+      return solutionValue;
+   }
+
+   /**
+    * Method to create the chunks of work that evaluate the individuals.
+    *
+    * Each chunk covers a fixed range of the indexes to evaluate of the generation.
+    * @author Matheus Paixao
+    * @see evaluateDirtyIndividuals
+    */
+   private void initEvaluationTasks(){
+      int maximumNumberOfIndividuals = Math.max(population.length, nextPopulation.length);
+
+      indexesToEvaluate = new int[maximumNumberOfIndividuals];
+      evaluationTasks = new ArrayList<Callable<Object>>();
+
+      for(int i = 0; i <= maximumNumberOfIndividuals - 1; i = i + chunkSize){
+         final int firstIndex = i;
+         final int lastIndex = Math.min(i + chunkSize, maximumNumberOfIndividuals) - 1;
+
+         evaluationTasks.add(new Callable<Object>(){
+            public Object call(){
+               for(int j = firstIndex; j <= lastIndex && j <= numberOfIndexesToEvaluate - 1; j++){
+                  workSolutionValues[indexesToEvaluate[j]] = calculateSolutionValue(workIndividuals[indexesToEvaluate[j]]);
                }
+
+               return null;
             }
-            else{
-               if(sortedIndividualsSolutionValues[sortedIndividualsSolutionValues.length - 1 - i] == individualsSolutionValues[j]){
-                  eliteIndividuals[i] = Arrays.copyOf(population[j], population[j].length);
+         });
+      }
+   }
+
+   private double getRandomNumber(){
+      return random.nextDouble();
+   }
+
+   private int[] getEliteIndividualsIndexes(double[] individualsSolutionValues, int numberOfEliteIndividuals){
+      loadBestIndividualsIndexes(individualsSolutionValues, individualsSolutionValues.length, eliteHeap, false);
+      return eliteHeap;
+   }
+
+   private int[] getBestIndividualsIndexes(double[] individualsSolutionValues, int numberOfIndividuals, boolean worstFirst){
+      int[] bestIndividualsIndexes = new int[numberOfIndividuals];
+
+      loadBestIndividualsIndexes(individualsSolutionValues, individualsSolutionValues.length, bestIndividualsIndexes, worstFirst);
+      return bestIndividualsIndexes;
+   }
+
+   /**
+    * Method to load the indexes of the best individuals, best first.
+    *
+    * The indexes are kept in a bounded heap whose root is the worst one found so far,
+    * so the whole selection costs O(P log K). Ties are broken by the lower index,
+    * so each individual is picked at most once.
+    * When worstFirst is true the order is reversed, so the worst individuals are loaded.
+    * @author Matheus Paixao
+    * @param individualsSolutionValues the solution value of each individual
+    * @param numberOfIndividuals the number of individuals, from the first one, to rank
+    * @param heap the array to load, its length is the number of indexes
+    * @param worstFirst true to load the worst individuals, worst first
+    * @see isRankedWorse
+    * @see siftDown
+    */
+   private void loadBestIndividualsIndexes(double[] individualsSolutionValues, int numberOfIndividuals, int[] heap, boolean worstFirst){
+      int heapSize = 0;
+      int aux = 0;
+      int child = 0;
+      int parent = 0;
+
+      if(heap.length == 0){
+         return;
+      }
+
+      for(int i = 0; i <= numberOfIndividuals - 1; i++){
+         if(heapSize < heap.length){
+            //sift up
+            child = heapSize;
+            heap[child] = i;
+            heapSize++;
+            while(child > 0){
+               parent = (child - 1) / 2;
+               if(isRankedWorse(heap[child], heap[parent], individualsSolutionValues, worstFirst) == false){
                   break;
                }
+               aux = heap[child];
+               heap[child] = heap[parent];
+               heap[parent] = aux;
+               child = parent;
             }
          }
+         else if(isRankedWorse(heap[0], i, individualsSolutionValues, worstFirst) == true){
+            heap[0] = i;
+            siftDown(heap, heapSize, individualsSolutionValues, worstFirst);
+         }
       }
 
-      return eliteIndividuals;
+      //heap sort: the root goes to the end each time
+      for(int i = heapSize - 1; i >= 1; i--){
+         aux = heap[0];
+         heap[0] = heap[i];
+         heap[i] = aux;
+         siftDown(heap, i, individualsSolutionValues, worstFirst);
+      }
    }
 
-   private double getBestIndividualSolutionValue(){
-      double[] individualsSolutionValues = getIndividualsSolutionValues();
+   private void siftDown(int[] heap, int heapSize, double[] individualsSolutionValues, boolean worstFirst){
+      int parent = 0;
+      int child = 1;
+      int aux = 0;
+
+      while(child <= heapSize - 1){
+         if(child + 1 <= heapSize - 1 && isRankedWorse(heap[child + 1], heap[child], individualsSolutionValues, worstFirst) == true){
+            child++;
+         }
+
+         if(isRankedWorse(heap[child], heap[parent], individualsSolutionValues, worstFirst) == false){
+            break;
+         }
+
+         aux = heap[child];
+         heap[child] = heap[parent];
+         heap[parent] = aux;
+         parent = child;
+         child = 2 * parent + 1;
+      }
+   }
+
+   /**
+    * Method to compare two individuals when ranking them.
+    *
+    * @author Matheus Paixao
+    * @return true if the first individual ranks after the second one
+    */
+   private boolean isRankedWorse(int index1, int index2, double[] individualsSolutionValues, boolean worstFirst){
+      double solutionValue1 = individualsSolutionValues[index1];
+      double solutionValue2 = individualsSolutionValues[index2];
+
+      if(solutionValue1 == solutionValue2){
+         return index1 > index2;
+      }
+
+      if(isMinimizationProblem() != worstFirst){
+         return solutionValue1 > solutionValue2;
+      }
+
+      return solutionValue1 < solutionValue2;
+   }
+
+   public double getBestIndividualSolutionValue(){
+      double[] individualsSolutionValues = null;
+
+      evaluateDirtyIndividuals();
+      individualsSolutionValues = solutionValues;
       double individualSolutionValue = 0;
       double bestIndividualSolutionValue = 0;
 
@@ -0,0 +1,112 @@
+package algorithms.ga;
+
+/**
+ * Class to keep the indexes of an array of values in a binary heap.
+ *
+ * The position of each index in the heap is stored, so when a value of the array
+ * changes its index can be moved to the right place in O(log n).
+ * Ties are broken by the index, so the heap is deterministic.
+ *
+ * @author Matheus Paixao
+ */
+public class IndexedHeap{
+   private int[] heap;
+   private int[] positions;
+   private int size;
+   private double[] values;
+   private boolean maxOnTop;
+
+   public IndexedHeap(int capacity){
+      this.heap = new int[capacity];
+      this.positions = new int[capacity];
+   }
+
+   /**
+    * Method to build the heap with the first values of an array.
+    *
+    * The array is not copied, so it must be changed only through the update method.
+    * @author Matheus Paixao
+    * @param values the values to keep in the heap
+    * @param numberOfValues the number of values, from the first one, to keep
+    * @param maxOnTop true to keep the highest value on top, false for the lowest
+    */
+   public void load(double[] values, int numberOfValues, boolean maxOnTop){
+      this.values = values;
+      this.size = numberOfValues;
+      this.maxOnTop = maxOnTop;
+
+      for(int i = 0; i <= size - 1; i++){
+         heap[i] = i;
+         positions[i] = i;
+      }
+      for(int i = (size / 2) - 1; i >= 0; i--){
+         siftDown(i);
+      }
+   }
+
+   public int getTop(){
+      return heap[0];
+   }
+
+   public int getSize(){
+      return this.size;
+   }
+
+   /**
+    * Method to move an index to its place after its value has changed.
+    *
+    * @author Matheus Paixao
+    * @param index the index of the changed value
+    */
+   public void update(int index){
+      siftDown(siftUp(positions[index]));
+   }
+
+   private int siftUp(int position){
+      int parent = 0;
+
+      while(position > 0){
+         parent = (position - 1) / 2;
+         if(isAbove(heap[position], heap[parent]) == false){
+            break;
+         }
+         swap(position, parent);
+         position = parent;
+      }
+
+      return position;
+   }
+
+   private void siftDown(int position){
+      int child = 0;
+
+      while(2 * position + 1 <= size - 1){
+         child = 2 * position + 1;
+         if(child + 1 <= size - 1 && isAbove(heap[child + 1], heap[child]) == true){
+            child++;
+         }
+         if(isAbove(heap[child], heap[position]) == false){
+            break;
+         }
+         swap(position, child);
+         position = child;
+      }
+   }
+
+   private boolean isAbove(int index1, int index2){
+      if(values[index1] != values[index2]){
+         return (values[index1] > values[index2]) == maxOnTop;
+      }
+
+      return index1 > index2;
+   }
+
+   private void swap(int position1, int position2){
+      int aux = heap[position1];
+
+      heap[position1] = heap[position2];
+      heap[position2] = aux;
+      positions[heap[position1]] = position1;
+      positions[heap[position2]] = position2;
+   }
+}
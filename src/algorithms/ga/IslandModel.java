@@ -0,0 +1,236 @@
+package algorithms.ga;
+
+import algorithms.Algorithm;
+import algorithms.Topology;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that runs many genetic algorithms (islands), each one in its own thread.
+ *
+ * Each island has its own population and random number generator, and runs its
+ * generations serially, so the islands never share mutable state while they evolve.
+ * Every migrationInterval generations each island sends copies of its best individuals
+ * to the islands it feeds in the topology, through lock-free queues, and the migrants
+ * waiting in its own queue replace its worst individuals.
+ * Any subclass of GeneticAlgorithm can be used as an island.
+ *
+ * @author Matheus Paixao
+ */
+public class IslandModel implements Algorithm{
+   private GeneticAlgorithm[] islands;
+   private Topology topology;
+   private int migrationInterval;
+   private int numberOfMigrants;
+
+   private ArrayList<ConcurrentLinkedQueue<Migrant>> migrantsQueues;
+   private double[] islandsSolutionValues;
+
+   private double totalTime;
+
+   /**
+    * Method to create an IslandModel object.
+    *
+    * Each island must be a different object (e.g. one TSPGeneticAlgorithm for each island).
+    * @author Matheus Paixao
+    * @param islands the genetic algorithms to run in parallel
+    * @param topology how the islands are connected
+    * @param migrationInterval number of generations between two migrations
+    * @param numberOfMigrants number of individuals sent by an island in each migration
+    */
+   public IslandModel(GeneticAlgorithm[] islands, Topology topology, int migrationInterval, int numberOfMigrants){
+      this.islands = islands;
+      this.topology = topology;
+      this.migrationInterval = migrationInterval;
+      this.numberOfMigrants = numberOfMigrants;
+      setTotalTime(0);
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   private void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   /**
+    * Method to seed the random number generators of the islands.
+    *
+    * Each island receives a different seed derived from the passed one.
+    * @author Matheus Paixao
+    * @param seed the seed of the island model
+    */
+   public void setSeed(long seed){
+      for(int i = 0; i <= islands.length - 1; i++){
+         islands[i].setSeed(seed + 0x9E3779B97F4A7C15L * (i + 1));
+      }
+   }
+
+   /**
+    * Method to get the solution of the algorithm and to set the total time spended.
+    *
+    * All the islands run in parallel and the best solution among them is returned.
+    * If an island fails, or the run is interrupted, the other islands are stopped and the run fails.
+    * @author Matheus Paixao
+    * @return solution founded by the algorithm
+    * @see runIsland
+    * @see stopIslands
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+      double bestSolutionValue = 0;
+
+      ExecutorService executor = Executors.newFixedThreadPool(islands.length);
+      ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<Object>(executor);
+
+      migrantsQueues = new ArrayList<ConcurrentLinkedQueue<Migrant>>();
+      for(int i = 0; i <= islands.length - 1; i++){
+         migrantsQueues.add(new ConcurrentLinkedQueue<Migrant>());
+      }
+      islandsSolutionValues = new double[islands.length];
+
+      initialTime = System.currentTimeMillis();
+      try{
+         for(int i = 0; i <= islands.length - 1; i++){
+            final int islandIndex = i;
+            completionService.submit(new Callable<Object>(){
+               public Object call(){
+                  runIsland(islandIndex);
+                  return null;
+               }
+            });
+         }
+
+         for(int i = 0; i <= islands.length - 1; i++){
+            completionService.take().get(); //in the order the islands end, so a failure is seen at once
+         }
+      }
+      catch(InterruptedException e){
+         stopIslands(executor);
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Island model execution interrupted", e);
+      }
+      catch(ExecutionException e){
+         stopIslands(executor);
+         throw new RuntimeException("Error in island model execution", e.getCause());
+      }
+      finally{
+         executor.shutdown();
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      for(int i = 0; i <= islands.length - 1; i++){
+         if((i == 0) || (islands[i].isSolutionBetter(islandsSolutionValues[i], bestSolutionValue) == true)){
+            bestSolutionValue = islandsSolutionValues[i];
+         }
+      }
+
+      return bestSolutionValue;
+   }
+
+   /**
+    * Method to interrupt the running islands and to wait for their threads to end.
+    *
+    * @author Matheus Paixao
+    * @param executor the pool of threads of the islands
+    */
+   private void stopIslands(ExecutorService executor){
+      executor.shutdownNow();
+      try{
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Method to run all the generations of an island, migrating in each interval.
+    *
+    * An interrupted island stops at the next generation.
+    * @author Matheus Paixao
+    * @param islandIndex the index of the island to run
+    * @see migrate
+    */
+   private void runIsland(int islandIndex){
+      GeneticAlgorithm island = islands[islandIndex];
+      int numberOfIterations = island.getNumberOfIterations();
+
+      island.setNumberOfThreads(1);
+      island.initEvolution();
+
+      try{
+         for(int i = 0; i <= numberOfIterations - 1; i++){
+            if(Thread.currentThread().isInterrupted() == true){
+               return; //another island failed
+            }
+            island.runGeneration();
+
+            if(((i + 1) % migrationInterval == 0) && (i != numberOfIterations - 1)){
+               migrate(islandIndex);
+            }
+         }
+
+         islandsSolutionValues[islandIndex] = island.getBestIndividualSolutionValue();
+      }
+      finally{
+         island.finishEvolution();
+      }
+   }
+
+   /**
+    * Method to send the best individuals of an island and to receive the waiting migrants.
+    *
+    * @author Matheus Paixao
+    * @param islandIndex the index of the island
+    * @see getSources in Topology enum
+    */
+   private void migrate(int islandIndex){
+      GeneticAlgorithm island = islands[islandIndex];
+      double[] migrantsSolutionValues = new double[numberOfMigrants];
+      int[][] migrantsIndividuals = island.getBestIndividuals(numberOfMigrants, migrantsSolutionValues);
+      ConcurrentLinkedQueue<Migrant> migrantsQueue = migrantsQueues.get(islandIndex);
+      ArrayList<Migrant> migrants = new ArrayList<Migrant>();
+      Migrant migrant = null;
+      int[] sources = null;
+
+      for(int i = 0; i <= islands.length - 1; i++){
+         sources = topology.getSources(i, islands.length);
+         for(int j = 0; j <= sources.length - 1; j++){
+            if(sources[j] == islandIndex){
+               for(int k = 0; k <= migrantsIndividuals.length - 1; k++){
+                  migrantsQueues.get(i).offer(new Migrant(migrantsIndividuals[k], migrantsSolutionValues[k]));
+               }
+            }
+         }
+      }
+
+      migrant = migrantsQueue.poll();
+      while(migrant != null){
+         migrants.add(migrant);
+         migrant = migrantsQueue.poll();
+      }
+
+      if(migrants.size() > 0){
+         migrantsIndividuals = new int[migrants.size()][];
+         migrantsSolutionValues = new double[migrants.size()];
+         for(int i = 0; i <= migrants.size() - 1; i++){
+            migrantsIndividuals[i] = migrants.get(i).getIndividual();
+            migrantsSolutionValues[i] = migrants.get(i).getSolutionValue();
+         }
+
+         island.replaceWorstIndividuals(migrantsIndividuals, migrantsSolutionValues);
+      }
+   }
+}
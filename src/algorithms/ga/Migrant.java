@@ -0,0 +1,34 @@
+package algorithms.ga;
+
+/**
+ * Class to describe an individual that migrates between the islands of an IslandModel.
+ *
+ * The objects are immutable, so they can be shared by many islands
+ * without locks after being offered to their queues.
+ *
+ * @author Matheus Paixao
+ */
+public class Migrant{
+   private final int[] individual;
+   private final double solutionValue;
+
+   /**
+    * Method to create a migrant.
+    *
+    * @author Matheus Paixao
+    * @param individual copy of the individual, it must not be changed after the creation
+    * @param solutionValue the solution value of the individual
+    */
+   public Migrant(int[] individual, double solutionValue){
+      this.individual = individual;
+      this.solutionValue = solutionValue;
+   }
+
+   public int[] getIndividual(){
+      return this.individual;
+   }
+
+   public double getSolutionValue(){
+      return this.solutionValue;
+   }
+}
@@ -0,0 +1,88 @@
+package algorithms.ga;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Class to implement the linear rank selection method.
+ *
+ * The population is sorted once per generation and each individual gets a weight
+ * according to its rank, from 2 - selectionPressure (worst) to selectionPressure (best).
+ * The cumulative weights are searched with a binary search, so each selection is O(log P).
+ *
+ * @author Matheus Paixao
+ */
+public class RankSelection implements SelectionOperator{
+   private double selectionPressure;
+   private Integer[] rankedIndexes;
+   private double[] cumulativeWeights;
+
+   public RankSelection(){
+      this(1.5);
+   }
+
+   public RankSelection(double selectionPressure){ //between 1 (uniform) and 2 (strongest pressure)
+      this.selectionPressure = selectionPressure;
+   }
+
+   public void prepare(final double[] individualsSolutionValues, final boolean minimizationProblem){
+      int populationSize = individualsSolutionValues.length;
+      double weight = 0;
+
+      if(rankedIndexes == null || rankedIndexes.length != populationSize){
+         rankedIndexes = new Integer[populationSize];
+         cumulativeWeights = new double[populationSize];
+      }
+
+      for(int i = 0; i <= populationSize - 1; i++){
+         rankedIndexes[i] = i;
+      }
+
+      //worst individuals first
+      Arrays.sort(rankedIndexes, new Comparator<Integer>(){
+         public int compare(Integer index1, Integer index2){
+            if(minimizationProblem == true){
+               return Double.compare(individualsSolutionValues[index2], individualsSolutionValues[index1]);
+            }
+
+            return Double.compare(individualsSolutionValues[index1], individualsSolutionValues[index2]);
+         }
+      });
+
+      for(int i = 0; i <= populationSize - 1; i++){
+         if(populationSize == 1){
+            weight = 1;
+         }
+         else{
+            weight = (2 - selectionPressure) + (2 * (selectionPressure - 1) * i) / (populationSize - 1);
+         }
+
+         if(i == 0){
+            cumulativeWeights[i] = weight;
+         }
+         else{
+            cumulativeWeights[i] = cumulativeWeights[i - 1] + weight;
+         }
+      }
+   }
+
+   public int select(Random random){
+      double neddle = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+      int low = 0;
+      int high = cumulativeWeights.length - 1;
+      int middle = 0;
+
+      while(low < high){
+         middle = (low + high) >>> 1;
+         if(cumulativeWeights[middle] > neddle){
+            high = middle;
+         }
+         else{
+            low = middle + 1;
+         }
+      }
+
+      return rankedIndexes[low];
+   }
+}
@@ -0,0 +1,18 @@
+package algorithms.ga;
+
+/**
+ * Enum with the ways the GeneticAlgorithm class builds the next population.
+ *
+ * GENERATIONAL: the childs replace the population, except the elite individuals.
+ * STEADY_STATE: each child replaces the worst individual of the population if it is better.
+ * MU_PLUS_LAMBDA: the best individuals among the parents and the lambda childs survive.
+ * MU_COMMA_LAMBDA: the best individuals among the lambda childs survive.
+ *
+ * @author Matheus Paixao
+ */
+public enum ReplacementModel{
+   GENERATIONAL,
+   STEADY_STATE,
+   MU_PLUS_LAMBDA,
+   MU_COMMA_LAMBDA
+}
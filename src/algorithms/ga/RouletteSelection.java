@@ -0,0 +1,141 @@
+package algorithms.ga;
+
+import java.util.Random;
+
+/**
+ * Class to implement the roulette (fitness proportional) selection method.
+ *
+ * For maximization problems the weight of an individual is its solution value.
+ * For minimization problems the weight is the difference to the worst solution value.
+ * The weights are loaded in an alias table (Vose's method) so each selection is O(1).
+ *
+ * @author Matheus Paixao
+ */
+public class RouletteSelection implements SelectionOperator{
+   private double[] probabilities;
+   private int[] aliases;
+   private double[] weights;
+   private int[] smallIndexes;
+   private int[] largeIndexes;
+
+   public void prepare(double[] individualsSolutionValues, boolean minimizationProblem){
+      int populationSize = individualsSolutionValues.length;
+      double weightsSum = 0;
+
+      if(probabilities == null || probabilities.length != populationSize){
+         probabilities = new double[populationSize];
+         aliases = new int[populationSize];
+         weights = new double[populationSize];
+         smallIndexes = new int[populationSize];
+         largeIndexes = new int[populationSize];
+      }
+
+      loadWeights(individualsSolutionValues, minimizationProblem);
+      for(int i = 0; i <= populationSize - 1; i++){
+         weightsSum += weights[i];
+      }
+
+      if(weightsSum <= 0 || Double.isNaN(weightsSum) || Double.isInfinite(weightsSum)){
+         for(int i = 0; i <= populationSize - 1; i++){
+            weights[i] = 1;
+         }
+         weightsSum = populationSize;
+      }
+
+      loadAliasTable(weightsSum);
+   }
+
+   public int select(Random random){
+      int index = random.nextInt(probabilities.length);
+
+      if(random.nextDouble() < probabilities[index]){
+         return index;
+      }
+
+      return aliases[index];
+   }
+
+   /**
+    * Method to calculate the roulette weight of each individual.
+    *
+    * @author Matheus Paixao
+    * @param individualsSolutionValues the solution value of each individual
+    * @param minimizationProblem true if lower solution values are better
+    */
+   private void loadWeights(double[] individualsSolutionValues, boolean minimizationProblem){
+      double maxIndividualSolutionValue = 0;
+
+      if(minimizationProblem == true){
+         for(int i = 0; i <= individualsSolutionValues.length - 1; i++){
+            if(individualsSolutionValues[i] > maxIndividualSolutionValue){
+               maxIndividualSolutionValue = individualsSolutionValues[i];
+            }
+         }
+      }
+
+      for(int i = 0; i <= weights.length - 1; i++){
+         if(minimizationProblem == true){
+            weights[i] = maxIndividualSolutionValue - individualsSolutionValues[i];
+         }
+         else{
+            weights[i] = individualsSolutionValues[i];
+         }
+
+         if(weights[i] < 0 || Double.isNaN(weights[i])){
+            weights[i] = 0;
+         }
+      }
+   }
+
+   /**
+    * Method to build the alias table using Vose's method.
+    *
+    * Each column of the table keeps the probability of its own individual
+    * and the alias to be returned otherwise.
+    * @author Matheus Paixao
+    * @param weightsSum the sum of the roulette weights
+    */
+   private void loadAliasTable(double weightsSum){
+      int populationSize = weights.length;
+      int numberOfSmall = 0;
+      int numberOfLarge = 0;
+      int small = 0;
+      int large = 0;
+
+      for(int i = 0; i <= populationSize - 1; i++){
+         probabilities[i] = weights[i] * populationSize / weightsSum;
+         aliases[i] = i;
+         if(probabilities[i] < 1){
+            smallIndexes[numberOfSmall] = i;
+            numberOfSmall++;
+         }
+         else{
+            largeIndexes[numberOfLarge] = i;
+            numberOfLarge++;
+         }
+      }
+
+      while(numberOfSmall > 0 && numberOfLarge > 0){
+         numberOfSmall--;
+         small = smallIndexes[numberOfSmall];
+         large = largeIndexes[numberOfLarge - 1];
+
+         aliases[small] = large;
+         probabilities[large] = (probabilities[large] + probabilities[small]) - 1;
+
+         if(probabilities[large] < 1){
+            numberOfLarge--;
+            smallIndexes[numberOfSmall] = large;
+            numberOfSmall++;
+         }
+      }
+
+      //numerical leftovers are columns that always return themselves
+      for(int i = 0; i <= numberOfLarge - 1; i++){
+         probabilities[largeIndexes[i]] = 1;
+      }
+      for(int i = 0; i <= numberOfSmall - 1; i++){
+         probabilities[smallIndexes[i]] = 1;
+      }
+   }
+}
@@ -0,0 +1,17 @@
+package algorithms.ga;
+
+import java.util.Random;
+
+/**
+ * Interface to specify a parent selection method of the GeneticAlgorithm class.
+ *
+ * The selection distribution is built once per generation by prepare and then
+ * sampled as many times as needed by select, which returns population indexes.
+ *
+ * @author Matheus Paixao
+ */
+public interface SelectionOperator{
+   public void prepare(double[] individualsSolutionValues, boolean minimizationProblem); //called once per generation
+
+   public int select(Random random); //index of the selected individual
+}
@@ -0,0 +1,104 @@
+package algorithms.ga;
+
+import java.util.Random;
+
+/**
+ * Class to implement the stochastic universal sampling selection method.
+ *
+ * The weights are the same ones of the roulette selection. A whole batch of
+ * population size individuals is drawn with a single spin of equally spaced pointers,
+ * which keeps the number of copies of each individual close to its expected value.
+ * The batch is shuffled and handed out by select, and a new batch is drawn when it ends.
+ *
+ * @author Matheus Paixao
+ */
+public class StochasticUniversalSampling implements SelectionOperator{
+   private double[] cumulativeWeights;
+   private int[] selectedIndexes;
+   private int nextSelected;
+
+   public void prepare(double[] individualsSolutionValues, boolean minimizationProblem){
+      int populationSize = individualsSolutionValues.length;
+      double maxIndividualSolutionValue = 0;
+      double weight = 0;
+      double weightsSum = 0;
+
+      if(cumulativeWeights == null || cumulativeWeights.length != populationSize){
+         cumulativeWeights = new double[populationSize];
+         selectedIndexes = new int[populationSize];
+      }
+
+      if(minimizationProblem == true){
+         for(int i = 0; i <= populationSize - 1; i++){
+            if(individualsSolutionValues[i] > maxIndividualSolutionValue){
+               maxIndividualSolutionValue = individualsSolutionValues[i];
+            }
+         }
+      }
+
+      for(int i = 0; i <= populationSize - 1; i++){
+         if(minimizationProblem == true){
+            weight = maxIndividualSolutionValue - individualsSolutionValues[i];
+         }
+         else{
+            weight = individualsSolutionValues[i];
+         }
+
+         if(weight < 0 || Double.isNaN(weight)){
+            weight = 0;
+         }
+
+         weightsSum += weight;
+         cumulativeWeights[i] = weightsSum;
+      }
+
+      if(weightsSum <= 0 || Double.isInfinite(weightsSum)){
+         for(int i = 0; i <= populationSize - 1; i++){
+            cumulativeWeights[i] = i + 1;
+         }
+      }
+
+      nextSelected = populationSize;
+   }
+
+   public int select(Random random){
+      if(nextSelected == selectedIndexes.length){
+         loadSelectedIndexes(random);
+         nextSelected = 0;
+      }
+
+      nextSelected++;
+      return selectedIndexes[nextSelected - 1];
+   }
+
+   /**
+    * Method to spin the pointers once and shuffle the selected individuals.
+    *
+    * @author Matheus Paixao
+    * @param random the random number generator used by the selection
+    */
+   private void loadSelectedIndexes(Random random){
+      int numberOfPointers = selectedIndexes.length;
+      double pointersDistance = cumulativeWeights[cumulativeWeights.length - 1] / numberOfPointers;
+      double pointer = random.nextDouble() * pointersDistance;
+      int index = 0;
+      int randomIndex = 0;
+      int aux = 0;
+
+      for(int i = 0; i <= numberOfPointers - 1; i++){
+         while(index < cumulativeWeights.length - 1 && cumulativeWeights[index] <= pointer){
+            index++;
+         }
+         selectedIndexes[i] = index;
+         pointer += pointersDistance;
+      }
+
+      //pointers are sorted, so shuffle to avoid pairing neighbour individuals
+      for(int i = numberOfPointers - 1; i >= 1; i--){
+         randomIndex = random.nextInt(i + 1);
+         aux = selectedIndexes[i];
+         selectedIndexes[i] = selectedIndexes[randomIndex];
+         selectedIndexes[randomIndex] = aux;
+      }
+   }
+}
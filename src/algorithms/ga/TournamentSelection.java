@@ -0,0 +1,52 @@
+package algorithms.ga;
+
+import java.util.Random;
+
+/**
+ * Class to implement the tournament selection method.
+ *
+ * A number of individuals are drawn uniformly and the best one among them is selected.
+ * There is nothing to build per generation besides keeping the solution values.
+ *
+ * @author Matheus Paixao
+ */
+public class TournamentSelection implements SelectionOperator{
+   private int tournamentSize;
+   private double[] individualsSolutionValues;
+   private boolean minimizationProblem;
+
+   public TournamentSelection(){
+      this(2);
+   }
+
+   public TournamentSelection(int tournamentSize){
+      this.tournamentSize = tournamentSize;
+   }
+
+   public void prepare(double[] individualsSolutionValues, boolean minimizationProblem){
+      this.individualsSolutionValues = individualsSolutionValues;
+      this.minimizationProblem = minimizationProblem;
+   }
+
+   public int select(Random random){
+      int bestIndex = random.nextInt(individualsSolutionValues.length);
+      int index = 0;
+
+      for(int i = 1; i <= tournamentSize - 1; i++){
+         index = random.nextInt(individualsSolutionValues.length);
+         if(isBetter(individualsSolutionValues[index], individualsSolutionValues[bestIndex]) == true){
+            bestIndex = index;
+         }
+      }
+
+      return bestIndex;
+   }
+
+   private boolean isBetter(double solutionValue1, double solutionValue2){
+      if(minimizationProblem == true){
+         return solutionValue1 < solutionValue2;
+      }
+
+      return solutionValue1 > solutionValue2;
+   }
+}
@@ -0,0 +1,467 @@
+package algorithms.ils;
+
+import algorithms.Algorithm;
+import algorithms.sa.AcceptanceCriterion;
+import algorithms.sa.MetropolisCriterion;
+
+import java.util.Random;
+
+/**
+ * Class that implements the Iterated Local Search algorithm.
+ *
+ * The initialization constants are adjusted by each the problem.
+ *
+ * The initial solution is taken to a local optimum, and then each iteration perturbs a copy of the
+ * current local optimum, takes it to a new local optimum and decides by the acceptance criterion if
+ * it replaces the current one. The default criterion is the Metropolis criterion at the acceptance
+ * temperature, whose default of 0 accepts the local optima that are not worse than the current one.
+ *
+ * The local search is driven by the deltas of the moves given by the problem, which numbers the moves
+ * of each neighbourhood from 0 to its size - 1. The moves are scanned cyclically from a random move and
+ * every improving move is applied (first improvement) until a whole neighbourhood is scanned without
+ * improvement, or only the best move of each scan is applied (best improvement).
+ * In the variable neighbourhood descent mode the problem may give many neighbourhoods: the search goes
+ * to the next one when the current one has no improving move, and back to the first one when it improves.
+ * Otherwise only the first neighbourhood is used.
+ *
+ * For large solutions the problem may split the moves of a neighbourhood in groups of contiguous moves,
+ * such as the moves that add an edge to the same city, so the scans use don't look bits: only the active
+ * groups are scanned, and a group becomes inactive when it has no improving move. All the groups are
+ * active for the initial solution, and then the problem activates the groups of the parts of the
+ * solution changed by each applied move and by the perturbation, so each local search only looks at
+ * the moves around the perturbation instead of the whole neighbourhood. The groups are the same in every
+ * neighbourhood that has them, and a grouped neighbourhood must keep its size.
+ *
+ * The strength of the perturbation starts at 1, goes up by 1 after each iteration that does not find
+ * a local optimum better than the current one, up to the maximum strength, and goes back to 1 when one
+ * is found, as the shaking of the Variable Neighbourhood Search. With a maximum strength of 1 the
+ * perturbation is always the same.
+ *
+ * The algorihtm stores the best so far solution and the time in which it was found.
+ *
+ * @author Matheus Paixao
+ */
+public abstract class IteratedLocalSearch implements Algorithm{
+   private static final double MINIMUM_IMPROVEMENT = 1e-9; //smaller deltas are rounding errors, which could make the search cycle
+
+   private int[] solution; //the current local optimum
+   private double solutionValue;
+   private int[] neighbourSolution; //the perturbed copy of the current local optimum
+   private double neighbourSolutionValue;
+   private int[] bestSoFarSolution;
+   private double bestSoFarSolutionValue;
+   private double timeToBestSoFarSolution;
+   private AcceptanceCriterion acceptanceCriterion;
+   private int perturbationStrength;
+   private int numberOfLocalSearchMoves;
+
+   private int numberOfUsedNeighbourhoods;
+   private int[] moveGroupSizes; //the number of moves of each group by neighbourhood, 0 if the neighbourhood has no groups
+   private int[][] activeGroupsQueues; //circular queue of the active groups of each neighbourhood
+   private int[] activeGroupsQueuesFirsts;
+   private int[] numbersOfActiveGroups;
+   private boolean[][] activeGroups;
+
+   private boolean variableNeighbourhoodDescent;
+
+   //all these parameters and functions depends on the problem
+   //they must be implemented by the problem child class
+   protected abstract int getNumberOfIterations();
+   protected int getMaximumNumberOfIterationsWithoutImprovement(){return 0;} //0 is no limit
+   protected long getTimeLimit(){return 0;} //in milliseconds, 0 is no limit
+   protected AcceptanceCriterion getAcceptanceCriterion(){return new MetropolisCriterion();}
+   protected double getAcceptanceTemperature(){return 0;} //the temperature given to the acceptance criterion
+   protected boolean isFirstImprovement(){return true;} //false to apply only the best move of each scan
+   protected int getMaximumPerturbationStrength(){return 1;}
+   protected int getNumberOfNeighbourhoods(){return 1;} //only used in the variable neighbourhood descent mode
+   protected int getMoveGroupSize(int neighbourhood){return 0;} //the moves g * size to (g + 1) * size - 1 are the group g, 0 for no groups
+   protected void loadSolution(int[] solution){} //called with the solution the moves will be applied to, after each perturbation
+   protected abstract int[] getInitialSolution();
+   protected abstract int getNeighbourhoodSize(int[] solution, int neighbourhood);
+   protected abstract boolean isMoveValid(int[] solution, int neighbourhood, int move);
+   protected abstract double getMoveDelta(int[] solution, int neighbourhood, int move);
+   protected abstract void applyMove(int[] solution, int neighbourhood, int move);
+   protected abstract void perturbSolution(int[] solution, int strength, Random random);
+   protected abstract double calculateSolutionValue(int[] solution);
+   protected abstract boolean isSolutionBest(double solutionValue1, double solutionValue2);
+
+   private Random random;
+
+   private double totalTime;
+
+   /**
+    * Method to create an IteratedLocalSearch object.
+    *
+    * @author Matheus Paixao
+    */
+   public IteratedLocalSearch(){
+      this.random = new Random();
+      this.variableNeighbourhoodDescent = false;
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   public void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   /**
+    * Method to seed the random number generator of the perturbations and of the scans.
+    *
+    * @author Matheus Paixao
+    * @param seed the seed
+    */
+   public void setSeed(long seed){
+      this.random.setSeed(seed);
+   }
+
+   public void setVariableNeighbourhoodDescent(boolean variableNeighbourhoodDescent){
+      this.variableNeighbourhoodDescent = variableNeighbourhoodDescent;
+   }
+
+   public int[] getBestSoFarSolution(){
+      return this.bestSoFarSolution;
+   }
+
+   public double getTimeToBestSoFarSolution(){
+      return this.timeToBestSoFarSolution; //in milliseconds from the start of the run
+   }
+
+   public int getNumberOfLocalSearchMoves(){
+      return this.numberOfLocalSearchMoves;
+   }
+
+   /**
+    * Method to get the solution of the algorithm and to set the total time spended.
+    *
+    * @author Matheus Paixao
+    * @return solution founded by the algorithm
+    * @see initILS
+    * @see runIteration
+    * @see setTotalTime
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+      int numberOfIterations = 0;
+      int maximumNumberOfIterationsWithoutImprovement = 0;
+      int lastImprovementIteration = 0;
+      long timeLimit = 0;
+
+      initialTime = System.currentTimeMillis();
+      initILS();
+      timeToBestSoFarSolution = System.currentTimeMillis() - initialTime;
+      numberOfIterations = getNumberOfIterations();
+      maximumNumberOfIterationsWithoutImprovement = getMaximumNumberOfIterationsWithoutImprovement();
+      timeLimit = getTimeLimit();
+
+      for(int iteration = 1; iteration <= numberOfIterations; iteration++){
+         runIteration();
+
+         if(isSolutionBest(neighbourSolutionValue, bestSoFarSolutionValue) == true){
+            bestSoFarSolutionValue = neighbourSolutionValue;
+            System.arraycopy(neighbourSolution, 0, bestSoFarSolution, 0, neighbourSolution.length);
+            timeToBestSoFarSolution = System.currentTimeMillis() - initialTime;
+            lastImprovementIteration = iteration;
+         }
+         acceptNeighbourSolution();
+
+         if(maximumNumberOfIterationsWithoutImprovement > 0 && iteration - lastImprovementIteration >= maximumNumberOfIterationsWithoutImprovement){
+            break;
+         }
+         if(timeLimit > 0 && System.currentTimeMillis() - initialTime >= timeLimit){
+            break;
+         }
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      return bestSoFarSolutionValue;
+   }
+
+   /**
+    * Method to initialize the IteratedLocalSearch algorithm, taking a copy of the initial solution to a local optimum.
+    *
+    * @author Matheus Paixao
+    * @see getInitialSolution
+    * @see runLocalSearch
+    */
+   private void initILS(){
+      solution = getInitialSolution().clone();
+      loadSolution(solution);
+      numberOfLocalSearchMoves = 0;
+      initMoveGroups(solution);
+      solutionValue = runLocalSearch(solution, calculateSolutionValue(solution));
+      neighbourSolution = solution.clone();
+      neighbourSolutionValue = solutionValue;
+      bestSoFarSolution = solution.clone();
+      bestSoFarSolutionValue = solutionValue;
+
+      acceptanceCriterion = getAcceptanceCriterion();
+      acceptanceCriterion.init(solutionValue, isSolutionBest(0, 1));
+      perturbationStrength = 1;
+   }
+
+   /**
+    * Method to create the queues of the active groups of the used neighbourhoods, with every group active.
+    *
+    * @author Matheus Paixao
+    * @param solution the initial solution
+    * @see getMoveGroupSize
+    */
+   private void initMoveGroups(int[] solution){
+      int numberOfGroups = 0;
+      int firstGroup = 0;
+
+      numberOfUsedNeighbourhoods = 1;
+      if(variableNeighbourhoodDescent == true){
+         numberOfUsedNeighbourhoods = getNumberOfNeighbourhoods();
+      }
+
+      moveGroupSizes = new int[numberOfUsedNeighbourhoods];
+      activeGroupsQueues = new int[numberOfUsedNeighbourhoods][];
+      activeGroupsQueuesFirsts = new int[numberOfUsedNeighbourhoods];
+      numbersOfActiveGroups = new int[numberOfUsedNeighbourhoods];
+      activeGroups = new boolean[numberOfUsedNeighbourhoods][];
+      for(int i = 0; i <= numberOfUsedNeighbourhoods - 1; i++){
+         numberOfGroups = 0;
+         moveGroupSizes[i] = getMoveGroupSize(i);
+         if(moveGroupSizes[i] > 0){
+            numberOfGroups = getNeighbourhoodSize(solution, i) / moveGroupSizes[i];
+         }
+         if(numberOfGroups == 0){
+            moveGroupSizes[i] = 0;
+         }
+         else{
+            activeGroupsQueues[i] = new int[numberOfGroups];
+            activeGroups[i] = new boolean[numberOfGroups];
+         }
+      }
+
+      for(int i = 0; i <= numberOfUsedNeighbourhoods - 1; i++){
+         if(moveGroupSizes[i] > 0){
+            numberOfGroups = activeGroups[i].length;
+            firstGroup = random.nextInt(Math.max(1, numberOfGroups));
+            for(int g = 0; g <= numberOfGroups - 1; g++){
+               activateMoveGroup((firstGroup + g) % numberOfGroups);
+            }
+            break; //the groups are the same in every neighbourhood, so the first grouped one activates all
+         }
+      }
+   }
+
+   /**
+    * Method to activate a group of moves in every neighbourhood, so its moves are scanned by the next local search.
+    *
+    * It is called by the problem for the groups changed by applyMove and by perturbSolution.
+    * @author Matheus Paixao
+    * @param group the group
+    */
+   protected void activateMoveGroup(int group){
+      int[] queue = null;
+
+      if(moveGroupSizes == null){
+         return; //called before the search
+      }
+
+      for(int i = 0; i <= numberOfUsedNeighbourhoods - 1; i++){
+         if(moveGroupSizes[i] == 0 || activeGroups[i][group] == true){
+            continue;
+         }
+
+         queue = activeGroupsQueues[i];
+         queue[(activeGroupsQueuesFirsts[i] + numbersOfActiveGroups[i]) % queue.length] = group;
+         numbersOfActiveGroups[i]++;
+         activeGroups[i][group] = true;
+      }
+   }
+
+   /**
+    * Method to run an iteration: to perturb a copy of the current local optimum and take it to a new local optimum.
+    *
+    * @author Matheus Paixao
+    * @see perturbSolution
+    * @see runLocalSearch
+    */
+   private void runIteration(){
+      System.arraycopy(solution, 0, neighbourSolution, 0, solution.length);
+      perturbSolution(neighbourSolution, perturbationStrength, random);
+      loadSolution(neighbourSolution);
+      neighbourSolutionValue = runLocalSearch(neighbourSolution, calculateSolutionValue(neighbourSolution));
+
+      if(isSolutionBest(neighbourSolutionValue, solutionValue) == true){
+         perturbationStrength = 1;
+      }
+      else{
+         perturbationStrength = Math.min(perturbationStrength + 1, getMaximumPerturbationStrength());
+      }
+   }
+
+   /**
+    * Method to replace the current local optimum by the new one if the acceptance criterion accepts it.
+    *
+    * The arrays are swapped, so nothing is copied.
+    * @author Matheus Paixao
+    * @see accept in AcceptanceCriterion interface
+    */
+   private void acceptNeighbourSolution(){
+      int[] solutionAux = null;
+
+      if(acceptanceCriterion.accept(solutionValue, neighbourSolutionValue, getAcceptanceTemperature(), random) == true){
+         solutionAux = solution;
+         solution = neighbourSolution;
+         neighbourSolution = solutionAux;
+         solutionValue = neighbourSolutionValue;
+      }
+   }
+
+   /**
+    * Method to take a solution to a local optimum of the first neighbourhood, or of all the neighbourhoods in the variable neighbourhood descent mode.
+    *
+    * @author Matheus Paixao
+    * @param solution the solution, changed in place
+    * @param solutionValue the solution value
+    * @return the solution value of the local optimum
+    * @see improveSolution
+    * @see improveSolutionByGroups
+    */
+   private double runLocalSearch(int[] solution, double solutionValue){
+      int neighbourhood = 0;
+      double improvedSolutionValue = 0;
+
+      while(neighbourhood <= numberOfUsedNeighbourhoods - 1){
+         if(moveGroupSizes[neighbourhood] > 0){
+            improvedSolutionValue = improveSolutionByGroups(solution, solutionValue, neighbourhood);
+         }
+         else{
+            improvedSolutionValue = improveSolution(solution, solutionValue, neighbourhood);
+         }
+         if(improvedSolutionValue != solutionValue){
+            solutionValue = improvedSolutionValue;
+            if(neighbourhood > 0){
+               neighbourhood = 0;
+               continue;
+            }
+         }
+         neighbourhood++;
+      }
+
+      //the deltas are summed, so the value is calculated again to drop their rounding errors
+      return calculateSolutionValue(solution);
+   }
+
+   /**
+    * Method to apply the improving moves of a neighbourhood until there is none.
+    *
+    * The moves are scanned cyclically, starting at a random move. In first improvement each improving
+    * move is applied as soon as it is found and the scan goes on from the next move, so the search ends
+    * when a whole neighbourhood size of moves in a row does not improve the solution.
+    * @author Matheus Paixao
+    * @param solution the solution, changed in place
+    * @param solutionValue the solution value
+    * @param neighbourhood the neighbourhood
+    * @return the solution value after the moves, the same value if no move was applied
+    */
+   private double improveSolution(int[] solution, double solutionValue, int neighbourhood){
+      boolean firstImprovement = isFirstImprovement();
+      int neighbourhoodSize = getNeighbourhoodSize(solution, neighbourhood);
+      int move = 0;
+      int bestMove = -1;
+      int numberOfScannedMoves = 0;
+      double delta = 0;
+      double bestDelta = 0;
+
+      if(neighbourhoodSize <= 0){
+         return solutionValue;
+      }
+
+      move = random.nextInt(neighbourhoodSize);
+      while(numberOfScannedMoves <= neighbourhoodSize - 1){
+         if(isMoveValid(solution, neighbourhood, move) == true){
+            delta = getMoveDelta(solution, neighbourhood, move);
+            if(isImprovement(solutionValue, delta) == true && (bestMove == -1 || isSolutionBest(solutionValue + delta, solutionValue + bestDelta) == true)){
+               bestMove = move;
+               bestDelta = delta;
+            }
+         }
+
+         numberOfScannedMoves++;
+         move++;
+         if(move == neighbourhoodSize){
+            move = 0;
+         }
+
+         if(bestMove != -1 && (firstImprovement == true || numberOfScannedMoves == neighbourhoodSize)){
+            applyMove(solution, neighbourhood, bestMove);
+            solutionValue += bestDelta;
+            numberOfLocalSearchMoves++;
+            bestMove = -1;
+            numberOfScannedMoves = 0;
+            neighbourhoodSize = getNeighbourhoodSize(solution, neighbourhood);
+            if(move >= neighbourhoodSize){
+               move = 0;
+            }
+         }
+      }
+
+      return solutionValue;
+   }
+
+   /**
+    * Method to apply the improving moves of the active groups of a neighbourhood until no group is active.
+    *
+    * The first active group is taken out of the queue and its moves are scanned. If one of them improves
+    * the solution it is applied and the group is activated again, at the end of the queue.
+    * @author Matheus Paixao
+    * @param solution the solution, changed in place
+    * @param solutionValue the solution value
+    * @param neighbourhood the neighbourhood
+    * @return the solution value after the moves, the same value if no move was applied
+    */
+   private double improveSolutionByGroups(int[] solution, double solutionValue, int neighbourhood){
+      boolean firstImprovement = isFirstImprovement();
+      int groupSize = moveGroupSizes[neighbourhood];
+      int[] queue = activeGroupsQueues[neighbourhood];
+      int group = 0;
+      int bestMove = -1;
+      double delta = 0;
+      double bestDelta = 0;
+
+      while(numbersOfActiveGroups[neighbourhood] > 0){
+         group = queue[activeGroupsQueuesFirsts[neighbourhood]];
+         activeGroupsQueuesFirsts[neighbourhood] = (activeGroupsQueuesFirsts[neighbourhood] + 1) % queue.length;
+         numbersOfActiveGroups[neighbourhood]--;
+         activeGroups[neighbourhood][group] = false;
+
+         bestMove = -1;
+         for(int move = group * groupSize; move <= (group + 1) * groupSize - 1; move++){
+            if(isMoveValid(solution, neighbourhood, move) == true){
+               delta = getMoveDelta(solution, neighbourhood, move);
+               if(isImprovement(solutionValue, delta) == true && (bestMove == -1 || isSolutionBest(solutionValue + delta, solutionValue + bestDelta) == true)){
+                  bestMove = move;
+                  bestDelta = delta;
+                  if(firstImprovement == true){
+                     break;
+                  }
+               }
+            }
+         }
+
+         if(bestMove != -1){
+            applyMove(solution, neighbourhood, bestMove);
+            solutionValue += bestDelta;
+            numberOfLocalSearchMoves++;
+            activateMoveGroup(group);
+         }
+      }
+
+      return solutionValue;
+   }
+
+   private boolean isImprovement(double solutionValue, double delta){
+      return (Math.abs(delta) > MINIMUM_IMPROVEMENT) && (isSolutionBest(solutionValue + delta, solutionValue) == true);
+   }
+}
@@ -0,0 +1,31 @@
+package algorithms.multicolony;
+
+/**
+ * Interface to specify the behavior of an ant colony that can run
+ * inside a MultiColonySystem.
+ *
+ * The tours are exchanged as int arrays with the sequence of visited nodes.
+ *
+ * @author Matheus Paixao
+ */
+public interface Colony{
+   public void initColony(); //prepare the colony to run its first iteration
+
+   public void runColonyIteration(); //run one iteration, updating the best so far tour
+
+   public void endColony(); //finish the run after the last iteration
+
+   public int getNumberOfColonyIterations();
+
+   public int[] getBestColonyTour(); //copy of the best so far tour
+
+   public double getBestColonySolutionValue();
+
+   public boolean isColonySolutionBest(double solutionValue1, double solutionValue2); //depends on a max or min problem
+
+   public void reinforceColonyTour(int[] tour, double tourValue); //receive a tour from another colony
+
+   public double[][] getColonyPheromone(); //copy of the pheromone matrix
+
+   public void blendColonyPheromone(double[][] pheromone, double weight); //mix another colony's pheromone into this one
+}
@@ -0,0 +1,42 @@
+package algorithms.multicolony;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Class used by the colonies to exchange messages without locks.
+ *
+ * Each colony has one slot where it publishes its last message.
+ * Publishing replaces the previous message and reading never blocks,
+ * so a slow colony never stops the others.
+ *
+ * @author Matheus Paixao
+ */
+public class ColonyMailbox{
+   private AtomicReferenceArray<ColonyMessage> slots;
+
+   public ColonyMailbox(int numberOfColonies){
+      this.slots = new AtomicReferenceArray<ColonyMessage>(numberOfColonies);
+   }
+
+   /**
+    * Method to publish the last message of a colony.
+    *
+    * @author Matheus Paixao
+    * @param colony the index of the colony sending the message
+    * @param message the message to publish
+    */
+   public void post(int colony, ColonyMessage message){
+      slots.set(colony, message);
+   }
+
+   /**
+    * Method to read the last message published by a colony.
+    *
+    * @author Matheus Paixao
+    * @param colony the index of the colony to read
+    * @return the last message published by the colony, or null if it didn't publish yet
+    */
+   public ColonyMessage read(int colony){
+      return slots.get(colony);
+   }
+}
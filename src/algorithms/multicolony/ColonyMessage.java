@@ -0,0 +1,48 @@
+package algorithms.multicolony;
+
+/**
+ * Class to describe what a colony publishes to the others in an exchange.
+ *
+ * The objects are immutable, so they can be read by other threads
+ * without locks after being published in the ColonyMailbox.
+ *
+ * @author Matheus Paixao
+ */
+public class ColonyMessage{
+   private final int iteration;
+   private final int[] tour;
+   private final double tourValue;
+   private final double[][] pheromone;
+
+   /**
+    * Method to create a message.
+    *
+    * @author Matheus Paixao
+    * @param iteration the iteration of the sender when the message was created
+    * @param tour the best so far tour of the sender
+    * @param tourValue the fitness value of the tour
+    * @param pheromone copy of the sender pheromone matrix, or null if it isn't exchanged
+    */
+   public ColonyMessage(int iteration, int[] tour, double tourValue, double[][] pheromone){
+      this.iteration = iteration;
+      this.tour = tour;
+      this.tourValue = tourValue;
+      this.pheromone = pheromone;
+   }
+
+   public int getIteration(){
+      return this.iteration;
+   }
+
+   public int[] getTour(){
+      return this.tour;
+   }
+
+   public double getTourValue(){
+      return this.tourValue;
+   }
+
+   public double[][] getPheromone(){
+      return this.pheromone;
+   }
+}
@@ -0,0 +1,230 @@
+package algorithms.multicolony;
+
+import algorithms.Algorithm;
+import algorithms.Topology;
+import algorithms.profiling.ProfiledAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class that runs many independent ant colonies, each one in its own thread.
+ *
+ * Each colony has its own pheromone matrix, so the threads never share
+ * mutable state while they build their tours. Every exchangeInterval iterations
+ * each colony publishes a message in the mailbox and reads the messages of
+ * its sources in the topology. The exchange can be made in two ways:
+ * 1) BEST_SOLUTION: the colony reinforces the best tours received that are better than its own
+ * 2) PHEROMONE: the colony blends the received pheromone matrices into its own
+ * A message is used only once: a source that has not posted since the last exchange is skipped.
+ *
+ * @author Matheus Paixao
+ */
+public class MultiColonySystem implements Algorithm, ProfiledAlgorithm{
+   public enum ExchangeMode{
+      BEST_SOLUTION,
+      PHEROMONE
+   }
+
+   private Colony[] colonies;
+   private Topology topology;
+   private ExchangeMode exchangeMode;
+   private int exchangeInterval;
+   private double pheromoneBlendWeight;
+
+   private ColonyMailbox mailbox;
+   private int[][] lastReadIterations; //row of each colony, the iteration of the last message used from each source
+
+   private double totalTime;
+
+   /**
+    * Method to create a MultiColonySystem object.
+    *
+    * Each colony must be a different object (e.g. one TSPACS for each colony).
+    * @author Matheus Paixao
+    * @param colonies the colonies to run in parallel
+    * @param topology how the colonies are connected
+    * @param exchangeMode what is exchanged between the colonies
+    * @param exchangeInterval number of iterations between two exchanges
+    */
+   public MultiColonySystem(Colony[] colonies, Topology topology, ExchangeMode exchangeMode, int exchangeInterval){
+      this.colonies = colonies;
+      this.topology = topology;
+      this.exchangeMode = exchangeMode;
+      this.exchangeInterval = exchangeInterval;
+      this.pheromoneBlendWeight = 0.5;
+      setTotalTime(0);
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   private void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   public void setPheromoneBlendWeight(double pheromoneBlendWeight){
+      this.pheromoneBlendWeight = pheromoneBlendWeight;
+   }
+
+   /**
+    * Method to get the profile summaries of the colonies of the last run.
+    *
+    * @author Matheus Paixao
+    * @return the summaries of the profiled colonies, null if no colony was profiled
+    */
+   public String getProfileSummary(){
+      StringBuilder summary = new StringBuilder();
+      String colonySummary = null;
+
+      for(int i = 0; i <= colonies.length - 1; i++){
+         if(colonies[i] instanceof ProfiledAlgorithm){
+            colonySummary = ((ProfiledAlgorithm) colonies[i]).getProfileSummary();
+            if(colonySummary != null){
+               if(summary.length() > 0){
+                  summary.append("\n");
+               }
+               summary.append("colony " + i + ": " + colonySummary);
+            }
+         }
+      }
+
+      if(summary.length() == 0){
+         return null;
+      }
+
+      return summary.toString();
+   }
+
+   /**
+    * Method to get the solution of the algorithm and to set the total time spended.
+    *
+    * All the colonies run in parallel and the best solution among them is returned.
+    * If a colony fails or the thread is interrupted, the run fails instead of returning a partial best.
+    * @author Matheus Paixao
+    * @return solution founded by the algorithm
+    * @see runColony
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+      double bestSolutionValue = 0;
+      Colony colony = null;
+
+      ExecutorService executor = Executors.newFixedThreadPool(colonies.length);
+      ArrayList<Future<Object>> futures = new ArrayList<Future<Object>>();
+
+      mailbox = new ColonyMailbox(colonies.length);
+      lastReadIterations = new int[colonies.length][colonies.length];
+      for(int i = 0; i <= colonies.length - 1; i++){
+         Arrays.fill(lastReadIterations[i], -1);
+      }
+
+      initialTime = System.currentTimeMillis();
+      try{
+         for(int i = 0; i <= colonies.length - 1; i++){
+            final int colonyIndex = i;
+            futures.add(executor.submit(new Callable<Object>(){
+               public Object call(){
+                  runColony(colonyIndex);
+                  return null;
+               }
+            }));
+         }
+
+         for(int i = 0; i <= futures.size() - 1; i++){
+            futures.get(i).get();
+         }
+      }
+      catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+         executor.shutdownNow();
+         throw new RuntimeException("Multi colony execution interrupted", e);
+      }
+      catch(ExecutionException e){
+         executor.shutdownNow();
+         throw new RuntimeException("Error in multi colony execution", e.getCause());
+      }
+      finally{
+         executor.shutdown();
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      for(int i = 0; i <= colonies.length - 1; i++){
+         colony = colonies[i];
+         if((i == 0) || (colony.isColonySolutionBest(colony.getBestColonySolutionValue(), bestSolutionValue) == true)){
+            bestSolutionValue = colony.getBestColonySolutionValue();
+         }
+      }
+
+      return bestSolutionValue;
+   }
+
+   /**
+    * Method to run all the iterations of a colony, exchanging with the others in each interval.
+    *
+    * @author Matheus Paixao
+    * @param colonyIndex the index of the colony to run
+    * @see exchange
+    */
+   private void runColony(int colonyIndex){
+      Colony colony = colonies[colonyIndex];
+      int numberOfIterations = colony.getNumberOfColonyIterations();
+
+      colony.initColony();
+
+      for(int i = 0; i <= numberOfIterations - 1; i++){
+         colony.runColonyIteration();
+
+         if(((i + 1) % exchangeInterval == 0) && (i != numberOfIterations - 1)){
+            exchange(colonyIndex, i);
+         }
+      }
+
+      colony.endColony();
+   }
+
+   /**
+    * Method to publish the message of a colony and to read the messages of its sources.
+    *
+    * @author Matheus Paixao
+    * @param colonyIndex the index of the colony
+    * @param iteration the current iteration of the colony
+    * @see getSources in Topology enum
+    */
+   private void exchange(int colonyIndex, int iteration){
+      Colony colony = colonies[colonyIndex];
+      int[] sources = topology.getSources(colonyIndex, colonies.length);
+      double[][] pheromone = null;
+      ColonyMessage message = null;
+
+      if(exchangeMode == ExchangeMode.PHEROMONE){
+         pheromone = colony.getColonyPheromone();
+      }
+      mailbox.post(colonyIndex, new ColonyMessage(iteration, colony.getBestColonyTour(), colony.getBestColonySolutionValue(), pheromone));
+
+      for(int i = 0; i <= sources.length - 1; i++){
+         message = mailbox.read(sources[i]);
+
+         if(message != null && message.getIteration() > lastReadIterations[colonyIndex][sources[i]]){
+            lastReadIterations[colonyIndex][sources[i]] = message.getIteration();
+            if(exchangeMode == ExchangeMode.BEST_SOLUTION){
+               if(colony.isColonySolutionBest(message.getTourValue(), colony.getBestColonySolutionValue()) == true){
+                  colony.reinforceColonyTour(message.getTour(), message.getTourValue());
+               }
+            }
+            else{
+               colony.blendColonyPheromone(message.getPheromone(), pheromoneBlendWeight / sources.length);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,54 @@
+package algorithms.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event with the phase timers and counters of one iteration of an ant algorithm.
+ *
+ * @author Matheus Paixao
+ */
+@Name("metahframe.AntIteration")
+@Label("Ant Iteration")
+@Category({"Metahframe", "Ant Algorithms"})
+@Description("Phase timers and counters of one iteration of AntQ or ACS")
+public class AntIterationEvent extends Event{
+   @Label("Algorithm")
+   String algorithm;
+
+   @Label("Iteration")
+   int iteration;
+
+   @Label("Iteration Time")
+   @Timespan(Timespan.NANOSECONDS)
+   long iterationTime;
+
+   @Label("Tour Construction Time")
+   @Timespan(Timespan.NANOSECONDS)
+   long tourConstructionTime;
+
+   @Label("Heuristic Matrix Time")
+   @Timespan(Timespan.NANOSECONDS)
+   long heuristicTime;
+
+   @Label("Local Update Time")
+   @Timespan(Timespan.NANOSECONDS)
+   long localUpdateTime;
+
+   @Label("Global Update Time")
+   @Timespan(Timespan.NANOSECONDS)
+   long globalUpdateTime;
+
+   @Label("Exploitation Choices")
+   long exploitationChoices;
+
+   @Label("Exploration Choices")
+   long explorationChoices;
+
+   @Label("Candidates Scanned")
+   long candidatesScanned;
+}
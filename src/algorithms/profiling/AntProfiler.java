@@ -0,0 +1,173 @@
+package algorithms.profiling;
+
+/**
+ * Class to collect phase timers and counters of the ant algorithms (AntQ and ACS).
+ *
+ * The profiling is compiled in behind the ENABLED static flag, which is read from the
+ * "metahframe.profile" system property (java -Dmetahframe.profile=true ...).
+ * All the calls in the algorithms are guarded by this flag, so when it's false the
+ * JIT removes them and the hot paths have no overhead.
+ *
+ * The phases are timed as a whole at each step of the tour construction, all the ants
+ * together, and never around a single candidate, so the timers add only a few calls of
+ * System.nanoTime per step and the phases don't overlap. The heuristic phase is the
+ * precalculation of the heuristic matrix, and the work inside a choice is given by the counters.
+ *
+ * The counters of each iteration are exported as AntIterationEvent JFR events and
+ * the counters of the whole run as an AntRunEvent JFR event and a printed summary.
+ *
+ * @author Matheus Paixao
+ */
+public class AntProfiler{
+   public static final boolean ENABLED = Boolean.getBoolean("metahframe.profile");
+
+   //phases of a run
+   public static final int TOUR_CONSTRUCTION = 0;
+   public static final int HEURISTIC = 1;
+   public static final int LOCAL_UPDATE = 2;
+   public static final int GLOBAL_UPDATE = 3;
+   private static final String[] PHASES_NAMES = {"tour construction", "heuristic matrix", "local update", "global update"};
+
+   private String algorithm;
+
+   private long[] phasesTimes;
+   private long[] phasesCalls;
+   private long exploitationChoices;
+   private long explorationChoices;
+   private long candidatesScanned;
+   private int numberOfIterations;
+
+   //values at the end of the last iteration, used to export the values of each iteration
+   private long[] lastPhasesTimes;
+   private long lastExploitationChoices;
+   private long lastExplorationChoices;
+   private long lastCandidatesScanned;
+   private long iterationInitialTime;
+
+   /**
+    * Method to create an AntProfiler object.
+    *
+    * @author Matheus Paixao
+    * @param algorithm the name of the profiled algorithm
+    */
+   public AntProfiler(String algorithm){
+      this.algorithm = algorithm;
+      this.phasesTimes = new long[PHASES_NAMES.length];
+      this.phasesCalls = new long[PHASES_NAMES.length];
+      this.lastPhasesTimes = new long[PHASES_NAMES.length];
+      this.iterationInitialTime = System.nanoTime();
+   }
+
+   /**
+    * Method to get the start time of a phase.
+    *
+    * @author Matheus Paixao
+    * @return the current time in nanoseconds
+    */
+   public long start(){
+      return System.nanoTime();
+   }
+
+   /**
+    * Method to add the time spended in a phase.
+    *
+    * @author Matheus Paixao
+    * @param phase the phase (e.g. TOUR_CONSTRUCTION)
+    * @param startTime the time returned by the start method
+    */
+   public void stop(int phase, long startTime){
+      phasesTimes[phase] += System.nanoTime() - startTime;
+      phasesCalls[phase]++;
+   }
+
+   public void countExploitation(){
+      exploitationChoices++;
+   }
+
+   public void countExploration(){
+      explorationChoices++;
+   }
+
+   public void countCandidates(int numberOfCandidates){
+      candidatesScanned += numberOfCandidates;
+   }
+
+   /**
+    * Method to finish an iteration, exporting its counters as a JFR event.
+    *
+    * @author Matheus Paixao
+    * @see AntIterationEvent
+    */
+   public void endIteration(){
+      AntIterationEvent event = new AntIterationEvent();
+      long currentTime = System.nanoTime();
+
+      if(event.isEnabled() == true){
+         event.algorithm = algorithm;
+         event.iteration = numberOfIterations;
+         event.iterationTime = currentTime - iterationInitialTime;
+         event.tourConstructionTime = phasesTimes[TOUR_CONSTRUCTION] - lastPhasesTimes[TOUR_CONSTRUCTION];
+         event.heuristicTime = phasesTimes[HEURISTIC] - lastPhasesTimes[HEURISTIC];
+         event.localUpdateTime = phasesTimes[LOCAL_UPDATE] - lastPhasesTimes[LOCAL_UPDATE];
+         event.globalUpdateTime = phasesTimes[GLOBAL_UPDATE] - lastPhasesTimes[GLOBAL_UPDATE];
+         event.exploitationChoices = exploitationChoices - lastExploitationChoices;
+         event.explorationChoices = explorationChoices - lastExplorationChoices;
+         event.candidatesScanned = candidatesScanned - lastCandidatesScanned;
+         event.commit();
+      }
+
+      System.arraycopy(phasesTimes, 0, lastPhasesTimes, 0, phasesTimes.length);
+      lastExploitationChoices = exploitationChoices;
+      lastExplorationChoices = explorationChoices;
+      lastCandidatesScanned = candidatesScanned;
+      iterationInitialTime = currentTime;
+      numberOfIterations++;
+   }
+
+   /**
+    * Method to finish the run, exporting its counters as a JFR event.
+    *
+    * @author Matheus Paixao
+    * @see AntRunEvent
+    */
+   public void endRun(){
+      AntRunEvent event = new AntRunEvent();
+
+      if(event.isEnabled() == true){
+         event.algorithm = algorithm;
+         event.iterations = numberOfIterations;
+         event.tourConstructionTime = phasesTimes[TOUR_CONSTRUCTION];
+         event.heuristicTime = phasesTimes[HEURISTIC];
+         event.localUpdateTime = phasesTimes[LOCAL_UPDATE];
+         event.globalUpdateTime = phasesTimes[GLOBAL_UPDATE];
+         event.exploitationChoices = exploitationChoices;
+         event.explorationChoices = explorationChoices;
+         event.candidatesScanned = candidatesScanned;
+         event.commit();
+      }
+   }
+
+   /**
+    * Method to get the summary of the run.
+    *
+    * @author Matheus Paixao
+    * @return the summary of the run in String format
+    */
+   public String getSummary(){
+      StringBuilder summary = new StringBuilder();
+      long choices = exploitationChoices + explorationChoices;
+
+      summary.append(algorithm + " profile (" + numberOfIterations + " iterations)\n");
+      for(int i = 0; i <= PHASES_NAMES.length - 1; i++){
+         summary.append("   " + PHASES_NAMES[i] + ": " + (phasesTimes[i] / 1000000.0) + " ms in " + phasesCalls[i] + " calls\n");
+      }
+      summary.append("   exploitation choices: " + exploitationChoices + "\n");
+      summary.append("   exploration choices: " + explorationChoices + "\n");
+      summary.append("   candidates scanned: " + candidatesScanned);
+      if(choices != 0){
+         summary.append(" (" + (candidatesScanned / choices) + " per choice)");
+      }
+
+      return summary.toString();
+   }
+}
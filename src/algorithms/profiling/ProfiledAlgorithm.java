@@ -0,0 +1,10 @@
+package algorithms.profiling;
+
+/**
+ * Interface of the algorithms that profile their runs, so the results can report the profile with the solutions.
+ *
+ * @author Matheus Paixao
+ */
+public interface ProfiledAlgorithm{
+   public String getProfileSummary(); //summary of the last run, null when the profiling is disabled
+}
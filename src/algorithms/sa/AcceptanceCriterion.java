@@ -0,0 +1,33 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Interface of the rule the SimulatedAnnealing class uses to accept a neighbour solution.
+ *
+ * The criterion is asked about every neighbour, improving or not, so it may keep a history.
+ *
+ * @author Matheus Paixao
+ */
+public interface AcceptanceCriterion{
+   /**
+    * Method to prepare the criterion for a run.
+    *
+    * @author Matheus Paixao
+    * @param initialSolutionValue the solution value of the initial solution
+    * @param minimizationProblem true if lower solution values are better
+    */
+   public void init(double initialSolutionValue, boolean minimizationProblem);
+
+   /**
+    * Method to decide if the neighbour solution replaces the current one.
+    *
+    * @author Matheus Paixao
+    * @param currentSolutionValue the solution value of the current solution
+    * @param neighbourSolutionValue the solution value of the neighbour solution
+    * @param temperature the temperature of the Markov chain
+    * @param random the random number generator
+    * @return true if the neighbour is accepted
+    */
+   public boolean accept(double currentSolutionValue, double neighbourSolutionValue, double temperature, Random random);
+}
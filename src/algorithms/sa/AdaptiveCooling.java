@@ -0,0 +1,40 @@
+package algorithms.sa;
+
+/**
+ * Class of a cooling schedule that adapts alpha to the acceptance ratio of the last Markov chain.
+ *
+ * When most moves are accepted the search is close to a random walk, so the temperature decreases
+ * fast. When few moves are accepted the search is in a productive region, so it decreases slowly:
+ * alpha = slowAlpha - (slowAlpha - fastAlpha) * acceptanceRatio.
+ *
+ * @author Matheus Paixao
+ */
+public class AdaptiveCooling implements CoolingSchedule{
+   private double fastAlpha;
+   private double slowAlpha;
+
+   /**
+    * Method to create the AdaptiveCooling object.
+    *
+    * @author Matheus Paixao
+    * @param fastAlpha the alpha when every move is accepted, e.g. 0.8
+    * @param slowAlpha the alpha when no move is accepted, e.g. 0.99
+    */
+   public AdaptiveCooling(double fastAlpha, double slowAlpha){
+      this.fastAlpha = fastAlpha;
+      this.slowAlpha = slowAlpha;
+   }
+
+   public void init(double initialTemperature, double finalTemperature){
+   }
+
+   public double getNextTemperature(double temperature, int numberOfSteps, int numberOfAcceptedMoves, boolean bestSoFarImproved){
+      double acceptanceRatio = 0;
+
+      if(numberOfSteps > 0){
+         acceptanceRatio = (double) numberOfAcceptedMoves / numberOfSteps;
+      }
+
+      return temperature * (slowAlpha - (slowAlpha - fastAlpha) * acceptanceRatio);
+   }
+}
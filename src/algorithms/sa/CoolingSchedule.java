@@ -0,0 +1,29 @@
+package algorithms.sa;
+
+/**
+ * Interface of the way the SimulatedAnnealing class decreases the temperature after each Markov chain.
+ *
+ * @author Matheus Paixao
+ */
+public interface CoolingSchedule{
+   /**
+    * Method to prepare the schedule for a run.
+    *
+    * @author Matheus Paixao
+    * @param initialTemperature the temperature of the first chain
+    * @param finalTemperature the temperature that stops the run
+    */
+   public void init(double initialTemperature, double finalTemperature);
+
+   /**
+    * Method to get the temperature of the next Markov chain.
+    *
+    * @author Matheus Paixao
+    * @param temperature the temperature of the chain that has ended
+    * @param numberOfSteps the number of steps of the chain
+    * @param numberOfAcceptedMoves the number of moves accepted in the chain
+    * @param bestSoFarImproved true if the best so far solution was improved in the chain
+    * @return the next temperature
+    */
+   public double getNextTemperature(double temperature, int numberOfSteps, int numberOfAcceptedMoves, boolean bestSoFarImproved);
+}
@@ -0,0 +1,21 @@
+package algorithms.sa;
+
+/**
+ * Class of the geometric cooling schedule: T(k+1) = alpha * T(k).
+ *
+ * @author Matheus Paixao
+ */
+public class GeometricCooling implements CoolingSchedule{
+   private double alpha;
+
+   public GeometricCooling(double alpha){
+      this.alpha = alpha;
+   }
+
+   public void init(double initialTemperature, double finalTemperature){
+   }
+
+   public double getNextTemperature(double temperature, int numberOfSteps, int numberOfAcceptedMoves, boolean bestSoFarImproved){
+      return temperature * alpha;
+   }
+}
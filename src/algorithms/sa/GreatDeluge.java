@@ -0,0 +1,46 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Class of the great deluge criterion of Dueck: a neighbour is accepted if it improves the
+ * current solution or if it is better than the water level.
+ *
+ * The level starts at the initial solution value and moves towards better values by the rain
+ * speed at each step. The temperature is not used.
+ *
+ * @author Matheus Paixao
+ */
+public class GreatDeluge implements AcceptanceCriterion{
+   private double rainSpeed;
+
+   private double sign; //1 for minimization problems, -1 for maximization problems
+   private double level;
+
+   /**
+    * Method to create the GreatDeluge object.
+    *
+    * @author Matheus Paixao
+    * @param rainSpeed how much the level moves at each step, in solution value units
+    */
+   public GreatDeluge(double rainSpeed){
+      this.rainSpeed = rainSpeed;
+   }
+
+   public void init(double initialSolutionValue, boolean minimizationProblem){
+      this.sign = minimizationProblem ? 1 : -1;
+      this.level = initialSolutionValue;
+   }
+
+   public double getLevel(){
+      return this.level;
+   }
+
+   public boolean accept(double currentSolutionValue, double neighbourSolutionValue, double temperature, Random random){
+      boolean result = (sign * (neighbourSolutionValue - currentSolutionValue) <= 0) || (sign * (neighbourSolutionValue - level) <= 0);
+
+      level = level - sign * rainSpeed;
+
+      return result;
+   }
+}
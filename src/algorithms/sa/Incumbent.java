@@ -0,0 +1,33 @@
+package algorithms.sa;
+
+/**
+ * Class that holds the best solution shared by the chains of a MultiStartSimulatedAnnealing.
+ *
+ * The object is immutable, so it can be replaced atomically by an AtomicReference and read by
+ * any thread without locks.
+ *
+ * @author Matheus Paixao
+ */
+public class Incumbent{
+   private int[] solution;
+   private double solutionValue;
+   private int chainIndex;
+
+   public Incumbent(int[] solution, double solutionValue, int chainIndex){
+      this.solution = solution;
+      this.solutionValue = solutionValue;
+      this.chainIndex = chainIndex;
+   }
+
+   public int[] getSolution(){
+      return this.solution;
+   }
+
+   public double getSolutionValue(){
+      return this.solutionValue;
+   }
+
+   public int getChainIndex(){
+      return this.chainIndex;
+   }
+}
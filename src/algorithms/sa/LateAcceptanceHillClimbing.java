@@ -0,0 +1,51 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Class of the late acceptance hill climbing criterion of Burke and Bykov: a neighbour is accepted
+ * if it is not worse than the current solution or than the current solution of some steps ago.
+ *
+ * The solution values of the last steps are kept in a circular array, which starts filled with
+ * the initial solution value. The temperature is not used.
+ *
+ * @author Matheus Paixao
+ */
+public class LateAcceptanceHillClimbing implements AcceptanceCriterion{
+   private double[] history;
+   private int historyIndex; //the position of the step in the circular array, kept below its length so it never overflows
+
+   private double sign; //1 for minimization problems, -1 for maximization problems
+
+   /**
+    * Method to create the LateAcceptanceHillClimbing object.
+    *
+    * @author Matheus Paixao
+    * @param historyLength the number of steps the neighbour is compared back
+    */
+   public LateAcceptanceHillClimbing(int historyLength){
+      this.history = new double[historyLength];
+   }
+
+   public void init(double initialSolutionValue, boolean minimizationProblem){
+      this.sign = minimizationProblem ? 1 : -1;
+      this.historyIndex = 0;
+      for(int i = 0; i <= history.length - 1; i++){
+         history[i] = initialSolutionValue;
+      }
+   }
+
+   public boolean accept(double currentSolutionValue, double neighbourSolutionValue, double temperature, Random random){
+      boolean result = (sign * (neighbourSolutionValue - currentSolutionValue) <= 0) || (sign * (neighbourSolutionValue - history[historyIndex]) <= 0);
+
+      if(result == true){
+         history[historyIndex] = neighbourSolutionValue;
+      }
+      else{
+         history[historyIndex] = currentSolutionValue;
+      }
+      historyIndex = (historyIndex + 1) % history.length;
+
+      return result;
+   }
+}
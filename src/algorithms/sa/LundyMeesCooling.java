@@ -0,0 +1,51 @@
+package algorithms.sa;
+
+/**
+ * Class of the Lundy-Mees cooling schedule: T(k+1) = T(k) / (1 + beta * T(k)).
+ *
+ * It cools fast at high temperatures and slowly at low ones. Beta is chosen so the final
+ * temperature is reached after the given number of Markov chains:
+ * beta = (initialTemperature - finalTemperature) / (numberOfTemperatures * initialTemperature * finalTemperature).
+ *
+ * The schedule may also be sized from a steps budget, counting the temperatures in chains of a fixed
+ * number of steps. Then a chain that ends early counts as the fraction of a temperature it ran, so
+ * 1 / T grows in proportion to the steps and the final temperature is reached when the budget is used,
+ * however long the chains are.
+ *
+ * @author Matheus Paixao
+ */
+public class LundyMeesCooling implements CoolingSchedule{
+   private int numberOfTemperatures;
+   private int numberOfStepsPerTemperature; //0 counts each chain as one temperature
+   private double beta;
+
+   public LundyMeesCooling(int numberOfTemperatures){
+      this(numberOfTemperatures, 0);
+   }
+
+   /**
+    * Method to create a LundyMeesCooling object sized from a steps budget.
+    *
+    * @author Matheus Paixao
+    * @param numberOfTemperatures the number of temperatures of the budget
+    * @param numberOfStepsPerTemperature the number of steps of a temperature, so the budget is their product
+    */
+   public LundyMeesCooling(int numberOfTemperatures, int numberOfStepsPerTemperature){
+      this.numberOfTemperatures = numberOfTemperatures;
+      this.numberOfStepsPerTemperature = numberOfStepsPerTemperature;
+   }
+
+   public void init(double initialTemperature, double finalTemperature){
+      beta = (initialTemperature - finalTemperature) / (numberOfTemperatures * initialTemperature * finalTemperature);
+   }
+
+   public double getNextTemperature(double temperature, int numberOfSteps, int numberOfAcceptedMoves, boolean bestSoFarImproved){
+      double numberOfTemperaturesRun = 1;
+
+      if(numberOfStepsPerTemperature > 0){
+         numberOfTemperaturesRun = (double) numberOfSteps / numberOfStepsPerTemperature;
+      }
+
+      return temperature / (1 + beta * numberOfTemperaturesRun * temperature);
+   }
+}
@@ -0,0 +1,45 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Class of the Metropolis criterion: a neighbour worse by d is accepted with probability exp(-d / T).
+ *
+ * The worsening d is taken in the direction of the problem, so it is positive for worse neighbours
+ * of both minimization and maximization problems.
+ * When d / T is above ln(2^53) the probability is below the resolution of Random.nextDouble,
+ * so the neighbour is rejected without drawing a random number or calculating the exponential.
+ * The threshold T * ln(2^53) is calculated once per temperature.
+ *
+ * @author Matheus Paixao
+ */
+public class MetropolisCriterion implements AcceptanceCriterion{
+   private static final double LOG_RESOLUTION = 53 * Math.log(2);
+
+   private double sign; //1 for minimization problems, -1 for maximization problems
+   private double temperature;
+   private double rejectionThreshold;
+
+   public void init(double initialSolutionValue, boolean minimizationProblem){
+      this.sign = minimizationProblem ? 1 : -1;
+      this.temperature = -1;
+   }
+
+   public boolean accept(double currentSolutionValue, double neighbourSolutionValue, double temperature, Random random){
+      double worsening = sign * (neighbourSolutionValue - currentSolutionValue);
+
+      if(worsening <= 0){
+         return true;
+      }
+
+      if(temperature != this.temperature){
+         this.temperature = temperature;
+         this.rejectionThreshold = temperature * LOG_RESOLUTION;
+      }
+      if(worsening >= rejectionThreshold){
+         return false;
+      }
+
+      return random.nextDouble() < Math.exp(-worsening / temperature);
+   }
+}
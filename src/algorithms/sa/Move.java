@@ -0,0 +1,46 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Interface of a move of the SimulatedAnnealing class, which changes a solution in place.
+ *
+ * A move is proposed for the current solution, its delta is calculated without changing the
+ * solution, and then it may be applied. An applied move can be undone until the next proposal.
+ * A move may keep the solution in its own structure, loaded when it receives a different array,
+ * and write it back into the array only when writeSolution is called.
+ *
+ * @author Matheus Paixao
+ */
+public interface Move{
+   /**
+    * Method to choose a random move for the solution.
+    *
+    * @author Matheus Paixao
+    * @param solution the current solution
+    * @param random the random number generator
+    */
+   public void propose(int[] solution, Random random);
+
+   /**
+    * Method to get how much the solution value changes if the proposed move is applied.
+    *
+    * @author Matheus Paixao
+    * @param solution the current solution
+    * @return the solution value after the move minus the solution value before it
+    */
+   public double getDelta(int[] solution);
+
+   public void apply(int[] solution);
+
+   public void undo(int[] solution);
+
+   /**
+    * Method to write the solution changed by the applied moves into the array.
+    *
+    * The moves that change the array in place have nothing to write.
+    * @author Matheus Paixao
+    * @param solution the current solution
+    */
+   public void writeSolution(int[] solution);
+}
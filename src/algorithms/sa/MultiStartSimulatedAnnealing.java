@@ -0,0 +1,293 @@
+package algorithms.sa;
+
+import algorithms.Algorithm;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Class that runs many independent simulated annealing chains, each one in its own thread,
+ * sharing the best solution found by any of them (the incumbent).
+ *
+ * The incumbent is an immutable object in an AtomicReference, replaced by compare and set,
+ * so the chains never wait for each other. After each Markov chain, a chain offers a copy of
+ * its best so far solution if it is better than the incumbent. Optionally, a chain that has not
+ * improved its best so far solution for a number of Markov chains restarts from a perturbed
+ * copy of the incumbent found by another chain.
+ * The run ends when every chain reaches its final temperature or its steps budget, or when
+ * the time limit is reached. If a chain fails, the other chains are stopped and the run fails.
+ * Any subclass of SimulatedAnnealing can be used as a chain.
+ *
+ * @author Matheus Paixao
+ */
+public class MultiStartSimulatedAnnealing implements Algorithm{
+   private SimulatedAnnealing[] chains;
+   private long timeLimit; //in milliseconds, 0 for no limit
+   private int stagnationLimit; //in Markov chains, 0 for no restarts
+   private int numberOfPerturbationSteps;
+
+   private AtomicReference<Incumbent> incumbent;
+   private long deadline;
+
+   private int[] chainsNumberOfRestarts;
+   private int[] chainsNumberOfIncumbentUpdates;
+   private double[] chainsTimes;
+
+   private double totalTime;
+
+   /**
+    * Method to create a MultiStartSimulatedAnnealing object.
+    *
+    * Each chain must be a different object (e.g. one TSPSimulatedAnnealing for each chain).
+    * @author Matheus Paixao
+    * @param chains the simulated annealing chains to run in parallel
+    * @param timeLimit the maximum time of the run in milliseconds, 0 for no limit
+    */
+   public MultiStartSimulatedAnnealing(SimulatedAnnealing[] chains, long timeLimit){
+      this.chains = chains;
+      this.timeLimit = timeLimit;
+      this.stagnationLimit = 0;
+      this.numberOfPerturbationSteps = 0;
+      this.incumbent = new AtomicReference<Incumbent>();
+      this.chainsNumberOfRestarts = new int[chains.length];
+      this.chainsNumberOfIncumbentUpdates = new int[chains.length];
+      this.chainsTimes = new double[chains.length];
+      setTotalTime(0);
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   private void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   /**
+    * Method to enable the restarts of the stagnating chains from the incumbent.
+    *
+    * @author Matheus Paixao
+    * @param stagnationLimit the number of Markov chains without improving the best so far solution before a restart
+    * @param numberOfPerturbationSteps the number of random moves applied to the copy of the incumbent
+    */
+   public void setRestarts(int stagnationLimit, int numberOfPerturbationSteps){
+      this.stagnationLimit = stagnationLimit;
+      this.numberOfPerturbationSteps = numberOfPerturbationSteps;
+   }
+
+   /**
+    * Method to seed the random number generators of the chains.
+    *
+    * Each chain receives a different seed derived from the passed one.
+    * @author Matheus Paixao
+    * @param seed the seed of the run
+    */
+   public void setSeed(long seed){
+      for(int i = 0; i <= chains.length - 1; i++){
+         chains[i].setSeed(seed + 0x9E3779B97F4A7C15L * (i + 1));
+      }
+   }
+
+   public int[] getBestSolution(){
+      Incumbent bestIncumbent = incumbent.get();
+
+      if(bestIncumbent == null){
+         return null;
+      }
+
+      return bestIncumbent.getSolution().clone();
+   }
+
+   public double getChainBestSolutionValue(int chainIndex){
+      return chains[chainIndex].getBestSoFarSolutionValue();
+   }
+
+   public long getChainNumberOfSteps(int chainIndex){
+      return chains[chainIndex].getNumberOfSteps();
+   }
+
+   public int getChainNumberOfRestarts(int chainIndex){
+      return this.chainsNumberOfRestarts[chainIndex];
+   }
+
+   public int getChainNumberOfIncumbentUpdates(int chainIndex){
+      return this.chainsNumberOfIncumbentUpdates[chainIndex];
+   }
+
+   public double getChainTime(int chainIndex){
+      return this.chainsTimes[chainIndex];
+   }
+
+   /**
+    * Method to get the solution of the algorithm and to set the total time spended.
+    *
+    * The value returned is the one of the incumbent, so it is the value of getBestSolution,
+    * and the best of the best so far solutions of the chains.
+    * @author Matheus Paixao
+    * @return the solution value of the incumbent
+    * @see runChain
+    * @see stopChains
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+      double bestSolutionValue = 0;
+
+      ExecutorService executor = Executors.newFixedThreadPool(chains.length);
+      ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<Object>(executor);
+
+      incumbent.set(null);
+      initialTime = System.currentTimeMillis();
+      deadline = (long) initialTime + timeLimit;
+      try{
+         for(int i = 0; i <= chains.length - 1; i++){
+            final int chainIndex = i;
+            completionService.submit(new Callable<Object>(){
+               public Object call(){
+                  runChain(chainIndex);
+                  return null;
+               }
+            });
+         }
+
+         for(int i = 0; i <= chains.length - 1; i++){
+            completionService.take().get(); //in the order the chains end, so a failure is seen at once
+         }
+      }
+      catch(InterruptedException e){
+         stopChains(executor);
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Multi-start simulated annealing execution interrupted", e);
+      }
+      catch(ExecutionException e){
+         stopChains(executor);
+         throw new RuntimeException("Error in multi-start simulated annealing execution", e.getCause());
+      }
+      finally{
+         executor.shutdown();
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      if(incumbent.get() != null){
+         bestSolutionValue = incumbent.get().getSolutionValue();
+      }
+
+      return bestSolutionValue;
+   }
+
+   /**
+    * Method to interrupt the running chains and to wait for their threads to end.
+    *
+    * @author Matheus Paixao
+    * @param executor the pool of threads of the chains
+    */
+   private void stopChains(ExecutorService executor){
+      executor.shutdownNow();
+      try{
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Method to run a chain until its end or the time limit, offering its solutions to the incumbent.
+    *
+    * An interrupted chain stops after its current Markov chain.
+    * @author Matheus Paixao
+    * @param chainIndex the index of the chain to run
+    * @see runTemperature in SimulatedAnnealing class
+    * @see offerSolution
+    * @see restartFrom in SimulatedAnnealing class
+    */
+   private void runChain(int chainIndex){
+      SimulatedAnnealing chain = chains[chainIndex];
+      Incumbent bestIncumbent = null;
+      double initialTime = System.currentTimeMillis();
+      int numberOfStagnantChains = 0;
+
+      chainsNumberOfRestarts[chainIndex] = 0;
+      chainsNumberOfIncumbentUpdates[chainIndex] = 0;
+
+      chain.initSA();
+      offerSolution(chainIndex);
+
+      while(isTimeLimitReached() == false && Thread.currentThread().isInterrupted() == false && chain.runTemperature() == true){
+         offerSolution(chainIndex);
+
+         if(chain.isBestSoFarImprovedInLastChain() == true){
+            numberOfStagnantChains = 0;
+         }
+         else{
+            numberOfStagnantChains++;
+         }
+
+         if(stagnationLimit > 0 && numberOfStagnantChains >= stagnationLimit){
+            bestIncumbent = incumbent.get();
+            if(bestIncumbent.getChainIndex() != chainIndex){
+               chain.restartFrom(bestIncumbent.getSolution(), numberOfPerturbationSteps);
+               chainsNumberOfRestarts[chainIndex]++;
+            }
+            numberOfStagnantChains = 0;
+         }
+      }
+
+      chainsTimes[chainIndex] = System.currentTimeMillis() - initialTime;
+   }
+
+   /**
+    * Method to replace the incumbent by the best so far solution of a chain, if it is better.
+    *
+    * The solution is only copied when it is better than the incumbent read, and the
+    * compare and set is tried again if another chain replaced the incumbent meanwhile.
+    * @author Matheus Paixao
+    * @param chainIndex the index of the chain
+    */
+   private void offerSolution(int chainIndex){
+      SimulatedAnnealing chain = chains[chainIndex];
+      double solutionValue = chain.getBestSoFarSolutionValue();
+      Incumbent bestIncumbent = incumbent.get();
+      Incumbent newIncumbent = null;
+
+      while(bestIncumbent == null || chain.isSolutionBest(solutionValue, bestIncumbent.getSolutionValue()) == true){
+         if(newIncumbent == null){
+            newIncumbent = new Incumbent(chain.getBestSoFarSolution().clone(), solutionValue, chainIndex);
+         }
+         if(incumbent.compareAndSet(bestIncumbent, newIncumbent) == true){
+            chainsNumberOfIncumbentUpdates[chainIndex]++;
+            return;
+         }
+         bestIncumbent = incumbent.get();
+      }
+   }
+
+   private boolean isTimeLimitReached(){
+      return (timeLimit > 0) && (System.currentTimeMillis() >= deadline);
+   }
+
+   /**
+    * Method to print the statistics of each chain.
+    *
+    * @author Matheus Paixao
+    */
+   public void printChainsStatistics(){
+      Incumbent bestIncumbent = incumbent.get();
+
+      for(int i = 0; i <= chains.length - 1; i++){
+         System.out.println("Chain " + i + ": best = " + getChainBestSolutionValue(i) + ", steps = " + getChainNumberOfSteps(i)
+            + ", restarts = " + getChainNumberOfRestarts(i) + ", incumbent updates = " + getChainNumberOfIncumbentUpdates(i)
+            + ", time = " + getChainTime(i));
+      }
+      if(bestIncumbent != null){
+         System.out.println("Incumbent: " + bestIncumbent.getSolutionValue() + " found by chain " + bestIncumbent.getChainIndex());
+      }
+   }
+}
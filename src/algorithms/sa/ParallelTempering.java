@@ -0,0 +1,278 @@
+package algorithms.sa;
+
+import algorithms.Algorithm;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that runs many simulated annealing chains (replicas) at a ladder of fixed temperatures,
+ * each one in its own thread, exchanging the temperatures of neighbour replicas (replica exchange).
+ *
+ * The ladder is geometric, from the final temperature (coldest) to the initial temperature (hottest)
+ * of the first replica. The replicas run a number of steps and wait in a phaser. The last one to
+ * arrive runs the onAdvance of the phaser, which tries the exchanges and updates the best so far
+ * solution value, while the other threads are waiting, so the exchanges need no locks.
+ * Exchanging the temperatures is the same as exchanging the solutions, without copying them.
+ * Any subclass of SimulatedAnnealing can be used as a replica.
+ *
+ * @author Matheus Paixao
+ */
+public class ParallelTempering implements Algorithm{
+   private SimulatedAnnealing[] replicas;
+   private int numberOfExchanges;
+   private int numberOfStepsBetweenExchanges;
+
+   private double[] ladder;
+   private int[] replicasIndexes; //the replica at each temperature of the ladder, from the coldest
+   private double bestSolutionValue;
+   private int numberOfAttemptedExchanges;
+   private int numberOfAcceptedExchanges;
+   private Random random;
+
+   private double totalTime;
+
+   /**
+    * Method to create a ParallelTempering object.
+    *
+    * Each replica must be a different object (e.g. one TSPSimulatedAnnealing for each replica).
+    * @author Matheus Paixao
+    * @param replicas the simulated annealing chains to run in parallel, at least two
+    * @param numberOfExchanges the number of times the temperatures exchanges are tried
+    * @param numberOfStepsBetweenExchanges the number of steps each replica runs before each exchange
+    */
+   public ParallelTempering(SimulatedAnnealing[] replicas, int numberOfExchanges, int numberOfStepsBetweenExchanges){
+      this.replicas = replicas;
+      this.numberOfExchanges = numberOfExchanges;
+      this.numberOfStepsBetweenExchanges = numberOfStepsBetweenExchanges;
+      this.random = new Random();
+      setTotalTime(0);
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   private void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   public double getExchangeAcceptanceRate(){
+      if(numberOfAttemptedExchanges == 0){
+         return 0;
+      }
+
+      return (double) numberOfAcceptedExchanges / numberOfAttemptedExchanges;
+   }
+
+   /**
+    * Method to seed the random number generators of the exchanges and of the replicas.
+    *
+    * Each replica receives a different seed derived from the passed one.
+    * @author Matheus Paixao
+    * @param seed the seed of the parallel tempering
+    */
+   public void setSeed(long seed){
+      random.setSeed(seed);
+      for(int i = 0; i <= replicas.length - 1; i++){
+         replicas[i].setSeed(seed + 0x9E3779B97F4A7C15L * (i + 1));
+      }
+   }
+
+   /**
+    * Method to get the solution of the algorithm and to set the total time spended.
+    *
+    * If a replica fails, or the run is interrupted, the other replicas are stopped and the run fails.
+    * @author Matheus Paixao
+    * @return the best solution value found by any replica
+    * @see initReplicas
+    * @see runReplica
+    * @see exchangeTemperatures
+    * @see stopReplicas
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+
+      ExecutorService executor = Executors.newFixedThreadPool(replicas.length);
+      ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<Object>(executor);
+      final Phaser phaser = new Phaser(replicas.length){
+         protected boolean onAdvance(int phase, int registeredParties){
+            exchangeTemperatures(phase);
+            return (phase >= numberOfExchanges - 1) || (registeredParties == 0);
+         }
+      };
+
+      initReplicas();
+
+      initialTime = System.currentTimeMillis();
+      try{
+         for(int i = 0; i <= replicas.length - 1; i++){
+            final SimulatedAnnealing replica = replicas[i];
+            completionService.submit(new Callable<Object>(){
+               public Object call(){
+                  runReplica(replica, phaser);
+                  return null;
+               }
+            });
+         }
+
+         for(int i = 0; i <= replicas.length - 1; i++){
+            completionService.take().get(); //in the order the replicas end, so a failure is seen at once
+         }
+      }
+      catch(InterruptedException e){
+         stopReplicas(executor, phaser);
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Parallel tempering execution interrupted", e);
+      }
+      catch(ExecutionException e){
+         stopReplicas(executor, phaser);
+         throw new RuntimeException("Error in parallel tempering execution", e.getCause());
+      }
+      finally{
+         executor.shutdown();
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      updateBestSolutionValue();
+      return bestSolutionValue;
+   }
+
+   /**
+    * Method to stop the replicas and to wait for their threads to end.
+    *
+    * The phaser is terminated, so the replicas waiting for an exchange are released and
+    * every replica ends after its current steps.
+    * @author Matheus Paixao
+    * @param executor the pool of threads of the replicas
+    * @param phaser the phaser where the replicas wait for the exchanges
+    */
+   private void stopReplicas(ExecutorService executor, Phaser phaser){
+      phaser.forceTermination();
+      executor.shutdownNow();
+      try{
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Method to initialize the replicas and to build the temperatures ladder.
+    *
+    * T(k) = finalTemperature * (initialTemperature / finalTemperature) ^ (k / (R - 1)).
+    * @author Matheus Paixao
+    * @see initSA in SimulatedAnnealing class
+    */
+   private void initReplicas(){
+      double initialTemperature = 0;
+      double finalTemperature = 0;
+
+      for(int i = 0; i <= replicas.length - 1; i++){
+         replicas[i].initSA();
+      }
+
+      initialTemperature = replicas[0].getInitialTemperature();
+      finalTemperature = replicas[0].getFinalTemperature();
+      if(finalTemperature <= 0){
+         finalTemperature = initialTemperature / 1000;
+      }
+
+      ladder = new double[replicas.length];
+      replicasIndexes = new int[replicas.length];
+      for(int i = 0; i <= replicas.length - 1; i++){
+         ladder[i] = finalTemperature * Math.pow(initialTemperature / finalTemperature, (double) i / (replicas.length - 1));
+         replicasIndexes[i] = i;
+         replicas[i].setTemperature(ladder[i]);
+      }
+
+      numberOfAttemptedExchanges = 0;
+      numberOfAcceptedExchanges = 0;
+      updateBestSolutionValue();
+   }
+
+   /**
+    * Method to run a replica until the last exchange.
+    *
+    * If the replica fails, it terminates the phaser so the other replicas stop instead of
+    * exchanging with its stale solution.
+    * @author Matheus Paixao
+    * @param replica the replica to run
+    * @param phaser the phaser where the replicas wait for the exchanges
+    * @see runMarkovChain in SimulatedAnnealing class
+    */
+   private void runReplica(SimulatedAnnealing replica, Phaser phaser){
+      try{
+         while(phaser.isTerminated() == false){
+            replica.runMarkovChain(numberOfStepsBetweenExchanges);
+            phaser.arriveAndAwaitAdvance();
+         }
+      }
+      catch(RuntimeException e){
+         phaser.forceTermination();
+         throw e;
+      }
+   }
+
+   /**
+    * Method to try the exchanges of the temperatures of neighbour replicas in the ladder.
+    *
+    * The even pairs (0-1, 2-3...) are tried in the even phases and the odd pairs in the odd ones.
+    * A pair is exchanged with probability min(1, exp((1/T(k) - 1/T(k+1)) * (E(k) - E(k+1)))),
+    * E being the solution value oriented so lower is better, so a better solution always
+    * moves to the colder temperature.
+    * @author Matheus Paixao
+    * @param phase the phase of the phaser
+    * @see isSolutionBest in SimulatedAnnealing class
+    */
+   private void exchangeTemperatures(int phase){
+      SimulatedAnnealing coldReplica = null;
+      SimulatedAnnealing hotReplica = null;
+      double coldSolutionValue = 0;
+      double hotSolutionValue = 0;
+      double exponent = 0;
+      int replicaIndexAux = 0;
+
+      for(int k = phase % 2; k <= ladder.length - 2; k = k + 2){
+         coldReplica = replicas[replicasIndexes[k]];
+         hotReplica = replicas[replicasIndexes[k + 1]];
+         coldSolutionValue = coldReplica.getCurrentSolutionValue();
+         hotSolutionValue = hotReplica.getCurrentSolutionValue();
+
+         exponent = 0;
+         if(coldReplica.isSolutionBest(coldSolutionValue, hotSolutionValue) == true){
+            exponent = -(1 / ladder[k] - 1 / ladder[k + 1]) * Math.abs(coldSolutionValue - hotSolutionValue);
+         }
+
+         numberOfAttemptedExchanges++;
+         if(exponent >= 0 || Math.exp(exponent) > random.nextDouble()){
+            numberOfAcceptedExchanges++;
+            replicaIndexAux = replicasIndexes[k];
+            replicasIndexes[k] = replicasIndexes[k + 1];
+            replicasIndexes[k + 1] = replicaIndexAux;
+            replicas[replicasIndexes[k]].setTemperature(ladder[k]);
+            replicas[replicasIndexes[k + 1]].setTemperature(ladder[k + 1]);
+         }
+      }
+
+      updateBestSolutionValue();
+   }
+
+   private void updateBestSolutionValue(){
+      for(int i = 0; i <= replicas.length - 1; i++){
+         if((i == 0) || (replicas[i].isSolutionBest(replicas[i].getBestSoFarSolutionValue(), bestSolutionValue) == true)){
+            bestSolutionValue = replicas[i].getBestSoFarSolutionValue();
+         }
+      }
+   }
+}
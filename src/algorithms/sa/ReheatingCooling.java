@@ -0,0 +1,65 @@
+package algorithms.sa;
+
+/**
+ * Class of a cooling schedule that reheats when the search stagnates.
+ *
+ * The temperature follows another schedule, but after a number of Markov chains without improving
+ * the best so far solution it is multiplied by the reheat factor, up to the initial temperature.
+ * The number of reheats is limited, so the run still reaches the final temperature.
+ *
+ * @author Matheus Paixao
+ */
+public class ReheatingCooling implements CoolingSchedule{
+   private CoolingSchedule coolingSchedule;
+   private int numberOfChainsToReheat;
+   private double reheatFactor;
+   private int maximumNumberOfReheats;
+
+   private double initialTemperature;
+   private int numberOfChainsWithoutImprovement;
+   private int numberOfReheats;
+
+   /**
+    * Method to create the ReheatingCooling object.
+    *
+    * @author Matheus Paixao
+    * @param coolingSchedule the schedule followed between the reheats
+    * @param numberOfChainsToReheat the number of chains without improvement that causes a reheat
+    * @param reheatFactor the factor that multiplies the temperature in a reheat
+    * @param maximumNumberOfReheats the maximum number of reheats of a run
+    */
+   public ReheatingCooling(CoolingSchedule coolingSchedule, int numberOfChainsToReheat, double reheatFactor, int maximumNumberOfReheats){
+      this.coolingSchedule = coolingSchedule;
+      this.numberOfChainsToReheat = numberOfChainsToReheat;
+      this.reheatFactor = reheatFactor;
+      this.maximumNumberOfReheats = maximumNumberOfReheats;
+   }
+
+   public int getNumberOfReheats(){
+      return this.numberOfReheats;
+   }
+
+   public void init(double initialTemperature, double finalTemperature){
+      this.initialTemperature = initialTemperature;
+      this.numberOfChainsWithoutImprovement = 0;
+      this.numberOfReheats = 0;
+      coolingSchedule.init(initialTemperature, finalTemperature);
+   }
+
+   public double getNextTemperature(double temperature, int numberOfSteps, int numberOfAcceptedMoves, boolean bestSoFarImproved){
+      if(bestSoFarImproved == true){
+         numberOfChainsWithoutImprovement = 0;
+      }
+      else{
+         numberOfChainsWithoutImprovement++;
+      }
+
+      if(numberOfChainsWithoutImprovement >= numberOfChainsToReheat && numberOfReheats < maximumNumberOfReheats){
+         numberOfChainsWithoutImprovement = 0;
+         numberOfReheats++;
+         return Math.min(temperature * reheatFactor, initialTemperature);
+      }
+
+      return coolingSchedule.getNextTemperature(temperature, numberOfSteps, numberOfAcceptedMoves, bestSoFarImproved);
+   }
+}
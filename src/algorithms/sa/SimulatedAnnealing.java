@@ -9,30 +9,51 @@ import java.util.Random;
  *
  * The initialization constants are adjusted by each the problem.
  *
- * The final temperature is the stop criteria.
+ * The final temperature is the stop criteria, and an optional budget of steps may stop the run before it.
  *
  * The temperature is the exploitation/exploration parameter control.
  *
- * Alpha is the cooling parameter.
+ * Alpha is the cooling parameter of the default geometric cooling schedule,
+ * other schedules are given by getCoolingSchedule.
  *
  * Number of Markov Iterations define the number of neighbours tested in each iteration.
  *
- * The algorihtm stores the best so far solution.
+ * The algorihtm stores the best so far solution. It is copied when the search moves away from it,
+ * not at each improvement, so a descent of many improving moves copies it only once.
  *
  * @author Matheus Paixao
  */
 public abstract class SimulatedAnnealing implements Algorithm{
    private double finalTemperature;
    private double temperature;
-   private double alpha;
+   private CoolingSchedule coolingSchedule;
+   private AcceptanceCriterion acceptanceCriterion;
    private int numberOfMarkovChains;
-   private int[] bestSolution;
+   private int maximumNumberOfAcceptedMoves;
+   private long maximumNumberOfSteps;
+   private long numberOfSteps;
+   private int chainNumberOfSteps; //statistics of the last Markov chain, used by the cooling schedule
+   private int chainNumberOfAcceptedMoves;
+   private boolean chainBestSoFarImproved;
+   private int[] bestSolution; //the current solution of the chain
+   private double bestSolutionValue;
+   private double bestSoFarSolutionValue;
+   private int[] bestSoFarSolution;
+   private boolean bestSoFarSolutionPending; //the current solution is the best so far, but it was not copied yet
+   private TemperatureCalibration temperatureCalibration;
+   private Move move;
 
    //all these parameters and functions depends on the problem
    //they must be implemented by the problem child class
-   protected abstract double getInitialTemperature();
-   protected abstract double getFinalTemperature();
+   protected TemperatureCalibration getTemperatureCalibration(){return null;} //null to use the fixed temperatures
+   protected Move getMove(int[] solution){return null;} //null to create a new neighbour array each step
+   protected double getInitialTemperature(){return temperatureCalibration.getInitialTemperature();}
+   protected double getFinalTemperature(){return temperatureCalibration.getFinalTemperature();}
    protected abstract double getAlpha();
+   protected CoolingSchedule getCoolingSchedule(){return new GeometricCooling(getAlpha());}
+   protected AcceptanceCriterion getAcceptanceCriterion(){return new MetropolisCriterion();}
+   protected int getMaximumNumberOfAcceptedMoves(){return 0;} //a Markov chain ends once it accepts this number of moves, 0 is no limit
+   protected long getMaximumNumberOfSteps(){return 0;} //0 is no limit, otherwise the run also stops when it is reached
    protected abstract int getNumberOfMarkovChains();
    protected abstract int[] getInitialSolution();
    protected abstract int[] getNeighbourSolution(int[] solution);
@@ -52,6 +73,18 @@ public abstract class SimulatedAnnealing implements Algorithm{
       this.random = new Random();
    }
 
+   public int[] getBestSoFarSolution(){
+      if(bestSoFarSolutionPending == true){
+         saveBestSoFarSolution();
+      }
+
+      return this.bestSoFarSolution;
+   }
+
+   public long getNumberOfSteps(){
+      return this.numberOfSteps;
+   }
+
    public double getTotalTime(){
       return this.totalTime;
    }
@@ -60,100 +93,258 @@ public abstract class SimulatedAnnealing implements Algorithm{
       this.totalTime = totalTime;
    }
 
+   /**
+    * Method to seed the random number generator of the acceptance and of the moves.
+    *
+    * @author Matheus Paixao
+    * @param seed the seed
+    */
+   public void setSeed(long seed){
+      this.random.setSeed(seed);
+   }
+
    /**
     * Method to get the solution of the algorithm and to set the total time spended.
     *
     * @author Matheus Paixao
     * @return solution founded by the algorithm
     * @see initSA
-    * @see getNeighbourSolution
-    * @see calculateSolutionValue
-    * @see isSolutionBest
-    * @see getAcceptanceProbability
+    * @see runTemperature
     * @see setTotalTime
     */
    public double getSolution(){
-      int[] neighbourSolution = null;
-      double bestSolutionValue = 0;
-      double bestSoFarSolutionValue = 0;
-      double neighbourSolutionValue = 0;
-      double acceptanceProbability = 0;
-
       double initialTime = 0;
       double finalTime = 0 ;
+      boolean runFlag = false;
 
       initSA();
 
       initialTime = System.currentTimeMillis();
 
-      bestSolutionValue = calculateSolutionValue(bestSolution);
-      bestSoFarSolutionValue = bestSolutionValue;
+      runFlag = true;
+      while(runFlag == true){
+         runFlag = runTemperature();
+      }
 
-      while(temperature > finalTemperature){
-         for(int i = 0; i <= numberOfMarkovChains - 1; i++){
+      finalTime = System.currentTimeMillis();
+      setTotalTime(finalTime - initialTime);
+
+      return bestSoFarSolutionValue;
+   }
+
+   /**
+    * Method to run a number of steps at the current temperature.
+    *
+    * With a Move the solution is changed in place and only the delta of each move is calculated.
+    * The solution value is then calculated again at the end of the chain, so the sum of the deltas
+    * does not drift. Without a Move each step creates a new neighbour solution.
+    * The chain ends early once it accepts the maximum number of accepted moves, or
+    * when the steps budget of the run is used.
+    * @author Matheus Paixao
+    * @param numberOfSteps the number of neighbours tested
+    * @see Move
+    * @see getNeighbourSolution
+    * @see accept in AcceptanceCriterion interface
+    */
+   void runMarkovChain(int numberOfSteps){
+      int[] neighbourSolution = null;
+      double neighbourSolutionValue = 0;
+
+      chainNumberOfSteps = 0;
+      chainNumberOfAcceptedMoves = 0;
+      chainBestSoFarImproved = false;
+
+      for(int i = 0; i <= numberOfSteps - 1 && isStepsBudgetExhausted() == false; i++){
+         if((maximumNumberOfAcceptedMoves > 0) && (chainNumberOfAcceptedMoves >= maximumNumberOfAcceptedMoves)){
+            break;
+         }
+         chainNumberOfSteps++;
+         this.numberOfSteps++;
+
+         if(move != null){
+            move.propose(bestSolution, random);
+            neighbourSolutionValue = bestSolutionValue + move.getDelta(bestSolution);
+         }
+         else{
             neighbourSolution = getNeighbourSolution(bestSolution);
             neighbourSolutionValue = calculateSolutionValue(neighbourSolution);
+         }
 
-            if(isSolutionBest(neighbourSolutionValue, bestSolutionValue)){
-               bestSolution = neighbourSolution;
-               bestSolutionValue = neighbourSolutionValue;
-
-               if(isSolutionBest(bestSolutionValue, bestSoFarSolutionValue)){
-                  bestSoFarSolutionValue = bestSolutionValue;
-               }
+         if(acceptanceCriterion.accept(bestSolutionValue, neighbourSolutionValue, temperature, random) == true){
+            if(bestSoFarSolutionPending == true && isSolutionBest(neighbourSolutionValue, bestSoFarSolutionValue) == false){
+               saveBestSoFarSolution(); //the current solution is about to leave the best so far
+            }
+            if(move != null){
+               move.apply(bestSolution);
             }
             else{
-               acceptanceProbability = getAcceptanceProbability(bestSolutionValue, neighbourSolutionValue);
-               if(acceptanceProbability > random.nextDouble()){
-                  bestSolution = neighbourSolution;
-                  bestSolutionValue = neighbourSolutionValue;
-               }
+               bestSolution = neighbourSolution;
+            }
+            bestSolutionValue = neighbourSolutionValue;
+            chainNumberOfAcceptedMoves++;
+
+            if(isSolutionBest(bestSolutionValue, bestSoFarSolutionValue)){
+               bestSoFarSolutionValue = bestSolutionValue;
+               bestSoFarSolutionPending = true;
+               chainBestSoFarImproved = true;
             }
          }
+      }
 
-         updateTemperature();
+      if(move != null){
+         move.writeSolution(bestSolution);
+         bestSolutionValue = calculateSolutionValue(bestSolution);
+      }
+      if(bestSoFarSolutionPending == true){
+         saveBestSoFarSolution();
       }
+   }
 
-      finalTime = System.currentTimeMillis();
-      setTotalTime(finalTime - initialTime);
+   /**
+    * Method to copy the current solution as the best so far solution.
+    *
+    * With a Move the solution is written into the array first, and its value is calculated again,
+    * so the best so far value does not keep the drift of the sum of the deltas.
+    * @author Matheus Paixao
+    */
+   private void saveBestSoFarSolution(){
+      if(move != null){
+         move.writeSolution(bestSolution);
+      }
+      if(bestSoFarSolution == null || bestSoFarSolution.length != bestSolution.length){
+         bestSoFarSolution = new int[bestSolution.length];
+      }
+      System.arraycopy(bestSolution, 0, bestSoFarSolution, 0, bestSolution.length);
+      bestSoFarSolutionValue = calculateSolutionValue(bestSoFarSolution);
+      bestSoFarSolutionPending = false;
+   }
 
-      return bestSoFarSolutionValue;
+   private boolean isStepsBudgetExhausted(){
+      return (maximumNumberOfSteps > 0) && (numberOfSteps >= maximumNumberOfSteps);
+   }
+
+   double getTemperature(){
+      return this.temperature;
+   }
+
+   void setTemperature(double temperature){
+      this.temperature = temperature;
+   }
+
+   double getCurrentSolutionValue(){
+      return this.bestSolutionValue;
+   }
+
+   double getBestSoFarSolutionValue(){
+      return this.bestSoFarSolutionValue;
+   }
+
+   boolean isBestSoFarImprovedInLastChain(){
+      return this.chainBestSoFarImproved;
+   }
+
+   /**
+    * Method to run one Markov chain and to cool the temperature, as getSolution does in each iteration.
+    *
+    * @author Matheus Paixao
+    * @return false if the run has ended, by the final temperature or by the steps budget
+    * @see runMarkovChain
+    * @see updateTemperature
+    */
+   boolean runTemperature(){
+      if(temperature <= finalTemperature || isStepsBudgetExhausted() == true){
+         return false;
+      }
+
+      runMarkovChain(numberOfMarkovChains);
+      updateTemperature();
+
+      return true;
+   }
+
+   /**
+    * Method to continue the chain from a copy of another solution, changed by random moves.
+    *
+    * The copy is a new array, so the state a Move keeps for the old one is loaded again.
+    * @author Matheus Paixao
+    * @param solution the solution to restart from
+    * @param numberOfPerturbationSteps the number of random moves applied to the copy
+    */
+   void restartFrom(int[] solution, int numberOfPerturbationSteps){
+      bestSolution = solution.clone();
+
+      for(int i = 0; i <= numberOfPerturbationSteps - 1; i++){
+         if(move != null){
+            move.propose(bestSolution, random);
+            move.apply(bestSolution);
+         }
+         else{
+            bestSolution = getNeighbourSolution(bestSolution);
+         }
+      }
+      if(move != null){
+         move.writeSolution(bestSolution);
+      }
+
+      bestSolutionValue = calculateSolutionValue(bestSolution);
+      if(isSolutionBest(bestSolutionValue, bestSoFarSolutionValue)){
+         saveBestSoFarSolution();
+      }
    }
 
    /**
     * Method to initialize the SimulatedAnnealing algorithm.
     *
+    * When the problem gives a TemperatureCalibration, the temperatures are estimated from
+    * moves sampled from the initial solution, unless the problem overrides them.
+    * When the problem gives a Move, the algorithm works on a copy of the initial solution.
     * @author Matheus Paixao
+    * @see calibrate in TemperatureCalibration class
     * @see getInitialTemperature
     * @see getFinalTemperature
-    * @see getAlpha
+    * @see getCoolingSchedule
+    * @see getAcceptanceCriterion
     * @see getNumberOfMarkovChains
     * @see getInitialSolution
     */
-   private void initSA(){
+   void initSA(){
+      bestSolution = getInitialSolution();
+      move = getMove(bestSolution);
+      if(move != null){
+         bestSolution = bestSolution.clone();
+      }
+
+      temperatureCalibration = getTemperatureCalibration();
+      if(temperatureCalibration != null){
+         temperatureCalibration.calibrate(this, move, bestSolution, random);
+      }
+
       temperature = getInitialTemperature();
       finalTemperature = getFinalTemperature();
-      alpha = getAlpha();
       numberOfMarkovChains = getNumberOfMarkovChains();
-      bestSolution = getInitialSolution();
-   }
+      maximumNumberOfAcceptedMoves = getMaximumNumberOfAcceptedMoves();
+      maximumNumberOfSteps = getMaximumNumberOfSteps();
+      numberOfSteps = 0;
+      coolingSchedule = getCoolingSchedule();
+      coolingSchedule.init(temperature, finalTemperature);
 
-   /**
-    * Method to get the probability to accept a worse solution that the current solution.
-    *
-    * @author Matheus Paixao
-    */
-   private double getAcceptanceProbability(double bestSolutionValue, double neighbourSolutionValue){
-      return Math.exp((bestSolutionValue - neighbourSolutionValue) / temperature);
+      bestSolutionValue = calculateSolutionValue(bestSolution);
+      bestSoFarSolution = null;
+      saveBestSoFarSolution();
+
+      //the direction of the problem is taken from isSolutionBest, 0 is better than 1 in minimization problems
+      acceptanceCriterion = getAcceptanceCriterion();
+      acceptanceCriterion.init(bestSolutionValue, isSolutionBest(0, 1));
    }
 
    /**
     * Method to update the temperature.
     *
-    * The temperature is always decreased by the alpha parameter.
+    * The cooling schedule receives the statistics of the last Markov chain.
     * @author Matheus Paixao
+    * @see getNextTemperature in CoolingSchedule interface
     */
    private void updateTemperature(){
-      temperature = temperature * alpha;
+      temperature = coolingSchedule.getNextTemperature(temperature, chainNumberOfSteps, chainNumberOfAcceptedMoves, chainBestSoFarImproved);
    }
 }
@@ -0,0 +1,197 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Class to estimate the initial and final temperatures of a SimulatedAnnealing from a sample of moves.
+ *
+ * A random walk is done from the initial solution, and each step gives a transition with the
+ * values of its two solutions. The temperature with the target acceptance ratio of the worsening
+ * transitions is found by the iterative method of Ben-Ameur, starting from the estimate of
+ * Kirkpatrick (mean worsening delta / -ln(ratio)).
+ *
+ * The cost is the number of samples times the cost of a neighbour and of its evaluation, instead of
+ * the evaluation of the whole neighbourhood.
+ *
+ * @author Matheus Paixao
+ */
+public class TemperatureCalibration{
+   private static final int MAXIMUM_NUMBER_OF_ITERATIONS = 100;
+   private static final double TOLERANCE = 0.001;
+
+   private int numberOfSamples;
+   private double initialAcceptanceRatio;
+   private double finalAcceptanceRatio;
+
+   //energies of the two solutions of each worsening transition, the solution value or its negative for maximization problems
+   private double[] worseEnergies;
+   private double[] betterEnergies;
+   private double minimumEnergy;
+   private int numberOfWorseningTransitions;
+   private double initialTemperature;
+   private double finalTemperature;
+
+   /**
+    * Method to create the TemperatureCalibration object.
+    *
+    * @author Matheus Paixao
+    * @param numberOfSamples the number of moves sampled
+    * @param initialAcceptanceRatio the ratio of worsening moves accepted at the initial temperature, e.g. 0.8
+    * @param finalAcceptanceRatio the ratio of worsening moves accepted at the final temperature, e.g. 0.001
+    */
+   public TemperatureCalibration(int numberOfSamples, double initialAcceptanceRatio, double finalAcceptanceRatio){
+      this.numberOfSamples = numberOfSamples;
+      this.initialAcceptanceRatio = initialAcceptanceRatio;
+      this.finalAcceptanceRatio = finalAcceptanceRatio;
+   }
+
+   public double getInitialTemperature(){
+      return this.initialTemperature;
+   }
+
+   public double getFinalTemperature(){
+      return this.finalTemperature;
+   }
+
+   public int getNumberOfWorseningTransitions(){
+      return this.numberOfWorseningTransitions;
+   }
+
+   /**
+    * Method to sample the moves of the algorithm and calculate the temperatures.
+    *
+    * @author Matheus Paixao
+    * @param simulatedAnnealing the algorithm, which gives the neighbours and their values
+    * @param move the move of the algorithm, or null to walk through its neighbours
+    * @param initialSolution the solution the random walk starts from, it is not changed
+    * @param random the random number generator of the moves
+    * @see sampleTransitions
+    * @see getTemperature
+    */
+   public void calibrate(SimulatedAnnealing simulatedAnnealing, Move move, int[] initialSolution, Random random){
+      sampleTransitions(simulatedAnnealing, move, initialSolution.clone(), random);
+
+      initialTemperature = getTemperature(initialAcceptanceRatio);
+      finalTemperature = getTemperature(finalAcceptanceRatio);
+   }
+
+   /**
+    * Method to walk randomly from the initial solution keeping the worsening transitions.
+    *
+    * Every neighbour is accepted, so the sample is not limited to the neighbourhood of the initial solution.
+    * @author Matheus Paixao
+    * @param simulatedAnnealing the algorithm, which gives the neighbours and their values
+    * @param move the move of the algorithm, applied in place, or null to walk through new neighbours
+    * @param initialSolution the solution the random walk starts from
+    * @param random the random number generator of the moves
+    */
+   private void sampleTransitions(SimulatedAnnealing simulatedAnnealing, Move move, int[] initialSolution, Random random){
+      int[] solution = initialSolution;
+      int[] neighbourSolution = null;
+      double solutionValue = simulatedAnnealing.calculateSolutionValue(solution);
+      double neighbourSolutionValue = 0;
+      double sign = 0; //1 for minimization problems, -1 for maximization problems
+
+      worseEnergies = new double[numberOfSamples];
+      betterEnergies = new double[numberOfSamples];
+      numberOfWorseningTransitions = 0;
+
+      for(int i = 0; i <= numberOfSamples - 1; i++){
+         if(move != null){
+            move.propose(solution, random);
+            neighbourSolutionValue = solutionValue + move.getDelta(solution);
+            move.apply(solution);
+            neighbourSolution = solution;
+         }
+         else{
+            neighbourSolution = simulatedAnnealing.getNeighbourSolution(solution);
+            neighbourSolutionValue = simulatedAnnealing.calculateSolutionValue(neighbourSolution);
+         }
+
+         if(simulatedAnnealing.isSolutionBest(solutionValue, neighbourSolutionValue) == true){
+            worseEnergies[numberOfWorseningTransitions] = neighbourSolutionValue;
+            betterEnergies[numberOfWorseningTransitions] = solutionValue;
+            numberOfWorseningTransitions++;
+         }
+         else if(simulatedAnnealing.isSolutionBest(neighbourSolutionValue, solutionValue) == true){
+            worseEnergies[numberOfWorseningTransitions] = solutionValue;
+            betterEnergies[numberOfWorseningTransitions] = neighbourSolutionValue;
+            numberOfWorseningTransitions++;
+         }
+
+         solution = neighbourSolution;
+         solutionValue = neighbourSolutionValue;
+      }
+
+      if(numberOfWorseningTransitions > 0){
+         sign = Math.signum(worseEnergies[0] - betterEnergies[0]);
+      }
+      minimumEnergy = Double.MAX_VALUE;
+      for(int i = 0; i <= numberOfWorseningTransitions - 1; i++){
+         worseEnergies[i] = sign * worseEnergies[i];
+         betterEnergies[i] = sign * betterEnergies[i];
+         minimumEnergy = Math.min(minimumEnergy, betterEnergies[i]);
+      }
+   }
+
+   /**
+    * Method to find the temperature that accepts a ratio of the sampled worsening transitions.
+    *
+    * Ben-Ameur: T(k+1) = T(k) * ln(ratio(T(k))) / ln(ratio), with
+    * ratio(T) = sum(exp(-worse / T)) / sum(exp(-better / T)) over the transitions,
+    * the energies being shifted by the minimum one so the largest term is 1.
+    * @author Matheus Paixao
+    * @param acceptanceRatio the target ratio, between 0 and 1
+    * @return the temperature, or 0 if no worsening transition was sampled
+    * @see getAcceptanceRatio
+    */
+   private double getTemperature(double acceptanceRatio){
+      double temperature = getMeanDelta() / -Math.log(acceptanceRatio);
+      double estimatedAcceptanceRatio = 0;
+
+      if(temperature <= 0){
+         return 0;
+      }
+
+      for(int i = 0; i <= MAXIMUM_NUMBER_OF_ITERATIONS - 1; i++){
+         estimatedAcceptanceRatio = getAcceptanceRatio(temperature);
+         if(estimatedAcceptanceRatio <= 0){
+            temperature = temperature * 2; //every accepted term underflowed
+            continue;
+         }
+         if(Math.abs(estimatedAcceptanceRatio - acceptanceRatio) <= TOLERANCE * acceptanceRatio){
+            break;
+         }
+
+         temperature = temperature * (Math.log(estimatedAcceptanceRatio) / Math.log(acceptanceRatio));
+      }
+
+      return temperature;
+   }
+
+   private double getMeanDelta(){
+      double deltasSum = 0;
+
+      if(numberOfWorseningTransitions == 0){
+         return 0;
+      }
+
+      for(int i = 0; i <= numberOfWorseningTransitions - 1; i++){
+         deltasSum += worseEnergies[i] - betterEnergies[i];
+      }
+
+      return deltasSum / numberOfWorseningTransitions;
+   }
+
+   private double getAcceptanceRatio(double temperature){
+      double worseSum = 0;
+      double betterSum = 0;
+
+      for(int i = 0; i <= numberOfWorseningTransitions - 1; i++){
+         worseSum += Math.exp(-(worseEnergies[i] - minimumEnergy) / temperature);
+         betterSum += Math.exp(-(betterEnergies[i] - minimumEnergy) / temperature);
+      }
+
+      return worseSum / betterSum;
+   }
+}
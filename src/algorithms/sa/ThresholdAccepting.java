@@ -0,0 +1,23 @@
+package algorithms.sa;
+
+import java.util.Random;
+
+/**
+ * Class of the threshold accepting criterion of Dueck and Scheuer: a neighbour is accepted
+ * if it is worse than the current solution by less than the temperature.
+ *
+ * The temperature is used as the threshold, so the cooling schedule lowers it. It is deterministic.
+ *
+ * @author Matheus Paixao
+ */
+public class ThresholdAccepting implements AcceptanceCriterion{
+   private double sign; //1 for minimization problems, -1 for maximization problems
+
+   public void init(double initialSolutionValue, boolean minimizationProblem){
+      this.sign = minimizationProblem ? 1 : -1;
+   }
+
+   public boolean accept(double currentSolutionValue, double neighbourSolutionValue, double temperature, Random random){
+      return sign * (neighbourSolutionValue - currentSolutionValue) < temperature;
+   }
+}
@@ -0,0 +1,161 @@
+package algorithms.tabu;
+
+/**
+ * Class of the attribute based tabu list of the TabuSearch class.
+ *
+ * Each attribute keeps the iteration until which it is tabu, so adding and checking an attribute
+ * cost O(1) and the expired attributes never have to be removed.
+ * When the number of possible attributes is small they index an array of expirations. Otherwise
+ * they are kept in a hash table with open addressing over primitive arrays, which is cleared of
+ * the expired attributes when it gets half full.
+ *
+ * @author Matheus Paixao
+ */
+public class TabuList{
+   private static final int MAXIMUM_NUMBER_OF_ARRAY_ATTRIBUTES = 1 << 22;
+   private static final int INITIAL_HASH_CAPACITY = 1 << 10;
+   private static final long EMPTY_KEY = -1;
+
+   private int[] expirations; //the iteration until which each attribute is tabu, by attribute or by slot of the hash table
+
+   private boolean hashed;
+   private long[] keys;
+   private int numberOfUsedSlots;
+
+   /**
+    * Method to create the TabuList object.
+    *
+    * @author Matheus Paixao
+    * @param numberOfAttributes the number of possible attributes, which go from 0 to numberOfAttributes - 1
+    */
+   public TabuList(long numberOfAttributes){
+      this.hashed = numberOfAttributes > MAXIMUM_NUMBER_OF_ARRAY_ATTRIBUTES;
+      if(hashed == true){
+         this.keys = new long[INITIAL_HASH_CAPACITY];
+         this.expirations = new int[INITIAL_HASH_CAPACITY];
+      }
+      else{
+         this.expirations = new int[(int) numberOfAttributes];
+      }
+      clear();
+   }
+
+   public void clear(){
+      for(int i = 0; i <= expirations.length - 1; i++){
+         expirations[i] = 0;
+      }
+      if(hashed == true){
+         for(int i = 0; i <= keys.length - 1; i++){
+            keys[i] = EMPTY_KEY;
+         }
+         numberOfUsedSlots = 0;
+      }
+   }
+
+   /**
+    * Method to check if an attribute is tabu.
+    *
+    * It only reads the list, so it may be called by many threads while the list is not changed.
+    * @author Matheus Paixao
+    * @param attribute the attribute
+    * @param iteration the current iteration
+    * @return true if the attribute was made tabu until an iteration after the current one
+    */
+   public boolean isTabu(long attribute, int iteration){
+      int slot = 0;
+
+      if(hashed == false){
+         return expirations[(int) attribute] > iteration;
+      }
+
+      slot = getSlot(attribute);
+      return (keys[slot] == attribute) && (expirations[slot] > iteration);
+   }
+
+   /**
+    * Method to make an attribute tabu until an iteration.
+    *
+    * @author Matheus Paixao
+    * @param attribute the attribute
+    * @param expiration the first iteration in which the attribute is not tabu
+    * @param iteration the current iteration, the attributes that expired before it may be removed
+    * @see rehash
+    */
+   public void add(long attribute, int expiration, int iteration){
+      int slot = 0;
+
+      if(hashed == false){
+         expirations[(int) attribute] = expiration;
+         return;
+      }
+
+      slot = getSlot(attribute);
+      if(keys[slot] == EMPTY_KEY){
+         if(2 * (numberOfUsedSlots + 1) > keys.length){
+            rehash(iteration);
+            slot = getSlot(attribute);
+         }
+         keys[slot] = attribute;
+         numberOfUsedSlots++;
+      }
+      expirations[slot] = expiration;
+   }
+
+   /**
+    * Method to find the slot of an attribute in the hash table by linear probing.
+    *
+    * @author Matheus Paixao
+    * @param attribute the attribute
+    * @return the slot of the attribute, or the empty slot where it would be added
+    */
+   private int getSlot(long attribute){
+      int mask = keys.length - 1;
+      int slot = (int) ((attribute * 0x9E3779B97F4A7C15L) >>> 33) & mask;
+
+      while(keys[slot] != EMPTY_KEY && keys[slot] != attribute){
+         slot = (slot + 1) & mask;
+      }
+
+      return slot;
+   }
+
+   /**
+    * Method to rebuild the hash table keeping only the attributes that are still tabu.
+    *
+    * The capacity is doubled if they still fill a quarter of the table.
+    * @author Matheus Paixao
+    * @param iteration the current iteration
+    */
+   private void rehash(int iteration){
+      long[] oldKeys = keys;
+      int[] oldExpirations = expirations;
+      int numberOfTabuAttributes = 0;
+      int capacity = keys.length;
+      int slot = 0;
+
+      for(int i = 0; i <= oldKeys.length - 1; i++){
+         if(oldKeys[i] != EMPTY_KEY && oldExpirations[i] > iteration){
+            numberOfTabuAttributes++;
+         }
+      }
+      if(4 * (numberOfTabuAttributes + 1) > capacity){
+         capacity = 2 * capacity;
+      }
+
+      keys = new long[capacity];
+      expirations = new int[capacity];
+      for(int i = 0; i <= capacity - 1; i++){
+         keys[i] = EMPTY_KEY;
+      }
+      numberOfUsedSlots = 0;
+
+      for(int i = 0; i <= oldKeys.length - 1; i++){
+         if(oldKeys[i] != EMPTY_KEY && oldExpirations[i] > iteration){
+            slot = getSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            expirations[slot] = oldExpirations[i];
+            numberOfUsedSlots++;
+         }
+      }
+   }
+}
@@ -0,0 +1,399 @@
+package algorithms.tabu;
+
+import algorithms.Algorithm;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that implements the Tabu Search algorithm.
+ *
+ * The initialization constants are adjusted by each the problem.
+ *
+ * In each iteration every move of the neighbourhood of the current solution is evaluated by its
+ * delta and the best admissible one is applied, even if it makes the solution worse.
+ * The moves are numbered from 0 to the neighbourhood size - 1 by the problem, which also tells
+ * the attributes each move adds to the solution and the ones it removes. After a move is applied
+ * the attributes it removed are tabu for a number of iterations (the tenure), so a move that adds
+ * any of them back is not admissible, unless it satisfies the aspiration criterion (by default,
+ * it gives a solution better than the best so far one). If every move is tabu the best one is applied.
+ *
+ * For large neighbourhoods the moves may be evaluated by many threads, each one taking a
+ * contiguous range of moves. The ties are broken by the lowest move, so the search does not
+ * depend on the number of threads.
+ * Then isMoveValid, getMoveDelta and getMoveAttributes are called by many threads at the same
+ * time, so they must only read the solution and any state kept by the problem.
+ *
+ * The algorihtm stores the best so far solution.
+ *
+ * @author Matheus Paixao
+ */
+public abstract class TabuSearch implements Algorithm{
+   private static final int MINIMUM_NUMBER_OF_MOVES_PER_THREAD = 1024;
+
+   private int[] solution;
+   private double solutionValue;
+   private int[] bestSoFarSolution;
+   private double bestSoFarSolutionValue;
+   private TabuList tabuList;
+   private int iteration;
+   private int numberOfBlockedIterations;
+
+   private int numberOfThreads; //0 uses the getNumberOfThreads hook
+   private int numberOfRunningThreads;
+   private ExecutorService executor;
+   private long[][] threadsAttributes; //the work array of the attributes of each range of moves
+   private int[] rangesBestMoves; //the best admissible move of each range, -1 if there is none
+   private double[] rangesBestNeighbourValues;
+   private int[] rangesBestOverallMoves; //the best move of each range, tabu or not
+   private double[] rangesBestOverallNeighbourValues;
+
+   //all these parameters and functions depends on the problem
+   //they must be implemented by the problem child class
+   protected abstract int getNumberOfIterations();
+   protected int getMaximumNumberOfIterationsWithoutImprovement(){return 0;} //0 is no limit
+   protected abstract int getTabuTenure();
+   protected int getTabuTenureVariation(){return 0;} //the tenure of each move is drawn from tenure to tenure + variation
+   protected int getNumberOfThreads(){return Runtime.getRuntime().availableProcessors();} //threads that evaluate large neighbourhoods
+   protected void loadSolution(int[] solution){} //called with the solution the moves will be applied to, before the search
+   protected abstract int[] getInitialSolution();
+   protected abstract int getNeighbourhoodSize(int[] solution);
+   protected abstract long getNumberOfAttributes(int[] solution);
+   protected abstract int getMaximumNumberOfMoveAttributes();
+   protected abstract boolean isMoveValid(int[] solution, int move);
+   protected abstract double getMoveDelta(int[] solution, int move);
+   protected abstract int getMoveAttributes(int[] solution, int move, long[] attributes);
+   protected abstract int getMoveReverseAttributes(int[] solution, int move, long[] attributes);
+   protected abstract void applyMove(int[] solution, int move);
+   protected abstract double calculateSolutionValue(int[] solution);
+   protected abstract boolean isSolutionBest(double solutionValue1, double solutionValue2);
+
+   private Random random;
+
+   private double totalTime;
+
+   /**
+    * Method to create a TabuSearch object.
+    *
+    * @author Matheus Paixao
+    */
+   public TabuSearch(){
+      this.random = new Random();
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   public void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   /**
+    * Method to seed the random number generator of the tenures.
+    *
+    * @author Matheus Paixao
+    * @param seed the seed
+    */
+   public void setSeed(long seed){
+      this.random.setSeed(seed);
+   }
+
+   public void setNumberOfThreads(int numberOfThreads){ //0 uses the getNumberOfThreads hook
+      this.numberOfThreads = numberOfThreads;
+   }
+
+   public int[] getBestSoFarSolution(){
+      return this.bestSoFarSolution;
+   }
+
+   public int getNumberOfBlockedIterations(){
+      return this.numberOfBlockedIterations; //iterations in which every move was tabu
+   }
+
+   /**
+    * Method to get the solution of the algorithm and to set the total time spended.
+    *
+    * @author Matheus Paixao
+    * @return solution founded by the algorithm
+    * @see initTS
+    * @see runIteration
+    * @see setTotalTime
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+      int numberOfIterations = 0;
+      int maximumNumberOfIterationsWithoutImprovement = 0;
+      int lastImprovementIteration = 0;
+
+      initTS();
+      numberOfIterations = getNumberOfIterations();
+      maximumNumberOfIterationsWithoutImprovement = getMaximumNumberOfIterationsWithoutImprovement();
+
+      initialTime = System.currentTimeMillis();
+      try{
+         for(iteration = 1; iteration <= numberOfIterations; iteration++){
+            if(runIteration() == false){
+               break; //no valid move
+            }
+
+            if(isSolutionBest(solutionValue, bestSoFarSolutionValue) == true){
+               bestSoFarSolutionValue = solutionValue;
+               System.arraycopy(solution, 0, bestSoFarSolution, 0, solution.length);
+               lastImprovementIteration = iteration;
+            }
+            if(maximumNumberOfIterationsWithoutImprovement > 0 && iteration - lastImprovementIteration >= maximumNumberOfIterationsWithoutImprovement){
+               break;
+            }
+         }
+      }
+      finally{
+         if(executor != null){
+            executor.shutdown();
+            executor = null;
+         }
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      return bestSoFarSolutionValue;
+   }
+
+   /**
+    * Method to initialize the TabuSearch algorithm.
+    *
+    * The search works on a copy of the initial solution.
+    * @author Matheus Paixao
+    * @see getInitialSolution
+    * @see loadSolution
+    */
+   private void initTS(){
+      solution = getInitialSolution().clone();
+      loadSolution(solution);
+      solutionValue = calculateSolutionValue(solution);
+      bestSoFarSolution = solution.clone();
+      bestSoFarSolutionValue = solutionValue;
+
+      tabuList = new TabuList(getNumberOfAttributes(solution));
+      numberOfBlockedIterations = 0;
+
+      numberOfRunningThreads = numberOfThreads;
+      if(numberOfRunningThreads == 0){
+         numberOfRunningThreads = Math.max(1, getNumberOfThreads());
+      }
+      threadsAttributes = new long[numberOfRunningThreads][getMaximumNumberOfMoveAttributes()];
+      rangesBestMoves = new int[numberOfRunningThreads];
+      rangesBestNeighbourValues = new double[numberOfRunningThreads];
+      rangesBestOverallMoves = new int[numberOfRunningThreads];
+      rangesBestOverallNeighbourValues = new double[numberOfRunningThreads];
+      if(numberOfRunningThreads > 1){
+         executor = Executors.newFixedThreadPool(numberOfRunningThreads);
+      }
+   }
+
+   /**
+    * Method to run an iteration: to choose the best admissible move, apply it and make its removed attributes tabu.
+    *
+    * @author Matheus Paixao
+    * @return false if the neighbourhood has no valid move
+    * @see evaluateNeighbourhood
+    */
+   private boolean runIteration(){
+      int move = evaluateNeighbourhood();
+      long[] attributes = threadsAttributes[0];
+      int numberOfAttributes = 0;
+      int tenure = 0;
+
+      if(move == -1){
+         return false;
+      }
+
+      numberOfAttributes = getMoveReverseAttributes(solution, move, attributes);
+      applyMove(solution, move);
+      solutionValue = calculateSolutionValue(solution);
+
+      for(int i = 0; i <= numberOfAttributes - 1; i++){
+         tenure = getTabuTenure();
+         if(getTabuTenureVariation() > 0){
+            tenure += random.nextInt(getTabuTenureVariation() + 1);
+         }
+         tabuList.add(attributes[i], iteration + tenure, iteration);
+      }
+
+      return true;
+   }
+
+   /**
+    * Method to find the move to apply, splitting the neighbourhood in ranges evaluated in parallel.
+    *
+    * The neighbourhood is only split when each thread gets enough moves to pay for the synchronization.
+    * If a range fails, or the evaluation is interrupted, the search fails instead of stopping as if
+    * there were no valid move.
+    * @author Matheus Paixao
+    * @return the best admissible move, the best tabu move if every move is tabu, or -1 if there is no valid move
+    * @see evaluateMoves
+    * @see stopExecutor
+    */
+   private int evaluateNeighbourhood(){
+      final int neighbourhoodSize = getNeighbourhoodSize(solution);
+      int numberOfRanges = Math.min(numberOfRunningThreads, neighbourhoodSize / MINIMUM_NUMBER_OF_MOVES_PER_THREAD);
+      ArrayList<Future<Object>> futures = new ArrayList<Future<Object>>();
+      int bestMove = -1;
+      int bestOverallMove = -1;
+      double bestNeighbourValue = 0;
+      double bestOverallNeighbourValue = 0;
+
+      if(numberOfRanges <= 1){
+         numberOfRanges = 1;
+         evaluateMoves(0, 0, neighbourhoodSize - 1);
+      }
+      else{
+         try{
+            for(int i = 0; i <= numberOfRanges - 1; i++){
+               final int range = i;
+               final int firstMove = (int) ((long) neighbourhoodSize * i / numberOfRanges);
+               final int lastMove = (int) ((long) neighbourhoodSize * (i + 1) / numberOfRanges) - 1;
+               futures.add(executor.submit(new Callable<Object>(){
+                  public Object call(){
+                     evaluateMoves(range, firstMove, lastMove);
+                     return null;
+                  }
+               }));
+            }
+
+            for(int i = 0; i <= futures.size() - 1; i++){
+               futures.get(i).get();
+            }
+         }
+         catch(InterruptedException e){
+            stopExecutor();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Tabu search execution interrupted", e);
+         }
+         catch(ExecutionException e){
+            stopExecutor();
+            throw new RuntimeException("Error in parallel neighbourhood evaluation", e.getCause());
+         }
+      }
+
+      //the ranges are in the order of the moves, so keeping the first of the ties keeps the lowest move
+      for(int i = 0; i <= numberOfRanges - 1; i++){
+         if(rangesBestMoves[i] != -1 && (bestMove == -1 || isSolutionBest(rangesBestNeighbourValues[i], bestNeighbourValue) == true)){
+            bestMove = rangesBestMoves[i];
+            bestNeighbourValue = rangesBestNeighbourValues[i];
+         }
+         if(rangesBestOverallMoves[i] != -1 && (bestOverallMove == -1 || isSolutionBest(rangesBestOverallNeighbourValues[i], bestOverallNeighbourValue) == true)){
+            bestOverallMove = rangesBestOverallMoves[i];
+            bestOverallNeighbourValue = rangesBestOverallNeighbourValues[i];
+         }
+      }
+
+      if(bestMove == -1 && bestOverallMove != -1){
+         numberOfBlockedIterations++;
+         return bestOverallMove;
+      }
+
+      return bestMove;
+   }
+
+   /**
+    * Method to interrupt the ranges still being evaluated and to wait for their threads to end.
+    *
+    * @author Matheus Paixao
+    */
+   private void stopExecutor(){
+      executor.shutdownNow();
+      try{
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+      }
+      executor = null;
+   }
+
+   /**
+    * Method to find the best admissible move and the best move of a range of the neighbourhood.
+    *
+    * The attributes of a move are only checked when it is better than the best admissible move
+    * found so far, as the other moves can not replace it.
+    * @author Matheus Paixao
+    * @param range the index of the range, which gives the work array and where the moves are kept
+    * @param firstMove the first move of the range
+    * @param lastMove the last move of the range
+    * @see isMoveAdmissible
+    */
+   private void evaluateMoves(int range, int firstMove, int lastMove){
+      int bestMove = -1;
+      int bestOverallMove = -1;
+      double bestNeighbourValue = 0;
+      double bestOverallNeighbourValue = 0;
+      double neighbourValue = 0;
+
+      for(int move = firstMove; move <= lastMove; move++){
+         if(isMoveValid(solution, move) == false){
+            continue;
+         }
+         neighbourValue = solutionValue + getMoveDelta(solution, move);
+
+         if(bestOverallMove == -1 || isSolutionBest(neighbourValue, bestOverallNeighbourValue) == true){
+            bestOverallMove = move;
+            bestOverallNeighbourValue = neighbourValue;
+         }
+         if(bestMove == -1 || isSolutionBest(neighbourValue, bestNeighbourValue) == true){
+            if(isMoveAdmissible(move, neighbourValue, threadsAttributes[range]) == true){
+               bestMove = move;
+               bestNeighbourValue = neighbourValue;
+            }
+         }
+      }
+
+      rangesBestMoves[range] = bestMove;
+      rangesBestNeighbourValues[range] = bestNeighbourValue;
+      rangesBestOverallMoves[range] = bestOverallMove;
+      rangesBestOverallNeighbourValues[range] = bestOverallNeighbourValue;
+   }
+
+   /**
+    * Method to check if a move may be applied: it adds no tabu attribute, or it satisfies the aspiration criterion.
+    *
+    * @author Matheus Paixao
+    * @param move the move
+    * @param neighbourValue the solution value after the move
+    * @param attributes the work array of the attributes
+    * @return true if the move is admissible
+    * @see isAspirationSatisfied
+    */
+   private boolean isMoveAdmissible(int move, double neighbourValue, long[] attributes){
+      int numberOfAttributes = getMoveAttributes(solution, move, attributes);
+
+      for(int i = 0; i <= numberOfAttributes - 1; i++){
+         if(tabuList.isTabu(attributes[i], iteration) == true){
+            return isAspirationSatisfied(neighbourValue, bestSoFarSolutionValue);
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * Method of the aspiration criterion, which allows a tabu move.
+    *
+    * By default a tabu move is allowed if it gives a solution better than the best so far one.
+    * @author Matheus Paixao
+    * @param neighbourValue the solution value after the tabu move
+    * @param bestSoFarSolutionValue the best so far solution value
+    * @return true if the tabu move is allowed
+    */
+   protected boolean isAspirationSatisfied(double neighbourValue, double bestSoFarSolutionValue){
+      return isSolutionBest(neighbourValue, bestSoFarSolutionValue);
+   }
+}
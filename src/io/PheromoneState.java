@@ -0,0 +1,35 @@
+package io;
+
+/**
+ * Class to hold the learned state of an ant algorithm: the pheromone matrix
+ * and the best so far tour with its fitness value.
+ *
+ * @author Matheus Paixao
+ */
+public class PheromoneState{
+   private double[][] pheromone;
+   private int[] bestTour;
+   private double bestTourValue;
+
+   public PheromoneState(double[][] pheromone, int[] bestTour, double bestTourValue){
+      this.pheromone = pheromone;
+      this.bestTour = bestTour;
+      this.bestTourValue = bestTourValue;
+   }
+
+   public double[][] getPheromone(){
+      return this.pheromone;
+   }
+
+   public int[] getBestTour(){
+      return this.bestTour;
+   }
+
+   public double getBestTourValue(){
+      return this.bestTourValue;
+   }
+
+   public int getNumberOfNodes(){
+      return this.pheromone.length;
+   }
+}
@@ -0,0 +1,244 @@
+package io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import java.util.zip.CRC32;
+
+/**
+ * Class used to save and load the pheromone matrix of an ant algorithm between runs.
+ *
+ * The state is stored in a binary file keyed by the instance fingerprint (a CRC32 of
+ * the instance content) and by a key that identifies the algorithm (e.g. "acs" or "antq"),
+ * because each algorithm has its own pheromone scale.
+ *
+ * File format (big endian):
+ * magic (int), version (int), fingerprint (long), number of nodes (int),
+ * best tour value (double), best tour length (int), best tour (int array),
+ * pheromone matrix (number of nodes * number of nodes doubles, row by row).
+ *
+ * The file can be read with a memory mapped buffer, which avoids copying
+ * big matrices through the Java heap twice. A buffer holds at most Integer.MAX_VALUE bytes,
+ * so the states of more than about 16000 nodes are not saved.
+ *
+ * @author Matheus Paixao
+ */
+public class PheromoneStore{
+   private static final int MAGIC = 0x50484552; //"PHER"
+   private static final int VERSION = 1;
+   private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 8 + 4;
+
+   private File stateFile;
+   private long fingerprint;
+   private boolean memoryMapped;
+
+   /**
+    * Method to create a PheromoneStore object.
+    *
+    * @author Matheus Paixao
+    * @param directory the directory where the state files are stored
+    * @param instance the instance solved by the algorithm
+    * @param key the key that identifies the algorithm
+    * @see getInstanceFingerprint
+    */
+   public PheromoneStore(File directory, File instance, String key){
+      this.fingerprint = getInstanceFingerprint(instance);
+      this.stateFile = new File(directory, instance.getName() + "_" + Long.toHexString(fingerprint) + "_" + key + ".pheromone");
+      this.memoryMapped = false;
+   }
+
+   public void setMemoryMapped(boolean memoryMapped){
+      this.memoryMapped = memoryMapped;
+   }
+
+   public File getStateFile(){
+      return this.stateFile;
+   }
+
+   /**
+    * Method to calculate the fingerprint of an instance.
+    *
+    * It's the CRC32 of the instance content combined with its length.
+    * @author Matheus Paixao
+    * @param instance the instance file
+    * @return the fingerprint of the instance
+    */
+   public static long getInstanceFingerprint(File instance){
+      CRC32 crc = new CRC32();
+      byte[] buffer = new byte[8192];
+      int readBytes = 0;
+
+      try{
+         FileInputStream input = new FileInputStream(instance);
+         try{
+            readBytes = input.read(buffer);
+            while(readBytes != -1){
+               crc.update(buffer, 0, readBytes);
+               readBytes = input.read(buffer);
+            }
+         }
+         finally{
+            input.close();
+         }
+      }
+      catch(Exception e){
+         System.out.println("Error in calculate instance fingerprint");
+         e.printStackTrace();
+      }
+
+      return (instance.length() << 32) ^ crc.getValue();
+   }
+
+   /**
+    * Method to know if there is a saved state for the instance.
+    *
+    * @author Matheus Paixao
+    * @return true if a state file exists, false if doesn't
+    */
+   public boolean hasState(){
+      return stateFile.exists();
+   }
+
+   /**
+    * Method to save the state of an ant algorithm.
+    *
+    * Nothing is saved if the state is too big for a buffer.
+    * @author Matheus Paixao
+    * @param state the state to be saved
+    */
+   public void save(PheromoneState state){
+      double[][] pheromone = state.getPheromone();
+      int[] bestTour = state.getBestTour();
+      int numberOfNodes = pheromone.length;
+      long stateSize = HEADER_SIZE + (4L * bestTour.length) + (8L * numberOfNodes * numberOfNodes);
+      ByteBuffer buffer = null;
+
+      if(stateSize > Integer.MAX_VALUE){
+         System.out.println("Error in save pheromone state, the state of " + numberOfNodes + " nodes is too big for a buffer");
+         return;
+      }
+      buffer = ByteBuffer.allocate((int) stateSize);
+
+      buffer.putInt(MAGIC);
+      buffer.putInt(VERSION);
+      buffer.putLong(fingerprint);
+      buffer.putInt(numberOfNodes);
+      buffer.putDouble(state.getBestTourValue());
+      buffer.putInt(bestTour.length);
+      buffer.asIntBuffer().put(bestTour);
+      buffer.position(buffer.position() + (4 * bestTour.length));
+
+      DoubleBuffer pheromoneBuffer = buffer.asDoubleBuffer();
+      for(int i = 0; i <= numberOfNodes - 1; i++){
+         pheromoneBuffer.put(pheromone[i]);
+      }
+      buffer.rewind();
+
+      try{
+         RandomAccessFile file = new RandomAccessFile(stateFile, "rw");
+         try{
+            FileChannel channel = file.getChannel();
+            channel.truncate(0);
+            while(buffer.hasRemaining()){
+               channel.write(buffer);
+            }
+         }
+         finally{
+            file.close();
+         }
+      }
+      catch(Exception e){
+         System.out.println("Error in save pheromone state");
+         e.printStackTrace();
+      }
+   }
+
+   /**
+    * Method to load the saved state of an ant algorithm.
+    *
+    * @author Matheus Paixao
+    * @param numberOfNodes the number of nodes of the instance, used to validate the file
+    * @return the saved state, or null if there isn't a valid state for the instance
+    */
+   public PheromoneState load(int numberOfNodes){
+      PheromoneState state = null;
+      ByteBuffer buffer = null;
+
+      if(hasState() == true){
+         try{
+            RandomAccessFile file = new RandomAccessFile(stateFile, "r");
+            try{
+               FileChannel channel = file.getChannel();
+               if(channel.size() > Integer.MAX_VALUE){
+                  System.out.println("Error in load pheromone state, the state file is too big for a buffer");
+                  return null;
+               }
+               if(memoryMapped == true){
+                  buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+               }
+               else{
+                  buffer = ByteBuffer.allocate((int) channel.size());
+                  while(buffer.hasRemaining()){
+                     if(channel.read(buffer) == -1){
+                        break;
+                     }
+                  }
+                  buffer.flip();
+               }
+
+               state = readState(buffer, numberOfNodes);
+            }
+            finally{
+               file.close();
+            }
+         }
+         catch(Exception e){
+            System.out.println("Error in load pheromone state");
+            e.printStackTrace();
+         }
+      }
+
+      return state;
+   }
+
+   /**
+    * Method to read the state from the buffer with the file content.
+    *
+    * @author Matheus Paixao
+    * @param buffer the file content
+    * @param numberOfNodes the expected number of nodes
+    * @return the state, or null if the file belongs to another instance or version
+    */
+   private PheromoneState readState(ByteBuffer buffer, int numberOfNodes){
+      PheromoneState state = null;
+      double[][] pheromone = null;
+      int[] bestTour = null;
+      double bestTourValue = 0;
+
+      if((buffer.remaining() >= HEADER_SIZE) && (buffer.getInt() == MAGIC) && (buffer.getInt() == VERSION) 
+            && (buffer.getLong() == fingerprint) && (buffer.getInt() == numberOfNodes)){
+         bestTourValue = buffer.getDouble();
+         bestTour = new int[buffer.getInt()];
+
+         IntBuffer tourBuffer = buffer.asIntBuffer();
+         tourBuffer.get(bestTour);
+         buffer.position(buffer.position() + (4 * bestTour.length));
+
+         pheromone = new double[numberOfNodes][numberOfNodes];
+         DoubleBuffer pheromoneBuffer = buffer.asDoubleBuffer();
+         for(int i = 0; i <= numberOfNodes - 1; i++){
+            pheromoneBuffer.get(pheromone[i]);
+         }
+
+         state = new PheromoneState(pheromone, bestTour, bestTourValue);
+      }
+
+      return state;
+   }
+}
@@ -15,6 +15,7 @@ public class ResultsWriter{
    private DecimalFormat df;
    String algorithm;
    int gammaPercentage;
+   private String[][] profileSummaries;
 
    //public ResultsWriter(StatisticalAnalyzer statisticalAnalyzer, InstancesHandler instancesHandler){
    public ResultsWriter(StatisticalAnalyzer statisticalAnalyzer, InstancesHandler instancesHandler, String algorithm, int gammaPercentage){
@@ -28,6 +29,10 @@ public class ResultsWriter{
       df = new DecimalFormat("0.00", dfs);
    }
 
+   public void setProfileSummaries(String[][] profileSummaries){
+      this.profileSummaries = profileSummaries;
+   }
+
    public void printResults(){
       int numberOfInstances = statisticalAnalyzer.getNumberOfInstances();
 
@@ -48,6 +53,59 @@ public class ResultsWriter{
                            + df.format(statisticalAnalyzer.getInstanceSolutionStandardDeviation(instanceIndex)));
       System.out.println("run time: " + df.format(statisticalAnalyzer.getInstanceRunTimeMean(instanceIndex)) + " +/- " 
                            + df.format(statisticalAnalyzer.getInstanceRuntimeStandardDeviation(instanceIndex)));
+      if(statisticalAnalyzer.hasOptimalSolutions() == true){
+         System.out.print(getGapResults(instanceIndex));
+      }
+      if(statisticalAnalyzer.hasFitnessCacheHitRates() == true){
+         System.out.print(getFitnessCacheResults(instanceIndex));
+      }
+      System.out.print(getProfileResults(instanceIndex));
+   }
+
+   /**
+    * Method to get the lines of the optimal value and of the gap of an instance.
+    *
+    * A value whose optimality was not proved is an upper bound, and it is labelled so.
+    * @author Matheus Paixao
+    * @param instanceIndex the index of the instance
+    * @return the lines of the optimal value and of the gap
+    */
+   private String getGapResults(int instanceIndex){
+      String label = "optimal";
+
+      if(statisticalAnalyzer.isInstanceOptimalSolutionProved(instanceIndex) == false){
+         label = "upper bound";
+      }
+
+      return label + ": " + df.format(statisticalAnalyzer.getInstanceOptimalSolution(instanceIndex)) + "\n"
+               + "gap to " + label + ": " + df.format(statisticalAnalyzer.getInstanceGapMean(instanceIndex)) + "% +/- " 
+               + df.format(statisticalAnalyzer.getInstanceGapStandardDeviation(instanceIndex)) + "%\n";
+   }
+
+   private String getFitnessCacheResults(int instanceIndex){
+      return "fitness cache hit rate: " + df.format(100 * statisticalAnalyzer.getInstanceFitnessCacheHitRateMean(instanceIndex)) + "% +/- " 
+               + df.format(100 * statisticalAnalyzer.getInstanceFitnessCacheHitRateStandardDeviation(instanceIndex)) + "%\n";
+   }
+
+   /**
+    * Method to get the profile summaries of the runs of an instance.
+    *
+    * @author Matheus Paixao
+    * @param instanceIndex the index of the instance
+    * @return the summary of each profiled run, empty if no run was profiled
+    */
+   private String getProfileResults(int instanceIndex){
+      String profileResults = "";
+
+      if(profileSummaries != null){
+         for(int j = 0; j <= profileSummaries[instanceIndex].length - 1; j++){
+            if(profileSummaries[instanceIndex][j] != null){
+               profileResults += "run " + j + " " + profileSummaries[instanceIndex][j] + "\n";
+            }
+         }
+      }
+
+      return profileResults;
    }
 
    public void writeResults(){
@@ -83,6 +141,13 @@ public class ResultsWriter{
                            + df.format(statisticalAnalyzer.getInstanceSolutionStandardDeviation(instanceIndex)) + "\n");
          writer.write("run time: " + df.format(statisticalAnalyzer.getInstanceRunTimeMean(instanceIndex)) + " +/- " 
                            + df.format(statisticalAnalyzer.getInstanceRuntimeStandardDeviation(instanceIndex)) + "\n");
+         if(statisticalAnalyzer.hasOptimalSolutions() == true){
+            writer.write(getGapResults(instanceIndex));
+         }
+         if(statisticalAnalyzer.hasFitnessCacheHitRates() == true){
+            writer.write(getFitnessCacheResults(instanceIndex));
+         }
+         writer.write(getProfileResults(instanceIndex));
       }
       catch(Exception e){
          System.out.println("Error in write instance results");
@@ -0,0 +1,112 @@
+package problems.jssp;
+
+/**
+ * Class of the acceleration of Taillard to evaluate the insertion of a job in a job sequence.
+ *
+ * For the sequence without the job of one position, the completion times of its jobs from the
+ * start (heads) and to the end (tails) are calculated once in O(n * m), and then the makespan of
+ * inserting the job at any position costs O(m). The object remembers the version of the solution
+ * and the removed position it was loaded with, so the users only load it again when they change.
+ * It is not thread-safe, each thread must use its own object.
+ *
+ * @author Matheus Paixao
+ */
+public class JSSPInsertionTimes{
+   private double[][] timesMatrix;
+   private int numberOfJobs;
+   private int numberOfMachines;
+
+   private int solutionVersion;
+   private int removedPosition;
+   private double[] heads; //row k + 1 is the k-th job, row 0 is 0
+   private double[] tails; //row k is the k-th job, row n - 1 is 0
+   private double[] completionTimes;
+   private double makespan; //makespan of the sequence with the job
+
+   /**
+    * Method to create the JSSPInsertionTimes object.
+    *
+    * @author Matheus Paixao
+    * @param jsspProblem the JSSPProblem object
+    */
+   public JSSPInsertionTimes(JSSPProblem jsspProblem){
+      this.timesMatrix = jsspProblem.getTimesMatrix();
+      this.numberOfJobs = jsspProblem.getNumberOfJobs();
+      this.numberOfMachines = timesMatrix[0].length;
+      this.solutionVersion = -1;
+      this.removedPosition = -1;
+      this.heads = new double[numberOfJobs * numberOfMachines];
+      this.tails = new double[numberOfJobs * numberOfMachines];
+      this.completionTimes = new double[numberOfMachines];
+   }
+
+   public boolean isLoaded(int solutionVersion, int removedPosition){
+      return (this.solutionVersion == solutionVersion) && (this.removedPosition == removedPosition);
+   }
+
+   public double getMakespan(){
+      return this.makespan;
+   }
+
+   /**
+    * Method to calculate the heads and the tails of the sequence without the job of a position.
+    *
+    * @author Matheus Paixao
+    * @param solution the job sequence
+    * @param removedPosition the position of the removed job
+    * @param solutionVersion the version of the job sequence, kept to be checked by isLoaded
+    */
+   public void load(int[] solution, int removedPosition, int solutionVersion){
+      int job = 0;
+      int row = 0;
+
+      for(int i = 0; i <= numberOfMachines - 1; i++){
+         heads[i] = 0;
+         tails[(numberOfJobs - 1) * numberOfMachines + i] = 0;
+      }
+
+      for(int k = 0; k <= numberOfJobs - 2; k++){
+         job = solution[k < removedPosition ? k : k + 1];
+         row = (k + 1) * numberOfMachines;
+         heads[row] = heads[row - numberOfMachines] + timesMatrix[job][0];
+         for(int i = 1; i <= numberOfMachines - 1; i++){
+            heads[row + i] = Math.max(heads[row - numberOfMachines + i], heads[row + i - 1]) + timesMatrix[job][i];
+         }
+      }
+
+      for(int k = numberOfJobs - 2; k >= 0; k--){
+         job = solution[k < removedPosition ? k : k + 1];
+         row = k * numberOfMachines;
+         tails[row + numberOfMachines - 1] = tails[row + 2 * numberOfMachines - 1] + timesMatrix[job][numberOfMachines - 1];
+         for(int i = numberOfMachines - 2; i >= 0; i--){
+            tails[row + i] = Math.max(tails[row + numberOfMachines + i], tails[row + i + 1]) + timesMatrix[job][i];
+         }
+      }
+
+      this.solutionVersion = solutionVersion;
+      this.removedPosition = removedPosition;
+      this.makespan = getInsertionMakespan(solution[removedPosition], removedPosition); //the job back at its position
+   }
+
+   /**
+    * Method to get the makespan of inserting a job in the loaded sequence.
+    *
+    * @author Matheus Paixao
+    * @param job the inserted job
+    * @param position the position of the job in the new sequence
+    * @return the makespan of the new sequence
+    */
+   public double getInsertionMakespan(int job, int position){
+      int row = position * numberOfMachines; //the heads of the job before the position and the tails of the job after it
+      double makespan = 0;
+
+      completionTimes[0] = heads[row] + timesMatrix[job][0];
+      makespan = completionTimes[0] + tails[row];
+      for(int i = 1; i <= numberOfMachines - 1; i++){
+         completionTimes[i] = Math.max(heads[row + i], completionTimes[i - 1]) + timesMatrix[job][i];
+         makespan = Math.max(makespan, completionTimes[i] + tails[row + i]);
+      }
+
+      return makespan;
+   }
+}
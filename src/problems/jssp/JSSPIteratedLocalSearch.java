@@ -0,0 +1,316 @@
+package problems.jssp;
+
+import algorithms.ils.IteratedLocalSearch;
+
+import java.util.Random;
+
+/**
+ * Class to implement the IteratedLocalSearch class to the Job Sequence Scheduling Problem with the insert and interchange neighbourhoods.
+ *
+ * The move p * n + q of the insert neighbourhood takes the job of the position p out of the sequence
+ * and inserts it at the position q, and its makespan is found with the acceleration of Taillard.
+ * The move p * n + q, p < q, of the interchange neighbourhood swaps the jobs of the positions p and q,
+ * and its makespan is found from the heads of the jobs before p and the tails of the jobs after q,
+ * so only the jobs from p to q are scheduled again, in O((q - p) * m).
+ *
+ * The perturbation moves blocks of consecutive jobs to random positions, as many blocks as its strength.
+ * The local optima are accepted by the Metropolis criterion at the constant temperature of Osman and Potts.
+ *
+ * @author Matheus Paixao
+ */
+public class JSSPIteratedLocalSearch extends IteratedLocalSearch{
+   private static final int INSERT_NEIGHBOURHOOD = 0;
+   private static final int MAXIMUM_BLOCK_LENGTH = 4;
+   private static final double TEMPERATURE_FACTOR = 0.4;
+
+   private JSSPProblem jsspProblem;
+   private double[][] timesMatrix;
+   private int numberOfJobs;
+   private int numberOfMachines;
+   private int numberOfIterations;
+   private double acceptanceTemperature;
+   private int solutionVersion; //changed by each applied move, so the heads and tails are calculated again
+
+   private JSSPInsertionTimes insertionTimes;
+   private int sequenceVersion;
+   private double[] sequenceHeads; //row k + 1 is the k-th job of the sequence, row 0 is 0
+   private double[] sequenceTails; //row k is the k-th job of the sequence, row n is 0
+   private double[] completionTimes; //two rows, the previous and the current job of an interchange
+   private int[] block;
+
+   private Random random;
+
+   /**
+    * Method to create the JSSPIteratedLocalSearch object.
+    *
+    * @author Matheus Paixao
+    * @param jsspProblem the JSSPProblem object
+    * @param numberOfIterations the number of perturbations
+    */
+   public JSSPIteratedLocalSearch(JSSPProblem jsspProblem, int numberOfIterations){
+      super();
+      this.jsspProblem = jsspProblem;
+      this.timesMatrix = jsspProblem.getTimesMatrix();
+      this.numberOfJobs = jsspProblem.getNumberOfJobs();
+      this.numberOfMachines = timesMatrix[0].length;
+      this.numberOfIterations = numberOfIterations;
+      this.acceptanceTemperature = calculateAcceptanceTemperature();
+      this.insertionTimes = new JSSPInsertionTimes(jsspProblem);
+      this.sequenceVersion = -1;
+      this.sequenceHeads = new double[(numberOfJobs + 1) * numberOfMachines];
+      this.sequenceTails = new double[(numberOfJobs + 1) * numberOfMachines];
+      this.completionTimes = new double[2 * numberOfMachines];
+      this.block = new int[MAXIMUM_BLOCK_LENGTH];
+      this.random = new Random();
+   }
+
+   protected int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   protected double getAcceptanceTemperature(){
+      return this.acceptanceTemperature;
+   }
+
+   /**
+    * Method to calculate the temperature of Osman and Potts, a fraction of the mean processing time.
+    *
+    * @author Matheus Paixao
+    * @return the acceptance temperature
+    */
+   private double calculateAcceptanceTemperature(){
+      double totalTime = 0;
+
+      for(int j = 0; j <= numberOfJobs - 1; j++){
+         for(int i = 0; i <= numberOfMachines - 1; i++){
+            totalTime += timesMatrix[j][i];
+         }
+      }
+
+      return TEMPERATURE_FACTOR * totalTime / (numberOfJobs * numberOfMachines * 10);
+   }
+
+   protected int getMaximumPerturbationStrength(){
+      return 4;
+   }
+
+   protected int getNumberOfNeighbourhoods(){
+      return 2;
+   }
+
+   /**
+    * Method to generate a random job sequence.
+    *
+    * @author Matheus Paixao
+    * @return the random initial solution
+    */
+   protected int[] getInitialSolution(){
+      int[] initialSolution = new int[numberOfJobs];
+      int randomIndex = 0;
+      int jobAux = 0;
+
+      for(int i = 0; i <= numberOfJobs - 1; i++){
+         initialSolution[i] = i;
+      }
+      for(int i = numberOfJobs - 1; i >= 1; i--){
+         randomIndex = random.nextInt(i + 1);
+         jobAux = initialSolution[i];
+         initialSolution[i] = initialSolution[randomIndex];
+         initialSolution[randomIndex] = jobAux;
+      }
+
+      return initialSolution;
+   }
+
+   protected void loadSolution(int[] solution){
+      solutionVersion++;
+   }
+
+   protected int getNeighbourhoodSize(int[] solution, int neighbourhood){
+      return numberOfJobs * numberOfJobs;
+   }
+
+   /**
+    * Method to check if a move changes the sequence.
+    *
+    * Moving a job one position back is the same as moving the previous job one position forward,
+    * so only the second insert move is valid, and the interchange of p and q is only the move with p < q.
+    * @author Matheus Paixao
+    * @param solution the current job sequence
+    * @param neighbourhood the neighbourhood
+    * @param move the move
+    * @return true if the move is valid
+    */
+   protected boolean isMoveValid(int[] solution, int neighbourhood, int move){
+      int position = move / numberOfJobs;
+      int newPosition = move % numberOfJobs;
+
+      if(neighbourhood == INSERT_NEIGHBOURHOOD){
+         return (newPosition != position) && (newPosition != position - 1);
+      }
+
+      return position < newPosition;
+   }
+
+   protected double getMoveDelta(int[] solution, int neighbourhood, int move){
+      int position = move / numberOfJobs;
+      int newPosition = move % numberOfJobs;
+
+      if(neighbourhood == INSERT_NEIGHBOURHOOD){
+         if(insertionTimes.isLoaded(solutionVersion, position) == false){
+            insertionTimes.load(solution, position, solutionVersion);
+         }
+         return insertionTimes.getInsertionMakespan(solution[position], newPosition) - insertionTimes.getMakespan();
+      }
+
+      if(sequenceVersion != solutionVersion){
+         loadSequenceTimes(solution);
+      }
+      return getInterchangeMakespan(solution, position, newPosition) - sequenceHeads[(numberOfJobs + 1) * numberOfMachines - 1];
+   }
+
+   /**
+    * Method to calculate the heads and the tails of every job of the sequence.
+    *
+    * @author Matheus Paixao
+    * @param solution the current job sequence
+    */
+   private void loadSequenceTimes(int[] solution){
+      int job = 0;
+      int row = 0;
+
+      for(int i = 0; i <= numberOfMachines - 1; i++){
+         sequenceHeads[i] = 0;
+         sequenceTails[numberOfJobs * numberOfMachines + i] = 0;
+      }
+
+      for(int k = 0; k <= numberOfJobs - 1; k++){
+         job = solution[k];
+         row = (k + 1) * numberOfMachines;
+         sequenceHeads[row] = sequenceHeads[row - numberOfMachines] + timesMatrix[job][0];
+         for(int i = 1; i <= numberOfMachines - 1; i++){
+            sequenceHeads[row + i] = Math.max(sequenceHeads[row - numberOfMachines + i], sequenceHeads[row + i - 1]) + timesMatrix[job][i];
+         }
+      }
+
+      for(int k = numberOfJobs - 1; k >= 0; k--){
+         job = solution[k];
+         row = k * numberOfMachines;
+         sequenceTails[row + numberOfMachines - 1] = sequenceTails[row + 2 * numberOfMachines - 1] + timesMatrix[job][numberOfMachines - 1];
+         for(int i = numberOfMachines - 2; i >= 0; i--){
+            sequenceTails[row + i] = Math.max(sequenceTails[row + numberOfMachines + i], sequenceTails[row + i + 1]) + timesMatrix[job][i];
+         }
+      }
+
+      sequenceVersion = solutionVersion;
+   }
+
+   /**
+    * Method to get the makespan of the sequence with the jobs of two positions swapped.
+    *
+    * @author Matheus Paixao
+    * @param solution the current job sequence
+    * @param position1 the first position
+    * @param position2 the second position, after the first one
+    * @return the makespan of the new sequence
+    */
+   private double getInterchangeMakespan(int[] solution, int position1, int position2){
+      int previousRow = 0; //the completion times of the previous job, in the heads for the job before position1
+      double[] previousTimes = sequenceHeads;
+      int currentRow = 0;
+      int job = 0;
+      int tailsRow = (position2 + 1) * numberOfMachines;
+      double makespan = 0;
+
+      previousRow = position1 * numberOfMachines;
+      for(int k = position1; k <= position2; k++){
+         job = solution[k];
+         if(k == position1){
+            job = solution[position2];
+         }
+         else if(k == position2){
+            job = solution[position1];
+         }
+
+         currentRow = (k % 2) * numberOfMachines;
+         completionTimes[currentRow] = previousTimes[previousRow] + timesMatrix[job][0];
+         for(int i = 1; i <= numberOfMachines - 1; i++){
+            completionTimes[currentRow + i] = Math.max(previousTimes[previousRow + i], completionTimes[currentRow + i - 1]) + timesMatrix[job][i];
+         }
+         previousTimes = completionTimes;
+         previousRow = currentRow;
+      }
+
+      for(int i = 0; i <= numberOfMachines - 1; i++){
+         makespan = Math.max(makespan, completionTimes[currentRow + i] + sequenceTails[tailsRow + i]);
+      }
+
+      return makespan;
+   }
+
+   protected void applyMove(int[] solution, int neighbourhood, int move){
+      int position = move / numberOfJobs;
+      int newPosition = move % numberOfJobs;
+      int job = solution[position];
+
+      if(neighbourhood == INSERT_NEIGHBOURHOOD){
+         if(newPosition > position){
+            System.arraycopy(solution, position + 1, solution, position, newPosition - position);
+         }
+         else{
+            System.arraycopy(solution, newPosition, solution, newPosition + 1, position - newPosition);
+         }
+         solution[newPosition] = job;
+      }
+      else{
+         solution[position] = solution[newPosition];
+         solution[newPosition] = job;
+      }
+
+      solutionVersion++;
+   }
+
+   /**
+    * Method to move random blocks of consecutive jobs to random positions.
+    *
+    * @author Matheus Paixao
+    * @param solution the job sequence, changed in place
+    * @param strength the number of blocks
+    * @param random the random number generator
+    */
+   protected void perturbSolution(int[] solution, int strength, Random random){
+      int blockLength = 0;
+      int position = 0;
+      int newPosition = 0;
+
+      if(numberOfJobs < 2){
+         return;
+      }
+
+      for(int s = 1; s <= strength; s++){
+         blockLength = 1 + random.nextInt(Math.min(MAXIMUM_BLOCK_LENGTH, numberOfJobs - 1));
+         position = random.nextInt(numberOfJobs - blockLength + 1);
+         newPosition = random.nextInt(numberOfJobs - blockLength);
+         if(newPosition >= position){
+            newPosition++; //a different position
+         }
+
+         System.arraycopy(solution, position, block, 0, blockLength);
+         if(newPosition > position){
+            System.arraycopy(solution, position + blockLength, solution, position, newPosition - position);
+         }
+         else{
+            System.arraycopy(solution, newPosition, solution, newPosition + blockLength, position - newPosition);
+         }
+         System.arraycopy(block, 0, solution, newPosition, blockLength);
+      }
+   }
+
+   protected double calculateSolutionValue(int[] solution){
+      return jsspProblem.calculateSolutionValue(solution);
+   }
+
+   protected boolean isSolutionBest(double solutionValue1, double solutionValue2){
+      return jsspProblem.isSolutionBest(solutionValue1, solutionValue2);
+   }
+}
@@ -35,6 +35,10 @@ public class JSSPProblem{
       return this.numberOfJobs;
    }
 
+   public double[][] getTimesMatrix(){
+      return this.timesMatrix;
+   }
+
    /**
     * Method that returns the fitness function of JSSP problem.
     *
@@ -47,6 +51,34 @@ public class JSSPProblem{
       return getMakespan(solution);
    }
 
+   /**
+    * Method that implements the fitness function of JSSP problem whem an int array is passed.
+    *
+    * Uses flowchart makespan algorithm.
+    * @author Matheus Paixao
+    * @param solution the int array that corresponds to the sequence of jobs to be made
+    * @return fitness value of the solution
+    */
+   public double calculateSolutionValue(int[] solution){
+      double[] makespan = new double[timesMatrix[0].length];
+      int job = 0;
+
+      for(int i = 0; i <= solution.length - 1; i++){
+         job = solution[i];
+         makespan[0] = makespan[0] + timesMatrix[job][0];
+         for(int j = 1; j <= timesMatrix[0].length - 1; j++){
+            if(makespan[j] > makespan[j - 1]){
+               makespan[j] = makespan[j] + timesMatrix[job][j];
+            }
+            else{
+               makespan[j] = makespan[j - 1] + timesMatrix[job][j];
+            }
+         }
+      }
+
+      return makespan[timesMatrix[0].length - 1];
+   }
+
    /**
     * Method that implements the fitness function of JSSP problem.
     *
@@ -0,0 +1,162 @@
+package problems.jssp;
+
+import algorithms.tabu.TabuSearch;
+
+import java.util.Random;
+
+/**
+ * Class to implement the TabuSearch class to the Job Sequence Scheduling Problem with the insert neighbourhood.
+ *
+ * The move p * n + q takes the job of the position p out of the sequence and inserts it at the
+ * position q. Moving a job one position back is the same as moving the previous job one position
+ * forward, so only the second move is valid. The attributes are pairs of job and position, the
+ * pair (j, q) being j * n + q: a move adds its job at the new position and removes it from the old
+ * one, and the job can not go back to the old position while it is tabu.
+ *
+ * The makespans of the moves are found with the acceleration of Taillard, in O(m) each after the
+ * heads and the tails of the sequence without the moved job are calculated. The moves of the same p
+ * are contiguous, so each thread keeps the heads and the tails of the last p it evaluated.
+ *
+ * @author Matheus Paixao
+ */
+public class JSSPTabuSearch extends TabuSearch{
+   private JSSPProblem jsspProblem;
+   private int numberOfJobs;
+   private int numberOfIterations;
+   private int solutionVersion; //changed by each applied move, so the heads and tails of the threads are calculated again
+
+   private ThreadLocal<JSSPInsertionTimes> insertionTimes;
+
+   private Random random;
+
+   /**
+    * Method to create the JSSPTabuSearch object.
+    *
+    * @author Matheus Paixao
+    * @param jsspProblem the JSSPProblem object
+    * @param numberOfIterations the number of moves applied
+    */
+   public JSSPTabuSearch(final JSSPProblem jsspProblem, int numberOfIterations){
+      super();
+      this.jsspProblem = jsspProblem;
+      this.numberOfJobs = jsspProblem.getNumberOfJobs();
+      this.numberOfIterations = numberOfIterations;
+      this.random = new Random();
+
+      this.insertionTimes = new ThreadLocal<JSSPInsertionTimes>(){
+         protected JSSPInsertionTimes initialValue(){
+            return new JSSPInsertionTimes(jsspProblem);
+         }
+      };
+   }
+
+   protected int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   protected int getTabuTenure(){
+      return Math.max(5, numberOfJobs / 10);
+   }
+
+   protected int getTabuTenureVariation(){
+      return getTabuTenure();
+   }
+
+   /**
+    * Method to generate a random job sequence.
+    *
+    * @author Matheus Paixao
+    * @return the random initial solution
+    */
+   protected int[] getInitialSolution(){
+      int[] initialSolution = new int[numberOfJobs];
+      int randomIndex = 0;
+      int jobAux = 0;
+
+      for(int i = 0; i <= numberOfJobs - 1; i++){
+         initialSolution[i] = i;
+      }
+      for(int i = numberOfJobs - 1; i >= 1; i--){
+         randomIndex = random.nextInt(i + 1);
+         jobAux = initialSolution[i];
+         initialSolution[i] = initialSolution[randomIndex];
+         initialSolution[randomIndex] = jobAux;
+      }
+
+      return initialSolution;
+   }
+
+   protected int getNeighbourhoodSize(int[] solution){
+      return numberOfJobs * numberOfJobs;
+   }
+
+   protected long getNumberOfAttributes(int[] solution){
+      return (long) numberOfJobs * numberOfJobs;
+   }
+
+   protected int getMaximumNumberOfMoveAttributes(){
+      return 1;
+   }
+
+   protected boolean isMoveValid(int[] solution, int move){
+      int position = move / numberOfJobs;
+      int newPosition = move % numberOfJobs;
+
+      return (newPosition != position) && (newPosition != position - 1);
+   }
+
+   /**
+    * Method to get the change of the makespan if a job is moved.
+    *
+    * @author Matheus Paixao
+    * @param solution the current job sequence
+    * @param move the move
+    * @return the makespan after the move minus the makespan before it
+    * @see getInsertionMakespan in JSSPInsertionTimes class
+    */
+   protected double getMoveDelta(int[] solution, int move){
+      int position = move / numberOfJobs;
+      int newPosition = move % numberOfJobs;
+      JSSPInsertionTimes times = insertionTimes.get();
+
+      if(times.isLoaded(solutionVersion, position) == false){
+         times.load(solution, position, solutionVersion);
+      }
+
+      return times.getInsertionMakespan(solution[position], newPosition) - times.getMakespan();
+   }
+
+   protected int getMoveAttributes(int[] solution, int move, long[] attributes){
+      attributes[0] = (long) solution[move / numberOfJobs] * numberOfJobs + move % numberOfJobs;
+      return 1;
+   }
+
+   protected int getMoveReverseAttributes(int[] solution, int move, long[] attributes){
+      attributes[0] = (long) solution[move / numberOfJobs] * numberOfJobs + move / numberOfJobs;
+      return 1;
+   }
+
+   protected void applyMove(int[] solution, int move){
+      int position = move / numberOfJobs;
+      int newPosition = move % numberOfJobs;
+      int job = solution[position];
+
+      if(newPosition > position){
+         System.arraycopy(solution, position + 1, solution, position, newPosition - position);
+      }
+      else{
+         System.arraycopy(solution, newPosition, solution, newPosition + 1, position - newPosition);
+      }
+      solution[newPosition] = job;
+
+      solutionVersion++;
+   }
+
+   protected double calculateSolutionValue(int[] solution){
+      return jsspProblem.calculateSolutionValue(solution);
+   }
+
+   protected boolean isSolutionBest(double solutionValue1, double solutionValue2){
+      return jsspProblem.isSolutionBest(solutionValue1, solutionValue2);
+   }
+}
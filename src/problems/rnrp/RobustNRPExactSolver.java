@@ -0,0 +1,576 @@
+package problems.rnrp;
+
+import algorithms.Algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class of an exact solver of the Robust Next Release Problem, used as the baseline of the metaheuristics.
+ *
+ * The robust cost of a solution x is the estimates costs plus the gamma highest deviances, which by
+ * the decomposition of Bertsimas and Sim is the minimum over theta >= 0 of
+ * sum(c_i * x_i) + gamma * theta + sum(max(d_i - theta, 0) * x_i), and the minimum is at theta = 0 or
+ * at one of the deviances. So the optimal value is the best of the optimal values of at most n + 1
+ * nominal knapsack problems, one for each theta, with costs c_i + max(d_i - theta, 0) and capacity
+ * budget - gamma * theta, and any solution of a sub problem respects the robust budget.
+ *
+ * Each sub problem is solved by depth first branch and bound, keeping the precedences: including a
+ * requirement includes its prerequisites, and excluding it excludes its dependents. The bound of a
+ * node is the fractional knapsack of the free requirements, which ignores the precedences, taken in
+ * the decreasing order of value by cost. The best solution found by any sub problem is shared
+ * (the incumbent), so a node is pruned if its bound is not better than it, and a whole sub problem is
+ * skipped if its root bound is not better.
+ * The sub problems are solved in parallel, the ones with the highest root bounds first. With a time
+ * limit the search may stop before proving the optimality, and then the upper bound is the highest
+ * root bound of the unfinished sub problems.
+ *
+ * @author Matheus Paixao
+ */
+public class RobustNRPExactSolver implements Algorithm{
+   private static final double EPSILON = 1e-9;
+   private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+   private static final int FREE = 0;
+   private static final int INCLUDED = 1;
+   private static final int EXCLUDED = 2;
+
+   private RobustNextReleaseProblem robustNRP;
+   private int numberOfRequirements;
+   private int[][] prerequisites;
+   private int[][] dependents;
+   private int numberOfPrecedences;
+
+   private long timeLimit; //in milliseconds, 0 for no limit
+   private int numberOfThreads; //0 uses the available processors
+
+   private volatile double incumbentValue;
+   private int[] incumbentSolution;
+   private int[] candidateSolution; //the solution offered by a sub problem, before it is checked
+   private double upperBound;
+   private boolean optimal;
+   private int numberOfSubproblems;
+   private int numberOfPrunedSubproblems;
+   private AtomicLong numberOfNodes;
+   private long deadline;
+
+   private double totalTime;
+
+   /**
+    * Class of the nominal knapsack problem of one theta and of its branch and bound.
+    *
+    * @author Matheus Paixao
+    */
+   private class Subproblem{
+      private double theta;
+      private double capacity;
+      private double[] costs;
+      private int[] order; //the requirements in the decreasing order of value by cost
+      private double rootBound;
+      private boolean finished;
+
+      private int[] statuses;
+      private int[] trail; //the requirements whose status was set, undone when the search backtracks
+      private int trailSize;
+      private int[] stack; //a requirement may be pushed once by each of its precedences
+      private double cost;
+      private double value;
+      private long numberOfNodes;
+
+      /**
+       * Method to create the Subproblem object.
+       *
+       * @author Matheus Paixao
+       * @param theta the theta of the decomposition
+       */
+      private Subproblem(double theta){
+         final double[] values = robustNRP.requirementsValues;
+         final double[] costs = new double[numberOfRequirements];
+         Integer[] order = new Integer[numberOfRequirements];
+
+         this.theta = theta;
+         this.capacity = robustNRP.budget - robustNRP.gamma * theta;
+         for(int i = 0; i <= numberOfRequirements - 1; i++){
+            costs[i] = robustNRP.requirementsCosts[i] + Math.max(robustNRP.requirementsDeviances[i] - theta, 0);
+            order[i] = i;
+         }
+         Arrays.sort(order, new Comparator<Integer>(){
+            public int compare(Integer requirement1, Integer requirement2){
+               return Double.compare(values[requirement2] * costs[requirement1], values[requirement1] * costs[requirement2]);
+            }
+         });
+
+         this.costs = costs;
+         this.order = new int[numberOfRequirements];
+         for(int i = 0; i <= numberOfRequirements - 1; i++){
+            this.order[i] = order[i];
+         }
+         this.statuses = new int[numberOfRequirements];
+         this.trail = new int[numberOfRequirements];
+         this.stack = new int[numberOfRequirements + numberOfPrecedences];
+         this.rootBound = getBound(0);
+      }
+
+      /**
+       * Method to get the fractional knapsack bound of the free requirements from a position of the order.
+       *
+       * The requirements before the position are not free, so they are not visited.
+       * @author Matheus Paixao
+       * @param orderIndex the position of the order
+       * @return the value of the included requirements plus the bound of the free ones
+       */
+      private double getBound(int orderIndex){
+         double bound = value;
+         double remainingCapacity = capacity - cost;
+         int requirement = 0;
+
+         for(int i = orderIndex; i <= numberOfRequirements - 1; i++){
+            requirement = order[i];
+            if(statuses[requirement] != FREE){
+               continue;
+            }
+            if(costs[requirement] <= remainingCapacity){
+               remainingCapacity -= costs[requirement];
+               bound += robustNRP.requirementsValues[requirement];
+            }
+            else{
+               bound += robustNRP.requirementsValues[requirement] * remainingCapacity / costs[requirement];
+               break;
+            }
+         }
+
+         return bound;
+      }
+
+      private void solve(){
+         finished = true;
+         branch(0);
+      }
+
+      /**
+       * Method to explore the node of the search tree where the first free requirement from a position is decided.
+       *
+       * The included requirements are a valid solution, so every node offers them to the incumbent.
+       * @author Matheus Paixao
+       * @param orderIndex the position of the order from which the free requirement is searched
+       * @see include
+       * @see exclude
+       */
+      private void branch(int orderIndex){
+         int requirement = 0;
+         int trailMark = trailSize;
+
+         numberOfNodes++;
+         if(numberOfNodes % NODES_BETWEEN_TIME_CHECKS == 0 && (Thread.currentThread().isInterrupted() == true || (deadline > 0 && System.currentTimeMillis() >= deadline))){
+            finished = false; //the time limit or another sub problem failed
+         }
+         if(finished == false){
+            return;
+         }
+
+         if(value > incumbentValue + EPSILON){
+            offerSolution(statuses, value);
+         }
+
+         while(orderIndex <= numberOfRequirements - 1 && statuses[order[orderIndex]] != FREE){
+            orderIndex++;
+         }
+         if(orderIndex == numberOfRequirements || getBound(orderIndex) <= incumbentValue + EPSILON){
+            return;
+         }
+
+         requirement = order[orderIndex];
+         if(include(requirement) == true){
+            branch(orderIndex + 1);
+         }
+         undo(trailMark);
+
+         exclude(requirement);
+         branch(orderIndex + 1);
+         undo(trailMark);
+      }
+
+      /**
+       * Method to include a requirement and all its prerequisites.
+       *
+       * @author Matheus Paixao
+       * @param requirement the free requirement
+       * @return false if a prerequisite is excluded or the cost goes over the capacity
+       */
+      private boolean include(int requirement){
+         int stackSize = 1;
+         int current = 0;
+
+         stack[0] = requirement;
+         while(stackSize > 0){
+            stackSize--;
+            current = stack[stackSize];
+            if(statuses[current] == INCLUDED){
+               continue;
+            }
+            if(statuses[current] == EXCLUDED){
+               return false;
+            }
+
+            setStatus(current, INCLUDED);
+            cost += costs[current];
+            value += robustNRP.requirementsValues[current];
+            if(cost > capacity + EPSILON){
+               return false; //the tolerance only keeps the rounding errors from pruning a solution on the budget, see offerSolution
+            }
+            for(int i = 0; i <= prerequisites[current].length - 1; i++){
+               if(statuses[prerequisites[current][i]] != INCLUDED){
+                  stack[stackSize] = prerequisites[current][i];
+                  stackSize++;
+               }
+            }
+         }
+
+         return true;
+      }
+
+      /**
+       * Method to exclude a requirement and all its dependents.
+       *
+       * A dependent of a free requirement can not be included, as including it would have included the requirement.
+       * @author Matheus Paixao
+       * @param requirement the free requirement
+       */
+      private void exclude(int requirement){
+         int stackSize = 1;
+         int current = 0;
+
+         stack[0] = requirement;
+         while(stackSize > 0){
+            stackSize--;
+            current = stack[stackSize];
+            if(statuses[current] != FREE){
+               continue;
+            }
+
+            setStatus(current, EXCLUDED);
+            for(int i = 0; i <= dependents[current].length - 1; i++){
+               if(statuses[dependents[current][i]] == FREE){
+                  stack[stackSize] = dependents[current][i];
+                  stackSize++;
+               }
+            }
+         }
+      }
+
+      private void setStatus(int requirement, int status){
+         statuses[requirement] = status;
+         trail[trailSize] = requirement;
+         trailSize++;
+      }
+
+      private void undo(int trailMark){
+         int requirement = 0;
+
+         while(trailSize > trailMark){
+            trailSize--;
+            requirement = trail[trailSize];
+            if(statuses[requirement] == INCLUDED){
+               cost -= costs[requirement];
+               value -= robustNRP.requirementsValues[requirement];
+            }
+            statuses[requirement] = FREE;
+         }
+      }
+   }
+
+   /**
+    * Method to create the RobustNRPExactSolver object.
+    *
+    * @author Matheus Paixao
+    * @param robustNRP the RobustNextReleaseProblem object
+    */
+   public RobustNRPExactSolver(RobustNextReleaseProblem robustNRP){
+      int[] numberOfPrerequisites = null;
+      int[] numberOfDependents = null;
+
+      this.robustNRP = robustNRP;
+      this.numberOfRequirements = robustNRP.getNumberOfRequirements();
+      this.timeLimit = 0;
+      this.numberOfThreads = 0;
+      this.numberOfNodes = new AtomicLong();
+
+      numberOfPrerequisites = new int[numberOfRequirements];
+      numberOfDependents = new int[numberOfRequirements];
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         for(int j = 0; j <= numberOfRequirements - 1; j++){
+            if(robustNRP.precedenceMatrix[i][j] == 1){
+               numberOfPrerequisites[i]++;
+               numberOfDependents[j]++;
+               numberOfPrecedences++;
+            }
+         }
+      }
+
+      prerequisites = new int[numberOfRequirements][];
+      dependents = new int[numberOfRequirements][];
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         prerequisites[i] = new int[numberOfPrerequisites[i]];
+         dependents[i] = new int[numberOfDependents[i]];
+         numberOfPrerequisites[i] = 0;
+         numberOfDependents[i] = 0;
+      }
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         for(int j = 0; j <= numberOfRequirements - 1; j++){
+            if(robustNRP.precedenceMatrix[i][j] == 1){
+               prerequisites[i][numberOfPrerequisites[i]] = j;
+               numberOfPrerequisites[i]++;
+               dependents[j][numberOfDependents[j]] = i;
+               numberOfDependents[j]++;
+            }
+         }
+      }
+   }
+
+   public double getTotalTime(){
+      return this.totalTime;
+   }
+
+   public void setTotalTime(double totalTime){
+      this.totalTime = totalTime;
+   }
+
+   public void setTimeLimit(long timeLimit){ //in milliseconds, 0 for no limit
+      this.timeLimit = timeLimit;
+   }
+
+   public void setNumberOfThreads(int numberOfThreads){ //0 uses the available processors
+      this.numberOfThreads = numberOfThreads;
+   }
+
+   public int[] getBestSolution(){
+      return this.incumbentSolution;
+   }
+
+   public double getUpperBound(){
+      return this.upperBound; //the optimal value if the solver finished
+   }
+
+   public boolean isOptimal(){
+      return this.optimal;
+   }
+
+   public int getNumberOfSubproblems(){
+      return this.numberOfSubproblems;
+   }
+
+   public int getNumberOfPrunedSubproblems(){
+      return this.numberOfPrunedSubproblems; //skipped by their root bounds
+   }
+
+   public long getNumberOfNodes(){
+      return this.numberOfNodes.get();
+   }
+
+   /**
+    * Method to get the optimal value, or the best value found in the time limit, and to set the total time spended.
+    *
+    * @author Matheus Paixao
+    * @return the optimal solution value
+    * @see createSubproblems
+    * @see solveSubproblems
+    */
+   public double getSolution(){
+      double initialTime = 0;
+      double finalTime = 0;
+      Subproblem[] subproblems = null;
+
+      initialTime = System.currentTimeMillis();
+      deadline = 0;
+      if(timeLimit > 0){
+         deadline = System.currentTimeMillis() + timeLimit;
+      }
+
+      optimal = false;
+      incumbentValue = 0;
+      incumbentSolution = new int[numberOfRequirements]; //no requirement is always valid
+      candidateSolution = new int[numberOfRequirements];
+      numberOfPrunedSubproblems = 0;
+      numberOfNodes.set(0);
+
+      subproblems = createSubproblems();
+      numberOfSubproblems = subproblems.length;
+      solveSubproblems(subproblems);
+
+      optimal = true;
+      upperBound = incumbentValue;
+      for(int i = 0; i <= subproblems.length - 1; i++){
+         numberOfNodes.addAndGet(subproblems[i].numberOfNodes);
+         if(subproblems[i].finished == false){
+            optimal = false;
+            upperBound = Math.max(upperBound, subproblems[i].rootBound);
+         }
+      }
+      finalTime = System.currentTimeMillis();
+
+      setTotalTime(finalTime - initialTime);
+
+      return incumbentValue;
+   }
+
+   /**
+    * Method to create the sub problems of the thetas 0 and the distinct deviances, in the decreasing order of their root bounds.
+    *
+    * The thetas that leave a negative capacity have no valid solution, so they have no sub problem.
+    * @author Matheus Paixao
+    * @return the sub problems
+    */
+   private Subproblem[] createSubproblems(){
+      double[] thetas = new double[numberOfRequirements + 1];
+      ArrayList<Subproblem> subproblems = new ArrayList<Subproblem>();
+      Subproblem[] sortedSubproblems = null;
+
+      thetas[0] = 0;
+      System.arraycopy(robustNRP.requirementsDeviances, 0, thetas, 1, numberOfRequirements);
+      Arrays.sort(thetas);
+
+      for(int i = 0; i <= thetas.length - 1; i++){
+         if(thetas[i] < 0 || (i > 0 && thetas[i] == thetas[i - 1])){
+            continue;
+         }
+         if(robustNRP.budget - robustNRP.gamma * thetas[i] < 0){
+            break; //the next thetas are higher
+         }
+         subproblems.add(new Subproblem(thetas[i]));
+      }
+
+      sortedSubproblems = subproblems.toArray(new Subproblem[subproblems.size()]);
+      Arrays.sort(sortedSubproblems, new Comparator<Subproblem>(){
+         public int compare(Subproblem subproblem1, Subproblem subproblem2){
+            return Double.compare(subproblem2.rootBound, subproblem1.rootBound);
+         }
+      });
+
+      return sortedSubproblems;
+   }
+
+   /**
+    * Method to solve the sub problems by a pool of threads, in the order of the array.
+    *
+    * If a sub problem fails, or the solving is interrupted, the other sub problems are stopped and
+    * the run fails, so a value that was not proved is never reported as optimal.
+    * @author Matheus Paixao
+    * @param subproblems the sub problems
+    * @see stopSubproblems
+    */
+   private void solveSubproblems(Subproblem[] subproblems){
+      int numberOfRunningThreads = numberOfThreads;
+      ExecutorService executor = null;
+      ExecutorCompletionService<Object> completionService = null;
+
+      if(numberOfRunningThreads == 0){
+         numberOfRunningThreads = Runtime.getRuntime().availableProcessors();
+      }
+      numberOfRunningThreads = Math.max(1, Math.min(numberOfRunningThreads, subproblems.length));
+
+      executor = Executors.newFixedThreadPool(numberOfRunningThreads);
+      completionService = new ExecutorCompletionService<Object>(executor);
+      try{
+         for(int i = 0; i <= subproblems.length - 1; i++){
+            final Subproblem subproblem = subproblems[i];
+            completionService.submit(new Callable<Object>(){
+               public Object call(){
+                  solveSubproblem(subproblem);
+                  return null;
+               }
+            });
+         }
+
+         for(int i = 0; i <= subproblems.length - 1; i++){
+            completionService.take().get(); //in the order the sub problems end, so a failure is seen at once
+         }
+      }
+      catch(InterruptedException e){
+         stopSubproblems(executor);
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Exact solver execution interrupted", e);
+      }
+      catch(ExecutionException e){
+         stopSubproblems(executor);
+         throw new RuntimeException("Error in parallel sub problems solving", e.getCause());
+      }
+      finally{
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Method to interrupt the running sub problems and to wait for their threads to end.
+    *
+    * The sub problems check the interruption with the time limit, so they end at the next check and
+    * no thread writes the incumbent or the counters after the run fails.
+    * @author Matheus Paixao
+    * @param executor the pool of threads of the sub problems
+    */
+   private void stopSubproblems(ExecutorService executor){
+      executor.shutdownNow();
+      try{
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void solveSubproblem(Subproblem subproblem){
+      if(deadline > 0 && System.currentTimeMillis() >= deadline){
+         subproblem.finished = false;
+         return;
+      }
+      if(subproblem.rootBound <= incumbentValue + EPSILON){
+         countPrunedSubproblem(subproblem);
+         return;
+      }
+
+      try{
+         subproblem.solve();
+      }
+      catch(RuntimeException e){
+         subproblem.finished = false;
+         throw e;
+      }
+   }
+
+   private synchronized void countPrunedSubproblem(Subproblem subproblem){
+      subproblem.finished = true;
+      numberOfPrunedSubproblems++;
+   }
+
+   /**
+    * Method to replace the incumbent by a better solution of a sub problem.
+    *
+    * The costs of the sub problems are summed with a tolerance, so the solution is only accepted
+    * if it is valid by the budget test of the RobustNextReleaseProblem.
+    * @author Matheus Paixao
+    * @param statuses the statuses of the requirements of the sub problem, the included ones are the solution
+    * @param value the solution value
+    */
+   private synchronized void offerSolution(int[] statuses, double value){
+      if(value <= incumbentValue + EPSILON){
+         return; //another sub problem found a better one first
+      }
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         candidateSolution[i] = statuses[i] == INCLUDED ? 1 : 0;
+      }
+      if(robustNRP.isSolutionValid(candidateSolution) == false){
+         return;
+      }
+
+      System.arraycopy(candidateSolution, 0, incumbentSolution, 0, numberOfRequirements);
+      incumbentValue = robustNRP.calculateSolutionValue(incumbentSolution); //without the rounding errors of the sums of the search
+   }
+}
@@ -0,0 +1,88 @@
+package problems.rnrp;
+
+import algorithms.sa.Move;
+
+import java.util.Random;
+
+/**
+ * Class of the move that flips random requirements of a Robust Next Release Problem solution
+ * and repairs it removing random requirements.
+ *
+ * The proposal is done in the RobustNRPState of the solution, so each flip and each check of the
+ * repair costs O(log n). The flips are then undone and kept, to be done again by apply.
+ * The solution must only be changed by the move, otherwise the state is loaded again.
+ *
+ * @author Matheus Paixao
+ */
+public class RobustNRPFlipMove implements Move{
+   private RobustNRPState state;
+   private int[] stateSolution; //the solution described by the state
+   private int numberOfRequirementsToChange;
+   private int[] flips;
+   private int numberOfFlips;
+   private double delta;
+
+   public RobustNRPFlipMove(RobustNextReleaseProblem robustNRP, int numberOfRequirementsToChange){
+      this.state = new RobustNRPState(robustNRP);
+      this.numberOfRequirementsToChange = numberOfRequirementsToChange;
+      this.flips = new int[robustNRP.getNumberOfRequirements() + numberOfRequirementsToChange];
+   }
+
+   /**
+    * Method to flip random requirements and repair the solution in the state, keeping the flips.
+    *
+    * @author Matheus Paixao
+    * @param solution the current solution
+    * @param random the random number generator
+    */
+   public void propose(int[] solution, Random random){
+      double solutionValue = 0;
+
+      if(solution != stateSolution){
+         state.load(solution);
+         stateSolution = solution;
+      }
+      solutionValue = state.getValue();
+
+      numberOfFlips = 0;
+      for(int i = 0; i <= numberOfRequirementsToChange - 1; i++){
+         flip(random.nextInt(solution.length));
+      }
+      while(state.isValid() == false){
+         flip(state.getSelectedRequirement(random.nextInt(state.getNumberOfSelectedRequirements())));
+      }
+      delta = state.getValue() - solutionValue;
+
+      for(int i = numberOfFlips - 1; i >= 0; i--){
+         state.flip(flips[i]);
+      }
+   }
+
+   private void flip(int requirement){
+      state.flip(requirement);
+      flips[numberOfFlips] = requirement;
+      numberOfFlips++;
+   }
+
+   public double getDelta(int[] solution){
+      return this.delta;
+   }
+
+   public void apply(int[] solution){
+      for(int i = 0; i <= numberOfFlips - 1; i++){
+         state.flip(flips[i]);
+         solution[flips[i]] = 1 - solution[flips[i]];
+      }
+   }
+
+   public void undo(int[] solution){
+      for(int i = numberOfFlips - 1; i >= 0; i--){
+         state.flip(flips[i]);
+         solution[flips[i]] = 1 - solution[flips[i]];
+      }
+   }
+
+   public void writeSolution(int[] solution){
+      //the flips are applied to the solution in place
+   }
+}
@@ -1,6 +1,7 @@
 package problems.rnrp;
 
 import algorithms.ga.GeneticAlgorithm;
+import util.PackedBinarySolution;
 
 import java.util.Random;
 import java.util.Arrays;
@@ -8,6 +9,7 @@ import java.util.Arrays;
 /**
  * Class to implement the SimulatedAnnealing class to the Robust Next Release Problem.
  *
+ * The individuals are packed as in the PackedBinarySolution class, 32 requirements per int.
  * @author Matheus Paixao
  */
 public class RobustNRPGeneticAlgorithm extends GeneticAlgorithm{
@@ -16,10 +18,29 @@ public class RobustNRPGeneticAlgorithm extends GeneticAlgorithm{
 
    Random random;
 
-   public RobustNRPGeneticAlgorithm(RobustNextReleaseProblem robustNRP, int numberOfFitnessEvaluations){
+   ThreadLocal<RobustNRPState> states; //the repair is run by the chunks of work, so each thread has its own state
+
+   public RobustNRPGeneticAlgorithm(final RobustNextReleaseProblem robustNRP, int numberOfFitnessEvaluations){
       super(numberOfFitnessEvaluations);
       this.robustNRP = robustNRP;
       this.random = new Random();
+      this.states = new ThreadLocal<RobustNRPState>(){
+         protected RobustNRPState initialValue(){
+            return new RobustNRPState(robustNRP);
+         }
+      };
+   }
+
+   /**
+    * Method to seed the random number generators of the algorithm and of the adapter.
+    *
+    * The adapter draws the initial population, the crossover points and their repairs from its own generator, so it is seeded too, with a seed derived from the passed one.
+    * @author Matheus Paixao
+    * @param seed the seed of the algorithm
+    */
+   public void setSeed(long seed){
+      super.setSeed(seed);
+      random.setSeed(seed + 0x9E3779B97F4A7C15L);
    }
 
    protected double getCrossoverProbability(){
@@ -42,14 +63,14 @@ public class RobustNRPGeneticAlgorithm extends GeneticAlgorithm{
    }
 
    protected int[][] getInitialPopulation(){
-      int[][] initialPopulation = new int[robustNRP.getNumberOfRequirements()][robustNRP.getNumberOfRequirements()];
+      int[][] initialPopulation = new int[robustNRP.getNumberOfRequirements()][];
       int[] randomIndividual = null;
 
       for(int i = 0; i <= initialPopulation.length - 1; i++){
-         randomIndividual = getRandomIndividual(initialPopulation[0].length, i);
+         randomIndividual = getRandomIndividual(robustNRP.getNumberOfRequirements(), i);
 
-         if(robustNRP.isSolutionValid(randomIndividual) == false){
-            repairIndividual(randomIndividual);
+         if(robustNRP.isPackedSolutionValid(randomIndividual) == false){
+            repairIndividual(randomIndividual, random);
          }
 
          initialPopulation[i] = randomIndividual;
@@ -100,202 +121,105 @@ public class RobustNRPGeneticAlgorithm extends GeneticAlgorithm{
       //}
    //}
 
-   private int[] getRandomIndividual(int numberOfRequirements, int requirementToBeIncluded){
-      int[] randomIndividual = new int[numberOfRequirements];
-      randomIndividual[requirementToBeIncluded] = 1;
-      int randomRequirement = 0;
-
-      while(robustNRP.isSolutionValid(randomIndividual) == true){
-         randomRequirement = random.nextInt(numberOfRequirements);
-         randomIndividual[randomRequirement] = 1;
-      }
-      randomIndividual[randomRequirement] = 0;
-
-      return randomIndividual;
-   }
-
-   protected int[][] getParents(int[][] population, double[] individualsSolutionValues){
-      return getParentsByRoulleteSelection(population, individualsSolutionValues);
-   }
-
-   private int[][] getParentsByRoulleteSelection(int[][] population, double[] individualsSolutionValues){
-      int[][] parents = new int[2][population[0].length];
-
-      for(int i = 0; i <= parents.length - 1; i++){
-         parents[i] = getIndividual(population, individualsSolutionValues);
-      }
-
-      return parents;
-   }
-
    /**
-    * Method to get an individual using the roullete selection method.
+    * Method to create an individual adding random requirements until the next one breaks a restriction.
     *
     * @author Matheus Paixao
-    * @return the individual selected using the roullete selection method
-    * @see getProbabilities
-    * @see getRouletteValue
+    * @param numberOfRequirements the number of requirements of the problem
+    * @param requirementToBeIncluded the first requirement of the individual
+    * @return the packed individual
+    * @see isValidAfterFlip in RobustNRPState class
     */
-   private int[] getIndividual(int[][] population, double[] individualsSolutionValues){
-      int[] individual = null;
-      double rouletteValue = 0;
-      double[] probabilities = getIndividualsProbabilities(population, individualsSolutionValues);
-
-      rouletteValue = getRouletteValue(probabilities);
+   private int[] getRandomIndividual(int numberOfRequirements, int requirementToBeIncluded){
+      int[] randomIndividual = new int[PackedBinarySolution.getNumberOfWords(numberOfRequirements)];
+      RobustNRPState state = states.get();
+      int randomRequirement = requirementToBeIncluded;
 
-      for(int i = 0; i <= probabilities.length - 1; i++){
-         if(rouletteValue == probabilities[i]){
-            individual = population[i];
-            break;
-         }
+      PackedBinarySolution.setBit(randomIndividual, requirementToBeIncluded);
+      state.loadPacked(randomIndividual);
+      if(state.isValid() == false){
+         return randomIndividual; //left to the repair
       }
 
-      return individual;
-   }
-
-   /**
-    * Method to calculate the probability of each individual
-    *
-    * @author Matheus Paixao
-    * @return an array containing the selection's probability of each individual
-    */
-   private double[] getIndividualsProbabilities(int[][] population, double[] individualsSolutionValues){
-      double[] probabilities = new double[population.length];
-      double probabilityValue = 0;
-      double individualsSolutionValuesSum = getIndividualsSolutionValuesSum(individualsSolutionValues);
-
-      for(int i = 0; i <= probabilities.length - 1; i++){
-         probabilityValue = individualsSolutionValues[i] / individualsSolutionValuesSum;
-         if(Double.isNaN(probabilityValue)){
-            probabilityValue = 0;
+      while(state.getNumberOfSelectedRequirements() < numberOfRequirements){
+         randomRequirement = random.nextInt(numberOfRequirements);
+         if(state.isSelected(randomRequirement) == true){
+            continue;
          }
-
-         probabilities[i] = probabilityValue;
-      }
-
-      return probabilities;
-   }
-
-   private double getIndividualsSolutionValuesSum(double[] individualsSolutionValues){
-      double individualsSolutionValuesSum = 0;
-
-      for(int i = 0; i <= individualsSolutionValues.length - 1; i++){
-         individualsSolutionValuesSum += individualsSolutionValues[i];
-      }
-
-      return individualsSolutionValuesSum;
-   }
-
-   /**
-    * Method to get the value of the probability selected by the roulette.
-    *
-    * Higher the probability of a node, higher the chance to be choosen by the roulette.
-    * For more information search for "roulette selection method".
-    * @author Matheus Paixao
-    * @param probabilities an array containing the probabilities for roulette selection.
-    * @return the probability value choosen by the roulette.
-    * @see getRandomNumber
-    */
-   private double getRouletteValue(double[] probabilities){
-      double[] rouletteProbabilities = new double[probabilities.length];
-      double neddle = 0;
-      double neddleChecker = 0;
-      double rouletteValue = 0;
-
-      for(int i = 0; i <= rouletteProbabilities.length - 1; i++){
-         rouletteProbabilities[i] = probabilities[i];
-      }
-
-      Arrays.sort(rouletteProbabilities);
-
-      neddle = random.nextDouble();
-
-      for(int i = 0; i <= rouletteProbabilities.length - 1; i++){
-         neddleChecker += rouletteProbabilities[i];
-         if(neddleChecker >= neddle){
-            rouletteValue = rouletteProbabilities[i];
+         if(state.isValidAfterFlip(randomRequirement) == false){
             break;
          }
+
+         state.flip(randomRequirement);
+         PackedBinarySolution.setBit(randomIndividual, randomRequirement);
       }
 
-      return rouletteValue;
+      return randomIndividual;
    }
 
-   protected int[][] getChildsByCrossover(int[][] parents){
-      int[][] childs = null;
+   protected boolean crossover(int[][] parents, int[][] childs){
+      boolean result = false;
 
       if(Arrays.equals(parents[0], parents[1]) == true){
-         childs = parents;
+         for(int i = 0; i <= childs.length - 1; i++){
+            System.arraycopy(parents[i], 0, childs[i], 0, childs[i].length);
+         }
       }
       else{
-         childs = getChildsByOnePointCrossover(parents);
+         onePointCrossover(parents, childs);
+         result = true;
       }
 
-      return childs;
+      return result;
    }
 
-   private int[][] getChildsByOnePointCrossover(int[][] parents){
-      int[][] childs = new int[parents.length][parents[0].length];
-      int crossoverIndex = random.nextInt(childs[0].length);
+   private void onePointCrossover(int[][] parents, int[][] childs){
+      int crossoverIndex = random.nextInt(robustNRP.getNumberOfRequirements());
 
-      for(int i = 0; i <= childs.length - 1; i++){
-         for(int j = 0; j <= crossoverIndex; j++){
-            childs[i][j] = parents[i][j];
-         }
-
-         if(i == 0){
-            for(int j = crossoverIndex + 1; j <= childs[0].length - 1; j++){
-               childs[i][j] = parents[1][j];
-            }
-         }
-         else if(i == 1){
-            for(int j = crossoverIndex + 1; j <= childs[0].length - 1; j++){
-               childs[i][j] = parents[0][j];
-            }
-         }
+      PackedBinarySolution.onePointCrossover(parents, childs, crossoverIndex);
 
-         if(robustNRP.isSolutionValid(childs[i]) == false){
-            repairIndividual(childs[i]);
+      for(int i = 0; i <= childs.length - 1; i++){
+         if(robustNRP.isPackedSolutionValid(childs[i]) == false){
+            repairIndividual(childs[i], random);
          }
       }
+   }
 
-      return childs;
+   protected int getNumberOfGenes(int[] individual){
+      return robustNRP.getNumberOfRequirements();
    }
 
-   protected void mutate(int[] individual, int indexToMutate){
-      if(individual[indexToMutate] == 0){
-         individual[indexToMutate] = 1;
-      }
-      else{
-         individual[indexToMutate] = 0;
-      }
+   protected void mutate(int[] individual, int indexToMutate, Random random){
+      PackedBinarySolution.flipBit(individual, indexToMutate);
 
       //if(robustNRP.isSolutionValid(individual) == false){
          //repairIndividual(individual);
       //}
    }
 
-   public void repairIndividual(int[] individual){
-      while(robustNRP.isSolutionValid(individual) == false){
-         removeRandomRequirement(individual);
-      }
-   }
-
-   private void removeRandomRequirement(int[] individual){
-      boolean removeFlag = false;
-      int randomRequirementToRemove = 0;
+   /**
+    * Method to remove random requirements until the individual is valid.
+    *
+    * The state of the individual is loaded once, and each removal is checked in O(log n).
+    * @author Matheus Paixao
+    * @param individual the packed individual to repair
+    * @param random the random number generator of the chunk of work
+    * @see RobustNRPState
+    */
+   public void repairIndividual(int[] individual, Random random){
+      RobustNRPState state = states.get();
+      int requirementToRemove = 0;
 
-      while(removeFlag == false){
-         randomRequirementToRemove = random.nextInt(individual.length);
-         if(individual[randomRequirementToRemove] == 1){
-            individual[randomRequirementToRemove] = 0;
-            removeFlag = true;
-         }
+      state.loadPacked(individual);
+      while(state.isValid() == false){
+         requirementToRemove = state.getSelectedRequirement(random.nextInt(state.getNumberOfSelectedRequirements()));
+         state.flip(requirementToRemove);
+         PackedBinarySolution.clearBit(individual, requirementToRemove);
       }
    }
 
    protected double calculateSolutionValue(int[] individual){
-      return robustNRP.calculateSolutionValue(individual);
+      return robustNRP.calculatePackedSolutionValue(individual);
    }
 
    protected boolean isSolutionBetter(double solutionValue1, double solutionValue2){
@@ -0,0 +1,164 @@
+package problems.rnrp;
+
+import algorithms.ils.IteratedLocalSearch;
+
+import java.util.Random;
+
+/**
+ * Class to implement the IteratedLocalSearch class to the Robust Next Release Problem with the flip and swap neighbourhoods.
+ *
+ * The move r of the flip neighbourhood flips the requirement r, and the move r1 * n + r2 of the swap
+ * neighbourhood replaces the selected requirement r1 by the unselected requirement r2. Only the moves
+ * that keep the solution valid are valid. The value, cost and precedences after each move are read
+ * from the RobustNRPState of the current solution in O(log n), without changing it.
+ *
+ * The perturbation is the k-flip: it flips random requirements whose flip keeps the solution valid,
+ * k = strength * n / 50 times.
+ *
+ * @author Matheus Paixao
+ */
+public class RobustNRPIteratedLocalSearch extends IteratedLocalSearch{
+   private static final int FLIP_NEIGHBOURHOOD = 0;
+   private static final int REQUIREMENTS_PER_PERTURBATION_FLIP = 50;
+
+   private RobustNextReleaseProblem robustNRP;
+   private RobustNRPState state;
+   private int numberOfRequirements;
+   private int numberOfIterations;
+
+   private Random random;
+
+   /**
+    * Method to create the RobustNRPIteratedLocalSearch object.
+    *
+    * @author Matheus Paixao
+    * @param robustNRP the RobustNextReleaseProblem object
+    * @param numberOfIterations the number of perturbations
+    */
+   public RobustNRPIteratedLocalSearch(RobustNextReleaseProblem robustNRP, int numberOfIterations){
+      super();
+      this.robustNRP = robustNRP;
+      this.state = new RobustNRPState(robustNRP);
+      this.numberOfRequirements = robustNRP.getNumberOfRequirements();
+      this.numberOfIterations = numberOfIterations;
+      this.random = new Random();
+   }
+
+   protected int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   protected int getMaximumPerturbationStrength(){
+      return 5;
+   }
+
+   protected int getNumberOfNeighbourhoods(){
+      return 2;
+   }
+
+   /**
+    * Method to generate a random valid solution, selecting random requirements while the solution is valid.
+    *
+    * @author Matheus Paixao
+    * @return the random initial solution
+    */
+   protected int[] getInitialSolution(){
+      int[] initialSolution = new int[numberOfRequirements];
+      int randomRequirement = 0;
+
+      state.load(initialSolution);
+      while(state.getNumberOfSelectedRequirements() < initialSolution.length){
+         randomRequirement = random.nextInt(initialSolution.length);
+         if(state.isSelected(randomRequirement) == true){
+            continue;
+         }
+         if(state.isValidAfterFlip(randomRequirement) == false){
+            break;
+         }
+
+         state.flip(randomRequirement);
+         initialSolution[randomRequirement] = 1;
+      }
+
+      return initialSolution;
+   }
+
+   protected void loadSolution(int[] solution){
+      state.load(solution);
+   }
+
+   protected int getNeighbourhoodSize(int[] solution, int neighbourhood){
+      if(neighbourhood == FLIP_NEIGHBOURHOOD){
+         return numberOfRequirements;
+      }
+
+      return numberOfRequirements * numberOfRequirements;
+   }
+
+   protected boolean isMoveValid(int[] solution, int neighbourhood, int move){
+      int removedRequirement = move / numberOfRequirements;
+      int addedRequirement = move % numberOfRequirements;
+
+      if(neighbourhood == FLIP_NEIGHBOURHOOD){
+         return state.isValidAfterFlip(move);
+      }
+
+      if(state.isSelected(removedRequirement) == false || state.isSelected(addedRequirement) == true){
+         return false;
+      }
+
+      return state.isValidAfterSwap(removedRequirement, addedRequirement);
+   }
+
+   protected double getMoveDelta(int[] solution, int neighbourhood, int move){
+      if(neighbourhood == FLIP_NEIGHBOURHOOD){
+         return state.getValueAfterFlip(move) - state.getValue();
+      }
+
+      return robustNRP.requirementsValues[move % numberOfRequirements] - robustNRP.requirementsValues[move / numberOfRequirements];
+   }
+
+   protected void applyMove(int[] solution, int neighbourhood, int move){
+      if(neighbourhood == FLIP_NEIGHBOURHOOD){
+         flip(solution, move);
+      }
+      else{
+         flip(solution, move / numberOfRequirements);
+         flip(solution, move % numberOfRequirements);
+      }
+   }
+
+   private void flip(int[] solution, int requirement){
+      state.flip(requirement);
+      solution[requirement] = 1 - solution[requirement];
+   }
+
+   /**
+    * Method to flip random requirements, skipping the flips that would make the solution invalid.
+    *
+    * @author Matheus Paixao
+    * @param solution the solution, changed in place
+    * @param strength the strength of the perturbation
+    * @param random the random number generator
+    */
+   protected void perturbSolution(int[] solution, int strength, Random random){
+      int numberOfFlips = strength * Math.max(1, numberOfRequirements / REQUIREMENTS_PER_PERTURBATION_FLIP);
+      int randomRequirement = 0;
+
+      state.load(solution);
+      for(int i = 1; i <= numberOfFlips; i++){
+         randomRequirement = random.nextInt(numberOfRequirements);
+         if(state.isValidAfterFlip(randomRequirement) == true){
+            flip(solution, randomRequirement);
+         }
+      }
+   }
+
+   protected double calculateSolutionValue(int[] solution){
+      return robustNRP.calculateSolutionValue(solution);
+   }
+
+   protected boolean isSolutionBest(double solutionValue1, double solutionValue2){
+      return robustNRP.isSolutionBest(solutionValue1, solutionValue2);
+   }
+}
@@ -8,13 +8,21 @@ public class RobustNRPRandomAlgorithm extends RandomAlgorithm{
    public RobustNextReleaseProblem robustNRP;
    private Random random;
 
+   private RobustNRPState state;
+   private int[] stateSolution; //the solution described by the state
+
    public RobustNRPRandomAlgorithm(RobustNextReleaseProblem robustNRP, int numberOfFitnessEvaluations){
       super(numberOfFitnessEvaluations * robustNRP.getNumberOfRequirements());
       this.robustNRP = robustNRP;
       this.random = new Random();
+      this.state = new RobustNRPState(robustNRP);
    }
 
    public double calculateSolutionValue(int[] solution){
+      if(solution == stateSolution){
+         return state.getValue();
+      }
+
       return robustNRP.calculateSolutionValue(solution);
    }
 
@@ -23,6 +31,10 @@ public class RobustNRPRandomAlgorithm extends RandomAlgorithm{
    }
 
    public boolean isSolutionValid(int[] solution){
+      if(solution == stateSolution){
+         return state.isValid();
+      }
+
       return robustNRP.isSolutionValid(solution);
    }
 
@@ -65,35 +77,48 @@ public class RobustNRPRandomAlgorithm extends RandomAlgorithm{
       //}
    //}
 
+   /**
+    * Method to create a solution adding random requirements until the next one breaks a restriction.
+    *
+    * Each addition is checked in O(log n) in the state of the solution.
+    * @author Matheus Paixao
+    * @return the random solution
+    * @see isValidAfterFlip in RobustNRPState class
+    */
    public int[] getRandomSolution(){
       int[] randomSolution = new int[robustNRP.getNumberOfRequirements()];
       int randomRequirement = 0;
 
-      while(robustNRP.isSolutionValid(randomSolution) == true){
+      state.load(randomSolution);
+      while(state.getNumberOfSelectedRequirements() < randomSolution.length){
          randomRequirement = random.nextInt(randomSolution.length);
+         if(state.isSelected(randomRequirement) == true){
+            continue;
+         }
+         if(state.isValidAfterFlip(randomRequirement) == false){
+            break;
+         }
+
+         state.flip(randomRequirement);
          randomSolution[randomRequirement] = 1;
       }
-      randomSolution[randomRequirement] = 0;
+      stateSolution = randomSolution;
 
       return randomSolution;
    }
 
    public void repairSolution(int[] solution){
-      while(robustNRP.isSolutionValid(solution) == false){
-         removeRandomRequirement(solution);
-      }
-   }
+      int requirementToRemove = 0;
 
-   private void removeRandomRequirement(int[] solution){
-      boolean removeFlag = false;
-      int randomRequirementToRemove = 0;
+      if(solution != stateSolution){
+         state.load(solution);
+         stateSolution = solution;
+      }
 
-      while(removeFlag == false){
-         randomRequirementToRemove = random.nextInt(solution.length);
-         if(solution[randomRequirementToRemove] == 1){
-            solution[randomRequirementToRemove] = 0;
-            removeFlag = true;
-         }
+      while(state.isValid() == false){
+         requirementToRemove = state.getSelectedRequirement(random.nextInt(state.getNumberOfSelectedRequirements()));
+         state.flip(requirementToRemove);
+         solution[requirementToRemove] = 0;
       }
    }
 }
@@ -1,5 +1,8 @@
 package problems.rnrp;
 
+import algorithms.sa.CoolingSchedule;
+import algorithms.sa.LundyMeesCooling;
+import algorithms.sa.Move;
 import algorithms.sa.SimulatedAnnealing;
 
 import java.util.Random;
@@ -7,6 +10,9 @@ import java.util.Random;
 /**
  * Class to implement the SimulatedAnnealing class to the Robust Next Release Problem.
  *
+ * The run has a budget of numberOfFitnessEvaluations Markov chains of n steps, and a Lundy-Mees
+ * schedule sized from this budget cools from the initial to the final temperature as the steps are used.
+ *
  * @author Matheus Paixao
  */
 public class RobustNRPSimulatedAnnealing extends SimulatedAnnealing{
@@ -17,8 +23,11 @@ public class RobustNRPSimulatedAnnealing extends SimulatedAnnealing{
 
    Random random;
 
+   RobustNRPState state;
+
    public RobustNRPSimulatedAnnealing(RobustNextReleaseProblem robustNRP, int numberOfFitnessEvaluations){
       this.random = new Random();
+      this.state = new RobustNRPState(robustNRP);
 
       this.robustNRP = robustNRP;
       this.numberOfFitnessEvaluations = numberOfFitnessEvaluations;
@@ -30,80 +39,103 @@ public class RobustNRPSimulatedAnnealing extends SimulatedAnnealing{
    }
 
    protected double getFinalTemperature(){
-      return Math.pow(getAlpha(), numberOfFitnessEvaluations) * getInitialTemperature();
+      return getInitialTemperature() / 1000;
    }
 
    protected double getAlpha(){
-      return 1 - ((1.0 / robustNRP.getNumberOfRequirements()) / 100);
+      return 1 - ((1.0 / robustNRP.getNumberOfRequirements()) / 100); //only used by the default geometric schedule
+   }
+
+   /**
+    * Method to cool by the Lundy-Mees schedule, sized from the steps budget.
+    *
+    * Each chain cools in proportion to the steps it ran, so the final temperature is reached when the
+    * budget is used, and most of the budget is spent at the low temperatures, where the search is selective.
+    * @author Matheus Paixao
+    * @return the cooling schedule of the run
+    * @see LundyMeesCooling
+    */
+   protected CoolingSchedule getCoolingSchedule(){
+      return new LundyMeesCooling(numberOfFitnessEvaluations, robustNRP.getNumberOfRequirements());
    }
 
    protected int getNumberOfMarkovChains(){
       return robustNRP.getNumberOfRequirements();
    }
 
+   /**
+    * Method to end a Markov chain once a tenth of its steps are accepted.
+    *
+    * At high temperatures almost every move is accepted, so the chain ends early and the
+    * temperature is lowered after fewer steps. The schedule only charges the steps run, so the
+    * steps not run by a hot chain are left to the low temperatures.
+    * @author Matheus Paixao
+    * @return the maximum number of accepted moves of a chain
+    */
+   protected int getMaximumNumberOfAcceptedMoves(){
+      return Math.max(1, robustNRP.getNumberOfRequirements() / 10);
+   }
+
+   protected long getMaximumNumberOfSteps(){
+      return (long) numberOfFitnessEvaluations * robustNRP.getNumberOfRequirements();
+   }
+
    public int[] getInitialSolution(){
       int[] initialSolution = new int[robustNRP.getNumberOfRequirements()];
       int randomRequirement = 0;
 
-      while(robustNRP.isSolutionValid(initialSolution) == true){
+      state.load(initialSolution);
+      while(state.getNumberOfSelectedRequirements() < initialSolution.length){
          randomRequirement = random.nextInt(initialSolution.length);
+         if(state.isSelected(randomRequirement) == true){
+            continue;
+         }
+         if(state.isValidAfterFlip(randomRequirement) == false){
+            break;
+         }
+
+         state.flip(randomRequirement);
          initialSolution[randomRequirement] = 1;
       }
-      initialSolution[randomRequirement] = 0;
 
       return initialSolution;
    }
 
-   protected int[] getNeighbourSolution(int[] solution){
-      int[] neighbourSolution = getNeighbourSolution(solution, numberOfRequirementsToChangeInNeighbourSolution);
-
-      if(robustNRP.isSolutionValid(neighbourSolution) == false){
-         repairSolution(neighbourSolution);
-      }
-
-      return neighbourSolution;
+   protected Move getMove(int[] solution){
+      return new RobustNRPFlipMove(robustNRP, numberOfRequirementsToChangeInNeighbourSolution);
    }
 
-   private int[] getNeighbourSolution(int[] solution, int numberOfRequirementsToChangeInNeighbourSolution){
+   /**
+    * Method to create a neighbour solution flipping random requirements and repairing it.
+    *
+    * The SimulatedAnnealing class uses the RobustNRPFlipMove instead, this method is kept
+    * for the algorithms that work on copies of the solution.
+    * @author Matheus Paixao
+    * @param solution the current solution
+    * @return the neighbour solution
+    * @see RobustNRPFlipMove
+    */
+   protected int[] getNeighbourSolution(int[] solution){
       int[] neighbourSolution = new int[solution.length];
       int indexToChange = 0;
 
-      for(int i = 0; i <= solution.length - 1; i++){
-         neighbourSolution[i] = solution[i];
-      }
+      System.arraycopy(solution, 0, neighbourSolution, 0, solution.length);
+      state.load(neighbourSolution);
 
       for(int i = 0; i <= numberOfRequirementsToChangeInNeighbourSolution - 1; i++){
          indexToChange = random.nextInt(neighbourSolution.length);
-         if(neighbourSolution[indexToChange] == 0){
-            neighbourSolution[indexToChange] = 1;
-         }
-         else if(neighbourSolution[indexToChange] == 1){
-            neighbourSolution[indexToChange] = 0;
-         }
+         state.flip(indexToChange);
+         neighbourSolution[indexToChange] = 1 - neighbourSolution[indexToChange];
       }
 
-      return neighbourSolution;
-   }
-
-   public void repairSolution(int[] solution){
-      removeRandomRequirement(solution);
-
-      if(robustNRP.isSolutionValid(solution) == false){
-         repairSolution(solution);
+      //repair
+      while(state.isValid() == false){
+         indexToChange = state.getSelectedRequirement(random.nextInt(state.getNumberOfSelectedRequirements()));
+         state.flip(indexToChange);
+         neighbourSolution[indexToChange] = 0;
       }
-   }
-
-   private void removeRandomRequirement(int[] solution){
-      boolean removeFlag = false;
-      int randomRequirementToRemove = 0;
 
-      while(removeFlag == false){
-         randomRequirementToRemove = random.nextInt(solution.length);
-         if(solution[randomRequirementToRemove] == 1){
-            solution[randomRequirementToRemove] = 0;
-            removeFlag = true;
-         }
-      }
+      return neighbourSolution;
    }
 
    protected double calculateSolutionValue(int[] solution){
@@ -0,0 +1,459 @@
+package problems.rnrp;
+
+import util.PackedBinarySolution;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Class that keeps the cost, value and precedences of a Robust Next Release Problem solution,
+ * so the effect of flipping one requirement is known without evaluating the whole solution.
+ *
+ * The robust cost is the estimates costs plus the sum of the gamma highest deviances of the
+ * selected requirements. The requirements are ranked by deviance, and two Fenwick trees over
+ * the ranks keep the number and the deviances sum of the selected requirements, so the sum of
+ * the k highest deviances is found in O(log n).
+ *
+ * The precedences are kept as counters: the number of prerequisites each requirement is missing
+ * and the number of selected requirements that depend on each requirement. A flip updates the
+ * counters of its prerequisites and dependents only.
+ *
+ * The methods that get the cost, value or precedences after a flip or a swap only read the state,
+ * so many threads may call them while the state is not changed. Otherwise an object of this class
+ * must not be shared by threads.
+ *
+ * @author Matheus Paixao
+ */
+public class RobustNRPState{
+   private RobustNextReleaseProblem robustNRP;
+
+   private int numberOfRequirements;
+   private int[] ranks; //position of each requirement in the decreasing order of deviances, from 1
+   private int[][] prerequisites;
+   private int[][] dependents;
+   private int highestPowerOfTwo;
+
+   private boolean[] selected;
+   private int[] selectedRequirements;
+   private int[] selectedPositions;
+   private int numberOfSelectedRequirements;
+   private int[] selectedCountsTree;
+   private double[] selectedDeviancesTree;
+   private int[] missingPrerequisites;
+   private int[] selectedDependents;
+   private int numberOfViolatedPrecedences;
+   private double estimatesCosts;
+   private double topDeviancesSum;
+   private double value;
+   private int numberOfFlipsSinceLoad;
+
+   public RobustNRPState(RobustNextReleaseProblem robustNRP){
+      this.robustNRP = robustNRP;
+      this.numberOfRequirements = robustNRP.getNumberOfRequirements();
+      this.selected = new boolean[numberOfRequirements];
+      this.selectedRequirements = new int[numberOfRequirements];
+      this.selectedPositions = new int[numberOfRequirements];
+      this.selectedCountsTree = new int[numberOfRequirements + 1];
+      this.selectedDeviancesTree = new double[numberOfRequirements + 1];
+      this.missingPrerequisites = new int[numberOfRequirements];
+      this.selectedDependents = new int[numberOfRequirements];
+
+      this.highestPowerOfTwo = 1;
+      while(highestPowerOfTwo * 2 <= numberOfRequirements){
+         highestPowerOfTwo = highestPowerOfTwo * 2;
+      }
+
+      loadRanks();
+      loadPrecedences();
+   }
+
+   private void loadRanks(){
+      Integer[] requirements = new Integer[numberOfRequirements];
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         requirements[i] = i;
+      }
+      Arrays.sort(requirements, new Comparator<Integer>(){
+         public int compare(Integer requirement1, Integer requirement2){
+            return Double.compare(robustNRP.requirementsDeviances[requirement2], robustNRP.requirementsDeviances[requirement1]);
+         }
+      });
+
+      ranks = new int[numberOfRequirements];
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         ranks[requirements[i]] = i + 1;
+      }
+   }
+
+   private void loadPrecedences(){
+      int[] numberOfPrerequisites = new int[numberOfRequirements];
+      int[] numberOfDependents = new int[numberOfRequirements];
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         for(int j = 0; j <= numberOfRequirements - 1; j++){
+            if(robustNRP.precedenceMatrix[i][j] == 1){
+               numberOfPrerequisites[i]++;
+               numberOfDependents[j]++;
+            }
+         }
+      }
+
+      prerequisites = new int[numberOfRequirements][];
+      dependents = new int[numberOfRequirements][];
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         prerequisites[i] = new int[numberOfPrerequisites[i]];
+         dependents[i] = new int[numberOfDependents[i]];
+         numberOfPrerequisites[i] = 0;
+         numberOfDependents[i] = 0;
+      }
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         for(int j = 0; j <= numberOfRequirements - 1; j++){
+            if(robustNRP.precedenceMatrix[i][j] == 1){
+               prerequisites[i][numberOfPrerequisites[i]] = j;
+               numberOfPrerequisites[i]++;
+               dependents[j][numberOfDependents[j]] = i;
+               numberOfDependents[j]++;
+            }
+         }
+      }
+   }
+
+   /**
+    * Method to load the state of a solution with one 0/1 value per requirement.
+    *
+    * @author Matheus Paixao
+    * @param solution the solution
+    * @see loadSelected
+    */
+   public void load(int[] solution){
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         selected[i] = (solution[i] == 1);
+      }
+
+      loadSelected();
+   }
+
+   /**
+    * Method to load the state of a solution packed as in the PackedBinarySolution class.
+    *
+    * @author Matheus Paixao
+    * @param packedSolution the packed solution
+    * @see loadSelected
+    */
+   public void loadPacked(int[] packedSolution){
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         selected[i] = PackedBinarySolution.isBitSet(packedSolution, i);
+      }
+
+      loadSelected();
+   }
+
+   /**
+    * Method to rebuild the counters, the trees and the sums from the selected requirements in O(n + p),
+    * p being the number of precedences.
+    *
+    * @author Matheus Paixao
+    */
+   private void loadSelected(){
+      int parent = 0;
+
+      numberOfFlipsSinceLoad = 0;
+      numberOfSelectedRequirements = 0;
+      numberOfViolatedPrecedences = 0;
+      estimatesCosts = 0;
+      value = 0;
+      for(int i = 0; i <= numberOfRequirements; i++){
+         selectedCountsTree[i] = 0;
+         selectedDeviancesTree[i] = 0;
+      }
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         missingPrerequisites[i] = 0;
+         selectedDependents[i] = 0;
+      }
+
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         for(int j = 0; j <= prerequisites[i].length - 1; j++){
+            if(selected[prerequisites[i][j]] == false){
+               missingPrerequisites[i]++;
+            }
+         }
+
+         if(selected[i] == true){
+            selectedPositions[i] = numberOfSelectedRequirements;
+            selectedRequirements[numberOfSelectedRequirements] = i;
+            numberOfSelectedRequirements++;
+
+            for(int j = 0; j <= prerequisites[i].length - 1; j++){
+               selectedDependents[prerequisites[i][j]]++;
+            }
+            numberOfViolatedPrecedences += missingPrerequisites[i];
+            estimatesCosts += robustNRP.requirementsCosts[i];
+            value += robustNRP.requirementsValues[i];
+            selectedCountsTree[ranks[i]] = 1;
+            selectedDeviancesTree[ranks[i]] = robustNRP.requirementsDeviances[i];
+         }
+      }
+
+      //builds the Fenwick trees in place in O(n)
+      for(int i = 1; i <= numberOfRequirements; i++){
+         parent = i + (i & -i);
+         if(parent <= numberOfRequirements){
+            selectedCountsTree[parent] += selectedCountsTree[i];
+            selectedDeviancesTree[parent] += selectedDeviancesTree[i];
+         }
+      }
+
+      topDeviancesSum = getHighestDeviancesSum(robustNRP.gamma);
+   }
+
+   public boolean isSelected(int requirement){
+      return selected[requirement];
+   }
+
+   public int getNumberOfSelectedRequirements(){
+      return this.numberOfSelectedRequirements;
+   }
+
+   /**
+    * Method to get one of the selected requirements, in no particular order.
+    *
+    * @author Matheus Paixao
+    * @param index a number between 0 and the number of selected requirements - 1
+    * @return the selected requirement
+    */
+   public int getSelectedRequirement(int index){
+      return selectedRequirements[index];
+   }
+
+   public double getValue(){
+      return this.value;
+   }
+
+   public double getCost(){
+      return estimatesCosts + topDeviancesSum;
+   }
+
+   public int getNumberOfViolatedPrecedences(){
+      return this.numberOfViolatedPrecedences;
+   }
+
+   public boolean isValid(){
+      return (numberOfViolatedPrecedences == 0) && (getCost() <= robustNRP.budget);
+   }
+
+   public double getValueAfterFlip(int requirement){
+      if(selected[requirement] == true){
+         return value - robustNRP.requirementsValues[requirement];
+      }
+
+      return value + robustNRP.requirementsValues[requirement];
+   }
+
+   /**
+    * Method to get the robust cost of the solution if a requirement is flipped, in O(log n).
+    *
+    * An added requirement enters the gamma highest deviances only if fewer than gamma selected
+    * requirements rank above it, and then it takes the place of the gamma-th one.
+    * A removed requirement that was among the gamma highest deviances gives its place to the
+    * (gamma + 1)-th one.
+    * @author Matheus Paixao
+    * @param requirement the requirement to flip
+    * @return the cost after the flip
+    * @see getHighestDeviancesSum
+    */
+   public double getCostAfterFlip(int requirement){
+      double deviance = robustNRP.requirementsDeviances[requirement];
+      int numberOfSelectedAbove = getSelectedCount(ranks[requirement] - 1);
+
+      if(selected[requirement] == true){
+         if(numberOfSelectedAbove < robustNRP.gamma){
+            return estimatesCosts - robustNRP.requirementsCosts[requirement] + getHighestDeviancesSum(robustNRP.gamma + 1) - deviance;
+         }
+
+         return estimatesCosts - robustNRP.requirementsCosts[requirement] + topDeviancesSum;
+      }
+
+      if(numberOfSelectedAbove < robustNRP.gamma){
+         return estimatesCosts + robustNRP.requirementsCosts[requirement] + getHighestDeviancesSum(robustNRP.gamma - 1) + deviance;
+      }
+
+      return estimatesCosts + robustNRP.requirementsCosts[requirement] + topDeviancesSum;
+   }
+
+   public int getNumberOfViolatedPrecedencesAfterFlip(int requirement){
+      if(selected[requirement] == true){
+         return numberOfViolatedPrecedences - missingPrerequisites[requirement] + selectedDependents[requirement];
+      }
+
+      return numberOfViolatedPrecedences + missingPrerequisites[requirement] - selectedDependents[requirement];
+   }
+
+   public boolean isValidAfterFlip(int requirement){
+      return (getNumberOfViolatedPrecedencesAfterFlip(requirement) == 0) && (getCostAfterFlip(requirement) <= robustNRP.budget);
+   }
+
+   /**
+    * Method to get the robust cost of the solution if a selected requirement is replaced by an unselected one, in O(log n).
+    *
+    * The removal is done as in getCostAfterFlip, and the sums of the highest deviances of the
+    * solution without the removed requirement are found from the ones of the solution: the sum of
+    * the k highest deviances loses the removed deviance and gains the (k + 1)-th one if the removed
+    * requirement was among the k highest.
+    * @author Matheus Paixao
+    * @param removedRequirement the selected requirement
+    * @param addedRequirement the unselected requirement
+    * @return the cost after the swap
+    * @see getHighestDeviancesSumWithout
+    */
+   public double getCostAfterSwap(int removedRequirement, int addedRequirement){
+      int numberOfSelectedAboveRemoved = getSelectedCount(ranks[removedRequirement] - 1);
+      int numberOfSelectedAboveAdded = getSelectedCount(ranks[addedRequirement] - 1);
+      double topDeviancesSumAfterSwap = 0;
+
+      if(ranks[removedRequirement] < ranks[addedRequirement]){
+         numberOfSelectedAboveAdded--;
+      }
+
+      if(numberOfSelectedAboveAdded < robustNRP.gamma){
+         topDeviancesSumAfterSwap = getHighestDeviancesSumWithout(robustNRP.gamma - 1, removedRequirement, numberOfSelectedAboveRemoved)
+            + robustNRP.requirementsDeviances[addedRequirement];
+      }
+      else{
+         topDeviancesSumAfterSwap = getHighestDeviancesSumWithout(robustNRP.gamma, removedRequirement, numberOfSelectedAboveRemoved);
+      }
+
+      return estimatesCosts - robustNRP.requirementsCosts[removedRequirement] + robustNRP.requirementsCosts[addedRequirement] + topDeviancesSumAfterSwap;
+   }
+
+   private double getHighestDeviancesSumWithout(int k, int removedRequirement, int numberOfSelectedAboveRemoved){
+      if(k <= 0){
+         return 0;
+      }
+      if(numberOfSelectedAboveRemoved < k){
+         return getHighestDeviancesSum(k + 1) - robustNRP.requirementsDeviances[removedRequirement];
+      }
+
+      return getHighestDeviancesSum(k);
+   }
+
+   /**
+    * Method to get the number of violated precedences if a selected requirement is replaced by an unselected one.
+    *
+    * After the removal, the added requirement also misses the removed one if it is one of its
+    * prerequisites, and it loses the removed one as a selected dependent if it is one of them.
+    * @author Matheus Paixao
+    * @param removedRequirement the selected requirement
+    * @param addedRequirement the unselected requirement
+    * @return the number of violated precedences after the swap
+    */
+   public int getNumberOfViolatedPrecedencesAfterSwap(int removedRequirement, int addedRequirement){
+      int addedMissingPrerequisites = missingPrerequisites[addedRequirement] + robustNRP.precedenceMatrix[addedRequirement][removedRequirement];
+      int addedSelectedDependents = selectedDependents[addedRequirement] - robustNRP.precedenceMatrix[removedRequirement][addedRequirement];
+
+      return getNumberOfViolatedPrecedencesAfterFlip(removedRequirement) + addedMissingPrerequisites - addedSelectedDependents;
+   }
+
+   public boolean isValidAfterSwap(int removedRequirement, int addedRequirement){
+      return (getNumberOfViolatedPrecedencesAfterSwap(removedRequirement, addedRequirement) == 0)
+         && (getCostAfterSwap(removedRequirement, addedRequirement) <= robustNRP.budget);
+   }
+
+   /**
+    * Method to flip a requirement, in O(log n + d), d being the number of its prerequisites and dependents.
+    *
+    * Every n flips the state is rebuilt, which keeps the amortized cost of a flip.
+    * @author Matheus Paixao
+    * @param requirement the requirement to flip
+    */
+   public void flip(int requirement){
+      int lastRequirement = 0;
+      int counterIncrement = 1;
+
+      numberOfViolatedPrecedences = getNumberOfViolatedPrecedencesAfterFlip(requirement);
+
+      if(selected[requirement] == true){
+         selected[requirement] = false;
+         numberOfSelectedRequirements--;
+         lastRequirement = selectedRequirements[numberOfSelectedRequirements];
+         selectedRequirements[selectedPositions[requirement]] = lastRequirement;
+         selectedPositions[lastRequirement] = selectedPositions[requirement];
+
+         estimatesCosts -= robustNRP.requirementsCosts[requirement];
+         value -= robustNRP.requirementsValues[requirement];
+         updateTrees(ranks[requirement], -1, -robustNRP.requirementsDeviances[requirement]);
+         counterIncrement = -1;
+      }
+      else{
+         selected[requirement] = true;
+         selectedPositions[requirement] = numberOfSelectedRequirements;
+         selectedRequirements[numberOfSelectedRequirements] = requirement;
+         numberOfSelectedRequirements++;
+
+         estimatesCosts += robustNRP.requirementsCosts[requirement];
+         value += robustNRP.requirementsValues[requirement];
+         updateTrees(ranks[requirement], 1, robustNRP.requirementsDeviances[requirement]);
+      }
+
+      for(int i = 0; i <= dependents[requirement].length - 1; i++){
+         missingPrerequisites[dependents[requirement][i]] -= counterIncrement;
+      }
+      for(int i = 0; i <= prerequisites[requirement].length - 1; i++){
+         selectedDependents[prerequisites[requirement][i]] += counterIncrement;
+      }
+
+      topDeviancesSum = getHighestDeviancesSum(robustNRP.gamma);
+
+      //the sums are rebuilt from time to time so the rounding errors of the increments do not pile up
+      numberOfFlipsSinceLoad++;
+      if(numberOfFlipsSinceLoad >= numberOfRequirements){
+         loadSelected();
+      }
+   }
+
+   private void updateTrees(int rank, int countIncrement, double devianceIncrement){
+      for(int i = rank; i <= numberOfRequirements; i += i & -i){
+         selectedCountsTree[i] += countIncrement;
+         selectedDeviancesTree[i] += devianceIncrement;
+      }
+   }
+
+   private int getSelectedCount(int rank){
+      int count = 0;
+
+      for(int i = rank; i >= 1; i -= i & -i){
+         count += selectedCountsTree[i];
+      }
+
+      return count;
+   }
+
+   /**
+    * Method to get the sum of the k highest deviances of the selected requirements, in O(log n).
+    *
+    * The Fenwick tree of counts is descended to find the last rank with k selected requirements
+    * above or in it, summing the deviances of the visited nodes on the way.
+    * @author Matheus Paixao
+    * @param k the number of deviances to sum
+    * @return the sum, of all the selected deviances if there are fewer than k
+    */
+   private double getHighestDeviancesSum(int k){
+      double deviancesSum = 0;
+      int rank = 0;
+
+      if(k <= 0){
+         return 0;
+      }
+
+      for(int step = highestPowerOfTwo; step >= 1; step = step / 2){
+         if(rank + step <= numberOfRequirements && selectedCountsTree[rank + step] <= k){
+            rank += step;
+            k -= selectedCountsTree[rank];
+            deviancesSum += selectedDeviancesTree[rank];
+         }
+      }
+
+      return deviancesSum;
+   }
+}
@@ -0,0 +1,170 @@
+package problems.rnrp;
+
+import algorithms.tabu.TabuSearch;
+
+import java.util.Random;
+
+/**
+ * Class to implement the TabuSearch class to the Robust Next Release Problem with the flip and swap neighbourhoods.
+ *
+ * The moves 0 to n - 1 flip a requirement, and the move n + r1 * n + r2 swaps the selected
+ * requirement r1 for the unselected requirement r2, which keeps the size of the release. Only the
+ * moves that keep the solution valid are valid. The attributes are pairs of requirement and value,
+ * the pair (r, x) being 2 * r + x: a move that selects r adds (r, 1) and removes (r, 0), so r can
+ * not be removed again while (r, 0) is tabu.
+ *
+ * The cost, value and precedences after each move are read from the RobustNRPState of the current
+ * solution in O(log n), without changing it.
+ *
+ * @author Matheus Paixao
+ */
+public class RobustNRPTabuSearch extends TabuSearch{
+   private RobustNextReleaseProblem robustNRP;
+   private RobustNRPState state;
+   private int numberOfRequirements;
+   private int numberOfIterations;
+
+   private Random random;
+
+   /**
+    * Method to create the RobustNRPTabuSearch object.
+    *
+    * @author Matheus Paixao
+    * @param robustNRP the RobustNextReleaseProblem object
+    * @param numberOfIterations the number of moves applied
+    */
+   public RobustNRPTabuSearch(RobustNextReleaseProblem robustNRP, int numberOfIterations){
+      super();
+      this.robustNRP = robustNRP;
+      this.state = new RobustNRPState(robustNRP);
+      this.numberOfRequirements = robustNRP.getNumberOfRequirements();
+      this.numberOfIterations = numberOfIterations;
+      this.random = new Random();
+   }
+
+   protected int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   protected int getTabuTenure(){
+      return Math.max(3, numberOfRequirements / 20);
+   }
+
+   protected int getTabuTenureVariation(){
+      return getTabuTenure();
+   }
+
+   /**
+    * Method to generate a random valid solution, selecting random requirements while the solution is valid.
+    *
+    * @author Matheus Paixao
+    * @return the random initial solution
+    */
+   protected int[] getInitialSolution(){
+      int[] initialSolution = new int[numberOfRequirements];
+      int randomRequirement = 0;
+
+      state.load(initialSolution);
+      while(state.getNumberOfSelectedRequirements() < initialSolution.length){
+         randomRequirement = random.nextInt(initialSolution.length);
+         if(state.isSelected(randomRequirement) == true){
+            continue;
+         }
+         if(state.isValidAfterFlip(randomRequirement) == false){
+            break;
+         }
+
+         state.flip(randomRequirement);
+         initialSolution[randomRequirement] = 1;
+      }
+
+      return initialSolution;
+   }
+
+   protected void loadSolution(int[] solution){
+      state.load(solution);
+   }
+
+   protected int getNeighbourhoodSize(int[] solution){
+      return numberOfRequirements + numberOfRequirements * numberOfRequirements;
+   }
+
+   protected long getNumberOfAttributes(int[] solution){
+      return 2 * numberOfRequirements;
+   }
+
+   protected int getMaximumNumberOfMoveAttributes(){
+      return 2;
+   }
+
+   protected boolean isMoveValid(int[] solution, int move){
+      int removedRequirement = 0;
+      int addedRequirement = 0;
+
+      if(move < numberOfRequirements){
+         return state.isValidAfterFlip(move);
+      }
+
+      removedRequirement = (move - numberOfRequirements) / numberOfRequirements;
+      addedRequirement = (move - numberOfRequirements) % numberOfRequirements;
+      if(state.isSelected(removedRequirement) == false || state.isSelected(addedRequirement) == true){
+         return false;
+      }
+
+      return state.isValidAfterSwap(removedRequirement, addedRequirement);
+   }
+
+   protected double getMoveDelta(int[] solution, int move){
+      if(move < numberOfRequirements){
+         return state.getValueAfterFlip(move) - state.getValue();
+      }
+
+      return robustNRP.requirementsValues[(move - numberOfRequirements) % numberOfRequirements]
+         - robustNRP.requirementsValues[(move - numberOfRequirements) / numberOfRequirements];
+   }
+
+   protected int getMoveAttributes(int[] solution, int move, long[] attributes){
+      if(move < numberOfRequirements){
+         attributes[0] = 2 * move + 1 - solution[move];
+         return 1;
+      }
+
+      attributes[0] = 2 * ((move - numberOfRequirements) / numberOfRequirements);
+      attributes[1] = 2 * ((move - numberOfRequirements) % numberOfRequirements) + 1;
+      return 2;
+   }
+
+   protected int getMoveReverseAttributes(int[] solution, int move, long[] attributes){
+      if(move < numberOfRequirements){
+         attributes[0] = 2 * move + solution[move];
+         return 1;
+      }
+
+      attributes[0] = 2 * ((move - numberOfRequirements) / numberOfRequirements) + 1;
+      attributes[1] = 2 * ((move - numberOfRequirements) % numberOfRequirements);
+      return 2;
+   }
+
+   protected void applyMove(int[] solution, int move){
+      if(move < numberOfRequirements){
+         flip(solution, move);
+      }
+      else{
+         flip(solution, (move - numberOfRequirements) / numberOfRequirements);
+         flip(solution, (move - numberOfRequirements) % numberOfRequirements);
+      }
+   }
+
+   private void flip(int[] solution, int requirement){
+      state.flip(requirement);
+      solution[requirement] = 1 - solution[requirement];
+   }
+
+   protected double calculateSolutionValue(int[] solution){
+      return robustNRP.calculateSolutionValue(solution);
+   }
+
+   protected boolean isSolutionBest(double solutionValue1, double solutionValue2){
+      return robustNRP.isSolutionBest(solutionValue1, solutionValue2);
+   }
+}
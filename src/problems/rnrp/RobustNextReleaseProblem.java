@@ -1,6 +1,7 @@
 package problems.rnrp;
 
 import instancereaders.RobustNRPInstanceReader;
+import util.PackedBinarySolution;
 
 import java.io.File;
 
@@ -19,6 +20,7 @@ public class RobustNextReleaseProblem{
    double[] requirementsCosts;
    double[] requirementsDeviances;
    int[][] precedenceMatrix;
+   int[][] packedPrecedences;
    double budget;
    int gamma;
 
@@ -36,6 +38,10 @@ public class RobustNextReleaseProblem{
       this.requirementsCosts = robustNRPInstanceReader.getRequirementsCosts();
       this.requirementsDeviances = robustNRPInstanceReader.getRequirementsDeviances();
       this.precedenceMatrix = robustNRPInstanceReader.getPrecedenceMatrix();
+      this.packedPrecedences = new int[numberOfRequirements][];
+      for(int i = 0; i <= numberOfRequirements - 1; i++){
+         this.packedPrecedences[i] = PackedBinarySolution.pack(precedenceMatrix[i]);
+      }
       this.budget = getBudget(70);
       //this.gamma = getGamma();
       this.gamma = getGamma(gammaPercentage);
@@ -143,6 +149,63 @@ public class RobustNextReleaseProblem{
       return solutionValue;
    }
 
+   /**
+    * Method to check a solution packed as in the PackedBinarySolution class.
+    *
+    * Only the selected requirements are visited, and the precedences of each one are checked
+    * a word at a time.
+    * @author Matheus Paixao
+    * @param packedSolution the packed solution
+    * @return true if the solution respects the budget and the precedences
+    */
+   public boolean isPackedSolutionValid(int[] packedSolution){
+      double[] solutionDeviances = new double[PackedBinarySolution.getNumberOfSetBits(packedSolution)];
+      double solutionCost = 0;
+      int numberOfDeviances = 0;
+      int word = 0;
+      int requirement = 0;
+
+      for(int i = 0; i <= packedSolution.length - 1; i++){
+         word = packedSolution[i];
+         while(word != 0){
+            requirement = (i << 5) + Integer.numberOfTrailingZeros(word);
+            word &= word - 1;
+
+            for(int j = 0; j <= packedSolution.length - 1; j++){
+               if((packedPrecedences[requirement][j] & ~packedSolution[j]) != 0){
+                  return false;
+               }
+            }
+
+            solutionCost += requirementsCosts[requirement];
+            solutionDeviances[numberOfDeviances] = requirementsDeviances[requirement];
+            numberOfDeviances++;
+         }
+      }
+
+      Arrays.sort(solutionDeviances);
+      for(int i = solutionDeviances.length - 1; i >= 0 && i >= (solutionDeviances.length - gamma); i--){
+         solutionCost += solutionDeviances[i];
+      }
+
+      return solutionCost <= budget;
+   }
+
+   public double calculatePackedSolutionValue(int[] packedSolution){
+      double solutionValue = 0;
+      int word = 0;
+
+      for(int i = 0; i <= packedSolution.length - 1; i++){
+         word = packedSolution[i];
+         while(word != 0){
+            solutionValue += requirementsValues[(i << 5) + Integer.numberOfTrailingZeros(word)];
+            word &= word - 1;
+         }
+      }
+
+      return solutionValue;
+   }
+
    public boolean isSolutionBest(double solutionValue1, double solutionValue2){
       boolean result = false;
 
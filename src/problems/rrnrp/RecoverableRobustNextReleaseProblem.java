@@ -1,6 +1,7 @@
 package problems.rrnrp;
 
 import instancereaders.RobustNRPInstanceReader;
+import util.PackedBinarySolution;
 
 import java.io.File;
 
@@ -154,6 +155,69 @@ public class RecoverableRobustNextReleaseProblem{
       return solutionValue;
    }
 
+   /**
+    * Method to check a solution packed as in the PackedBinarySolution class.
+    *
+    * Only the selected requirements are visited. As in isSolutionValid, requirements with
+    * zero cost are not taken into account by the recovery.
+    * @author Matheus Paixao
+    * @param packedSolution the packed solution
+    * @return true if the solution respects the budget
+    */
+   public boolean isPackedSolutionValid(int[] packedSolution){
+      int numberOfSetBits = PackedBinarySolution.getNumberOfSetBits(packedSolution);
+      double[] solutionDeviances = new double[numberOfSetBits];
+      double[] solutionCosts = new double[numberOfSetBits];
+      double solutionCost = 0;
+      int numberOfCosts = 0;
+      int numberOfRecoveredCosts = 0;
+      int word = 0;
+      int requirement = 0;
+
+      for(int i = 0; i <= packedSolution.length - 1; i++){
+         word = packedSolution[i];
+         while(word != 0){
+            requirement = (i << 5) + Integer.numberOfTrailingZeros(word);
+            word &= word - 1;
+
+            solutionCost += requirementsCosts[requirement];
+            solutionDeviances[numberOfCosts] = requirementsDeviances[requirement];
+            solutionCosts[numberOfCosts] = requirementsCosts[requirement];
+            numberOfCosts++;
+         }
+      }
+
+      Arrays.sort(solutionDeviances);
+      for(int i = solutionDeviances.length - 1; i >= 0 && i >= (solutionDeviances.length - gamma); i--){
+         solutionCost += solutionDeviances[i];
+      }
+
+      Arrays.sort(solutionCosts);
+      for(int i = 0; i <= solutionCosts.length - 1 && numberOfRecoveredCosts < recoveryParameter; i++){
+         if(solutionCosts[i] != 0){
+            solutionCost -= solutionCosts[i];
+            numberOfRecoveredCosts++;
+         }
+      }
+
+      return solutionCost <= budget;
+   }
+
+   public double calculatePackedSolutionValue(int[] packedSolution){
+      double solutionValue = 0;
+      int word = 0;
+
+      for(int i = 0; i <= packedSolution.length - 1; i++){
+         word = packedSolution[i];
+         while(word != 0){
+            solutionValue += requirementsValues[(i << 5) + Integer.numberOfTrailingZeros(word)];
+            word &= word - 1;
+         }
+      }
+
+      return solutionValue;
+   }
+
    public boolean isSolutionBest(double solutionValue1, double solutionValue2){
       boolean result = false;
 
@@ -38,6 +38,10 @@ public class SRPPAntQ extends AntQ{
       return 0.01; //this initial pheromone value was founded empirically
    }
 
+   protected boolean isHeuristicValueStatic(){
+      return true; //the heuristic value depends only on the edge
+   }
+
    /**
     * Method to init the precedence constrained ants.
     *
@@ -147,7 +151,7 @@ public class SRPPAntQ extends AntQ{
     * @see calculateSolutionValue in SRPPProblem class
     */
    public double calculateSolutionValue(Edge[] solution){
-      Integer[] nodes = getNodes(solution);
+      int[] nodes = getNodes(solution);
       return srppProblem.calculateSolutionValue(nodes);
    }
 
@@ -158,8 +162,8 @@ public class SRPPAntQ extends AntQ{
     * @param solution the egde array
     * @return the int array representing the solution
     */
-   private Integer[] getNodes(Edge[] solution){
-      Integer[] nodes = new Integer[solution.length];
+   private int[] getNodes(Edge[] solution){
+      int[] nodes = new int[solution.length];
 
       for(int i = 0; i <= nodes.length - 1; i++){
          nodes[i] = solution[i].getNode1().getIndex();
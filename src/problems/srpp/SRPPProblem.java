@@ -16,6 +16,7 @@ public class SRPPProblem{
    SRPPInstanceReader srppInstanceReader;
 
    double[][] objectivesValues; //value of each objective for each requirement
+   double[] requirementsWeights; //sum of all objectives values for each requirement
    int numberOfRequirements;
    int numberOfClients;
    int[][] precedencesMatrix;
@@ -30,6 +31,7 @@ public class SRPPProblem{
     * @see getNumberOfRequirements in srppInstanceReader class
     * @see getNumberOfClients in srppInstanceReader class
     * @see getPrecedencesMatrix in srppInstanceReader class
+    * @see calculateRequirementsWeights
     */
    public SRPPProblem(File instance){
       srppInstanceReader = new SRPPInstanceReader(instance);
@@ -37,6 +39,7 @@ public class SRPPProblem{
       this.numberOfRequirements = srppInstanceReader.getNumberOfRequirements();
       this.numberOfClients = srppInstanceReader.getNumberOfClients();
       this.precedencesMatrix = srppInstanceReader.getPrecedencesMatrix();
+      this.requirementsWeights = calculateRequirementsWeights();
    }
 
    public int getNumberOfRequirements(){
@@ -78,27 +81,125 @@ public class SRPPProblem{
       double solutionValue = 0;
 
       for(int i = 0; i <= solution.length - 1; i++){
-         solutionValue += (solution.length - i) * getObjectivesSum(solution[i]);
+         solutionValue += (solution.length - i) * requirementsWeights[solution[i]];
       }
 
       return solutionValue;
    }
 
+   /**
+    * Method that implements the fitness function of SRPP problem whem an int array is passed.
+    *
+    * @author Matheus Paixao
+    * @param solution the int array that corresponds to the priority ordering to be calculated
+    * @return fitness value of the solution
+    */
+   public double calculateSolutionValue(int[] solution){
+      double[] weights = requirementsWeights;
+      double solutionValue = 0;
+
+      for(int i = 0; i <= solution.length - 1; i++){
+         solutionValue += (solution.length - i) * weights[solution[i]];
+      }
+
+      return solutionValue;
+   }
+
+   /**
+    * Method to get the fitness value variation of swapping two requirements of an ordering.
+    *
+    * The requirement in the position i gets the priority of the position j and vice-versa,
+    * so only these two terms of the fitness function change.
+    * @author Matheus Paixao
+    * @param solution the ordering before the swap
+    * @param i the position of the first requirement
+    * @param j the position of the second requirement
+    * @return the new fitness value minus the current fitness value
+    */
+   public double getSwapDelta(int[] solution, int i, int j){
+      return (j - i) * (requirementsWeights[solution[j]] - requirementsWeights[solution[i]]);
+   }
+
+   /**
+    * Method to get the fitness value variation of moving a requirement to another position of an ordering.
+    *
+    * The moved requirement changes its priority by (from - to) positions and each requirement
+    * between the two positions is shifted by one position in the opposite direction.
+    * @author Matheus Paixao
+    * @param solution the ordering before the insertion
+    * @param from the current position of the requirement to be moved
+    * @param to the position where the requirement will be inserted
+    * @return the new fitness value minus the current fitness value
+    */
+   public double getInsertDelta(int[] solution, int from, int to){
+      double[] weights = requirementsWeights;
+      double shiftedWeightsSum = 0;
+      double delta = 0;
+
+      if(from < to){
+         for(int i = from + 1; i <= to; i++){
+            shiftedWeightsSum += weights[solution[i]];
+         }
+         delta = shiftedWeightsSum - (to - from) * weights[solution[from]];
+      }
+      else if(from > to){
+         for(int i = to; i <= from - 1; i++){
+            shiftedWeightsSum += weights[solution[i]];
+         }
+         delta = (from - to) * weights[solution[from]] - shiftedWeightsSum;
+      }
+
+      return delta;
+   }
+
+   /**
+    * Method to apply the insert move evaluated by getInsertDelta.
+    *
+    * @author Matheus Paixao
+    * @param solution the ordering to be changed
+    * @param from the current position of the requirement to be moved
+    * @param to the position where the requirement will be inserted
+    */
+   public void insertRequirement(int[] solution, int from, int to){
+      int requirement = solution[from];
+
+      if(from < to){
+         System.arraycopy(solution, from + 1, solution, from, to - from);
+      }
+      else if(from > to){
+         System.arraycopy(solution, to, solution, to + 1, from - to);
+      }
+      solution[to] = requirement;
+   }
+
    /**
     * Method to get the sum of all objectives values for a requirement.
     *
+    * The sums are calculated only once, when the instance is loaded.
     * @author Matheus Paixao
     * @param requirement the requirement to know the objectives sum
     * @return the sum of all objectives values for the requirement
     */
-   public double getObjectivesSum(Integer requirement){
-      double objectivesSum = 0;
+   public double getObjectivesSum(int requirement){
+      return requirementsWeights[requirement];
+   }
+
+   /**
+    * Method to calculate the sum of all objectives values of each requirement.
+    *
+    * @author Matheus Paixao
+    * @return array with the objectives sum of each requirement
+    */
+   private double[] calculateRequirementsWeights(){
+      double[] requirementsWeights = new double[numberOfRequirements];
 
       for(int i = 0; i <= objectivesValues.length - 1; i++){
-         objectivesSum += objectivesValues[i][requirement];
+         for(int j = 0; j <= requirementsWeights.length - 1; j++){
+            requirementsWeights[j] += objectivesValues[i][j];
+         }
       }
 
-      return objectivesSum;
+      return requirementsWeights;
    }
 
    public int getNumberOfClients(){
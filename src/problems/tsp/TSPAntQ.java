@@ -38,6 +38,10 @@ public class TSPAntQ extends AntQ{
       return this.initialPheromone;
    }
 
+   protected boolean isHeuristicValueStatic(){
+      return true; //the heuristic value depends only on the edge
+   }
+
    /**
     * Method that implements the fitness function of TSP problem.
     *
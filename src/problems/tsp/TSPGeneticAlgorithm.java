@@ -2,11 +2,10 @@ package problems.tsp;
 
 import algorithms.ga.GeneticAlgorithm;
 import instancereaders.TSPInstanceReader;
+import util.PermutationOperators;
 
 import java.io.File;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -22,11 +21,26 @@ public class TSPGeneticAlgorithm extends GeneticAlgorithm{
 
    private int populationSize;
 
+   private PermutationOperators permutationOperators; //only used by the crossover, which is not run by the chunks of work
+
    public TSPGeneticAlgorithm(TSPProblem tspProblem, int numberOfIterations){
       super(numberOfIterations);
       this.tspProblem = tspProblem;
       this.random = new Random();
       this.populationSize = 100;
+      this.permutationOperators = new PermutationOperators(tspProblem.getNumberOfCities());
+   }
+
+   /**
+    * Method to seed the random number generators of the algorithm and of the adapter.
+    *
+    * The adapter draws the initial population from its own generator, so it is seeded too, with a seed derived from the passed one.
+    * @author Matheus Paixao
+    * @param seed the seed of the algorithm
+    */
+   public void setSeed(long seed){
+      super.setSeed(seed);
+      random.setSeed(seed + 0x9E3779B97F4A7C15L);
    }
 
    protected double getCrossoverProbability(){
@@ -94,226 +108,15 @@ public class TSPGeneticAlgorithm extends GeneticAlgorithm{
       return randomCity;
    }
 
-   protected int[][] getParents(int[][] population, double[] individualsSolutionValues){
-      int[][] parents = new int[2][population[0].length];
-
-      for(int i = 0; i <= parents.length - 1; i++){
-         parents[i] = getIndividual(population, individualsSolutionValues);
-      }
-
-      return parents;
-   }
-
-   /**
-    * Method to get an individual using the roullete selection method.
-    *
-    * @author Matheus Paixao
-    * @return the individual selected using the roullete selection method
-    * @see getProbabilities
-    * @see getRouletteValue
-    */
-   private int[] getIndividual(int[][] population, double[] individualsSolutionValues){
-      int[] individual = null;
-      double rouletteValue = 0;
-      double[] probabilities = getIndividualsProbabilities(population, individualsSolutionValues);
-
-      rouletteValue = getRouletteValue(probabilities);
-
-      for(int i = 0; i <= probabilities.length - 1; i++){
-         if(rouletteValue == probabilities[i]){
-            individual = population[i];
-            break;
-         }
-      }
-
-      return individual;
-   }
-
-   /**
-    * Method to calculate the probability of each individual
-    *
-    * @author Matheus Paixao
-    * @return an array containing the selection's probability of each individual
-    */
-   private double[] getIndividualsProbabilities(int[][] population, double[] individualsSolutionValues){
-      double[] probabilities = new double[population.length];
-      double probabilityValue = 0;
-      double[] individualsSelectionValues = getIndividualsSelectionValues(population, individualsSolutionValues);
-      double individualsSelectionValuesSum = getIndividualsSelectionValuesSum(individualsSelectionValues);
-
-      for(int i = 0; i <= probabilities.length - 1; i++){
-         probabilityValue = individualsSelectionValues[i] / individualsSelectionValuesSum;
-         if(Double.isNaN(probabilityValue)){
-            probabilityValue = 0;
-         }
-
-         probabilities[i] = probabilityValue;
-      }
-
-      return probabilities;
-   }
-
-   private double[] getIndividualsSelectionValues(int[][] population, double[] individualsSolutionValues){
-      double[] individualsSelectionValues = new double[population.length];
-      double maxIndividualSolutionValue = getMaxIndividualSolutionValue(individualsSolutionValues);
-
-      for(int i = 0; i <= individualsSelectionValues.length - 1; i++){
-         individualsSelectionValues[i] = maxIndividualSolutionValue - individualsSolutionValues[i];
-      }
-
-      return individualsSelectionValues;
-   }
-
-   private double getIndividualsSelectionValuesSum(double[] individualsSelectionValues){
-      double individualsSelectionValuesSum = 0;
-
-      for(int i = 0; i <= individualsSelectionValues.length - 1; i++){
-         individualsSelectionValuesSum += individualsSelectionValues[i];
-      }
-
-      return individualsSelectionValuesSum;
-   }
-
-   private double getMaxIndividualSolutionValue(double[] individualsSolutionValues){
-      double maxIndividualSolutionValue = 0;
-
-      for(int i = 0; i <= individualsSolutionValues.length - 1; i++){
-         if(individualsSolutionValues[i] > maxIndividualSolutionValue){
-            maxIndividualSolutionValue = individualsSolutionValues[i];
-         }
-      }
-
-      return maxIndividualSolutionValue;
-   }
-
-   /**
-    * Method to get the value of the probability selected by the roulette.
-    *
-    * Higher the probability of a node, higher the chance to be choosen by the roulette.
-    * For more information search for "roulette selection method".
-    * @author Matheus Paixao
-    * @param probabilities an array containing the probabilities for roulette selection.
-    * @return the probability value choosen by the roulette.
-    * @see getRandomNumber
-    */
-   private double getRouletteValue(double[] probabilities){
-      double[] rouletteProbabilities = new double[probabilities.length];
-      double neddle = 0;
-      double neddleChecker = 0;
-      double rouletteValue = 0;
-
-      for(int i = 0; i <= rouletteProbabilities.length - 1; i++){
-         rouletteProbabilities[i] = probabilities[i];
-      }
-
-      Arrays.sort(rouletteProbabilities);
-
-      neddle = random.nextDouble();
-
-      for(int i = 0; i <= rouletteProbabilities.length - 1; i++){
-         neddleChecker += rouletteProbabilities[i];
-         if(neddleChecker >= neddle){
-            rouletteValue = rouletteProbabilities[i];
-            break;
-         }
-      }
-
-      return rouletteValue;
-   }
-
-   protected int[][] getChildsByCrossover(int[][] parents){
-      return getChildsByCycleCrossover(parents);
-   }
-
-   private int[][] getChildsByCycleCrossover(int[][] parents){
-      int childs[][] = new int[parents.length][parents[0].length];
-      ArrayList<ArrayList<Integer>> cycles = getCycles(parents);
-      ArrayList<Integer> cycle = null;
-      
-      for(int i = 0; i <= cycles.size() - 1; i++){
-         cycle = cycles.get(i);
-         if(i % 2 == 0){
-            for(int j = 0; j <= cycle.size() - 1; j++){
-               childs[0][cycle.get(j)] = parents[0][cycle.get(j)];
-               childs[1][cycle.get(j)] = parents[1][cycle.get(j)];
-            }
-         }
-         else{
-            for(int j = 0; j <= cycle.size() - 1; j++){
-               childs[0][cycle.get(j)] = parents[1][cycle.get(j)];
-               childs[1][cycle.get(j)] = parents[0][cycle.get(j)];
-            }
-         }
-      }
-
-      return childs;
-   }
-
-   private ArrayList<ArrayList<Integer>> getCycles(int[][] parents){
-      ArrayList<ArrayList<Integer>> cycles = new ArrayList<ArrayList<Integer>>();
-
-      for(int i = 0; i <= parents[0].length - 1; i++){
-         if(isCityInCycles(i, cycles) == false){
-            cycles.add(getCycle(i, parents));
-         }
-      }
-
-      return cycles;
-   }
-
-   private boolean isCityInCycles(int cityIndex, ArrayList<ArrayList<Integer>> cycles){
-      boolean result = false;
-
-      if(cycles.size() != 0){
-         outerloop:
-         for(int i = 0; i <= cycles.size() - 1; i++){
-            for(int j = 0; j <= cycles.get(i).size() - 1; j++){
-               if(cycles.get(i).get(j) == cityIndex){
-                  result = true;
-                  break outerloop;
-               }
-            }
-         }
-      }
-
-      return result;
-   }
-
-   private ArrayList<Integer> getCycle(int startIndex, int[][] parents){
-      ArrayList<Integer> cycle = new ArrayList<Integer>();
-      int nextIndex = parents[0].length;
-      cycle.add(startIndex);
-
-      while(nextIndex != startIndex){
-         nextIndex = getNextIndex(cycle.get(cycle.size() - 1), parents);
-         if(nextIndex != startIndex){
-            cycle.add(nextIndex);
-         }
-      }
-
-      Collections.sort(cycle);
-      return cycle;
-   }
-
-   private int getNextIndex(int lastIndex, int[][] parents){
-      int nextIndex = 0;
-      int lastIndexValue = parents[0][lastIndex];
-
-      for(int i = 0; i <= parents[1].length - 1; i++){
-         if(parents[1][i] == lastIndexValue){
-            nextIndex = i;
-            break;
-         }
-      }
+   protected PermutationOperators.Crossover getCrossoverOperator(){return PermutationOperators.Crossover.CYCLE;}
+   protected PermutationOperators.Mutation getMutationOperator(){return PermutationOperators.Mutation.TWO_OPT;}
 
-      return nextIndex;
+   protected boolean crossover(int[][] parents, int[][] childs){
+      return permutationOperators.crossover(getCrossoverOperator(), parents, childs, random);
    }
 
-   protected void mutate(int[] individual, int indexToMutate){
-      int randomCityToSwap = random.nextInt(individual.length);
-      int cityAux = individual[indexToMutate];
-      individual[indexToMutate] = individual[randomCityToSwap];
-      individual[randomCityToSwap] = cityAux;
+   protected void mutate(int[] individual, int indexToMutate, Random random){
+      PermutationOperators.mutate(getMutationOperator(), individual, indexToMutate, random);
    }
 
    protected double calculateSolutionValue(int[] individual){
@@ -0,0 +1,404 @@
+package problems.tsp;
+
+import algorithms.ils.IteratedLocalSearch;
+
+import java.util.Random;
+
+/**
+ * Class to implement the IteratedLocalSearch class to the Travel Salesman Problem with the 2-opt and or-opt neighbourhoods.
+ *
+ * The moves are restricted by neighbour lists: a new edge always joins a city to one of its nearest
+ * cities, so each neighbourhood has O(n) moves instead of O(n^2). The position of each city in the
+ * tour is kept, so every delta only looks at the few cities around the changed edges, in O(1).
+ *
+ * The move (a * K + k) * 2 + d of the 2-opt neighbourhood joins the city a to its k-th nearest city b,
+ * reconnecting their successors (d = 0) or their predecessors (d = 1). Any improving 2-opt move has a
+ * new edge shorter than the removed edge of the same city, so only these moves are valid. The tour is
+ * changed by reversing the shorter side of the move.
+ * The move ((s * 3 + l - 1) * K + k) * 2 + d of the or-opt neighbourhood moves the segment of l cities
+ * starting at the city s next to the k-th nearest city c of s: after c, keeping its direction (d = 0),
+ * or before c, reversed (d = 1), so s is always next to c.
+ * The moves of a city are a group of the don't look bits, which is activated when an edge of the city changes.
+ *
+ * The perturbation is the double bridge, as many times as its strength. It swaps two adjacent segments
+ * of the tour, whose lengths are limited so the local search only has to repair a part of the tour.
+ *
+ * @author Matheus Paixao
+ */
+public class TSPIteratedLocalSearch extends IteratedLocalSearch{
+   private static final int TWO_OPT_NEIGHBOURHOOD = 0;
+   private static final int NUMBER_OF_NEAREST_CITIES = 10;
+   private static final int MAXIMUM_OR_OPT_SEGMENT_LENGTH = 3;
+   private static final int MAXIMUM_DOUBLE_BRIDGE_SEGMENT_LENGTH = 50;
+
+   private TSPProblem tspProblem;
+   private double[][] distancesMatrix;
+   private int numberOfCities;
+   private int numberOfIterations;
+
+   private int numberOfNearestCities;
+   private int[][] nearestCities; //the nearest cities of each city, the nearest first
+   private int[] positions; //the position of each city in the current tour
+
+   private Random random;
+
+   /**
+    * Method to create the TSPIteratedLocalSearch object.
+    *
+    * @author Matheus Paixao
+    * @param tspProblem the TSPProblem object
+    * @param numberOfIterations the number of perturbations
+    * @see generateNearestCities
+    */
+   public TSPIteratedLocalSearch(TSPProblem tspProblem, int numberOfIterations){
+      super();
+      this.tspProblem = tspProblem;
+      this.distancesMatrix = tspProblem.getDistancesMatrix();
+      this.numberOfCities = tspProblem.getNumberOfCities();
+      this.numberOfIterations = numberOfIterations;
+      this.numberOfNearestCities = Math.min(NUMBER_OF_NEAREST_CITIES, numberOfCities - 1);
+      this.nearestCities = generateNearestCities();
+      this.positions = new int[numberOfCities];
+      this.random = new Random();
+   }
+
+   /**
+    * Method to find the nearest cities of each city, keeping them sorted by insertion as the other cities are read.
+    *
+    * @author Matheus Paixao
+    * @return the nearest cities of each city
+    */
+   private int[][] generateNearestCities(){
+      int[][] nearestCities = new int[numberOfCities][numberOfNearestCities];
+      double[] nearestDistances = new double[numberOfNearestCities];
+      int numberOfFoundCities = 0;
+      int index = 0;
+
+      for(int i = 0; i <= numberOfCities - 1; i++){
+         numberOfFoundCities = 0;
+         for(int j = 0; j <= numberOfCities - 1; j++){
+            if(j == i){
+               continue;
+            }
+            if(numberOfFoundCities == numberOfNearestCities && distancesMatrix[i][j] >= nearestDistances[numberOfNearestCities - 1]){
+               continue;
+            }
+
+            index = Math.min(numberOfFoundCities, numberOfNearestCities - 1);
+            while(index > 0 && nearestDistances[index - 1] > distancesMatrix[i][j]){
+               nearestDistances[index] = nearestDistances[index - 1];
+               nearestCities[i][index] = nearestCities[i][index - 1];
+               index--;
+            }
+            nearestDistances[index] = distancesMatrix[i][j];
+            nearestCities[i][index] = j;
+            numberOfFoundCities = Math.min(numberOfFoundCities + 1, numberOfNearestCities);
+         }
+      }
+
+      return nearestCities;
+   }
+
+   protected int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   protected int getMaximumPerturbationStrength(){
+      return 3;
+   }
+
+   protected int getNumberOfNeighbourhoods(){
+      return 2;
+   }
+
+   protected int getMoveGroupSize(int neighbourhood){
+      if(neighbourhood == TWO_OPT_NEIGHBOURHOOD){
+         return numberOfNearestCities * 2;
+      }
+
+      return MAXIMUM_OR_OPT_SEGMENT_LENGTH * numberOfNearestCities * 2;
+   }
+
+   /**
+    * Method to generate a random tour.
+    *
+    * @author Matheus Paixao
+    * @return the random initial solution
+    */
+   protected int[] getInitialSolution(){
+      int[] initialSolution = new int[numberOfCities];
+      int randomIndex = 0;
+      int cityAux = 0;
+
+      for(int i = 0; i <= numberOfCities - 1; i++){
+         initialSolution[i] = i;
+      }
+      for(int i = numberOfCities - 1; i >= 1; i--){
+         randomIndex = random.nextInt(i + 1);
+         cityAux = initialSolution[i];
+         initialSolution[i] = initialSolution[randomIndex];
+         initialSolution[randomIndex] = cityAux;
+      }
+
+      return initialSolution;
+   }
+
+   protected void loadSolution(int[] solution){
+      for(int i = 0; i <= numberOfCities - 1; i++){
+         positions[solution[i]] = i;
+      }
+   }
+
+   protected int getNeighbourhoodSize(int[] solution, int neighbourhood){
+      if(numberOfCities < 5){
+         return 0;
+      }
+      if(neighbourhood == TWO_OPT_NEIGHBOURHOOD){
+         return numberOfCities * numberOfNearestCities * 2;
+      }
+
+      return numberOfCities * MAXIMUM_OR_OPT_SEGMENT_LENGTH * numberOfNearestCities * 2;
+   }
+
+   protected boolean isMoveValid(int[] solution, int neighbourhood, int move){
+      if(neighbourhood == TWO_OPT_NEIGHBOURHOOD){
+         return isTwoOptMoveValid(solution, move);
+      }
+
+      return isOrOptMoveValid(solution, move);
+   }
+
+   protected double getMoveDelta(int[] solution, int neighbourhood, int move){
+      if(neighbourhood == TWO_OPT_NEIGHBOURHOOD){
+         return getTwoOptMoveDelta(solution, move);
+      }
+
+      return getOrOptMoveDelta(solution, move);
+   }
+
+   protected void applyMove(int[] solution, int neighbourhood, int move){
+      if(neighbourhood == TWO_OPT_NEIGHBOURHOOD){
+         applyTwoOptMove(solution, move);
+      }
+      else{
+         applyOrOptMove(solution, move);
+      }
+   }
+
+   private boolean isTwoOptMoveValid(int[] solution, int move){
+      int city1 = move / (2 * numberOfNearestCities);
+      int city2 = nearestCities[city1][(move / 2) % numberOfNearestCities];
+      int adjacentCity1 = getAdjacentCity(solution, positions[city1], move % 2);
+      int adjacentCity2 = getAdjacentCity(solution, positions[city2], move % 2);
+
+      return (city2 != adjacentCity1) && (city1 != adjacentCity2) && (distancesMatrix[city1][city2] < distancesMatrix[city1][adjacentCity1]);
+   }
+
+   private double getTwoOptMoveDelta(int[] solution, int move){
+      int city1 = move / (2 * numberOfNearestCities);
+      int city2 = nearestCities[city1][(move / 2) % numberOfNearestCities];
+      int adjacentCity1 = getAdjacentCity(solution, positions[city1], move % 2);
+      int adjacentCity2 = getAdjacentCity(solution, positions[city2], move % 2);
+
+      return distancesMatrix[city1][city2] + distancesMatrix[adjacentCity1][adjacentCity2]
+         - distancesMatrix[city1][adjacentCity1] - distancesMatrix[city2][adjacentCity2];
+   }
+
+   /**
+    * Method to apply a 2-opt move, removing the edges that leave the positions of the two cities (or of their predecessors).
+    *
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @param move the move
+    * @see activateMoveGroup in IteratedLocalSearch class
+    */
+   private void applyTwoOptMove(int[] solution, int move){
+      int city1 = move / (2 * numberOfNearestCities);
+      int city2 = nearestCities[city1][(move / 2) % numberOfNearestCities];
+      int position1 = positions[city1];
+      int position2 = positions[city2];
+      int first = 0;
+      int last = 0;
+
+      activateMoveGroup(city1);
+      activateMoveGroup(city2);
+      activateMoveGroup(getAdjacentCity(solution, position1, move % 2));
+      activateMoveGroup(getAdjacentCity(solution, position2, move % 2));
+
+      if(move % 2 == 1){
+         position1 = (position1 + numberOfCities - 1) % numberOfCities;
+         position2 = (position2 + numberOfCities - 1) % numberOfCities;
+      }
+      first = Math.min(position1, position2) + 1;
+      last = Math.max(position1, position2);
+
+      //the cyclic tour is the same reversing the inner or the outer side
+      if(2 * (last - first + 1) <= numberOfCities){
+         reverse(solution, first, last - first + 1);
+      }
+      else{
+         reverse(solution, last + 1, numberOfCities - (last - first + 1));
+      }
+   }
+
+   private boolean isOrOptMoveValid(int[] solution, int move){
+      int segmentFirstCity = move / (2 * numberOfNearestCities * MAXIMUM_OR_OPT_SEGMENT_LENGTH);
+      int position = positions[segmentFirstCity];
+      int segmentLength = (move / (2 * numberOfNearestCities)) % MAXIMUM_OR_OPT_SEGMENT_LENGTH + 1;
+      int city = nearestCities[segmentFirstCity][(move / 2) % numberOfNearestCities];
+      int adjacentCity = getAdjacentCity(solution, positions[city], move % 2);
+
+      return (segmentLength <= numberOfCities - 3)
+         && (isInSegment(city, position, segmentLength) == false) && (isInSegment(adjacentCity, position, segmentLength) == false);
+   }
+
+   /**
+    * Method to get the change of the tour length if a segment is moved next to a city.
+    *
+    * The three removed edges are the two edges of the segment and the edge of the city to its
+    * successor (d = 0) or from its predecessor (d = 1).
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @param move the move
+    * @return the tour length after the move minus the tour length before it
+    */
+   private double getOrOptMoveDelta(int[] solution, int move){
+      int segmentFirstCity = move / (2 * numberOfNearestCities * MAXIMUM_OR_OPT_SEGMENT_LENGTH);
+      int position = positions[segmentFirstCity];
+      int segmentLength = (move / (2 * numberOfNearestCities)) % MAXIMUM_OR_OPT_SEGMENT_LENGTH + 1;
+      int segmentLastCity = solution[(position + segmentLength - 1) % numberOfCities];
+      int previousCity = solution[(position + numberOfCities - 1) % numberOfCities];
+      int nextCity = solution[(position + segmentLength) % numberOfCities];
+      int city = nearestCities[segmentFirstCity][(move / 2) % numberOfNearestCities];
+      int adjacentCity = getAdjacentCity(solution, positions[city], move % 2);
+
+      return distancesMatrix[previousCity][nextCity] + distancesMatrix[city][segmentFirstCity] + distancesMatrix[adjacentCity][segmentLastCity]
+         - distancesMatrix[previousCity][segmentFirstCity] - distancesMatrix[segmentLastCity][nextCity] - distancesMatrix[city][adjacentCity];
+   }
+
+   /**
+    * Method to apply an or-opt move.
+    *
+    * The reversed segment is first reversed in place, and then the segment is moved after a city
+    * by rotating it with the shorter of the two gaps between it and the city.
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @param move the move
+    * @see activateMoveGroup in IteratedLocalSearch class
+    */
+   private void applyOrOptMove(int[] solution, int move){
+      int segmentFirstCity = move / (2 * numberOfNearestCities * MAXIMUM_OR_OPT_SEGMENT_LENGTH);
+      int position = positions[segmentFirstCity];
+      int segmentLength = (move / (2 * numberOfNearestCities)) % MAXIMUM_OR_OPT_SEGMENT_LENGTH + 1;
+      int city = nearestCities[segmentFirstCity][(move / 2) % numberOfNearestCities];
+      int forwardGapLength = 0; //the cities from the segment to the city, after the segment
+      int backwardGapLength = 0; //the cities from the city to the segment, before the segment
+
+      activateMoveGroup(segmentFirstCity);
+      activateMoveGroup(solution[(position + segmentLength - 1) % numberOfCities]);
+      activateMoveGroup(solution[(position + numberOfCities - 1) % numberOfCities]);
+      activateMoveGroup(solution[(position + segmentLength) % numberOfCities]);
+      activateMoveGroup(city);
+      activateMoveGroup(getAdjacentCity(solution, positions[city], move % 2));
+
+      if(move % 2 == 1){
+         city = getAdjacentCity(solution, positions[city], 1);
+         reverse(solution, position, segmentLength);
+      }
+
+      forwardGapLength = (positions[city] - position - segmentLength + 2 * numberOfCities) % numberOfCities + 1;
+      backwardGapLength = numberOfCities - segmentLength - forwardGapLength;
+      if(forwardGapLength <= backwardGapLength){
+         reverse(solution, position, segmentLength);
+         reverse(solution, position + segmentLength, forwardGapLength);
+         reverse(solution, position, segmentLength + forwardGapLength);
+      }
+      else{
+         position = (position + numberOfCities - backwardGapLength) % numberOfCities;
+         reverse(solution, position, backwardGapLength);
+         reverse(solution, position + backwardGapLength, segmentLength);
+         reverse(solution, position, backwardGapLength + segmentLength);
+      }
+   }
+
+   private boolean isInSegment(int city, int position, int segmentLength){
+      return (positions[city] - position + numberOfCities) % numberOfCities < segmentLength;
+   }
+
+   private int getAdjacentCity(int[] solution, int position, int direction){ //direction 0 is the successor, 1 the predecessor
+      if(direction == 0){
+         return solution[(position + 1) % numberOfCities];
+      }
+
+      return solution[(position + numberOfCities - 1) % numberOfCities];
+   }
+
+   /**
+    * Method to reverse the cities of a part of the tour, which may go around the end of the array, updating their positions.
+    *
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @param firstIndex the position of the first city of the part
+    * @param numberOfCities the number of cities of the part
+    */
+   private void reverse(int[] solution, int firstIndex, int numberOfCities){
+      int length = solution.length;
+      int first = firstIndex;
+      int last = firstIndex + numberOfCities - 1;
+      int cityAux = 0;
+
+      while(first < last){
+         cityAux = solution[first % length];
+         solution[first % length] = solution[last % length];
+         solution[last % length] = cityAux;
+         positions[solution[first % length]] = first % length;
+         positions[cityAux] = last % length;
+         first++;
+         last--;
+      }
+   }
+
+   /**
+    * Method to apply random double bridge moves, each one swapping two adjacent segments of the tour.
+    *
+    * The cities at the ends of the segments are the ones whose edges change.
+    * @author Matheus Paixao
+    * @param solution the tour, changed in place
+    * @param strength the number of double bridge moves
+    * @param random the random number generator
+    * @see activateMoveGroup in IteratedLocalSearch class
+    */
+   protected void perturbSolution(int[] solution, int strength, Random random){
+      int maximumSegmentLength = Math.min(MAXIMUM_DOUBLE_BRIDGE_SEGMENT_LENGTH, (numberOfCities - 1) / 2);
+      int position = 0;
+      int segmentLength1 = 0;
+      int segmentLength2 = 0;
+
+      if(maximumSegmentLength < 1){
+         return;
+      }
+
+      for(int s = 1; s <= strength; s++){
+         position = random.nextInt(numberOfCities);
+         segmentLength1 = 1 + random.nextInt(maximumSegmentLength);
+         segmentLength2 = 1 + random.nextInt(maximumSegmentLength);
+         activateMoveGroup(solution[(position + numberOfCities - 1) % numberOfCities]);
+         activateMoveGroup(solution[position]);
+         activateMoveGroup(solution[(position + segmentLength1 - 1) % numberOfCities]);
+         activateMoveGroup(solution[(position + segmentLength1) % numberOfCities]);
+         activateMoveGroup(solution[(position + segmentLength1 + segmentLength2 - 1) % numberOfCities]);
+         activateMoveGroup(solution[(position + segmentLength1 + segmentLength2) % numberOfCities]);
+         reverse(solution, position, segmentLength1);
+         reverse(solution, position + segmentLength1, segmentLength2);
+         reverse(solution, position, segmentLength1 + segmentLength2);
+      }
+   }
+
+   protected double calculateSolutionValue(int[] solution){
+      return tspProblem.calculateSolutionValue(solution);
+   }
+
+   protected boolean isSolutionBest(double solutionValue1, double solutionValue2){
+      return tspProblem.isSolutionBest(solutionValue1, solutionValue2);
+   }
+}
@@ -0,0 +1,86 @@
+package problems.tsp;
+
+import algorithms.sa.Move;
+
+import java.util.Random;
+
+/**
+ * Class of the or-opt move, which moves a segment of 1 to 3 cities to another place of the tour.
+ *
+ * The segment keeps its direction and is moved forward, after the gap of cities that follows it.
+ * The delta only looks at the three removed and the three added edges, so it costs O(1).
+ * Applying the move rotates the segment and the gap, O(segment + gap).
+ *
+ * @author Matheus Paixao
+ */
+public class TSPOrOptMove implements Move{
+   private static final int MAXIMUM_SEGMENT_LENGTH = 3;
+
+   private double[][] distancesMatrix;
+   private int segmentIndex;
+   private int segmentLength;
+   private int gapLength;
+
+   public TSPOrOptMove(TSPProblem tspProblem){
+      this.distancesMatrix = tspProblem.getDistancesMatrix();
+   }
+
+   public void propose(int[] solution, Random random){
+      int length = solution.length;
+
+      segmentIndex = random.nextInt(length);
+      segmentLength = 1 + random.nextInt(Math.min(MAXIMUM_SEGMENT_LENGTH, length - 2));
+      gapLength = 1 + random.nextInt(length - segmentLength - 1);
+   }
+
+   public double getDelta(int[] solution){
+      int length = solution.length;
+      int previousCity = solution[(segmentIndex + length - 1) % length];
+      int segmentFirstCity = solution[segmentIndex];
+      int segmentLastCity = solution[(segmentIndex + segmentLength - 1) % length];
+      int nextCity = solution[(segmentIndex + segmentLength) % length];
+      int gapLastCity = solution[(segmentIndex + segmentLength + gapLength - 1) % length];
+      int afterGapCity = solution[(segmentIndex + segmentLength + gapLength) % length];
+
+      return distancesMatrix[previousCity][nextCity] + distancesMatrix[gapLastCity][segmentFirstCity] + distancesMatrix[segmentLastCity][afterGapCity]
+         - distancesMatrix[previousCity][segmentFirstCity] - distancesMatrix[segmentLastCity][nextCity] - distancesMatrix[gapLastCity][afterGapCity];
+   }
+
+   /**
+    * Method to move the segment after the gap, rotating the segment and the gap to the left by the segment length.
+    *
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @see reverse
+    */
+   public void apply(int[] solution){
+      reverse(solution, segmentIndex, segmentLength);
+      reverse(solution, segmentIndex + segmentLength, gapLength);
+      reverse(solution, segmentIndex, segmentLength + gapLength);
+   }
+
+   public void undo(int[] solution){
+      reverse(solution, segmentIndex, gapLength);
+      reverse(solution, segmentIndex + gapLength, segmentLength);
+      reverse(solution, segmentIndex, segmentLength + gapLength);
+   }
+
+   public void writeSolution(int[] solution){
+      //the rotations are applied to the solution in place
+   }
+
+   private void reverse(int[] solution, int firstIndex, int numberOfCities){
+      int length = solution.length;
+      int first = firstIndex;
+      int last = firstIndex + numberOfCities - 1;
+      int cityAux = 0;
+
+      while(first < last){
+         cityAux = solution[first % length];
+         solution[first % length] = solution[last % length];
+         solution[last % length] = cityAux;
+         first++;
+         last--;
+      }
+   }
+}
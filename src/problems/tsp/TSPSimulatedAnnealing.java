@@ -1,6 +1,8 @@
 package problems.tsp;
 
+import algorithms.sa.Move;
 import algorithms.sa.SimulatedAnnealing;
+import algorithms.sa.TemperatureCalibration;
 import instancereaders.TSPInstanceReader;
 
 import java.io.File;
@@ -14,11 +16,12 @@ import java.util.ArrayList;
  * @author Matheus Paixao
  */
 public class TSPSimulatedAnnealing extends SimulatedAnnealing{
+   private static final int TWO_LEVEL_LIST_MINIMUM_NUMBER_OF_CITIES = 3000; //below it reversing the array is faster
+   private static final int MAXIMUM_STEPS_PER_CITY = 1000; //caps the Markov chain length of the large instances
+
    private TSPProblem tspProblem;
 
    private int[] initialSolution;
-   private double initialTemperature;
-   private double finalTemperature;
    private int numberOfNeighbours;
 
    private Random random;
@@ -30,7 +33,6 @@ public class TSPSimulatedAnnealing extends SimulatedAnnealing{
     * @param tspProblem the TSPProblem object
     * @see SimulatedAnnealing constructor
     * @see generateInitialSolution
-    * @see calculateInitialAndFinalTemperature
     */
    public TSPSimulatedAnnealing(TSPProblem tspProblem){
       super();
@@ -38,15 +40,35 @@ public class TSPSimulatedAnnealing extends SimulatedAnnealing{
       this.random = new Random();
 
       this.initialSolution = generateInitialSolution();
-      calculateInitialAndFinalTemperature();
+      this.numberOfNeighbours = getMarkovChainLength(initialSolution.length);
    }
 
-   protected double getInitialTemperature(){
-      return this.initialTemperature;
+   /**
+    * Method to get the number of steps of each Markov chain, the number of swap or 2-opt neighbours.
+    *
+    * The number of neighbours grows with the square of the number of cities, so for more than
+    * 2 * MAXIMUM_STEPS_PER_CITY + 1 cities the length is MAXIMUM_STEPS_PER_CITY steps per city.
+    * It is calculated in long, as the number of neighbours overflows an int from 46342 cities.
+    * @author Matheus Paixao
+    * @param numberOfCities the number of cities
+    * @return the Markov chain length
+    */
+   private int getMarkovChainLength(int numberOfCities){
+      long numberOfNeighbours = ((long) numberOfCities * (numberOfCities - 1)) / 2;
+
+      return (int) Math.min(Math.min(numberOfNeighbours, (long) MAXIMUM_STEPS_PER_CITY * numberOfCities), Integer.MAX_VALUE);
    }
 
-   protected double getFinalTemperature(){
-      return this.finalTemperature;
+   /**
+    * Method to get the calibration of the temperatures from sampled moves.
+    *
+    * The initial temperature accepts 80% of the worsening moves and the final one 0.1% of them.
+    * @author Matheus Paixao
+    * @return the temperature calibration
+    * @see TemperatureCalibration
+    */
+   protected TemperatureCalibration getTemperatureCalibration(){
+      return new TemperatureCalibration(Math.max(1000, 10 * tspProblem.getNumberOfCities()), 0.8, 0.001);
    }
 
    protected double getAlpha(){
@@ -61,6 +83,25 @@ public class TSPSimulatedAnnealing extends SimulatedAnnealing{
       return this.initialSolution;
    }
 
+   /**
+    * Method to get the move of the algorithm, the 2-opt move.
+    *
+    * For large instances the tour is kept in a two-level list, so the move is applied in O(sqrt(n)).
+    * TSPSwapMove and TSPOrOptMove may be returned instead.
+    * @author Matheus Paixao
+    * @param solution the initial solution
+    * @return the 2-opt move
+    * @see TSPTwoOptMove
+    * @see TSPTwoLevelListTwoOptMove
+    */
+   protected Move getMove(int[] solution){
+      if(solution.length >= TWO_LEVEL_LIST_MINIMUM_NUMBER_OF_CITIES){
+         return new TSPTwoLevelListTwoOptMove(tspProblem);
+      }
+
+      return new TSPTwoOptMove(tspProblem);
+   }
+
    /**
     * Method to generate a random initial solution.
     *
@@ -109,9 +150,13 @@ public class TSPSimulatedAnnealing extends SimulatedAnnealing{
     * @see a random neighbour solution
     */
    protected int[] getNeighbourSolution(int[] solution){
-      int randomIndex1 = random.nextInt(solution.length - 1);
+      int randomIndex1 = random.nextInt(solution.length);
       int randomIndex2 = random.nextInt(solution.length - 1);
 
+      if(randomIndex2 >= randomIndex1){
+         randomIndex2++; //two different cities, any of them may be the last one
+      }
+
       return getNeighbourSolution(solution, randomIndex1, randomIndex2);
    }
 
@@ -140,92 +185,6 @@ public class TSPSimulatedAnnealing extends SimulatedAnnealing{
       return neighbourSolution;
    }
 
-   /**
-    * Method to calculate the initial and final temperature of the TSP.
-    *
-    * The initial temperature is the maximum solution value difference between two neighbours of the initial solution
-    * The final temperature is the minimum solution value difference between two neighbours of the initial solution
-    * @author Matheus Paixao
-    * @see getAllNeighbours
-    * @see getSolutionDifference
-    */
-   private void calculateInitialAndFinalTemperature(){
-      double maxSolutionValueDifference = 0;
-      double minSolutionValueDifference = 0;
-      double solutionValueDifference = 0;
-      ArrayList<int[]> neighbours = getAllNeighbours(getInitialSolution());
-
-      for(int i = 0; i <= neighbours.size() - 1; i++){
-         for(int j = 0; j <= neighbours.size() - 1; j++){
-            if(i != j){
-               solutionValueDifference = getSolutionDifference(neighbours.get(i), neighbours.get(j));
-
-               if((maxSolutionValueDifference == 0) && (minSolutionValueDifference == 0)){
-                  maxSolutionValueDifference = solutionValueDifference;
-                  minSolutionValueDifference = solutionValueDifference;
-               }
-
-               if(solutionValueDifference > maxSolutionValueDifference){
-                  maxSolutionValueDifference = solutionValueDifference;
-               }
-               else{
-                  if((solutionValueDifference > 0) && (solutionValueDifference < minSolutionValueDifference)){
-                     minSolutionValueDifference = solutionValueDifference;
-                  }
-               }
-            }
-         }
-      }
-
-      this.initialTemperature = maxSolutionValueDifference;
-      this.finalTemperature = minSolutionValueDifference;
-   }
-
-   /**
-    * Method to get the set of all neighbours of the passed solution.
-    *
-    * @author Matheus Paixao
-    * @param solution the solution to get all neighbours
-    * @return the set of all neighbours of the solution passed
-    * @see getNeighbourSolution
-    */
-   private ArrayList<int[]> getAllNeighbours(int[] solution){
-      ArrayList<int[]> neighbours = new ArrayList<int[]>();
-
-      for(int i = 0; i <= solution.length - 1; i++){
-         for(int j = solution.length - 1; j > i; j--){
-            neighbours.add(getNeighbourSolution(solution, i, j));
-         }
-      }
-
-      this.numberOfNeighbours = neighbours.size();
-      return neighbours;
-   }
-
-   /**
-    * Method to get the solution value difference between two solutions.
-    *
-    * @author Matheus Paixao
-    * @param solution1
-    * @param solution2
-    * @return the solution value difference between the solutions passed
-    * @see calculateSolutionValue
-    */
-   private double getSolutionDifference(int[] solution1, int[] solution2){
-      double solutionDifference = 0;
-      double solutionValue1 = calculateSolutionValue(solution1);
-      double solutionValue2 = calculateSolutionValue(solution2);
-
-      if(solutionValue1 >= solutionValue2){
-         solutionDifference = solutionValue1 - solutionValue2;
-      }
-      else{
-         solutionDifference = solutionValue2 - solutionValue1;
-      }
-
-      return solutionDifference;
-   }
-
    /**
     * Method that implements the fitness function of TSP problem.
     *
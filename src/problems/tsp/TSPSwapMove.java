@@ -0,0 +1,84 @@
+package problems.tsp;
+
+import algorithms.sa.Move;
+
+import java.util.Random;
+
+/**
+ * Class of the move that swaps two cities of a tour.
+ *
+ * The delta only looks at the edges around the two positions, so it costs O(1).
+ * The distances are taken as symmetric.
+ *
+ * @author Matheus Paixao
+ */
+public class TSPSwapMove implements Move{
+   private double[][] distancesMatrix;
+   private int index1;
+   private int index2;
+
+   public TSPSwapMove(TSPProblem tspProblem){
+      this.distancesMatrix = tspProblem.getDistancesMatrix();
+   }
+
+   public void propose(int[] solution, Random random){
+      index1 = random.nextInt(solution.length);
+      index2 = random.nextInt(solution.length - 1);
+      if(index2 >= index1){
+         index2++; //two different positions
+      }
+   }
+
+   /**
+    * Method to get the delta of swapping the cities of the two positions.
+    *
+    * When the positions are neighbours in the tour, the edge between them is kept and
+    * only the two outer edges change.
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @return the tour length after the swap minus the tour length before it
+    */
+   public double getDelta(int[] solution){
+      int length = solution.length;
+      int first = Math.min(index1, index2);
+      int second = Math.max(index1, index2);
+      int beforeFirst = solution[(first + length - 1) % length];
+      int afterFirst = solution[first + 1];
+      int beforeSecond = solution[second - 1];
+      int afterSecond = solution[(second + 1) % length];
+      int city1 = solution[first];
+      int city2 = solution[second];
+
+      if(length <= 3){
+         return 0; //every tour of 3 cities has the same edges
+      }
+      if(second == first + 1){
+         return distancesMatrix[beforeFirst][city2] + distancesMatrix[city1][afterSecond]
+            - distancesMatrix[beforeFirst][city1] - distancesMatrix[city2][afterSecond];
+      }
+      if(first == 0 && second == length - 1){
+         return distancesMatrix[beforeSecond][city1] + distancesMatrix[city2][afterFirst]
+            - distancesMatrix[beforeSecond][city2] - distancesMatrix[city1][afterFirst];
+      }
+
+      return distancesMatrix[beforeFirst][city2] + distancesMatrix[city2][afterFirst]
+         + distancesMatrix[beforeSecond][city1] + distancesMatrix[city1][afterSecond]
+         - distancesMatrix[beforeFirst][city1] - distancesMatrix[city1][afterFirst]
+         - distancesMatrix[beforeSecond][city2] - distancesMatrix[city2][afterSecond];
+   }
+
+   public void apply(int[] solution){
+      int cityAux = solution[index1];
+
+      solution[index1] = solution[index2];
+      solution[index2] = cityAux;
+   }
+
+   public void undo(int[] solution){
+      apply(solution);
+   }
+
+   public void writeSolution(int[] solution){
+      //the swap is applied to the solution in place
+   }
+}
@@ -0,0 +1,152 @@
+package problems.tsp;
+
+import algorithms.tabu.TabuSearch;
+import util.PermutationOperators;
+
+import java.util.Random;
+
+/**
+ * Class to implement the TabuSearch class to the Travel Salesman Problem with the 2-opt neighbourhood.
+ *
+ * The move i * n + j removes the edges leaving the positions i and j, i + 1 < j, and reconnects
+ * the tour reversing the cities between them. Its attributes are edges, the edge (a, b) being
+ * min(a, b) * n + max(a, b): a move adds two edges and removes two edges, and the removed ones can
+ * not be added back while they are tabu. The delta only looks at the four cities of the two edges.
+ *
+ * @author Matheus Paixao
+ */
+public class TSPTabuSearch extends TabuSearch{
+   private TSPProblem tspProblem;
+   private double[][] distancesMatrix;
+   private int numberOfCities;
+   private int numberOfIterations;
+
+   private Random random;
+
+   /**
+    * Method to create the TSPTabuSearch object.
+    *
+    * @author Matheus Paixao
+    * @param tspProblem the TSPProblem object
+    * @param numberOfIterations the number of moves applied
+    */
+   public TSPTabuSearch(TSPProblem tspProblem, int numberOfIterations){
+      super();
+      this.tspProblem = tspProblem;
+      this.distancesMatrix = tspProblem.getDistancesMatrix();
+      this.numberOfCities = tspProblem.getNumberOfCities();
+      this.numberOfIterations = numberOfIterations;
+      this.random = new Random();
+   }
+
+   protected int getNumberOfIterations(){
+      return this.numberOfIterations;
+   }
+
+   protected int getTabuTenure(){
+      return Math.max(5, numberOfCities / 20);
+   }
+
+   protected int getTabuTenureVariation(){
+      return getTabuTenure();
+   }
+
+   /**
+    * Method to generate a random tour.
+    *
+    * @author Matheus Paixao
+    * @return the random initial solution
+    */
+   protected int[] getInitialSolution(){
+      int[] initialSolution = new int[numberOfCities];
+      int randomIndex = 0;
+      int cityAux = 0;
+
+      for(int i = 0; i <= numberOfCities - 1; i++){
+         initialSolution[i] = i;
+      }
+      for(int i = numberOfCities - 1; i >= 1; i--){
+         randomIndex = random.nextInt(i + 1);
+         cityAux = initialSolution[i];
+         initialSolution[i] = initialSolution[randomIndex];
+         initialSolution[randomIndex] = cityAux;
+      }
+
+      return initialSolution;
+   }
+
+   protected int getNeighbourhoodSize(int[] solution){
+      return numberOfCities * numberOfCities;
+   }
+
+   protected long getNumberOfAttributes(int[] solution){
+      return (long) numberOfCities * numberOfCities;
+   }
+
+   protected int getMaximumNumberOfMoveAttributes(){
+      return 2;
+   }
+
+   /**
+    * Method to check if a move changes the tour.
+    *
+    * The edges of i and j must not be neighbours, and the first and the last edges of the
+    * array are neighbours in the tour.
+    * @author Matheus Paixao
+    * @param solution the current tour
+    * @param move the move
+    * @return true if the move is a 2-opt move
+    */
+   protected boolean isMoveValid(int[] solution, int move){
+      int i = move / numberOfCities;
+      int j = move % numberOfCities;
+
+      return (i + 1 < j) && (i != 0 || j != numberOfCities - 1);
+   }
+
+   protected double getMoveDelta(int[] solution, int move){
+      int i = move / numberOfCities;
+      int j = move % numberOfCities;
+      int city1 = solution[i];
+      int nextCity1 = solution[i + 1];
+      int city2 = solution[j];
+      int nextCity2 = solution[(j + 1) % numberOfCities];
+
+      return distancesMatrix[city1][city2] + distancesMatrix[nextCity1][nextCity2]
+         - distancesMatrix[city1][nextCity1] - distancesMatrix[city2][nextCity2];
+   }
+
+   protected int getMoveAttributes(int[] solution, int move, long[] attributes){
+      int i = move / numberOfCities;
+      int j = move % numberOfCities;
+
+      attributes[0] = getEdge(solution[i], solution[j]);
+      attributes[1] = getEdge(solution[i + 1], solution[(j + 1) % numberOfCities]);
+      return 2;
+   }
+
+   protected int getMoveReverseAttributes(int[] solution, int move, long[] attributes){
+      int i = move / numberOfCities;
+      int j = move % numberOfCities;
+
+      attributes[0] = getEdge(solution[i], solution[i + 1]);
+      attributes[1] = getEdge(solution[j], solution[(j + 1) % numberOfCities]);
+      return 2;
+   }
+
+   private long getEdge(int city1, int city2){
+      return (long) Math.min(city1, city2) * numberOfCities + Math.max(city1, city2);
+   }
+
+   protected void applyMove(int[] solution, int move){
+      PermutationOperators.twoOptMove(solution, move / numberOfCities, move % numberOfCities);
+   }
+
+   protected double calculateSolutionValue(int[] solution){
+      return tspProblem.calculateSolutionValue(solution);
+   }
+
+   protected boolean isSolutionBest(double solutionValue1, double solutionValue2){
+      return tspProblem.isSolutionBest(solutionValue1, solutionValue2);
+   }
+}
@@ -0,0 +1,86 @@
+package problems.tsp;
+
+import algorithms.sa.Move;
+import util.TwoLevelList;
+
+import java.util.Random;
+
+/**
+ * Class of the 2-opt move over a tour kept in a two-level list, for large instances.
+ *
+ * The move removes the edges leaving two random cities, as TSPTwoOptMove, and the delta costs O(1).
+ * Applying the move reverses a path of the two-level list in O(sqrt(n)) instead of reversing the
+ * array in O(n). The tour is kept in the list, so the solution array is only written when
+ * writeSolution is called. The solution must only be changed by the move, otherwise the list is loaded again.
+ *
+ * @author Matheus Paixao
+ */
+public class TSPTwoLevelListTwoOptMove implements Move{
+   private double[][] distancesMatrix;
+   private TwoLevelList tour;
+   private int[] tourSolution; //the solution described by the list
+   private int city1; //the removed edges go from city1 to its next city and from city2 to its next city
+   private int city2;
+   private int firstPosition; //the path reversed by the move
+   private int lastPosition;
+
+   public TSPTwoLevelListTwoOptMove(TSPProblem tspProblem){
+      this.distancesMatrix = tspProblem.getDistancesMatrix();
+      this.tour = new TwoLevelList(tspProblem.getNumberOfCities());
+   }
+
+   public void propose(int[] solution, Random random){
+      if(solution != tourSolution){
+         tour.load(solution);
+         tourSolution = solution;
+      }
+
+      city1 = random.nextInt(solution.length);
+      city2 = random.nextInt(solution.length - 1);
+      if(city2 >= city1){
+         city2++;
+      }
+   }
+
+   public double getDelta(int[] solution){
+      int nextCity1 = tour.getNext(city1);
+      int nextCity2 = tour.getNext(city2);
+
+      if(nextCity1 == city2 || nextCity2 == city1){
+         return 0; //adjacent edges, the tour does not change
+      }
+
+      return distancesMatrix[city1][city2] + distancesMatrix[nextCity1][nextCity2]
+         - distancesMatrix[city1][nextCity1] - distancesMatrix[city2][nextCity2];
+   }
+
+   /**
+    * Method to reverse the path from the next city of city1 to city2.
+    *
+    * When this path goes around the end of the sequence, the path from the next city of city2
+    * to city1 is reversed instead, which gives the same tour.
+    * @author Matheus Paixao
+    * @param solution the current solution
+    * @see reverse in TwoLevelList class
+    */
+   public void apply(int[] solution){
+      firstPosition = tour.getPosition(tour.getNext(city1));
+      lastPosition = tour.getPosition(city2);
+      if(firstPosition > lastPosition){
+         firstPosition = tour.getPosition(tour.getNext(city2));
+         lastPosition = tour.getPosition(city1);
+      }
+
+      tour.reverse(firstPosition, lastPosition);
+   }
+
+   public void undo(int[] solution){
+      tour.reverse(firstPosition, lastPosition);
+   }
+
+   public void writeSolution(int[] solution){
+      if(solution == tourSolution){
+         tour.write(solution);
+      }
+   }
+}
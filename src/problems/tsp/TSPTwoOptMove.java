@@ -0,0 +1,60 @@
+package problems.tsp;
+
+import algorithms.sa.Move;
+import util.PermutationOperators;
+
+import java.util.Random;
+
+/**
+ * Class of the 2-opt move, which removes two edges of a tour and reconnects it reversing a segment.
+ *
+ * The delta only looks at the four cities of the two edges, so it costs O(1). Applying the move
+ * reverses the shorter side of the tour, at most n/2 swaps. The distances are taken as symmetric.
+ *
+ * @author Matheus Paixao
+ */
+public class TSPTwoOptMove implements Move{
+   private double[][] distancesMatrix;
+   private int index1; //the removed edges go from index1 to index1 + 1 and from index2 to index2 + 1
+   private int index2;
+
+   public TSPTwoOptMove(TSPProblem tspProblem){
+      this.distancesMatrix = tspProblem.getDistancesMatrix();
+   }
+
+   public void propose(int[] solution, Random random){
+      index1 = random.nextInt(solution.length);
+      index2 = random.nextInt(solution.length - 1);
+      if(index2 >= index1){
+         index2++;
+      }
+   }
+
+   public double getDelta(int[] solution){
+      int length = solution.length;
+      int city1 = solution[index1];
+      int nextCity1 = solution[(index1 + 1) % length];
+      int city2 = solution[index2];
+      int nextCity2 = solution[(index2 + 1) % length];
+
+      if(nextCity1 == city2 || nextCity2 == city1){
+         return 0; //adjacent edges, the tour does not change
+      }
+
+      return distancesMatrix[city1][city2] + distancesMatrix[nextCity1][nextCity2]
+         - distancesMatrix[city1][nextCity1] - distancesMatrix[city2][nextCity2];
+   }
+
+   public void apply(int[] solution){
+      PermutationOperators.twoOptMove(solution, index1, index2);
+   }
+
+   public void undo(int[] solution){
+      //the move removes the edges leaving the same positions, which still hold the reversed segment ends
+      PermutationOperators.twoOptMove(solution, index1, index2);
+   }
+
+   public void writeSolution(int[] solution){
+      //the reversal is applied to the solution in place
+   }
+}
@@ -3,6 +3,8 @@ package statistics;
 public class StatisticalAnalyzer{
    double[][] solutions;
    double[][] runTimes;
+   double[] optimalSolutions;
+   boolean[] optimalSolutionsProved;
 
    int numberOfInstances;
 
@@ -10,10 +12,30 @@ public class StatisticalAnalyzer{
    double[] instancesSolutionsStandardDeviation;
    double[] instancesRunTimesMean;
    double[] instancesRunTimesStandardDeviation;
+   double[] instancesGapsMean;
+   double[] instancesGapsStandardDeviation;
+   double[] instancesFitnessCacheHitRatesMean;
+   double[] instancesFitnessCacheHitRatesStandardDeviation;
 
    public StatisticalAnalyzer(double[][] solutions, double[][] runTimes){
+      this(solutions, runTimes, null, null);
+   }
+
+   /**
+    * Method to create the StatisticalAnalyzer object with the optimal values of the instances, to analyze the gaps of the solutions.
+    *
+    * When the optimality of a value is not proved, the value is an upper bound and the gaps are to this bound.
+    * @author Matheus Paixao
+    * @param solutions the solutions of the runs of each instance
+    * @param runTimes the run times of the runs of each instance
+    * @param optimalSolutions the optimal value of each instance, or null
+    * @param optimalSolutionsProved true for the instances whose optimal value is proved, or null
+    */
+   public StatisticalAnalyzer(double[][] solutions, double[][] runTimes, double[] optimalSolutions, boolean[] optimalSolutionsProved){
       this.solutions = solutions;
       this.runTimes = runTimes;
+      this.optimalSolutions = optimalSolutions;
+      this.optimalSolutionsProved = optimalSolutionsProved;
 
       this.numberOfInstances = solutions.length;
 
@@ -28,6 +50,16 @@ public class StatisticalAnalyzer{
          this.instancesRunTimesMean[i] = getMean(runTimes[i]);
          this.instancesRunTimesStandardDeviation[i] = getStandardDeviation(instancesRunTimesMean[i], runTimes[i]);
       }
+
+      if(optimalSolutions != null){
+         this.instancesGapsMean = new double[numberOfInstances];
+         this.instancesGapsStandardDeviation = new double[numberOfInstances];
+         for(int i = 0; i <= numberOfInstances - 1; i++){
+            double[] gaps = getGaps(optimalSolutions[i], solutions[i]);
+            this.instancesGapsMean[i] = getMean(gaps);
+            this.instancesGapsStandardDeviation[i] = getStandardDeviation(instancesGapsMean[i], gaps);
+         }
+      }
    }
 
    public double getInstanceSolutionMean(int instanceIndex){
@@ -46,6 +78,58 @@ public class StatisticalAnalyzer{
       return instancesRunTimesStandardDeviation[instanceIndex];
    }
 
+   /**
+    * Method to analyze the fitness cache hit rates of the runs of the genetic algorithms.
+    *
+    * @author Matheus Paixao
+    * @param fitnessCacheHitRates the hit rate of each run of each instance, or null
+    */
+   public void setFitnessCacheHitRates(double[][] fitnessCacheHitRates){
+      this.instancesFitnessCacheHitRatesMean = null;
+      this.instancesFitnessCacheHitRatesStandardDeviation = null;
+
+      if(fitnessCacheHitRates != null){
+         this.instancesFitnessCacheHitRatesMean = new double[numberOfInstances];
+         this.instancesFitnessCacheHitRatesStandardDeviation = new double[numberOfInstances];
+         for(int i = 0; i <= numberOfInstances - 1; i++){
+            this.instancesFitnessCacheHitRatesMean[i] = getMean(fitnessCacheHitRates[i]);
+            this.instancesFitnessCacheHitRatesStandardDeviation[i] = getStandardDeviation(instancesFitnessCacheHitRatesMean[i], fitnessCacheHitRates[i]);
+         }
+      }
+   }
+
+   public boolean hasFitnessCacheHitRates(){
+      return this.instancesFitnessCacheHitRatesMean != null;
+   }
+
+   public double getInstanceFitnessCacheHitRateMean(int instanceIndex){
+      return instancesFitnessCacheHitRatesMean[instanceIndex];
+   }
+
+   public double getInstanceFitnessCacheHitRateStandardDeviation(int instanceIndex){
+      return instancesFitnessCacheHitRatesStandardDeviation[instanceIndex];
+   }
+
+   public boolean hasOptimalSolutions(){
+      return this.optimalSolutions != null;
+   }
+
+   public double getInstanceOptimalSolution(int instanceIndex){
+      return optimalSolutions[instanceIndex];
+   }
+
+   public boolean isInstanceOptimalSolutionProved(int instanceIndex){
+      return optimalSolutionsProved[instanceIndex];
+   }
+
+   public double getInstanceGapMean(int instanceIndex){
+      return instancesGapsMean[instanceIndex];
+   }
+
+   public double getInstanceGapStandardDeviation(int instanceIndex){
+      return instancesGapsStandardDeviation[instanceIndex];
+   }
+
    public int getNumberOfInstances(){
       return this.numberOfInstances;
    }
@@ -60,6 +144,26 @@ public class StatisticalAnalyzer{
       return valuesSum / values.length;
    }
 
+   /**
+    * Method to get the percentage gaps between the optimal value and the solutions.
+    *
+    * @author Matheus Paixao
+    * @param optimalSolution the optimal value
+    * @param values the solutions
+    * @return the gap of each solution, in percentage of the optimal value
+    */
+   private double[] getGaps(double optimalSolution, double[] values){
+      double[] gaps = new double[values.length];
+
+      for(int i = 0; i <= gaps.length - 1; i++){
+         if(optimalSolution != 0){
+            gaps[i] = 100 * Math.abs(optimalSolution - values[i]) / Math.abs(optimalSolution);
+         }
+      }
+
+      return gaps;
+   }
+
    private double getStandardDeviation(double mean, double[] values){
       double[] deviances = getDeviances(mean, values);
       double variance = getVariance(deviances);
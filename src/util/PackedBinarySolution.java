@@ -0,0 +1,164 @@
+package util;
+
+import java.util.Random;
+
+/**
+ * Class with the operations over binary solutions packed in int words.
+ *
+ * The bit i of the solution is the bit (i % 32) of the word (i / 32).
+ * The bits after the last one of the solution are always 0.
+ * To iterate over the set bits use Integer.numberOfTrailingZeros and word &= word - 1.
+ *
+ * @author Matheus Paixao
+ */
+public class PackedBinarySolution{
+   public static final int BITS_PER_WORD = 32;
+
+   private PackedBinarySolution(){
+   }
+
+   public static int getNumberOfWords(int numberOfBits){
+      return (numberOfBits + BITS_PER_WORD - 1) / BITS_PER_WORD;
+   }
+
+   public static boolean isBitSet(int[] packedSolution, int bit){
+      return (packedSolution[bit >>> 5] & (1 << bit)) != 0;
+   }
+
+   public static void setBit(int[] packedSolution, int bit){
+      packedSolution[bit >>> 5] |= 1 << bit;
+   }
+
+   public static void clearBit(int[] packedSolution, int bit){
+      packedSolution[bit >>> 5] &= ~(1 << bit);
+   }
+
+   public static void flipBit(int[] packedSolution, int bit){
+      packedSolution[bit >>> 5] ^= 1 << bit;
+   }
+
+   /**
+    * Method to pack a 0/1 solution.
+    *
+    * @author Matheus Paixao
+    * @param solution array with one 0/1 value per bit
+    * @return the packed solution
+    */
+   public static int[] pack(int[] solution){
+      int[] packedSolution = new int[getNumberOfWords(solution.length)];
+
+      for(int i = 0; i <= solution.length - 1; i++){
+         if(solution[i] == 1){
+            setBit(packedSolution, i);
+         }
+      }
+
+      return packedSolution;
+   }
+
+   /**
+    * Method to unpack a solution to one 0/1 value per bit.
+    *
+    * @author Matheus Paixao
+    * @param packedSolution the packed solution
+    * @param numberOfBits the number of bits of the solution
+    * @return array with one 0/1 value per bit
+    */
+   public static int[] unpack(int[] packedSolution, int numberOfBits){
+      int[] solution = new int[numberOfBits];
+
+      for(int i = 0; i <= numberOfBits - 1; i++){
+         if(isBitSet(packedSolution, i) == true){
+            solution[i] = 1;
+         }
+      }
+
+      return solution;
+   }
+
+   public static int getNumberOfSetBits(int[] packedSolution){
+      int numberOfSetBits = 0;
+
+      for(int i = 0; i <= packedSolution.length - 1; i++){
+         numberOfSetBits += Integer.bitCount(packedSolution[i]);
+      }
+
+      return numberOfSetBits;
+   }
+
+   /**
+    * Method to get the index of the k-th set bit.
+    *
+    * @author Matheus Paixao
+    * @param packedSolution the packed solution
+    * @param k the position of the set bit, starting from 0
+    * @return the index of the bit, or -1 if there are not k + 1 set bits
+    */
+   public static int getSetBit(int[] packedSolution, int k){
+      int word = 0;
+
+      for(int i = 0; i <= packedSolution.length - 1; i++){
+         word = packedSolution[i];
+         if(Integer.bitCount(word) <= k){
+            k -= Integer.bitCount(word);
+            continue;
+         }
+
+         for(int j = 0; j <= k - 1; j++){
+            word &= word - 1;
+         }
+         return (i << 5) + Integer.numberOfTrailingZeros(word);
+      }
+
+      return -1;
+   }
+
+   /**
+    * Method to do the one point crossover a word at a time.
+    *
+    * Each child takes the bits until the crossover index (inclusive) from its own parent
+    * and the remaining bits from the other parent.
+    * @author Matheus Paixao
+    * @param parents the two packed parents
+    * @param childs the two packed childs to write
+    * @param crossoverIndex the last bit taken from the own parent
+    */
+   public static void onePointCrossover(int[][] parents, int[][] childs, int crossoverIndex){
+      int crossoverWord = crossoverIndex >>> 5;
+      int ownMask = 0;
+
+      for(int i = 0; i <= crossoverWord - 1; i++){
+         childs[0][i] = parents[0][i];
+         childs[1][i] = parents[1][i];
+      }
+
+      //bits 0..(crossoverIndex % 32) of the crossover word come from the own parent
+      ownMask = (int) ((2L << (crossoverIndex & 31)) - 1);
+      childs[0][crossoverWord] = (parents[0][crossoverWord] & ownMask) | (parents[1][crossoverWord] & ~ownMask);
+      childs[1][crossoverWord] = (parents[1][crossoverWord] & ownMask) | (parents[0][crossoverWord] & ~ownMask);
+
+      for(int i = crossoverWord + 1; i <= childs[0].length - 1; i++){
+         childs[0][i] = parents[1][i];
+         childs[1][i] = parents[0][i];
+      }
+   }
+
+   /**
+    * Method to do the uniform crossover a word at a time.
+    *
+    * A random mask decides, for 32 bits at once, which parent gives the bit to each child.
+    * @author Matheus Paixao
+    * @param parents the two packed parents
+    * @param childs the two packed childs to write
+    * @param random the random number generator
+    */
+   public static void uniformCrossover(int[][] parents, int[][] childs, Random random){
+      int mask = 0;
+
+      for(int i = 0; i <= childs[0].length - 1; i++){
+         mask = random.nextInt();
+         childs[0][i] = (parents[0][i] & mask) | (parents[1][i] & ~mask);
+         childs[1][i] = (parents[1][i] & mask) | (parents[0][i] & ~mask);
+      }
+   }
+}
@@ -0,0 +1,367 @@
+package util;
+
+import java.util.Random;
+
+/**
+ * Class with the crossover and mutation operators over permutations of 0..n-1.
+ *
+ * The crossovers run in O(n) using the position of each value in the parents (the inverse
+ * permutation) instead of searching the parents. They keep their work arrays between calls,
+ * so an instance must not be shared by threads. The mutations have no state and are static.
+ *
+ * @author Matheus Paixao
+ */
+public class PermutationOperators{
+   public enum Crossover{CYCLE, PARTIALLY_MAPPED, ORDER, EDGE_RECOMBINATION}
+
+   public enum Mutation{SCRAMBLE, INVERSION, TWO_OPT}
+
+   private int[] positions;
+   private boolean[] visited;
+   private int[][] neighbours;
+   private int[] numberOfNeighbours;
+   private int[] unvisitedValues;
+   private int[] unvisitedPositions;
+
+   public PermutationOperators(int size){
+      this.positions = new int[size];
+      this.visited = new boolean[size];
+      this.neighbours = new int[size][4];
+      this.numberOfNeighbours = new int[size];
+      this.unvisitedValues = new int[size];
+      this.unvisitedPositions = new int[size];
+   }
+
+   /**
+    * Method to do the crossover chosen by the operator.
+    *
+    * @author Matheus Paixao
+    * @param crossover the crossover operator
+    * @param parents the two parents
+    * @param childs the two childs to write
+    * @param random the random number generator
+    * @return false if the childs are copies of the parents
+    */
+   public boolean crossover(Crossover crossover, int[][] parents, int[][] childs, Random random){
+      boolean result = true;
+
+      if(crossover == Crossover.CYCLE){
+         result = cycleCrossover(parents, childs) > 1;
+      }
+      else if(crossover == Crossover.PARTIALLY_MAPPED){
+         partiallyMappedCrossover(parents, childs, random);
+      }
+      else if(crossover == Crossover.ORDER){
+         orderCrossover(parents, childs, random);
+      }
+      else{
+         edgeRecombinationCrossover(parents[0], parents[1], childs[0], random);
+         edgeRecombinationCrossover(parents[1], parents[0], childs[1], random);
+      }
+
+      return result;
+   }
+
+   /**
+    * Method to do the cycle crossover.
+    *
+    * The cycles are found from the lowest index not yet in a cycle. The childs take the odd
+    * cycles from their own parent and the even cycles from the other parent.
+    * @author Matheus Paixao
+    * @param parents the two parents
+    * @param childs the two childs to write
+    * @return the number of cycles, the childs are copies of the parents if it is 1
+    */
+   public int cycleCrossover(int[][] parents, int[][] childs){
+      int numberOfCycles = 0;
+      int index = 0;
+      int ownParent = 0;
+
+      loadPositions(parents[1]);
+      for(int i = 0; i <= visited.length - 1; i++){
+         visited[i] = false;
+      }
+
+      for(int i = 0; i <= parents[0].length - 1; i++){
+         if(visited[i] == true){
+            continue;
+         }
+
+         ownParent = numberOfCycles % 2;
+         index = i;
+         do{
+            visited[index] = true;
+            childs[0][index] = parents[ownParent][index];
+            childs[1][index] = parents[1 - ownParent][index];
+            index = positions[parents[0][index]];
+         }while(index != i);
+         numberOfCycles++;
+      }
+
+      return numberOfCycles;
+   }
+
+   /**
+    * Method to do the partially mapped crossover (PMX).
+    *
+    * Each child starts as a copy of the other parent, and the values of its own parent
+    * between the two cut points are swapped into place.
+    * @author Matheus Paixao
+    * @param parents the two parents
+    * @param childs the two childs to write
+    * @param random the random number generator
+    */
+   public void partiallyMappedCrossover(int[][] parents, int[][] childs, Random random){
+      int firstCut = random.nextInt(parents[0].length);
+      int lastCut = random.nextInt(parents[0].length);
+      int aux = 0;
+      int index = 0;
+
+      if(firstCut > lastCut){
+         aux = firstCut;
+         firstCut = lastCut;
+         lastCut = aux;
+      }
+
+      for(int k = 0; k <= 1; k++){
+         System.arraycopy(parents[1 - k], 0, childs[k], 0, childs[k].length);
+         loadPositions(childs[k]);
+
+         for(int i = firstCut; i <= lastCut; i++){
+            index = positions[parents[k][i]];
+            swap(childs[k], i, index);
+            positions[childs[k][index]] = index;
+            positions[childs[k][i]] = i;
+         }
+      }
+   }
+
+   /**
+    * Method to do the order crossover (OX).
+    *
+    * Each child keeps the values of its own parent between the two cut points, and the
+    * remaining values are taken in the order they appear in the other parent, starting
+    * after the last cut point.
+    * @author Matheus Paixao
+    * @param parents the two parents
+    * @param childs the two childs to write
+    * @param random the random number generator
+    */
+   public void orderCrossover(int[][] parents, int[][] childs, Random random){
+      int length = parents[0].length;
+      int firstCut = random.nextInt(length);
+      int lastCut = random.nextInt(length);
+      int aux = 0;
+      int childIndex = 0;
+      int value = 0;
+
+      if(firstCut > lastCut){
+         aux = firstCut;
+         firstCut = lastCut;
+         lastCut = aux;
+      }
+
+      for(int k = 0; k <= 1; k++){
+         for(int i = 0; i <= visited.length - 1; i++){
+            visited[i] = false;
+         }
+         for(int i = firstCut; i <= lastCut; i++){
+            childs[k][i] = parents[k][i];
+            visited[parents[k][i]] = true;
+         }
+
+         childIndex = (lastCut + 1) % length;
+         for(int i = 1; i <= length; i++){
+            value = parents[1 - k][(lastCut + i) % length];
+            if(visited[value] == false){
+               childs[k][childIndex] = value;
+               childIndex = (childIndex + 1) % length;
+            }
+         }
+      }
+   }
+
+   /**
+    * Method to do the edge recombination crossover (ERX), which creates one child.
+    *
+    * The child starts at the first value of the first parent and moves to the neighbour,
+    * in any of the parents, with the fewest remaining neighbours. When there is no
+    * neighbour left it moves to a random value not yet visited.
+    * @author Matheus Paixao
+    * @param parent1 the first parent
+    * @param parent2 the second parent
+    * @param child the child to write
+    * @param random the random number generator
+    */
+   public void edgeRecombinationCrossover(int[] parent1, int[] parent2, int[] child, Random random){
+      int length = parent1.length;
+      int current = parent1[0];
+      int next = 0;
+      int neighbour = 0;
+      int numberOfTies = 0;
+
+      for(int i = 0; i <= length - 1; i++){
+         numberOfNeighbours[i] = 0;
+         unvisitedValues[i] = i;
+         unvisitedPositions[i] = i;
+      }
+      for(int i = 0; i <= length - 1; i++){
+         addNeighbours(parent1, i);
+         addNeighbours(parent2, i);
+      }
+
+      for(int i = 0; i <= length - 1; i++){
+         child[i] = current;
+         removeUnvisitedValue(current, length - i);
+
+         next = -1;
+         numberOfTies = 0;
+         for(int j = 0; j <= numberOfNeighbours[current] - 1; j++){
+            neighbour = neighbours[current][j];
+            removeNeighbour(neighbour, current);
+
+            if(next == -1 || numberOfNeighbours[neighbour] < numberOfNeighbours[next]){
+               next = neighbour;
+               numberOfTies = 1;
+            }
+            else if(numberOfNeighbours[neighbour] == numberOfNeighbours[next]){
+               numberOfTies++;
+               if(random.nextInt(numberOfTies) == 0){
+                  next = neighbour;
+               }
+            }
+         }
+
+         if(next == -1 && i <= length - 2){
+            next = unvisitedValues[random.nextInt(length - i - 1)];
+         }
+         current = next;
+      }
+   }
+
+   private void addNeighbours(int[] parent, int index){
+      int length = parent.length;
+
+      addNeighbour(parent[index], parent[(index + 1) % length]);
+      addNeighbour(parent[index], parent[(index + length - 1) % length]);
+   }
+
+   private void addNeighbour(int value, int neighbour){
+      for(int i = 0; i <= numberOfNeighbours[value] - 1; i++){
+         if(neighbours[value][i] == neighbour){
+            return;
+         }
+      }
+
+      neighbours[value][numberOfNeighbours[value]] = neighbour;
+      numberOfNeighbours[value]++;
+   }
+
+   private void removeNeighbour(int value, int neighbour){
+      for(int i = 0; i <= numberOfNeighbours[value] - 1; i++){
+         if(neighbours[value][i] == neighbour){
+            numberOfNeighbours[value]--;
+            neighbours[value][i] = neighbours[value][numberOfNeighbours[value]];
+            return;
+         }
+      }
+   }
+
+   private void removeUnvisitedValue(int value, int numberOfUnvisitedValues){
+      int position = unvisitedPositions[value];
+      int lastValue = unvisitedValues[numberOfUnvisitedValues - 1];
+
+      unvisitedValues[position] = lastValue;
+      unvisitedPositions[lastValue] = position;
+   }
+
+   private void loadPositions(int[] permutation){
+      for(int i = 0; i <= permutation.length - 1; i++){
+         positions[permutation[i]] = i;
+      }
+   }
+
+   /**
+    * Method to apply the mutation chosen by the operator to a gene.
+    *
+    * @author Matheus Paixao
+    * @param mutation the mutation operator
+    * @param permutation the permutation to mutate
+    * @param index the mutated gene
+    * @param random the random number generator
+    */
+   public static void mutate(Mutation mutation, int[] permutation, int index, Random random){
+      int otherIndex = random.nextInt(permutation.length);
+
+      if(mutation == Mutation.SCRAMBLE){
+         scramble(permutation, Math.min(index, otherIndex), Math.max(index, otherIndex), random);
+      }
+      else if(mutation == Mutation.INVERSION){
+         reverse(permutation, Math.min(index, otherIndex), Math.max(index, otherIndex));
+      }
+      else{
+         twoOptMove(permutation, index, otherIndex);
+      }
+   }
+
+   /**
+    * Method to shuffle the values between two positions.
+    *
+    * @author Matheus Paixao
+    * @param permutation the permutation to change
+    * @param firstIndex the first position, inclusive
+    * @param lastIndex the last position, inclusive
+    * @param random the random number generator
+    */
+   public static void scramble(int[] permutation, int firstIndex, int lastIndex, Random random){
+      for(int i = lastIndex; i >= firstIndex + 1; i--){
+         swap(permutation, i, firstIndex + random.nextInt(i - firstIndex + 1));
+      }
+   }
+
+   public static void reverse(int[] permutation, int firstIndex, int lastIndex){
+      while(firstIndex < lastIndex){
+         swap(permutation, firstIndex, lastIndex);
+         firstIndex++;
+         lastIndex--;
+      }
+   }
+
+   /**
+    * Method to do the 2-opt move that removes the edges leaving the positions i and j of a tour.
+    *
+    * The tour is cyclic, so reversing the inner segment or the outer one gives the same
+    * tour. The shorter of them is reversed, so the move costs at most n/2 swaps.
+    * @author Matheus Paixao
+    * @param tour the tour to change
+    * @param i the position of the first edge, the edge goes from i to i + 1
+    * @param j the position of the second edge, the edge goes from j to j + 1
+    */
+   public static void twoOptMove(int[] tour, int i, int j){
+      int length = tour.length;
+      int first = Math.min(i, j) + 1;
+      int last = Math.max(i, j);
+      int innerLength = last - first + 1;
+
+      if(innerLength <= length - innerLength){
+         reverse(tour, first, last);
+      }
+      else{
+         //outer segment from last + 1 to first - 1, going around the end of the array
+         first = last + 1;
+         last = first + (length - innerLength) - 1;
+         while(first < last){
+            swap(tour, first % length, last % length);
+            first++;
+            last--;
+         }
+      }
+   }
+
+   private static void swap(int[] permutation, int index1, int index2){
+      int aux = permutation[index1];
+
+      permutation[index1] = permutation[index2];
+      permutation[index2] = aux;
+   }
+}
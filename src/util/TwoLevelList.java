@@ -0,0 +1,296 @@
+package util;
+
+/**
+ * Class of a cyclic sequence of the values 0..n-1, e.g. a tour, kept as a two-level list.
+ *
+ * The values are kept in an array and the sequence is an ordered list of segments of this array,
+ * each one with a reversed flag. Reversing a path of the sequence splits the segments at its two
+ * ends, and then reverses the order of the segments of the path and flips their flags, without
+ * moving any value. So a reversal costs O(sqrt(n)) instead of O(n). The splits make the segments
+ * smaller, so when there are about four times the initial number of segments the array is written
+ * again in the order of the sequence, which adds O(sqrt(n)) amortized to each reversal.
+ * The position, the next and the previous value of a value cost O(1).
+ *
+ * @author Matheus Paixao
+ */
+public class TwoLevelList{
+   private int size;
+   private int segmentLength; //the length of the segments after a rebuild
+   private int maximumNumberOfSegments;
+
+   private int[] values; //each segment is a range of this array
+   private int[] valuesIndexes; //the index of each value in the values array
+   private int[] valuesSegments; //the segment of each value
+
+   private int[] segmentsFirsts; //the first index of each segment in the values array
+   private int[] segmentsLasts; //the last index of each segment in the values array
+   private boolean[] segmentsReversed; //if true the segment is read from the last index to the first one
+   private int[] segmentsStarts; //the position in the sequence of the first value of each segment
+   private int[] segmentsRanks; //the index of each segment in the order
+   private int[] order; //the segments in the order of the sequence
+   private int numberOfSegments;
+
+   private int[] sequence;
+
+   public TwoLevelList(int size){
+      this.size = size;
+      this.segmentLength = Math.max(1, (int) Math.sqrt(size));
+      this.maximumNumberOfSegments = 4 * ((size + segmentLength - 1) / segmentLength) + 2;
+
+      this.values = new int[size];
+      this.valuesIndexes = new int[size];
+      this.valuesSegments = new int[size];
+
+      this.segmentsFirsts = new int[maximumNumberOfSegments];
+      this.segmentsLasts = new int[maximumNumberOfSegments];
+      this.segmentsReversed = new boolean[maximumNumberOfSegments];
+      this.segmentsStarts = new int[maximumNumberOfSegments];
+      this.segmentsRanks = new int[maximumNumberOfSegments];
+      this.order = new int[maximumNumberOfSegments];
+
+      this.sequence = new int[size];
+   }
+
+   public int getSize(){
+      return this.size;
+   }
+
+   /**
+    * Method to load the sequence from an array.
+    *
+    * @author Matheus Paixao
+    * @param sequence the values in the order of the sequence
+    * @see rebuild
+    */
+   public void load(int[] sequence){
+      System.arraycopy(sequence, 0, values, 0, size);
+      rebuild();
+   }
+
+   /**
+    * Method to write the sequence into an array.
+    *
+    * @author Matheus Paixao
+    * @param sequence the array to write, the values are written in the order of the sequence
+    */
+   public void write(int[] sequence){
+      int position = 0;
+      int segment = 0;
+
+      for(int r = 0; r <= numberOfSegments - 1; r++){
+         segment = order[r];
+         if(segmentsReversed[segment] == false){
+            for(int i = segmentsFirsts[segment]; i <= segmentsLasts[segment]; i++){
+               sequence[position] = values[i];
+               position++;
+            }
+         }
+         else{
+            for(int i = segmentsLasts[segment]; i >= segmentsFirsts[segment]; i--){
+               sequence[position] = values[i];
+               position++;
+            }
+         }
+      }
+   }
+
+   public int getPosition(int value){
+      int segment = valuesSegments[value];
+
+      if(segmentsReversed[segment] == false){
+         return segmentsStarts[segment] + (valuesIndexes[value] - segmentsFirsts[segment]);
+      }
+
+      return segmentsStarts[segment] + (segmentsLasts[segment] - valuesIndexes[value]);
+   }
+
+   public int getNext(int value){
+      int segment = valuesSegments[value];
+      int index = valuesIndexes[value];
+
+      if(segmentsReversed[segment] == false && index < segmentsLasts[segment]){
+         return values[index + 1];
+      }
+      if(segmentsReversed[segment] == true && index > segmentsFirsts[segment]){
+         return values[index - 1];
+      }
+
+      return getFirstValue(order[(segmentsRanks[segment] + 1) % numberOfSegments]);
+   }
+
+   public int getPrevious(int value){
+      int segment = valuesSegments[value];
+      int index = valuesIndexes[value];
+
+      if(segmentsReversed[segment] == false && index > segmentsFirsts[segment]){
+         return values[index - 1];
+      }
+      if(segmentsReversed[segment] == true && index < segmentsLasts[segment]){
+         return values[index + 1];
+      }
+
+      return getLastValue(order[(segmentsRanks[segment] + numberOfSegments - 1) % numberOfSegments]);
+   }
+
+   private int getFirstValue(int segment){
+      if(segmentsReversed[segment] == false){
+         return values[segmentsFirsts[segment]];
+      }
+
+      return values[segmentsLasts[segment]];
+   }
+
+   private int getLastValue(int segment){
+      if(segmentsReversed[segment] == false){
+         return values[segmentsLasts[segment]];
+      }
+
+      return values[segmentsFirsts[segment]];
+   }
+
+   /**
+    * Method to reverse the path between two positions of the sequence.
+    *
+    * The path is split from the rest of the sequence, so its segments can be reversed as a block.
+    * @author Matheus Paixao
+    * @param firstPosition the first position of the path
+    * @param lastPosition the last position of the path, not lower than the first one
+    * @see split
+    * @see rebuild
+    */
+   public void reverse(int firstPosition, int lastPosition){
+      int firstRank = 0;
+      int lastRank = 0;
+      int segmentAux = 0;
+      int position = firstPosition;
+
+      if(numberOfSegments + 2 > maximumNumberOfSegments){
+         write(sequence);
+         load(sequence);
+      }
+
+      split(firstPosition);
+      if(lastPosition + 1 <= size - 1){
+         split(lastPosition + 1);
+      }
+      firstRank = getRank(firstPosition);
+      lastRank = getRank(lastPosition);
+
+      for(int r = firstRank, s = lastRank; r < s; r++, s--){
+         segmentAux = order[r];
+         order[r] = order[s];
+         order[s] = segmentAux;
+      }
+
+      for(int r = firstRank; r <= lastRank; r++){
+         segmentAux = order[r];
+         segmentsReversed[segmentAux] = (segmentsReversed[segmentAux] == false);
+         segmentsRanks[segmentAux] = r;
+         segmentsStarts[segmentAux] = position;
+         position += segmentsLasts[segmentAux] - segmentsFirsts[segmentAux] + 1;
+      }
+   }
+
+   /**
+    * Method to split the segment of a position so a segment starts at this position.
+    *
+    * The smaller part of the segment becomes a new segment, so only its values change of segment.
+    * @author Matheus Paixao
+    * @param position the position of the sequence
+    */
+   private void split(int position){
+      int rank = getRank(position);
+      int segment = order[rank];
+      int newSegment = numberOfSegments;
+      int offset = position - segmentsStarts[segment]; //number of values of the segment before the position
+      int length = segmentsLasts[segment] - segmentsFirsts[segment] + 1;
+      int insertRank = 0;
+      boolean newSegmentIsHead = offset <= length - offset;
+
+      if(offset == 0){
+         return;
+      }
+
+      //in the values array the head of the segment is at the beginning, or at the end if it is reversed
+      if(newSegmentIsHead == segmentsReversed[segment]){
+         segmentsFirsts[newSegment] = segmentsLasts[segment] - (segmentsReversed[segment] ? offset : length - offset) + 1;
+         segmentsLasts[newSegment] = segmentsLasts[segment];
+         segmentsLasts[segment] = segmentsFirsts[newSegment] - 1;
+      }
+      else{
+         segmentsFirsts[newSegment] = segmentsFirsts[segment];
+         segmentsLasts[newSegment] = segmentsFirsts[segment] + (segmentsReversed[segment] ? length - offset : offset) - 1;
+         segmentsFirsts[segment] = segmentsLasts[newSegment] + 1;
+      }
+      segmentsReversed[newSegment] = segmentsReversed[segment];
+      for(int i = segmentsFirsts[newSegment]; i <= segmentsLasts[newSegment]; i++){
+         valuesSegments[values[i]] = newSegment;
+      }
+
+      if(newSegmentIsHead == true){
+         insertRank = rank;
+         segmentsStarts[newSegment] = segmentsStarts[segment];
+         segmentsStarts[segment] = position;
+      }
+      else{
+         insertRank = rank + 1;
+         segmentsStarts[newSegment] = position;
+      }
+
+      for(int r = numberOfSegments; r >= insertRank + 1; r--){
+         order[r] = order[r - 1];
+         segmentsRanks[order[r]] = r;
+      }
+      order[insertRank] = newSegment;
+      segmentsRanks[newSegment] = insertRank;
+      numberOfSegments++;
+   }
+
+   /**
+    * Method to find the segment of a position by binary search over the starts of the segments.
+    *
+    * @author Matheus Paixao
+    * @param position the position of the sequence
+    * @return the rank of the segment that has the position
+    */
+   private int getRank(int position){
+      int lowRank = 0;
+      int highRank = numberOfSegments - 1;
+      int middleRank = 0;
+
+      while(lowRank < highRank){
+         middleRank = (lowRank + highRank + 1) / 2;
+         if(segmentsStarts[order[middleRank]] <= position){
+            lowRank = middleRank;
+         }
+         else{
+            highRank = middleRank - 1;
+         }
+      }
+
+      return lowRank;
+   }
+
+   /**
+    * Method to split the values array, which is in the order of the sequence, in segments of the same length.
+    *
+    * @author Matheus Paixao
+    */
+   private void rebuild(){
+      numberOfSegments = (size + segmentLength - 1) / segmentLength;
+
+      for(int k = 0; k <= numberOfSegments - 1; k++){
+         segmentsFirsts[k] = k * segmentLength;
+         segmentsLasts[k] = Math.min(size, (k + 1) * segmentLength) - 1;
+         segmentsReversed[k] = false;
+         segmentsStarts[k] = segmentsFirsts[k];
+         segmentsRanks[k] = k;
+         order[k] = k;
+
+         for(int i = segmentsFirsts[k]; i <= segmentsLasts[k]; i++){
+            valuesIndexes[values[i]] = i;
+            valuesSegments[values[i]] = k;
+         }
+      }
+   }
+}